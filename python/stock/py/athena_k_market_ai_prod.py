@@ -8,6 +8,7 @@
     - 추가: 'half_cup' (그릇 허리) 로직 유지
     - 추가: 'long_term_down_trend' (장기 하락 추세) 로직 추가
     - 원본 유지: 700행 이상의 방대한 예외 처리 및 로깅 로직 전체 복구
+    - 추가: 'serve' 모드 (상주 워커) - stdin/stdout JSON lines 프로토콜로 요청을 반복 처리
 """
 
 import os
@@ -22,6 +23,7 @@ from pathlib import Path
 from datetime import datetime, timedelta
 from concurrent.futures import ThreadPoolExecutor, as_completed
 import glob
+import threading
 
 import pandas as pd
 import numpy as np
@@ -99,6 +101,15 @@ LOG_FILE = LOG_DIR / "stock_analyzer_ultimate.log"
 # 3. 환경 초기화 및 유틸리티
 # ==============================
 
+class _CurrentStdout:
+    """로깅 핸들러용 stdout 프록시 (serve 모드에서 sys.stdout 이 요청마다 교체되어도 따라감)"""
+    def write(self, s):
+        return sys.stdout.write(s)
+
+    def flush(self):
+        sys.stdout.flush()
+
+
 def setup_env(log_level=logging.INFO):
     """환경 디렉토리를 설정하고 로깅을 초기화합니다."""
     LOG_DIR.mkdir(parents=True, exist_ok=True)
@@ -111,7 +122,7 @@ def setup_env(log_level=logging.INFO):
         format="%(asctime)s - %(levelname)s - %(name)s - %(message)s",
         handlers=[
             logging.FileHandler(LOG_FILE, encoding="utf-8", mode='a'),
-            logging.StreamHandler(sys.stdout)
+            logging.StreamHandler(_CurrentStdout())
         ]
     )
 
@@ -713,9 +724,9 @@ def generate_chart(symbol, ma_periods_str, chart_period):
         safe_print_json({"error": "CHART_FAIL"}, status_code=1)
 
 
-def main():
+def build_parser():
     parser = argparse.ArgumentParser(description="주식 데이터 분석 및 차트 데이터 생성 스크립트")
-    parser.add_argument("--mode", type=str, required=True, choices=['analyze', 'chart'])
+    parser.add_argument("--mode", type=str, required=True, choices=['analyze', 'chart', 'serve'])
     parser.add_argument("--workers", type=int, default=os.cpu_count() * 2)
     parser.add_argument("--ma_periods", type=str, default="20,50,200")
     parser.add_argument("--chart_period", type=int, default=250)
@@ -728,10 +739,11 @@ def main():
     parser.add_argument("--pattern_type", type=str, choices=['ma', 'all_below_ma', 'double_bottom', 'triple_bottom', 'cup_and_handle', 'half_cup', 'long_term_down_trend', 'goldencross', 'deadcross', 'regime:0', 'regime:1', 'regime:2', 'regime:3'])
     parser.add_argument("--debug", action="store_true")
     parser.add_argument("--top_n", type=int, default=10)
-    
-    args = parser.parse_args()
-    setup_env(log_level=logging.DEBUG if args.debug else logging.INFO) 
-    
+    return parser
+
+
+def dispatch(args):
+    """analyze / chart 모드 실행 (1회 실행과 serve 모드 공용)"""
     if args.mode == 'analyze':
         analyze_patterns_flag = args.analyze_patterns or (args.pattern_type not in [None, 'ma', 'all_below_ma'] and not (args.pattern_type and str(args.pattern_type).startswith('regime:')))
         # 🔥 args.force 추가 전달
@@ -740,5 +752,130 @@ def main():
         if not args.symbol: return
         generate_chart(args.symbol, args.ma_periods, args.chart_period)
 
+
+# ==============================
+# 9. serve 모드 (상주 워커)
+# ==============================
+# 요청 (stdin, 1줄 1개)
+#   {"id": 7, "op": "run", "argv": ["--mode", "chart", "--symbol", "005930", ...]}
+#   {"id": 8, "op": "ping"}
+#   {"op": "exit"}
+# 응답 (stdout, 1줄 1개)
+#   {"type": "ready", "pid": 1234}                  기동 완료 (라이브러리 import 이후)
+#   {"type": "line", "id": 7, "line": "..."}        1회 실행 시 stdout 에 찍혔을 줄 그대로
+#   {"type": "done", "id": 7, "exit": 0}            1회 실행의 종료 코드
+#   {"type": "pong", "id": 8}
+#   {"type": "log", "line": "..."}                  요청 밖에서 찍힌 줄 (로그 등)
+
+class _FrameWriter:
+    """sys.stdout 대체 : 완성된 줄마다 JSON 프레임으로 감싸서 실제 stdout 으로 출력
+
+    run_analysis 의 ThreadPoolExecutor 스레드와 메인 스레드가 동시에 write 하므로
+    - 미완성 줄은 스레드별 버퍼에 모음 (print 는 본문과 "\\n" 을 따로 write → 스레드 간 줄 섞임 방지)
+    - 버퍼 갱신 ~ 프레임 출력을 writer 잠금 1개로 묶음 (유실 방지)
+    - 잠금 순서는 항상 writer 잠금 → 출력 잠금(_write_frame)
+    """
+    def __init__(self, out, lock, req_id=None):
+        self._out = out
+        self._lock = lock
+        self._buf_lock = threading.Lock()
+        self._id = req_id
+        self._bufs = {}
+
+    def write(self, s):
+        key = threading.get_ident()
+        with self._buf_lock:
+            buf = self._bufs.pop(key, "") + s
+            while "\n" in buf:
+                line, buf = buf.split("\n", 1)
+                self._emit(line)
+            if buf:
+                self._bufs[key] = buf
+        return len(s)
+
+    def flush(self):
+        pass
+
+    def close_line(self):
+        with self._buf_lock:
+            for buf in self._bufs.values():
+                self._emit(buf)
+            self._bufs.clear()
+
+    def _emit(self, line):
+        frame = {"type": "log", "line": line} if self._id is None else {"type": "line", "id": self._id, "line": line}
+        _write_frame(self._out, self._lock, frame)
+
+
+def _write_frame(out, lock, frame):
+    with lock:
+        out.write(json.dumps(frame, ensure_ascii=False, separators=(',', ':')) + "\n")
+        out.flush()
+
+
+def serve(log_level):
+    """요청을 stdin 에서 한 줄씩 받아 dispatch → 프로세스는 stdin EOF / exit 요청까지 유지"""
+    out = sys.stdout
+    lock = threading.Lock()
+    idle = _FrameWriter(out, lock)
+    sys.stdout = idle
+    setup_env(log_level=log_level)
+
+    parser = build_parser()
+    _write_frame(out, lock, {"type": "ready", "pid": os.getpid()})
+
+    for raw in sys.stdin:
+        raw = raw.strip()
+        if not raw:
+            continue
+        try:
+            req = json.loads(raw)
+        except Exception:
+            logging.error(f"[serve] 잘못된 요청 무시: {raw[:200]}")
+            continue
+
+        op = req.get("op")
+        req_id = req.get("id")
+        if op == "exit":
+            break
+        if op == "ping":
+            _write_frame(out, lock, {"type": "pong", "id": req_id})
+            continue
+        if op != "run":
+            _write_frame(out, lock, {"type": "done", "id": req_id, "exit": 2})
+            continue
+
+        writer = _FrameWriter(out, lock, req_id)
+        sys.stdout = writer
+        exit_code = 0
+        try:
+            args = parser.parse_args(req.get("argv") or [])
+            logging.getLogger().setLevel(logging.DEBUG if args.debug else log_level)
+            if args.mode == 'serve':
+                raise SystemExit(2)
+            dispatch(args)
+        except SystemExit as e:
+            exit_code = e.code if isinstance(e.code, int) else (0 if e.code is None else 1)
+        except Exception:
+            logging.error(f"[serve] 요청 {req_id} 처리 실패\n{traceback.format_exc()}")
+            exit_code = 1
+        finally:
+            writer.close_line()
+            sys.stdout = idle
+        _write_frame(out, lock, {"type": "done", "id": req_id, "exit": exit_code})
+
+
+def main():
+    parser = build_parser()
+    args = parser.parse_args()
+    log_level = logging.DEBUG if args.debug else logging.INFO
+
+    if args.mode == 'serve':
+        serve(log_level)
+        return
+
+    setup_env(log_level=log_level) 
+    dispatch(args)
+
 if __name__ == "__main__":
-    main()
\ No newline at end of file
+    main()
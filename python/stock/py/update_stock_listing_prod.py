@@ -9,6 +9,7 @@
 ----------------------------------------------------------
 🌟 개선점 반영 완료: KRX 종목 목록 캐시 기간 (KRX_LIST_CACHE_DAYS) 명시적 검사 로직 적용
 🔥 개선점 반영 완료: fetch_and_save_data 내 상세 오류 로깅 적용
+📋 --skip_codes_file : Java manifest 가 이미 최신으로 판정한 종목은 parquet 읽기 생략
 ----------------------------------------------------------
 """
 
@@ -42,6 +43,11 @@ KRX_LIST_CACHE_DAYS = 1 # 🌟 KRX 목록 캐시 유효 기간: 1일
 
 DEFAULT_WORKERS = 14     # 🌟 초안정화: 8 -> 4로 극단적 감소. 안정성 최대화
 DEFAULT_HISTORY_YEARS = 3
+# 📦 parquet 행 그룹 크기 → Java readTail/readSince 가 앞쪽 행 그룹을 건너뛸 수 있도록 분할
+PARQUET_ROW_GROUP_ROWS = 128
+
+# 📋 Java(StockDataManifest) 판정 이미 최신 종목 (--skip_codes_file)
+SKIP_CODES = set()
 
 # ==============================
 # 경로 설정
@@ -157,6 +163,9 @@ def fetch_and_save_data(item: Dict[str, Any], history_years: int, force_download
     existing_df = pd.DataFrame()
     last_date = None
 
+    if code in SKIP_CODES and not force_download:
+        return f"{code} {name} → 이미 최신", "cached"
+
     if path.exists() and not force_download:
         try:
             existing_df = pd.read_parquet(path)
@@ -186,12 +195,14 @@ def fetch_and_save_data(item: Dict[str, Any], history_years: int, force_download
             df = df.reset_index()
             
             if update_type == "증분" and not existing_df.empty:
+                # ⚠️ parquet 은 제자리 행 그룹 추가 불가 (pyarrow) → 종목 파일 1개는 통째로 재기록
+                #    증분 반영은 Java 쪽 (DailyBarUpdater → OhlcvColumnStore.append) 에서만 수행
                 existing_df['Date'] = pd.to_datetime(existing_df['Date'])
                 combined_df = pd.concat([existing_df, df], ignore_index=True).drop_duplicates(subset=['Date'], keep='last')
-                combined_df.sort_values(by='Date').to_parquet(path, index=False)
+                combined_df.sort_values(by='Date').to_parquet(path, index=False, row_group_size=PARQUET_ROW_GROUP_ROWS)
                 return f"{code} {name} → 저장 완료 (증분, {len(df)}행)", "success"
             else:
-                df.to_parquet(path, index=False)
+                df.to_parquet(path, index=False, row_group_size=PARQUET_ROW_GROUP_ROWS)
                 return f"{code} {name} → 저장 완료 ({update_type}, {len(df)}행)", "success"
         
         except requests.exceptions.RequestException as e:
@@ -268,8 +279,17 @@ def main():
     parser.add_argument("--workers", type=int, default=DEFAULT_WORKERS)
     parser.add_argument("--history_years", type=int, default=DEFAULT_HISTORY_YEARS)
     parser.add_argument("--force", action="store_true")
+    parser.add_argument("--skip_codes_file", type=str, default=None)
     args = parser.parse_args()
 
+    if args.skip_codes_file:
+        try:
+            with open(args.skip_codes_file, encoding="utf-8") as f:
+                SKIP_CODES.update(line.strip() for line in f if line.strip())
+            logging.info(f"[LOG] manifest 판정 이미 최신 {len(SKIP_CODES)}건 → 읽기 생략")
+        except OSError as e:
+            logging.warning(f"[LOG] skip 목록 읽기 실패 ({e}), 전 종목 점검")
+
     start_time = time.time()
     stats = {"status": "failed", "success": 0, "failed": 0, "total": 0, "progress": 0.0}
     check_network_connection()
@@ -0,0 +1,58 @@
+package com.afhk.app.controller;
+
+import com.afhk.app.stock.backtest.AthenaBacktester;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ===============================================================
+ * 🧪 StockBacktestController (v1.0 - Athena 필터 과거 성과)
+ * ---------------------------------------------------------------
+ * ✅ GET /api/stock/backtest?filters=goldencross,cup_and_handle&years=3&horizons=5,20,60
+ *    - filters 생략 → 지원 필터 전체 / years 0 → 전체 이력
+ * ✅ 응답 : {years, from, tickers, skipped, signals[{filter, signals, horizons[...]}], baseline, elapsedMs}
+ * ✅ 잘못된 필터/기간 → 400 / 스토어 미준비 → 503
+ * ===============================================================
+ */
+@RestController
+@RequestMapping("/api/stock")
+public class StockBacktestController {
+
+    private static final Logger log = LoggerFactory.getLogger(StockBacktestController.class);
+
+    private final AthenaBacktester backtester;
+
+    public StockBacktestController(AthenaBacktester backtester) {
+        this.backtester = backtester;
+    }
+
+    @GetMapping("/backtest")
+    public ResponseEntity<?> backtest(@RequestParam(required = false) String filters,
+                                      @RequestParam(defaultValue = "3") int years,
+                                      @RequestParam(required = false) String horizons) {
+        if (!backtester.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", "컬럼 스토어 준비 중 (GProd 업데이트 후 재시도)"));
+        }
+
+        log.info("🧪 백테스트 요청: filters={}, years={}, horizons={}", filters, years, horizons);
+        try {
+            List<String> names = filters == null || filters.isBlank() ? null
+                    : Arrays.stream(filters.split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+            int[] days = horizons == null || horizons.isBlank() ? null
+                    : Arrays.stream(horizons.split(",")).map(String::trim).filter(s -> !s.isEmpty())
+                            .mapToInt(Integer::parseInt).toArray();
+            return ResponseEntity.ok(backtester.run(names, years, days));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException 포함
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -2,6 +2,10 @@ package com.afhk.app.controller;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -9,7 +13,12 @@ import org.springframework.web.bind.annotation.*;
 import com.afhk.app.service.GlobalStockService;
 import com.afhk.app.service.StockBatchAthenaAiService;
 import com.afhk.app.service.TaskStatusService;
+import com.afhk.app.stock.ChartData;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -19,7 +28,12 @@ import java.util.UUID;
  * 📊 StockBatchAthenaAiController (v4.1 - analyze + chart 완전체)
  * ---------------------------------------------------------------
  * ✅ chart: 즉시 JSON 반환 / 락 X
+ *    - JVM 계산 (컬럼 스토어) 우선, 미준비 시 Python chart 모드
+ *    - Accept 협상 : 기본 JSON / 컬럼 JSON / 바이너리 (ChartData 미디어 타입)
+ *    - maxPoints : 긴 chart_period 다운샘플 (선 LTTB / 캔들 구간 집계)
+ *    - ETag (종목 데이터 버전 + 파라미터) → If-None-Match 일치 시 304, 당일 브라우저 캐시
  * ✅ analyze: 전역락 사용 + SSE 동기화
+ * ✅ analyze?symbol= : 단일 종목 JVM 즉시 계산 (락 / SSE / Python 없음)
  * ✅ GProd와 동일한 잔류 락 자동정리(forceUnlockIfNoProcess) 적용
  * ===============================================================
  */
@@ -29,6 +43,9 @@ public class StockBatchAthenaAiController {
 
     private static final Logger log = LoggerFactory.getLogger(StockBatchAthenaAiController.class);
 
+    /** 거래일 기준 시간대 (차트 브라우저 캐시는 이 시간대 자정까지) */
+    private static final ZoneId MARKET_ZONE = ZoneId.of("Asia/Seoul");
+
     private final StockBatchAthenaAiService athenaService;
     private final GlobalStockService globalStockService;
     private final TaskStatusService taskStatusService;
@@ -48,11 +65,41 @@ public class StockBatchAthenaAiController {
     public ResponseEntity<?> chart(
             @RequestParam String symbol,
             @RequestParam(defaultValue = "20,50,200") String maPeriods,
-            @RequestParam(defaultValue = "250") int chartPeriod
+            @RequestParam(defaultValue = "250") int chartPeriod,
+            @RequestParam(defaultValue = "0") int maxPoints,   // 시리즈당 포인트 예산 (0 = 원본)
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
         try {
-            log.info("📈 Chart 요청: symbol={}, ma={}, period={}", symbol, maPeriods, chartPeriod);
+            log.info("📈 Chart 요청: symbol={}, ma={}, period={}, maxPoints={}", symbol, maPeriods, chartPeriod, maxPoints);
+
+            String format = accepts(accept, ChartData.BINARY_MEDIA_TYPE) ? ChartData.BINARY_MEDIA_TYPE
+                    : accepts(accept, ChartData.COLUMNAR_MEDIA_TYPE) ? ChartData.COLUMNAR_MEDIA_TYPE
+                    : MediaType.APPLICATION_JSON_VALUE;
+
+            // 🏷️ 조건부 GET : 데이터/파라미터 동일하면 계산 없이 304
+            String etag = athenaService.chartETag(symbol, maPeriods, chartPeriod, maxPoints, format);
+            if (etag != null && etagMatches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .cacheControl(untilMarketMidnight())
+                        .varyBy(HttpHeaders.ACCEPT)
+                        .build();
+            }
 
+            ChartData data = athenaService.buildChart(symbol, maPeriods, chartPeriod, maxPoints);
+            if (data != null) {
+                ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType(format))
+                        .varyBy(HttpHeaders.ACCEPT);
+                if (etag != null) ok.eTag(etag).cacheControl(untilMarketMidnight());
+
+                if (ChartData.BINARY_MEDIA_TYPE.equals(format)) return ok.body(data.toBinary());
+                if (ChartData.COLUMNAR_MEDIA_TYPE.equals(format)) return ok.body(data.toColumnarMap());
+                return ok.body(data.toLegacyMap());
+            }
+
+            // 컬럼 스토어 미준비 → Python chart 모드 (기본 JSON 형식만)
             Map<String, Object> json = athenaService.runChartMode(symbol, maPeriods, chartPeriod);
 
             return ResponseEntity.ok(json);
@@ -65,6 +112,67 @@ public class StockBatchAthenaAiController {
         }
     }
 
+    /** If-None-Match 목록 중 일치 항목 존재 여부 (약한 비교, "*" 허용) */
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) return false;
+        for (String tag : ifNoneMatch.split(",")) {
+            String t = tag.trim();
+            if (t.equals("*")) return true;
+            if (t.startsWith("W/")) t = t.substring(2);
+            if (t.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    /** 거래일 안에서는 브라우저 캐시 재사용 (시장 시간대 자정까지, 최소 60초) */
+    private static CacheControl untilMarketMidnight() {
+        ZonedDateTime now = ZonedDateTime.now(MARKET_ZONE);
+        ZonedDateTime midnight = LocalDate.now(MARKET_ZONE).plusDays(1).atStartOfDay(MARKET_ZONE);
+        long seconds = Math.max(60, Duration.between(now, midnight).getSeconds());
+        return CacheControl.maxAge(Duration.ofSeconds(seconds)).cachePrivate();
+    }
+
+    /** Accept 헤더에 해당 미디어 타입이 명시됐는지 (와일드카드는 기본 JSON) */
+    private static boolean accepts(String accept, String mediaType) {
+        if (accept == null || accept.isBlank()) return false;
+        try {
+            MediaType target = MediaType.parseMediaType(mediaType);
+            for (MediaType m : MediaType.parseMediaTypes(accept)) {
+                if (!m.isWildcardType() && !m.isWildcardSubtype() && m.isCompatibleWith(target)) return true;
+            }
+        } catch (Exception ignore) {
+            // 잘못된 Accept → 기본 JSON
+        }
+        return false;
+    }
+
+    // ===============================================================
+    // ⚡ 단일 종목 analyze (락 없음 / 즉시 JSON)
+    // ===============================================================
+    @GetMapping("/analyze")
+    public ResponseEntity<?> analyze(
+            @RequestParam String symbol,
+            @RequestParam(defaultValue = "ma") String pattern,
+            @RequestParam(defaultValue = "20,50,200") String maPeriods
+    ) {
+        LinkedHashMap<String, Object> body = new LinkedHashMap<>();
+        try {
+            Map<String, Object> result = athenaService.analyzeSymbol(symbol, pattern, maPeriods);
+            if (result == null) {
+                body.put("error", "종목 데이터 없음: " + symbol);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(body);
+            }
+            log.info("⚡ 단일 종목 analyze: symbol={}, pattern={}, {} µs", symbol, pattern, result.get("elapsedMicros"));
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            body.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(body);
+        } catch (IllegalStateException e) {
+            body.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(body);
+        }
+    }
+
     // ===============================================================
     // ✅ analyze 시작
     // ===============================================================
@@ -79,13 +187,14 @@ public class StockBatchAthenaAiController {
             @RequestParam(defaultValue = "20,50,200") String maPeriods,
             @RequestParam(defaultValue = "10") int topN,
             @RequestParam(defaultValue = "") String symbol,
-            @RequestParam(defaultValue = "false") boolean force  // 🔥 형님, 여기 force 추가했습니다!
+            @RequestParam(defaultValue = "false") boolean force,  // 🔥 형님, 여기 force 추가했습니다!
+            @RequestParam(defaultValue = "auto") String engine  // python | jvm | auto
     ) {
         String username = (auth != null && auth.getName() != null) ? auth.getName() : "anonymous";
         String taskId = UUID.randomUUID().toString();
 
-        log.info("🟢 [{}] AthenaAI 실행 요청 by {} (force={}, pattern={}, workers={}, maPeriods={}, topN={}, symbol={})",
-                taskId, username, force, pattern, workers, maPeriods, topN, symbol);
+        log.info("🟢 [{}] AthenaAI 실행 요청 by {} (force={}, pattern={}, workers={}, maPeriods={}, topN={}, symbol={}, engine={})",
+                taskId, username, force, pattern, workers, maPeriods, topN, symbol, engine);
 
         // ✅ 1. 잔류 락 자동정리
         try {
@@ -94,8 +203,9 @@ public class StockBatchAthenaAiController {
             log.warn("⚠️ 잔류 락 자동정리 실패 (무시): {}", e.getMessage());
         }
 
-        // ✅ 2. 전역 락 확인
-        if (globalStockService.isLocked()) {
+        // ✅ 2. 전역 락 확인 (사전 계산 결과로 응답 가능하면 락 불필요)
+        boolean lookup = athenaService.canServeFromLookup(pattern, maPeriods, symbol, force, engine);
+        if (!lookup && globalStockService.isLocked()) {
             String runner = globalStockService.getCurrentTaskInfo()
                     .map(i -> i.user)
                     .orElse("다른 사용자");
@@ -115,7 +225,8 @@ public class StockBatchAthenaAiController {
                     topN, 
                     symbol, 
                     username,
-                    force // 🔥 서비스로 force 전달
+                    force, // 🔥 서비스로 force 전달
+                    engine
             );
 
             Map<String, Object> body = new LinkedHashMap<>();
@@ -0,0 +1,84 @@
+package com.afhk.app.controller;
+
+import com.afhk.app.stock.market.MarketAnalytics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ===============================================================
+ * 🌐 StockMarketController (v1.0 - 횡단면 분석 조회)
+ * ---------------------------------------------------------------
+ * ✅ GET  /api/stock/market/summary                         → 전체/시장/업종 집계
+ * ✅ GET  /api/stock/market/correlation/{symbol}?top=20     → 상관 높은/낮은 종목
+ * ✅ GET  /api/stock/market/correlation?symbols=a,b,c       → 부분 상관 행렬
+ * ✅ POST /api/stock/market/refresh?window=120              → 즉시 재계산 (window 변경)
+ * ✅ 일일 갱신은 컬럼 스토어 갱신 시 자동 (증분) / 미계산 → 503
+ * ===============================================================
+ */
+@RestController
+@RequestMapping("/api/stock/market")
+public class StockMarketController {
+
+    private static final Logger log = LoggerFactory.getLogger(StockMarketController.class);
+
+    /** 부분 행렬 최대 종목 수 */
+    private static final int MAX_MATRIX_SYMBOLS = 200;
+
+    private final MarketAnalytics marketAnalytics;
+
+    public StockMarketController(MarketAnalytics marketAnalytics) {
+        this.marketAnalytics = marketAnalytics;
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<?> summary() {
+        Map<String, Object> body = marketAnalytics.aggregates();
+        return body == null ? notReady() : ResponseEntity.ok(body);
+    }
+
+    @GetMapping("/correlation/{symbol}")
+    public ResponseEntity<?> peers(@PathVariable String symbol, @RequestParam(defaultValue = "20") int top) {
+        if (!marketAnalytics.isReady()) return notReady();
+        Map<String, Object> body = marketAnalytics.peers(symbol.trim(), top);
+        if (body == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "상관 계산 대상 아님 (거래 정지/이력 부족): " + symbol));
+        }
+        return ResponseEntity.ok(body);
+    }
+
+    @GetMapping("/correlation")
+    public ResponseEntity<?> matrix(@RequestParam String symbols) {
+        List<String> list = Arrays.stream(symbols.split(",")).map(String::trim).filter(s -> !s.isEmpty())
+                .distinct().toList();
+        if (list.isEmpty() || list.size() > MAX_MATRIX_SYMBOLS) {
+            return ResponseEntity.badRequest().body(Map.of("error", "symbols 는 1 ~ " + MAX_MATRIX_SYMBOLS + " 개"));
+        }
+        Map<String, Object> body = marketAnalytics.matrix(list);
+        return body == null ? notReady() : ResponseEntity.ok(body);
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestParam(defaultValue = "0") int window) {
+        log.info("🌐 시장 분석 재계산 요청: window={}", window);
+        try {
+            return ResponseEntity.ok(marketAnalytics.refresh(window));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return notReady();
+        }
+    }
+
+    private static ResponseEntity<?> notReady() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("error", "시장 분석 준비 중 (컬럼 스토어 갱신 후 재시도)"));
+    }
+}
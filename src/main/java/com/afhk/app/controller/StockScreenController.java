@@ -0,0 +1,104 @@
+package com.afhk.app.controller;
+
+import com.afhk.app.stock.screen.ScreenEngine;
+import com.afhk.app.stock.screen.ScreenFeature;
+import com.afhk.app.stock.screen.ScreenQuery;
+import com.afhk.app.stock.screen.ScreenQueryException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ===============================================================
+ * 🔎 StockScreenController (v1.0 - 스크리닝 식 즉시 실행)
+ * ---------------------------------------------------------------
+ * ✅ POST /api/stock/screen  {"query": "close < sma200 and rsi < 30", "limit": 100}
+ * ✅ 응답 : NDJSON 스트림 (application/x-ndjson, 한 줄 = JSON 1개)
+ *    - {"type":"query", terms, features, compileMicros}
+ *    - {"type":"match", ticker, name, values}   ← 평가되는 대로 (순서 = 도착 순)
+ *    - {"type":"summary", scanned, matched, terms[{term,in,out,nanos}], loadNanos, evalNanos, elapsedMs}
+ * ✅ 식 오류 → 400 {error, position} / 스토어 미준비 → 503
+ * ✅ 전역 락 없음 (읽기 전용 스냅샷)
+ * ===============================================================
+ */
+@RestController
+@RequestMapping("/api/stock")
+public class StockScreenController {
+
+    private static final Logger log = LoggerFactory.getLogger(StockScreenController.class);
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final ScreenEngine screenEngine;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    public StockScreenController(ScreenEngine screenEngine) {
+        this.screenEngine = screenEngine;
+    }
+
+    @PostMapping("/screen")
+    public ResponseEntity<?> screen(@RequestBody Map<String, Object> request) {
+        String source = request.get("query") == null ? null : request.get("query").toString();
+        int limit = request.get("limit") instanceof Number n ? n.intValue() : 0;
+
+        long compileStarted = System.nanoTime();
+        ScreenQuery query;
+        try {
+            query = screenEngine.compile(source);
+        } catch (ScreenQueryException e) {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("error", e.getMessage());
+            body.put("position", e.getPosition());
+            return ResponseEntity.badRequest().body(body);
+        }
+        long compileMicros = (System.nanoTime() - compileStarted) / 1_000;
+
+        if (!screenEngine.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", "컬럼 스토어 준비 중 (GProd 업데이트 후 재시도)"));
+        }
+
+        log.info("🔎 스크리닝 요청: query={}, limit={}", query.source(), limit);
+
+        StreamingResponseBody body = out -> {
+            Map<String, Object> head = new LinkedHashMap<>();
+            head.put("type", "query");
+            head.put("terms", query.terms().stream().map(ScreenQuery.Term::text).toList());
+            head.put("features", query.features().stream().map(ScreenFeature::label).toList());
+            head.put("compileMicros", compileMicros);
+            writeLine(out, head);
+
+            try {
+                Map<String, Object> summary = screenEngine.run(query, limit, m -> writeLine(out, m));
+                writeLine(out, summary);
+                log.info("🔎 스크리닝 완료: matched={}, {} ms", summary.get("matched"), summary.get("elapsedMs"));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("❌ 스크리닝 실패: {}", e.getMessage(), e);
+                Map<String, Object> error = new LinkedHashMap<>();
+                error.put("type", "error");
+                error.put("error", e.getMessage());
+                writeLine(out, error);
+            }
+        };
+
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    private void writeLine(OutputStream out, Map<String, Object> line) throws IOException {
+        out.write(mapper.writeValueAsBytes(line));
+        out.write('\n');
+        out.flush();
+    }
+}
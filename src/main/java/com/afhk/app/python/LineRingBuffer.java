@@ -0,0 +1,145 @@
+package com.afhk.app.python;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * ===============================================================
+ * 💍 LineRingBuffer (v1.0 - Python 출력 줄 MPSC 링 버퍼)
+ * ---------------------------------------------------------------
+ * ✅ 생산자 (리더 스레드, 여러 개 가능) : tail CAS 1회로 칸 확보 → 기록 → 칸 sequence 공개
+ *    - 잠금 없음 / 여유가 있으면 대기 없이 반환
+ *    - 가득 차면 줄을 버리지 않고 대기 : SPIN_LIMIT 회 spin → parkNanos (소비자가 칸을 비우면 unpark)
+ *      → 모든 줄 전달 (진행률 / 카운터 / 결과 줄 유실 없음), 대기 중에는 자식 출력이 파이프에 쌓임
+ *    - abandon() 이후 (소비 중단) / 인터럽트 시에만 false 반환
+ * ✅ 소비자 (1개) : drainTo 로 최대 N줄씩 묶어서 꺼냄, 비어 있으면 park (생산 시 unpark)
+ * ✅ 칸별 sequence 방식 (Vyukov bounded queue) → 칸 재사용 시 ABA 없음
+ * ===============================================================
+ */
+final class LineRingBuffer {
+
+    /** 가득 찼을 때 park 전 spin 횟수 */
+    private static final int SPIN_LIMIT = 64;
+    /** park 1회 상한 (unpark 를 놓쳐도 이 주기로 재확인) */
+    private static final long PARK_NANOS = 1_000_000L;
+
+    private final int mask;
+    private final String[] slots;
+    /** 칸 상태 : == 위치 → 생산 가능 / == 위치 + 1 → 소비 가능 */
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+
+    /** 소비자 전용 */
+    private long head;
+
+    private volatile Thread waiter;
+    /** 가득 차서 대기 중인 생산자 (drainTo 후 unpark, 나머지 생산자는 PARK_NANOS 후 재확인) */
+    private volatile Thread blockedProducer;
+    private volatile boolean closed;
+    private volatile boolean abandoned;
+
+    LineRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.slots = new String[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) sequences.set(i, i);
+    }
+
+    // ===============================================================
+    // 📤 생산자
+    // ===============================================================
+
+    /** 1줄 공개. 가득 차 있으면 빈 칸이 생길 때까지 대기. false = abandon / 인터럽트로 포기 */
+    boolean offer(String line) {
+        int spins = 0;
+        while (true) {
+            long t = tail.get();
+            int idx = (int) (t & mask);
+            long seq = sequences.get(idx);
+            if (seq == t) {
+                if (tail.compareAndSet(t, t + 1)) {
+                    slots[idx] = line;
+                    sequences.set(idx, t + 1);
+                    wake();
+                    return true;
+                }
+            } else if (seq < t) {
+                if (abandoned || Thread.currentThread().isInterrupted()) return false;
+                if (spins < SPIN_LIMIT) {
+                    spins++;
+                    Thread.onSpinWait();
+                } else {
+                    blockedProducer = Thread.currentThread();
+                    if (sequences.get(idx) < t && !abandoned) LockSupport.parkNanos(this, PARK_NANOS);
+                    blockedProducer = null;
+                }
+            }
+            // seq > t : 다른 생산자가 먼저 확보 → tail 다시 읽기
+        }
+    }
+
+    /** 출력 종료 (이후 남은 줄을 모두 꺼내면 소비 종료) */
+    void close() {
+        closed = true;
+        wake();
+    }
+
+    /** 소비 중단 (취소 / hang / 실행 종료) → 대기 중인 생산자 해제, 이후 offer 는 즉시 false */
+    void abandon() {
+        abandoned = true;
+        unparkProducer();
+    }
+
+    private void wake() {
+        Thread w = waiter;
+        if (w != null) LockSupport.unpark(w);
+    }
+
+    private void unparkProducer() {
+        Thread p = blockedProducer;
+        if (p != null) LockSupport.unpark(p);
+    }
+
+    // ===============================================================
+    // 📥 소비자 (단일 스레드)
+    // ===============================================================
+
+    /** 최대 max 줄을 꺼내 out 에 추가. 반환: 꺼낸 줄 수 */
+    int drainTo(List<String> out, int max) {
+        int n = 0;
+        while (n < max) {
+            int idx = (int) (head & mask);
+            if (sequences.get(idx) != head + 1) break;
+            out.add(slots[idx]);
+            slots[idx] = null;
+            sequences.lazySet(idx, head + mask + 1);
+            head++;
+            n++;
+        }
+        if (n > 0) unparkProducer();
+        return n;
+    }
+
+    /** 꺼낼 줄이 생기거나 close 되거나 timeout 까지 대기 */
+    void await(long timeout, TimeUnit unit) {
+        waiter = Thread.currentThread();
+        try {
+            if (isEmpty() && !closed) LockSupport.parkNanos(this, unit.toNanos(timeout));
+        } finally {
+            waiter = null;
+        }
+    }
+
+    boolean isEmpty() {
+        return sequences.get((int) (head & mask)) != head + 1;
+    }
+
+    /** close 됐고 남은 줄도 없음 */
+    boolean isDrained() {
+        return closed && isEmpty();
+    }
+}
@@ -0,0 +1,182 @@
+package com.afhk.app.python;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * ===============================================================
+ * 🎞️ ProgressCoalescer (v1.0 - 작업 진행 상황 프레임 단위 전송)
+ * ---------------------------------------------------------------
+ * ✅ Python 줄마다 SSE 를 보내지 않고 작업(key)별 최신 상태만 보관 (latest-wins)
+ * ✅ frame-hz 주기(기본 10Hz)로 변경된 작업만 1프레임 전송
+ *    - 프레임 = 최신 상태 스냅샷 + 직전 프레임 이후 쌓인 로그 줄 묶음
+ *    - 변경 없으면 전송 없음
+ * ✅ 종료 상태 (COMPLETED / FAILED / CANCELLED) 는 finish() 로 즉시 처리
+ *    - 남은 상태/로그를 호출 스레드에서 바로 전송 후 채널 종료
+ *    - finish() 이후 해당 작업의 프레임은 절대 나가지 않음 → 종료 패킷이 항상 마지막
+ * ✅ 프레임 sink 는 전송 스레드(Progress-Frame) 또는 finish() 호출 스레드에서 실행
+ * ===============================================================
+ */
+@Component
+public class ProgressCoalescer {
+
+    private static final Logger log = LoggerFactory.getLogger(ProgressCoalescer.class);
+
+    /** 프레임 1개에 담는 최대 로그 줄 수 (초과분은 오래된 줄부터 생략) */
+    static final int MAX_LOGS_PER_FRAME = 500;
+
+    /**
+     * 전송 프레임
+     * @param state 작업별 최신 상태 (update 로 넣은 값, 마지막 값만 유지)
+     * @param logs  직전 프레임 이후 로그 줄 (한도 초과 시 맨 앞에 생략 안내 1줄)
+     */
+    public record Frame(Map<String, Object> state, List<String> logs) {
+
+        public double progress() {
+            return state.get("progress") instanceof Number n ? n.doubleValue() : 0.0;
+        }
+
+        public long counter(String name) {
+            return state.get(name) instanceof Number n ? n.longValue() : 0L;
+        }
+    }
+
+    @Value("${python.progress.frame-hz:10}")
+    private int frameHz;
+
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "Progress-Frame");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @PostConstruct
+    public void init() {
+        long periodMs = Math.max(10L, 1000L / Math.max(1, frameHz));
+        ticker.scheduleAtFixedRate(this::tick, periodMs, periodMs, TimeUnit.MILLISECONDS);
+        log.info("🎞️ 진행 상황 프레임 전송 {}ms 주기", periodMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    // ===============================================================
+    // 📡 채널
+    // ===============================================================
+
+    /** 작업 채널 열기 (같은 key 의 이전 채널은 전송 없이 종료) */
+    public Channel open(String key, Consumer<Frame> sink) {
+        Channel ch = new Channel(key, sink);
+        Channel prev = channels.put(key, ch);
+        if (prev != null) prev.close();
+        return ch;
+    }
+
+    /** 남은 프레임 즉시 전송 후 종료. 반환 후 종료 패킷 전송 (다른 스레드 취소용) */
+    public void finish(String key) {
+        Channel ch = channels.get(key);
+        if (ch != null) ch.finish();
+    }
+
+    private void tick() {
+        for (Channel ch : channels.values()) {
+            try {
+                ch.flush();
+            } catch (Exception e) {
+                log.warn("⚠️ [{}] 진행 프레임 전송 실패: {}", ch.key, e.getMessage());
+            }
+        }
+    }
+
+    public final class Channel {
+        private final String key;
+        private final Consumer<Frame> sink;
+        /** 전송 순서 보장용 (프레임 생성 + sink 호출 구간). 상태 적재는 this 잠금만 사용 */
+        private final Object sendLock = new Object();
+        private final Map<String, Object> state = new LinkedHashMap<>();
+        private final ArrayDeque<String> logs = new ArrayDeque<>();
+        private int skipped;
+        private boolean dirty;
+        private volatile boolean closed;
+
+        private Channel(String key, Consumer<Frame> sink) {
+            this.key = key;
+            this.sink = sink;
+        }
+
+        /** 최신 값으로 덮어씀 (다음 프레임에 반영) */
+        public synchronized void update(String name, Object value) {
+            if (closed) return;
+            state.put(name, value);
+            dirty = true;
+        }
+
+        /** 로그 줄 묶음 적재 (다음 프레임에 묶어서 전송) */
+        public synchronized void logs(List<String> lines) {
+            if (closed) return;
+            for (String line : lines) {
+                if (logs.size() >= MAX_LOGS_PER_FRAME) {
+                    logs.pollFirst();
+                    skipped++;
+                }
+                logs.addLast(line);
+            }
+            dirty = true;
+        }
+
+        /** 남은 상태/로그 즉시 전송 후 종료 */
+        public void finish() {
+            synchronized (sendLock) {
+                if (closed) return;
+                send();
+                close();
+            }
+        }
+
+        private void flush() {
+            synchronized (sendLock) {
+                if (!closed) send();
+            }
+        }
+
+        /** sendLock 보유 상태에서 호출. SSE 전송 중에도 update/log 는 막히지 않음 */
+        private void send() {
+            Frame frame;
+            synchronized (this) {
+                if (!dirty) return;
+                List<String> lines = new ArrayList<>(logs.size() + 1);
+                if (skipped > 0) lines.add("[LOG] 출력 " + skipped + "줄 화면 전송 생략");
+                lines.addAll(logs);
+                frame = new Frame(new LinkedHashMap<>(state), lines);
+                logs.clear();
+                skipped = 0;
+                dirty = false;
+            }
+            sink.accept(frame);
+        }
+
+        private void close() {
+            closed = true;
+            channels.remove(key, this);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.afhk.app.python;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * ===============================================================
+ * 🧾 PythonEventDecoder (v1.0 - Python 출력 공용 이벤트 디코더)
+ * ---------------------------------------------------------------
+ * ✅ 줄 1개를 1회 스캔으로 이벤트 변환 (정규식 / ObjectMapper / 중간 Map 없음)
+ * ✅ JSON 줄 ('{' 시작, '}' 끝) : 공유 JsonFactory 스트리밍 파서로 최상위 필드만 훑음
+ *    - "progress_percent" 숫자 → onProgress (progress 프레임은 필드 2개에서 종료)
+ *    - "mode" 가 progress 가 아님 / 그 밖의 JSON 객체 → onResult (원본 줄 그대로)
+ *    - JSON 이 아니면 무시 (일반 로그)
+ * ✅ 텍스트 줄 : '[' / '(' 위치에서만 마커 비교 (update_stock_listing_prod.py 규약)
+ *    - [PROGRESS] x → onProgress / [KRX_TOTAL] n, [KRX_SAVED] n → onCounter
+ *    - (n/total) → onCounter dataSaved, dataTotal
+ *    - 마커별 첫 번째 유효 값만 사용 (기존 정규식 find 와 동일)
+ * ✅ 상태 없음 → GProd / Athena 실행 전체에서 INSTANCE 1개 공유
+ * ===============================================================
+ */
+public final class PythonEventDecoder implements PythonOutputParser {
+
+    public static final PythonEventDecoder INSTANCE = new PythonEventDecoder();
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private static final String PROGRESS = "PROGRESS]";
+    private static final String KRX_TOTAL = "KRX_TOTAL]";
+    private static final String KRX_SAVED = "KRX_SAVED]";
+
+    private PythonEventDecoder() {
+    }
+
+    @Override
+    public void parse(String line, PythonOutputListener listener) {
+        int start = firstNonSpace(line);
+        if (start < line.length() && line.charAt(start) == '{') {
+            if (lastNonSpace(line) == '}') decodeJson(line, listener);
+        } else {
+            decodeText(line, listener);
+        }
+    }
+
+    // ===============================================================
+    // 🧩 JSON 프레임
+    // ===============================================================
+
+    private static void decodeJson(String line, PythonOutputListener listener) {
+        try (JsonParser p = JSON.createParser(line)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) return;
+            boolean progressMode = false;
+            JsonToken t;
+            while ((t = p.nextToken()) == JsonToken.FIELD_NAME) {
+                String name = p.currentName();
+                JsonToken v = p.nextToken();
+                if ("progress_percent".equals(name) && v.isNumeric()) {
+                    listener.onProgress(p.getDoubleValue());
+                    return;
+                }
+                if ("mode".equals(name) && v == JsonToken.VALUE_STRING) {
+                    progressMode = "progress".equals(p.getText());
+                    if (!progressMode) break;
+                } else {
+                    p.skipChildren();
+                }
+            }
+            if (t == null) return;   // 잘린 JSON
+            if (!progressMode) listener.onResult(line.trim());
+        } catch (IOException e) {
+            // JSON 이 아닌 '{' 시작 로그 → 무시
+        }
+    }
+
+    // ===============================================================
+    // 🧩 텍스트 마커
+    // ===============================================================
+
+    private static void decodeText(String line, PythonOutputListener listener) {
+        boolean progress = false, total = false, saved = false, count = false;
+        int n = line.length();
+        for (int i = 0; i < n; i++) {
+            char c = line.charAt(i);
+            if (c == '[') {
+                if (!progress && line.startsWith(PROGRESS, i + 1)) {
+                    int from = skipSpace(line, i + 1 + PROGRESS.length());
+                    int end = scanDecimal(line, from);
+                    if (end > from) {
+                        listener.onProgress(parseDecimal(line, from, end));
+                        progress = true;
+                    }
+                } else if (!total && line.startsWith(KRX_TOTAL, i + 1)) {
+                    int from = skipSpace(line, i + 1 + KRX_TOTAL.length());
+                    int end = scanDigits(line, from);
+                    if (end > from) {
+                        listener.onCounter("krxTotal", parseLong(line, from, end));
+                        total = true;
+                    }
+                } else if (!saved && line.startsWith(KRX_SAVED, i + 1)) {
+                    int from = skipSpace(line, i + 1 + KRX_SAVED.length());
+                    int end = scanDigits(line, from);
+                    if (end > from) {
+                        listener.onCounter("krxSaved", parseLong(line, from, end));
+                        saved = true;
+                    }
+                }
+            } else if (c == '(' && !count) {
+                int a = i + 1;
+                int aEnd = scanDigits(line, a);
+                if (aEnd > a && aEnd < n && line.charAt(aEnd) == '/') {
+                    int b = aEnd + 1;
+                    int bEnd = scanDigits(line, b);
+                    if (bEnd > b && bEnd < n && line.charAt(bEnd) == ')') {
+                        listener.onCounter("dataSaved", parseLong(line, a, aEnd));
+                        listener.onCounter("dataTotal", parseLong(line, b, bEnd));
+                        count = true;
+                    }
+                }
+            }
+        }
+    }
+
+    private static int firstNonSpace(String s) {
+        int i = 0;
+        while (i < s.length() && Character.isWhitespace(s.charAt(i))) i++;
+        return i;
+    }
+
+    private static char lastNonSpace(String s) {
+        int i = s.length() - 1;
+        while (i >= 0 && Character.isWhitespace(s.charAt(i))) i--;
+        return i < 0 ? 0 : s.charAt(i);
+    }
+
+    private static int skipSpace(String s, int i) {
+        while (i < s.length() && Character.isWhitespace(s.charAt(i))) i++;
+        return i;
+    }
+
+    private static int scanDigits(String s, int i) {
+        while (i < s.length() && isDigit(s.charAt(i))) i++;
+        return i;
+    }
+
+    /** \d+(\.\d+)? */
+    private static int scanDecimal(String s, int i) {
+        int end = scanDigits(s, i);
+        if (end == i) return i;
+        if (end + 1 < s.length() && s.charAt(end) == '.' && isDigit(s.charAt(end + 1))) {
+            end = scanDigits(s, end + 1);
+        }
+        return end;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /** 자릿수 초과 시 0 (기존 safeInt 와 동일하게 실패 = 0) */
+    private static long parseLong(String s, int from, int end) {
+        if (end - from > 18) return 0L;
+        long v = 0;
+        for (int i = from; i < end; i++) v = v * 10 + (s.charAt(i) - '0');
+        return v;
+    }
+
+    private static double parseDecimal(String s, int from, int end) {
+        int dot = s.indexOf('.', from);
+        if (dot < 0 || dot >= end) return parseLong(s, from, end);
+        return Double.parseDouble(s.substring(from, end));
+    }
+}
@@ -0,0 +1,33 @@
+package com.afhk.app.python;
+
+import java.util.List;
+
+/**
+ * Python 출력 이벤트 콜백 (PythonProcessRunner 의 파싱 단계 스레드 = run() 호출 스레드에서 호출)
+ * - 출력은 묶음 단위로 처리됨 : 묶음 안의 모든 줄에 대해 파서가 progress / counter / result 이벤트를
+ *   먼저 내보낸 뒤 onLogs 가 1회 호출됨
+ *   → onLogs 시점에는 묶음 마지막 줄까지 반영된 상태로 화면 갱신 가능
+ */
+public interface PythonOutputListener {
+
+    /** 진행률 (0 ~ 100) */
+    default void onProgress(double percent) {
+    }
+
+    /** 이름 붙은 카운터 (krxTotal, krxSaved, dataSaved, dataTotal 등) */
+    default void onCounter(String name, long value) {
+    }
+
+    /** 최종 결과 JSON 줄 (여러 번 오면 마지막 것이 결과) */
+    default void onResult(String json) {
+    }
+
+    /** 원본 줄 묶음 (모든 줄, 출력 순서, 이벤트 처리 이후). 기본 구현은 줄마다 onLog */
+    default void onLogs(List<String> lines) {
+        for (String line : lines) onLog(line);
+    }
+
+    /** 원본 줄 1개 (onLogs 를 재정의하지 않은 경우) */
+    default void onLog(String line) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.afhk.app.python;
+
+/**
+ * Python 출력 1줄 → 이벤트 변환 (스크립트별 출력 규약)
+ * - 구현체는 상태 없이 여러 실행에서 공유 가능해야 함
+ */
+@FunctionalInterface
+public interface PythonOutputParser {
+
+    void parse(String line, PythonOutputListener listener);
+}
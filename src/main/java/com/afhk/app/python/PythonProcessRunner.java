@@ -0,0 +1,301 @@
+package com.afhk.app.python;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ===============================================================
+ * 🏃 PythonProcessRunner (v1.0 - 배치 Python 실행 공용 파이프라인)
+ * ---------------------------------------------------------------
+ * ✅ 1단계 (리더 스레드) : 자식 stdout 을 읽어 LineRingBuffer 에 CAS 1회로 공개만 함
+ *    - 잠금 없음 → 링 용량(QUEUE_CAPACITY)까지는 소비가 밀려도 stdout 을 계속 비움
+ *    - 링이 가득 차면 줄을 버리지 않고 리더가 대기 (spin → park) → 모든 줄을 파서에 전달
+ *    - 마지막 출력 시각도 리더가 기록 → SSE/DB 가 느려도 hang 오탐 없음
+ * ✅ 2단계 (run() 호출 스레드) : 최대 BATCH 줄씩 꺼내 파서 → progress / counter / result 콜백
+ *    - SLF4J 기록 / onLogs (로그 저장 + SSE) 는 묶음 단위 1회
+ * ✅ hangTimeout 무출력 → 강제 종료 (HANG) / 출력 종료 후 exitTimeout 내 미종료 → TIMEOUT
+ * ✅ cancel(key) → 강제 종료 (CANCELLED)
+ * ✅ workerPool=true : PythonWorkerPool 상주 워커로 실행 (기동 불가 시 1회 실행으로 대체)
+ * ===============================================================
+ */
+@Component
+public class PythonProcessRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(PythonProcessRunner.class);
+
+    /** 리더 → 파서 링 용량 (줄 수) */
+    static final int QUEUE_CAPACITY = 8192;
+    /** 파서 단계 1회 처리 줄 수 */
+    static final int BATCH = 256;
+    /** 파서 단계 hang/취소 확인 주기 */
+    private static final long POLL_MS = 250L;
+
+    public enum Status { COMPLETED, FAILED, HANG, TIMEOUT, CANCELLED }
+
+    /**
+     * 실행 결과
+     * 출력 줄은 버리지 않음 → 종료 시점에는 읽은 모든 줄이 파서 / onLogs 로 전달된 상태
+     * @param exitCode Python 종료 코드 (HANG / TIMEOUT / CANCELLED 는 -1)
+     */
+    public record Outcome(Status status, int exitCode, String message) {
+        public boolean completed() { return status == Status.COMPLETED; }
+    }
+
+    /**
+     * 실행 요청
+     * @param key           취소 키 (taskId)
+     * @param scriptPath    실행 스크립트 (workerPool=true 면 워커 스크립트로 실행되므로 무시)
+     * @param argv          스크립트 인자
+     * @param workerPool    상주 워커 사용 여부
+     * @param parser        출력 파서
+     * @param hangTimeoutMs 무출력 허용 시간
+     * @param exitTimeoutMs 출력 종료 후 프로세스 종료 대기 시간
+     */
+    public record Spec(String key, String scriptPath, List<String> argv, boolean workerPool,
+                       PythonOutputParser parser, long hangTimeoutMs, long exitTimeoutMs) {
+    }
+
+    @Value("${python.executable.path:python}")
+    private String pythonExe;
+
+    @Value("${python.working.dir}")
+    private String workingDir;
+
+    private final PythonWorkerPool workerPool;
+    private final Map<String, Source> running = new ConcurrentHashMap<>();
+    private final AtomicInteger readerSeq = new AtomicInteger();
+
+    private final ExecutorService readers = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "Python-Reader-" + readerSeq.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    public PythonProcessRunner(PythonWorkerPool workerPool) {
+        this.workerPool = workerPool;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running.values().forEach(Source::kill);
+        readers.shutdownNow();
+    }
+
+    // ===============================================================
+    // 🚀 실행
+    // ===============================================================
+
+    /** 실행 후 종료까지 대기 (콜백은 이 스레드에서 호출) */
+    public Outcome run(Spec spec, PythonOutputListener listener) throws IOException, InterruptedException {
+        Source src = null;
+        try {
+            if (spec.workerPool() && workerPool.isAvailable()) {
+                src = startWorker(spec);
+                Outcome out = drain(spec, src, listener);
+                if (!src.unavailable) return out;
+                running.remove(spec.key(), src);
+                log.warn("⚠ [{}] Python 워커 사용 불가 → 1회 실행", spec.key());
+            }
+            src = startProcess(spec);
+            return drain(spec, src, listener);
+        } finally {
+            if (src != null) {
+                running.remove(spec.key(), src);
+                src.lines.abandon();
+                src.kill();
+            }
+        }
+    }
+
+    /** 실행 중인 key 강제 종료. 반환: 실행 중이었는지 */
+    public boolean cancel(String key) {
+        Source src = running.get(key);
+        if (src == null) return false;
+        src.cancelled = true;
+        src.kill();
+        return true;
+    }
+
+    public boolean isRunning(String key) {
+        return running.containsKey(key);
+    }
+
+    // ===============================================================
+    // 📥 1단계 : 리더
+    // ===============================================================
+
+    /** 출력 소스 (1회 실행 프로세스 또는 워커 요청) */
+    private final class Source {
+        final String key;
+        final LineRingBuffer lines = new LineRingBuffer(QUEUE_CAPACITY);
+        volatile long lastOutput = System.currentTimeMillis();
+        volatile Process process;
+        volatile Integer workerExit;
+        volatile Exception workerError;
+        volatile boolean unavailable;
+        volatile boolean cancelled;
+        /** 워커 요청 종료 (이후 취소는 풀에 전달하지 않음 → 소비되지 않는 취소 기록 방지) */
+        volatile boolean workerDone;
+
+        Source(String key) {
+            this.key = key;
+        }
+
+        /** 리더 스레드 전용. 링이 가득 차면 빈 칸이 생길 때까지 대기 (버리지 않음) */
+        void push(String line) {
+            lastOutput = System.currentTimeMillis();
+            lines.offer(line);
+        }
+
+        void end() {
+            lines.close();
+        }
+
+        void kill() {
+            Process p = process;
+            if (p != null) {
+                if (p.isAlive()) p.destroyForcibly();
+            } else if (!workerDone) {
+                workerPool.cancel(key);
+            }
+        }
+    }
+
+    private Source startProcess(Spec spec) throws IOException {
+        List<String> cmd = new ArrayList<>();
+        cmd.add(pythonExe);
+        cmd.add("-u");
+        cmd.add(spec.scriptPath());
+        cmd.addAll(spec.argv());
+
+        ProcessBuilder pb = new ProcessBuilder(cmd);
+        pb.directory(new File(workingDir));
+        pb.redirectErrorStream(true);
+        pb.environment().put("PYTHONIOENCODING", "utf-8");
+
+        Source src = new Source(spec.key());
+        src.process = pb.start();
+        register(spec, src);
+        log.info("🚀 [{}] Python 프로세스 시작 (PID {})", spec.key(), src.process.pid());
+
+        readers.execute(() -> {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(src.process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) src.push(line);
+            } catch (IOException e) {
+                log.debug("[{}] stdout 읽기 종료: {}", spec.key(), e.getMessage());
+            } finally {
+                src.end();
+            }
+        });
+        return src;
+    }
+
+    private Source startWorker(Spec spec) {
+        Source src = new Source(spec.key());
+        register(spec, src);
+        log.info("🚀 [{}] Python 워커 요청", spec.key());
+
+        readers.execute(() -> {
+            try {
+                // hang 은 파서 단계에서 판정 → 워커 자체 timeout 없음
+                src.workerExit = workerPool.execute(spec.key(), spec.argv(), src::push, 0);
+            } catch (PythonWorkerPool.WorkerUnavailableException e) {
+                src.unavailable = true;
+            } catch (Exception e) {
+                src.workerError = e;
+            } finally {
+                src.workerDone = true;
+                src.end();
+            }
+        });
+        return src;
+    }
+
+    private void register(Spec spec, Source src) {
+        Source prev = running.put(spec.key(), src);
+        if (prev != null && prev != src) {
+            log.warn("⚠ [{}] 같은 key 로 실행 중인 Python 이 있어 대체됨", spec.key());
+        }
+    }
+
+    // ===============================================================
+    // 🧩 2단계 : 파싱 / 콜백
+    // ===============================================================
+
+    private Outcome drain(Spec spec, Source src, PythonOutputListener listener) throws InterruptedException {
+        List<String> batch = new ArrayList<>(BATCH);
+        StringBuilder text = new StringBuilder();
+        while (true) {
+            if (src.lines.drainTo(batch, BATCH) > 0) {
+                publish(spec, batch, text, listener);
+                batch.clear();
+                continue;
+            }
+            if (src.cancelled) break;
+            if (src.lines.isDrained()) break;
+            if (Thread.interrupted()) throw new InterruptedException();
+            if (System.currentTimeMillis() - src.lastOutput > spec.hangTimeoutMs()) {
+                log.error("⛔ [{}] {}초 이상 출력 없음 → 강제 종료", spec.key(), spec.hangTimeoutMs() / 1000);
+                src.kill();
+                return new Outcome(Status.HANG, -1, "Python 로그 정지 감지됨 (hang)");
+            }
+            src.lines.await(POLL_MS, TimeUnit.MILLISECONDS);
+        }
+
+        if (src.cancelled) {
+            src.kill();
+            return new Outcome(Status.CANCELLED, -1, "사용자 취소");
+        }
+
+        int exit;
+        if (src.process != null) {
+            if (!src.process.waitFor(spec.exitTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                log.error("⏱ [{}] Python 실행 시간 초과 - 프로세스 강제 종료", spec.key());
+                src.kill();
+                return new Outcome(Status.TIMEOUT, -1, "Python 실행 시간 초과");
+            }
+            exit = src.process.exitValue();
+        } else {
+            if (src.unavailable) return new Outcome(Status.FAILED, -1, "Python 워커 사용 불가");
+            if (src.workerError != null) {
+                return new Outcome(Status.FAILED, -1, "Python 워커 실패: " + src.workerError.getMessage());
+            }
+            exit = src.workerExit;
+        }
+
+        return exit == 0
+                ? new Outcome(Status.COMPLETED, 0, null)
+                : new Outcome(Status.FAILED, exit, "Python 비정상 종료 (exit=" + exit + ")");
+    }
+
+    /** 묶음 1개 처리 : 줄별 파싱 → SLF4J 1회 → onLogs 1회 */
+    private void publish(Spec spec, List<String> batch, StringBuilder text, PythonOutputListener listener) {
+        text.setLength(0);
+        for (String line : batch) {
+            spec.parser().parse(line, listener);
+            if (text.length() > 0) text.append(System.lineSeparator()).append("[PYTHON] ");
+            text.append(line);
+        }
+        log.info("[PYTHON] {}", text);
+        listener.onLogs(List.copyOf(batch));
+    }
+}
@@ -0,0 +1,234 @@
+package com.afhk.app.python;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * 상주 Python 프로세스 1개 (python -u script --mode serve)
+ * - stdin : 요청 JSON 1줄 / stdout : 응답 프레임 JSON 1줄 (프레임이 아닌 줄은 로그로 취급)
+ * - 리더 스레드가 stdout 을 프레임 큐로 옮기고, 요청 스레드가 큐에서 꺼내 처리
+ * - 한 번에 요청 1개만 처리 (풀이 대여 단위로 보장)
+ */
+final class PythonWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(PythonWorker.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** 응답 프레임 (type : ready / line / done / pong / log / eof) */
+    record Frame(String type, long id, String line, int exit) {
+        static final Frame EOF = new Frame("eof", -1, null, -1);
+    }
+
+    private final int index;
+    private final Process process;
+    private final BufferedWriter stdin;
+    private final BlockingQueue<Frame> frames = new LinkedBlockingQueue<>();
+    private final long startedAt = System.currentTimeMillis();
+
+    private long nextId;
+    private int served;
+    private volatile long lastUsedAt = startedAt;
+
+    private PythonWorker(int index, Process process) {
+        this.index = index;
+        this.process = process;
+        this.stdin = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+
+        Thread reader = new Thread(this::readLoop, "Python-Worker-" + index);
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /** 프로세스 시작 → ready 프레임까지 대기 (라이브러리 import 시간 포함) */
+    static PythonWorker start(int index, List<String> command, String workingDir, long startupTimeoutMs)
+            throws IOException, TimeoutException, InterruptedException {
+        ProcessBuilder pb = new ProcessBuilder(command);
+        pb.directory(new File(workingDir));
+        pb.redirectErrorStream(true);
+        pb.environment().put("PYTHONIOENCODING", "utf-8");
+
+        PythonWorker w = new PythonWorker(index, pb.start());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(startupTimeoutMs);
+        while (true) {
+            long left = deadline - System.nanoTime();
+            Frame f = left > 0 ? w.frames.poll(left, TimeUnit.NANOSECONDS) : null;
+            if (f == null) {
+                w.kill();
+                throw new TimeoutException("Python 워커 기동 시간 초과 (" + startupTimeoutMs + "ms)");
+            }
+            if ("ready".equals(f.type())) {
+                log.info("🐍 Python 워커 #{} 준비 완료 (PID {}, {} ms)",
+                        index, w.process.pid(), System.currentTimeMillis() - w.startedAt);
+                return w;
+            }
+            if (f == Frame.EOF) {
+                throw new IOException("Python 워커 기동 실패 (exit=" + w.exitValueOrNull() + ")");
+            }
+        }
+    }
+
+    // ===============================================================
+    // 📥 stdout 리더
+    // ===============================================================
+    private void readLoop() {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Frame f = parse(line);
+                if (f == null || "log".equals(f.type())) {
+                    log.info("[PYTHON-W{}] {}", index, f == null ? line : f.line());
+                } else {
+                    frames.add(f);
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Python 워커 #{} stdout 종료: {}", index, e.getMessage());
+        } finally {
+            frames.add(Frame.EOF);
+        }
+    }
+
+    private static Frame parse(String line) {
+        if (!line.startsWith("{\"type\"")) return null;
+        try {
+            JsonNode n = MAPPER.readTree(line);
+            return new Frame(n.path("type").asText(), n.path("id").asLong(-1),
+                    n.path("line").asText(null), n.path("exit").asInt(-1));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // ===============================================================
+    // 📤 요청
+    // ===============================================================
+
+    /**
+     * 1회 실행과 같은 인자로 요청 1건 실행
+     * @param argv             --mode 이하 CLI 인자
+     * @param onLine           1회 실행 시 stdout 에 찍혔을 줄 (요청 스레드에서 호출)
+     * @param silenceTimeoutMs 이 시간 동안 출력이 없으면 TimeoutException (0 이하 → 무제한)
+     * @return Python 종료 코드 (sys.exit 값)
+     */
+    int run(List<String> argv, Consumer<String> onLine, long silenceTimeoutMs)
+            throws IOException, TimeoutException, InterruptedException {
+        long id = ++nextId;
+        Map<String, Object> req = new LinkedHashMap<>();
+        req.put("id", id);
+        req.put("op", "run");
+        req.put("argv", new ArrayList<>(argv));
+        send(req);
+        served++;
+
+        try {
+            while (true) {
+                Frame f = await(silenceTimeoutMs);
+                if (f == null) {
+                    throw new TimeoutException("Python 워커 응답 없음 (" + silenceTimeoutMs / 1000 + "초)");
+                }
+                if (f == Frame.EOF) {
+                    throw new IOException("Python 워커 비정상 종료 (exit=" + exitValueOrNull() + ")");
+                }
+                if (f.id() != id) continue;   // 이전 요청의 늦은 프레임
+                if ("line".equals(f.type())) {
+                    onLine.accept(f.line());
+                } else if ("done".equals(f.type())) {
+                    return f.exit();
+                }
+            }
+        } finally {
+            lastUsedAt = System.currentTimeMillis();
+        }
+    }
+
+    /** 상태 확인 : timeout 안에 pong 이 오면 true */
+    boolean ping(long timeoutMs) {
+        if (!process.isAlive()) return false;
+        long id = ++nextId;
+        try {
+            send(Map.of("id", id, "op", "ping"));
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            while (true) {
+                long left = deadline - System.nanoTime();
+                Frame f = left > 0 ? frames.poll(left, TimeUnit.NANOSECONDS) : null;
+                if (f == null || f == Frame.EOF) return false;
+                if ("pong".equals(f.type()) && f.id() == id) return true;
+            }
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Frame await(long timeoutMs) throws InterruptedException {
+        return timeoutMs > 0 ? frames.poll(timeoutMs, TimeUnit.MILLISECONDS) : frames.take();
+    }
+
+    private void send(Map<String, Object> req) throws IOException {
+        stdin.write(MAPPER.writeValueAsString(req));
+        stdin.write('\n');
+        stdin.flush();
+    }
+
+    // ===============================================================
+    // 🧹 종료
+    // ===============================================================
+
+    /** exit 요청 후 잠시 대기, 남아 있으면 강제 종료 */
+    void close() {
+        try {
+            if (process.isAlive()) {
+                send(Map.of("op", "exit"));
+                stdin.close();
+                if (process.waitFor(2, TimeUnit.SECONDS)) return;
+            }
+        } catch (IOException ignore) {
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        kill();
+    }
+
+    void kill() {
+        process.destroyForcibly();
+    }
+
+    boolean isAlive() { return process.isAlive(); }
+    int index() { return index; }
+    long pid() { return process.pid(); }
+    int served() { return served; }
+    long startedAt() { return startedAt; }
+    long lastUsedAt() { return lastUsedAt; }
+
+    private Integer exitValueOrNull() {
+        try {
+            process.waitFor(200, TimeUnit.MILLISECONDS);
+            return process.isAlive() ? null : process.exitValue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
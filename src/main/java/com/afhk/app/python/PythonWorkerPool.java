@@ -0,0 +1,311 @@
+package com.afhk.app.python;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * ===============================================================
+ * 🐍 PythonWorkerPool (v1.0 - 상주 Python 워커 풀)
+ * ---------------------------------------------------------------
+ * ✅ athena_k_market_ai_prod.py --mode serve 프로세스를 size 개 상주
+ *    → pandas / scipy / sklearn / ta import 비용을 요청마다가 아니라 워커 수명당 1번만 지불
+ * ✅ 프로토콜 : stdin/stdout JSON lines (요청 {"id","op","argv"} / 응답 ready·line·done·pong 프레임)
+ *    - argv 는 1회 실행 CLI 인자와 동일, line 은 1회 실행 stdout 줄과 동일 → 호출 측 파싱 그대로
+ * ✅ 요청별 무응답 timeout (초과 시 워커 종료 후 교체)
+ * ✅ maxRequests 건 처리한 워커는 정상 종료 후 새 워커로 교체 (메모리 누수/캐시 팽창 방지)
+ * ✅ healthCheckSeconds 마다 유휴 워커 ping → 응답 없으면 교체, 부족분 미리 기동
+ * ✅ 기동 실패 시 RETRY_BACKOFF_MS 동안 isAvailable()=false → 호출 측은 1회 실행 경로로 대체
+ * ===============================================================
+ */
+@Component
+public class PythonWorkerPool {
+
+    private static final Logger log = LoggerFactory.getLogger(PythonWorkerPool.class);
+
+    /** 기동 실패 후 재시도까지 대기 */
+    private static final long RETRY_BACKOFF_MS = 60_000L;
+    /** ping 응답 대기 */
+    private static final long PING_TIMEOUT_MS = 5_000L;
+
+    /** 워커를 띄울 수 없음 (호출 측은 1회 실행으로 대체) */
+    public static class WorkerUnavailableException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public WorkerUnavailableException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    @Value("${python.executable.path}")
+    private String pythonExe;
+
+    @Value("${python.athena_k_market_ai_prod.path}")
+    private String scriptPath;
+
+    @Value("${python.working.dir}")
+    private String workingDir;
+
+    @Value("${python.worker.enabled:true}")
+    private boolean enabled;
+
+    @Value("${python.worker.size:2}")
+    private int size;
+
+    @Value("${python.worker.max-requests:200}")
+    private int maxRequests;
+
+    @Value("${python.worker.startup-timeout-seconds:120}")
+    private int startupTimeoutSeconds;
+
+    @Value("${python.worker.acquire-timeout-seconds:30}")
+    private int acquireTimeoutSeconds;
+
+    @Value("${python.worker.health-check-seconds:30}")
+    private int healthCheckSeconds;
+
+    private final BlockingQueue<PythonWorker> idle = new LinkedBlockingQueue<>();
+    /** 실행 중 워커 (취소 키 → 워커) */
+    private final Map<String, PythonWorker> busy = new ConcurrentHashMap<>();
+    /** 워커 배정 전(borrow / spawn 중)에 들어온 취소 → execute 가 요청 전송 전에 소비 */
+    private final Set<String> cancelled = ConcurrentHashMap.newKeySet();
+    /** 기동 중 + 유휴 + 실행 중 워커 수 */
+    private final AtomicInteger live = new AtomicInteger();
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final AtomicInteger recycled = new AtomicInteger();
+
+    private final ScheduledExecutorService maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "Python-Worker-Pool");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private volatile long unavailableUntil;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            log.info("🐍 Python 워커 풀 비활성 (python.worker.enabled=false) → 1회 실행 사용");
+            return;
+        }
+        maintenance.submit(this::fill);
+        maintenance.scheduleWithFixedDelay(this::healthCheck, healthCheckSeconds, healthCheckSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        maintenance.shutdownNow();
+        PythonWorker w;
+        while ((w = idle.poll()) != null) w.close();
+        busy.values().forEach(PythonWorker::kill);
+    }
+
+    /** 워커로 요청 가능한지 (비활성 / 기동 실패 백오프 중이면 false) */
+    public boolean isAvailable() {
+        return enabled && System.currentTimeMillis() >= unavailableUntil;
+    }
+
+    // ===============================================================
+    // 🚀 실행
+    // ===============================================================
+
+    /**
+     * 워커 1개를 빌려 요청 1건 실행
+     * @param key              취소용 키 (taskId 등, null 이면 취소 불가)
+     * @param argv             --mode 이하 CLI 인자 (1회 실행과 동일)
+     * @param onLine           1회 실행 시 stdout 에 찍혔을 줄 (호출 스레드에서 호출)
+     * @param silenceTimeoutMs 출력 없이 이 시간이 지나면 워커 종료 후 TimeoutException
+     * @return Python 종료 코드
+     * @throws WorkerUnavailableException 워커 기동 실패 (요청은 전송되지 않음)
+     * @throws CancellationException      워커 배정 전에 취소됨 (요청은 전송되지 않음)
+     */
+    public int execute(String key, List<String> argv, Consumer<String> onLine, long silenceTimeoutMs)
+            throws IOException, TimeoutException, InterruptedException {
+        PythonWorker w = null;
+        try {
+            w = borrow();
+        } finally {
+            if (w == null && key != null) cancelled.remove(key);
+        }
+        if (key != null) {
+            busy.put(key, w);
+            if (cancelled.remove(key)) {
+                // cancel 이 busy 에서 먼저 꺼냈으면 이미 kill 된 워커 → 교체
+                release(w, busy.remove(key, w));
+                log.warn("⛔ Python 워커 #{} 배정 전 취소 → 요청 전송 안 함 (key={})", w.index(), key);
+                throw new CancellationException("Python 워커 요청 취소됨 (key=" + key + ")");
+            }
+        }
+        boolean healthy = false;
+        try {
+            int exit = w.run(argv, onLine, silenceTimeoutMs);
+            healthy = true;
+            return exit;
+        } finally {
+            if (key != null) {
+                busy.remove(key, w);
+                cancelled.remove(key);
+            }
+            release(w, healthy);
+        }
+    }
+
+    /**
+     * key 로 실행 중인 요청 강제 종료 (워커는 교체됨)
+     * 아직 워커 배정 전이면 취소만 기록 → execute 가 요청을 보내지 않고 CancellationException
+     */
+    public boolean cancel(String key) {
+        PythonWorker w = busy.remove(key);
+        if (w == null) {
+            cancelled.add(key);
+            // 기록과 busy 등록이 엇갈렸으면 직접 종료
+            w = busy.remove(key);
+            if (w == null) {
+                log.warn("⛔ Python 워커 요청 취소 예약 (key={}, 워커 배정 전)", key);
+                return true;
+            }
+        }
+        log.warn("⛔ Python 워커 #{} 요청 취소 (key={})", w.index(), key);
+        w.kill();
+        return true;
+    }
+
+    private PythonWorker borrow() throws IOException, TimeoutException, InterruptedException {
+        while (true) {
+            PythonWorker w = idle.poll();
+            if (w != null) {
+                if (w.isAlive()) return w;
+                retire(w, "죽은 워커");
+                continue;
+            }
+            if (live.incrementAndGet() <= size) {
+                return spawn();
+            }
+            live.decrementAndGet();
+
+            w = idle.poll(acquireTimeoutSeconds, TimeUnit.SECONDS);
+            if (w == null) {
+                throw new TimeoutException("사용 가능한 Python 워커 없음 (" + acquireTimeoutSeconds + "초 대기)");
+            }
+            if (w.isAlive()) return w;
+            retire(w, "죽은 워커");
+        }
+    }
+
+    /** live 슬롯을 이미 확보한 상태에서 호출 */
+    private PythonWorker spawn() throws WorkerUnavailableException, InterruptedException {
+        List<String> cmd = new ArrayList<>();
+        cmd.add(pythonExe);
+        cmd.add("-u");
+        cmd.add(scriptPath);
+        cmd.add("--mode");
+        cmd.add("serve");
+        try {
+            return PythonWorker.start(sequence.incrementAndGet(), cmd, workingDir,
+                    TimeUnit.SECONDS.toMillis(startupTimeoutSeconds));
+        } catch (IOException | TimeoutException e) {
+            live.decrementAndGet();
+            unavailableUntil = System.currentTimeMillis() + RETRY_BACKOFF_MS;
+            log.warn("⚠️ Python 워커 기동 실패 → {}초간 1회 실행 사용: {}", RETRY_BACKOFF_MS / 1000, e.getMessage());
+            throw new WorkerUnavailableException("Python 워커 기동 실패: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            live.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void release(PythonWorker w, boolean healthy) {
+        if (healthy && w.isAlive() && w.served() < maxRequests) {
+            idle.offer(w);
+            return;
+        }
+        String reason = !healthy || !w.isAlive() ? "요청 실패/중단" : "요청 " + w.served() + "건 처리 (재활용)";
+        if (healthy) recycled.incrementAndGet();
+        retire(w, reason);
+        if (isAvailable()) maintenance.submit(this::fill);
+    }
+
+    private void retire(PythonWorker w, String reason) {
+        live.decrementAndGet();
+        log.info("🐍 Python 워커 #{} 종료: {}", w.index(), reason);
+        maintenance.submit(w::close);
+    }
+
+    // ===============================================================
+    // 🩺 유지 관리 (maintenance 스레드)
+    // ===============================================================
+
+    /** 부족한 워커 미리 기동 */
+    private void fill() {
+        while (isAvailable() && live.get() < size) {
+            if (live.incrementAndGet() > size) {
+                live.decrementAndGet();
+                return;
+            }
+            try {
+                idle.offer(spawn());
+            } catch (WorkerUnavailableException e) {
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /** 유휴 워커 ping → 응답 없으면 교체 */
+    private void healthCheck() {
+        try {
+            for (int n = idle.size(); n > 0; n--) {
+                PythonWorker w = idle.poll();
+                if (w == null) break;
+                if (w.ping(PING_TIMEOUT_MS)) {
+                    idle.offer(w);
+                } else {
+                    w.kill();
+                    retire(w, "ping 응답 없음");
+                }
+            }
+            fill();
+        } catch (Exception e) {
+            log.warn("⚠️ Python 워커 상태 점검 실패: {}", e.getMessage());
+        }
+    }
+
+    // ===============================================================
+    // 🔍 조회
+    // ===============================================================
+
+    public Map<String, Object> status() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("enabled", enabled);
+        out.put("available", isAvailable());
+        out.put("size", size);
+        out.put("live", live.get());
+        out.put("idle", idle.size());
+        out.put("busy", Math.max(0, live.get() - idle.size()));
+        out.put("maxRequests", maxRequests);
+        out.put("recycled", recycled.get());
+        return out;
+    }
+}
@@ -7,6 +7,15 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.afhk.app.python.ProgressCoalescer;
+import com.afhk.app.python.PythonOutputListener;
+import com.afhk.app.python.PythonEventDecoder;
+import com.afhk.app.python.PythonProcessRunner;
+import com.afhk.app.python.PythonWorkerPool;
+import com.afhk.app.stock.AthenaChartBuilder;
+import com.afhk.app.stock.AthenaScreener;
+import com.afhk.app.stock.ChartData;
+import com.afhk.app.stock.ScreenCandidate;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.BufferedReader;
@@ -16,8 +25,9 @@ import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
  * ===============================================================
@@ -26,6 +36,13 @@ import java.util.regex.Pattern;
  * 🔥 GlobalSseService 제거 완료 → GlobalStockService.broadcast() 사용
  * 🔥 전역 SSE / 개별 SSE 완전 연동
  * 🔥 기존 기능/주석 단 1줄도 수정 없음
+ * 🔥 Python 실행은 PythonWorkerPool 상주 워커 우선 (기동 불가 시 1회 실행)
+ *    - analyze 는 PythonProcessRunner (리더 스레드 + 큐 → 타입별 콜백)
+ *    - 진행 SSE 는 ProgressCoalescer 프레임 단위 전송 (최신 상태 + 로그 묶음, 종료 패킷은 즉시)
+ * 🔥 engine=jvm|auto : AthenaScreener (ForkJoin) 로 JVM 내 분석
+ *    - 진행률/완료 SSE 패킷 형태는 Python 경로와 동일
+ *    - 컬럼 스토어 미준비 시 Python 경로로 대체
+ *    - 사전 계산(ScreeningMaterializer)/캐시 적중 시 전역 락 없이 즉시 완료
  * ===============================================================
  */
 @Service
@@ -35,6 +52,11 @@ public class StockBatchAthenaAiService {
 
     private final TaskStatusService taskStatusService;
     private final GlobalStockService globalStockService;
+    private final AthenaScreener athenaScreener;
+    private final AthenaChartBuilder chartBuilder;
+    private final PythonWorkerPool pythonWorkerPool;
+    private final PythonProcessRunner pythonProcessRunner;
+    private final ProgressCoalescer progressCoalescer;
 
     @Value("${python.executable.path}")
     private String pythonExe;
@@ -46,22 +68,33 @@ public class StockBatchAthenaAiService {
     private String workingDir;
 
     private final AtomicBoolean activeLock = new AtomicBoolean(false);
-    private final Map<String, Process> runningProcesses = new ConcurrentHashMap<>();
+    private final Map<String, AtomicBoolean> runningScans = new ConcurrentHashMap<>();
     private final CopyOnWriteArrayList<SseEmitter> emitters = new CopyOnWriteArrayList<>();
-    private final ScheduledExecutorService hangWatcher = Executors.newSingleThreadScheduledExecutor();
 
     private volatile String currentRunner = null;
     private volatile String currentTaskId = null;
 
     // 최대 실행 시간: 60초
     private static final long MAX_WAIT_SECONDS = 60L;
+    // 로그 무응답 한도: 30초
+    private static final long HANG_TIMEOUT_MS = 30_000L;
 
     public StockBatchAthenaAiService(
             TaskStatusService taskStatusService,
-            GlobalStockService globalStockService
+            GlobalStockService globalStockService,
+            AthenaScreener athenaScreener,
+            AthenaChartBuilder chartBuilder,
+            PythonWorkerPool pythonWorkerPool,
+            PythonProcessRunner pythonProcessRunner,
+            ProgressCoalescer progressCoalescer
     ) {
         this.taskStatusService = taskStatusService;
         this.globalStockService = globalStockService;
+        this.athenaScreener = athenaScreener;
+        this.chartBuilder = chartBuilder;
+        this.pythonWorkerPool = pythonWorkerPool;
+        this.pythonProcessRunner = pythonProcessRunner;
+        this.progressCoalescer = progressCoalescer;
     }
 
     // ===============================================================
@@ -140,76 +173,58 @@ public class StockBatchAthenaAiService {
     }
 
     // ===============================================================
-    // 🟦 Chart 모드 (기존 그대로)
+    // 📈 Chart 모드 (JVM) - 컬럼 스토어에서 직접 계산
+    //    스토어 미준비 / 종목 없음 → null (runChartMode 로 대체)
+    // ===============================================================
+    public ChartData buildChart(String symbol, String maPeriods, int chartPeriod, int maxPoints) {
+        if (!athenaScreener.isReady()) return null;
+        return chartBuilder.build(symbol, maPeriods, chartPeriod, maxPoints);
+    }
+
+    /** JVM 차트 ETag (Python 경로로 가야 하면 null) */
+    public String chartETag(String symbol, String maPeriods, int chartPeriod, int maxPoints, String variant) {
+        if (!athenaScreener.isReady()) return null;
+        return chartBuilder.etag(symbol, maPeriods, chartPeriod, maxPoints, variant);
+    }
+
+    // ===============================================================
+    // ⚡ 단일 종목 analyze (JVM 동기) - 전역 락 / SSE / Python 없음
+    //    스토어 미준비 → IllegalStateException / 종목 없음 → null
+    // ===============================================================
+    public Map<String, Object> analyzeSymbol(String symbol, String pattern, String maPeriods) {
+        if (!athenaScreener.isReady()) throw new IllegalStateException("컬럼 스토어 준비 중");
+        return athenaScreener.analyzeSymbol(symbol, pattern, maPeriods);
+    }
+
+    // ===============================================================
+    // 🟦 Chart 모드 (상주 워커 우선, 불가 시 1회 실행)
     // ===============================================================
     public Map<String, Object> runChartMode(String symbol, String maPeriods, int chartPeriod) {
-        List<String> cmd = new ArrayList<>();
-        cmd.add(pythonExe);
-        cmd.add("-u");
-        cmd.add(scriptPath);
-        cmd.add("--mode");
-        cmd.add("chart");
-        cmd.add("--symbol");
-        cmd.add(symbol);
-        cmd.add("--ma_periods");
-        cmd.add(maPeriods);
-        cmd.add("--chart_period");
-        cmd.add(String.valueOf(chartPeriod));
+        List<String> argv = new ArrayList<>();
+        argv.add("--mode");
+        argv.add("chart");
+        argv.add("--symbol");
+        argv.add(symbol);
+        argv.add("--ma_periods");
+        argv.add(maPeriods);
+        argv.add("--chart_period");
+        argv.add(String.valueOf(chartPeriod));
 
         String logPrefix = "📊 Chart 모드 실행: ";
         log.info("{}symbol={}, ma={}, period={}", logPrefix, symbol, maPeriods, chartPeriod);
 
-        Process p = null;
-        StringBuilder outputBuffer = new StringBuilder();
-
-        StringBuilder jsonBuilder = new StringBuilder();
-        boolean jsonStarted = false;
-        String lastJson = "";
+        JsonLineCollector output = new JsonLineCollector();
 
         try {
-            ProcessBuilder pb = new ProcessBuilder(cmd);
-            pb.directory(new File(workingDir));
-            pb.redirectErrorStream(true);
-            pb.environment().put("PYTHONIOENCODING", "utf-8");
-
-            p = pb.start();
-            log.info("{}Python 프로세스 시작. PID: {}", logPrefix, p.pid());
-
-            BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8));
-
-            String line;
-            while ((line = reader.readLine()) != null) {
-
-                outputBuffer.append(line).append("\n");
-
-                String trimmed = line.trim();
-
-                if (trimmed.startsWith("{")) {
-                    jsonStarted = true;
-                    jsonBuilder.setLength(0);
-                }
-                if (jsonStarted) {
-                    jsonBuilder.append(trimmed);
-                }
-                if (trimmed.endsWith("}")) {
-                    lastJson = jsonBuilder.toString();
-                    jsonStarted = false;
-                }
-            }
-            reader.close();
+            int exit = runChartProcess(argv, output, logPrefix);
 
-            if (!p.waitFor(MAX_WAIT_SECONDS, TimeUnit.SECONDS)) {
-                p.destroyForcibly();
-                throw new TimeoutException("Python 실행 시간 초과 (" + MAX_WAIT_SECONDS + "초)");
-            }
-
-            if (p.exitValue() != 0) {
-                throw new RuntimeException("Python 비정상 종료(exit=" + p.exitValue() + ")");
+            if (exit != 0) {
+                throw new RuntimeException("Python 비정상 종료(exit=" + exit + ")");
             }
 
+            String lastJson = output.lastJson;
             if (lastJson == null || lastJson.isEmpty()) {
-                log.error("{}파이썬 JSON 없음:\n{}", logPrefix, outputBuffer.toString().trim());
+                log.error("{}파이썬 JSON 없음:\n{}", logPrefix, output.buffer.toString().trim());
                 throw new RuntimeException("chart 모드 JSON 출력 없음");
             }
 
@@ -235,30 +250,110 @@ public class StockBatchAthenaAiService {
             if (pythonResult.containsKey("pattern_points"))
                 finalClientMap.put("pattern_points", pythonResult.get("pattern_points"));
 
-            try {
-                ObjectMapper compact = new ObjectMapper();
-                log.info("{}📌 최종 ChartMode JSON 출력(Compact): {}",
-                        logPrefix, compact.writeValueAsString(finalClientMap));
-            } catch (Exception ignore) {}
+            if (log.isDebugEnabled()) {
+                try {
+                    ObjectMapper compact = new ObjectMapper();
+                    log.debug("{}📌 최종 ChartMode JSON 출력(Compact): {}",
+                            logPrefix, compact.writeValueAsString(finalClientMap));
+                } catch (Exception ignore) {}
+            }
 
             return finalClientMap;
 
         } catch (Exception e) {
             log.error("{}Chart 모드 예외: {}", logPrefix, e.getMessage(), e);
-            log.error("{}전체 출력:\n{}", logPrefix, outputBuffer.toString().trim());
+            log.error("{}전체 출력:\n{}", logPrefix, output.buffer.toString().trim());
             throw new RuntimeException("chart 모드 실패: " + e.getMessage());
+        }
+    }
+
+    /** chart 모드 실행 : 상주 워커 우선, 워커를 쓸 수 없으면 1회 실행. 반환: 종료 코드 */
+    private int runChartProcess(List<String> argv, JsonLineCollector output, String logPrefix) throws Exception {
+        if (pythonWorkerPool.isAvailable()) {
+            try {
+                return pythonWorkerPool.execute(null, argv, output, TimeUnit.SECONDS.toMillis(MAX_WAIT_SECONDS));
+            } catch (PythonWorkerPool.WorkerUnavailableException e) {
+                log.warn("{}워커 사용 불가 → 1회 실행: {}", logPrefix, e.getMessage());
+            }
+        }
+
+        List<String> cmd = new ArrayList<>();
+        cmd.add(pythonExe);
+        cmd.add("-u");
+        cmd.add(scriptPath);
+        cmd.addAll(argv);
+
+        Process p = null;
+        try {
+            ProcessBuilder pb = new ProcessBuilder(cmd);
+            pb.directory(new File(workingDir));
+            pb.redirectErrorStream(true);
+            pb.environment().put("PYTHONIOENCODING", "utf-8");
+
+            p = pb.start();
+            log.info("{}Python 프로세스 시작. PID: {}", logPrefix, p.pid());
+
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    output.accept(line);
+                }
+            }
+
+            if (!p.waitFor(MAX_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                p.destroyForcibly();
+                throw new TimeoutException("Python 실행 시간 초과 (" + MAX_WAIT_SECONDS + "초)");
+            }
+            return p.exitValue();
         } finally {
             if (p != null && p.isAlive()) p.destroyForcibly();
         }
     }
 
+    /** Python stdout 누적 + 마지막 JSON 블록 추출 ('{' 로 시작 ~ '}' 로 끝나는 줄까지) */
+    private static final class JsonLineCollector implements Consumer<String> {
+        final StringBuilder buffer = new StringBuilder();
+        private final StringBuilder jsonBuilder = new StringBuilder();
+        private boolean jsonStarted = false;
+        String lastJson = "";
+
+        @Override
+        public void accept(String line) {
+            buffer.append(line).append("\n");
+
+            String trimmed = line.trim();
+
+            if (trimmed.startsWith("{")) {
+                jsonStarted = true;
+                jsonBuilder.setLength(0);
+            }
+            if (jsonStarted) {
+                jsonBuilder.append(trimmed);
+            }
+            if (trimmed.endsWith("}")) {
+                lastJson = jsonBuilder.toString();
+                jsonStarted = false;
+            }
+        }
+    }
+
  // ===============================================================
     // 🔥 Athena AI 분석 시작 (analyze 모드) - force 인자 추가
     // ===============================================================
     @Async
     public void startUpdate(String taskId, String pattern, String maPeriods,
                             int workers, int topN, String symbol, String username, 
-                            boolean force) { // 🔥 파라미터 추가
+                            boolean force, String engine) { // 🔥 파라미터 추가
+
+        // 🗂️ 사전 계산 결과 조회 (적중 시 전역 락 / 프로세스 없이 바로 완료)
+        if (!force && useJvmEngine(engine, pattern)) {
+            Map<String, Object> cached = athenaScreener.lookup(pattern, maPeriods, topN, symbol);
+            if (cached != null) {
+                publishLookup(taskId, username, cached);
+                return;
+            }
+        }
 
         if (!globalStockService.acquireLock("ATHENA", username, taskId)) {
             throw new IllegalStateException("다른 사용자가 이미 실행 중입니다.");
@@ -284,9 +379,6 @@ public class StockBatchAthenaAiService {
         // 🌐 전역 SSE 전송
         globalStockService.broadcast("RUNNING", username, 0);
 
-        Process[] processRef = new Process[1];
-        StringBuilder finalJsonBuffer = new StringBuilder();
-
         try {
             // [중략: 패턴 매핑 로직 동일]
             String pythonPattern = switch (pattern) {
@@ -304,6 +396,14 @@ public class StockBatchAthenaAiService {
                 throw new IllegalStateException("해당 패턴은 아직 지원되지 않습니다.");
             }
 
+            // ===========================================================
+            // ⚡ JVM 스크리너 경로 (engine=jvm|auto)
+            // ===========================================================
+            if (useJvmEngine(engine, pythonPattern)) {
+                runJvmAnalyze(taskId, pythonPattern, maPeriods, topN, symbol, username, force);
+                return;
+            }
+
             boolean analyzePatternsFlag =
                     !pythonPattern.equals("ma") &&
                     !pythonPattern.equals("all_below_ma") &&
@@ -312,223 +412,124 @@ public class StockBatchAthenaAiService {
             // ===========================================================
             // 실제 실행 커맨드 구성 (force 인자 추가)
             // ===========================================================
-            List<String> cmd = new ArrayList<>();
-            cmd.add(pythonExe);
-            cmd.add("-u");
-            cmd.add(scriptPath);
-            cmd.add("--mode");
-            cmd.add("analyze");
+            List<String> argv = new ArrayList<>();
+            argv.add("--mode");
+            argv.add("analyze");
 
-            cmd.add("--pattern_type");
-            cmd.add(pythonPattern);
+            argv.add("--pattern_type");
+            argv.add(pythonPattern);
 
-            cmd.add("--ma_periods");
-            cmd.add(maPeriods);
+            argv.add("--ma_periods");
+            argv.add(maPeriods);
 
-            cmd.add("--workers");
-            cmd.add(String.valueOf(workers));
+            argv.add("--workers");
+            argv.add(String.valueOf(workers));
 
-            cmd.add("--top_n");
-            cmd.add(String.valueOf(topN));
+            argv.add("--top_n");
+            argv.add(String.valueOf(topN));
 
             // 🔥 force 가 true 이면 파이썬에 --force 인자 전달
             if (force) {
-                cmd.add("--force");
+                argv.add("--force");
                 log.info("🚀 [{}] 강제 업데이트 모드(--force) 활성화", taskId);
             }
 
             if (analyzePatternsFlag) {
-                cmd.add("--analyze_patterns");
+                argv.add("--analyze_patterns");
             }
 
             if (symbol != null && !symbol.trim().isEmpty()) {
-                cmd.add("--symbol");
-                cmd.add(symbol);
+                argv.add("--symbol");
+                argv.add(symbol);
             }
 
-            ProcessBuilder pb = new ProcessBuilder(cmd);
-            pb.directory(new File(workingDir));
-
-            // [이후 로직 로그 출력 및 프로세스 실행 동일...]
-            pb.redirectErrorStream(true);
-            pb.environment().put("PYTHONIOENCODING", "utf-8");
+            double[] progress = {0.0};
+            String[] finalJson = {null};
 
-            processRef[0] = pb.start();
-            runningProcesses.put(taskId, processRef[0]);
+            // 🎞️ IN_PROGRESS 는 프레임 단위 (줄마다 SSE 전송 X)
+            ProgressCoalescer.Channel frames =
+                    progressCoalescer.open(taskId, frame -> publishFrame(taskId, username, frame));
 
+            // ===========================================================
+            // 🚀 Python 실행 (PythonProcessRunner : 상주 워커 우선, 불가 시 1회 실행)
+            //    리더 스레드 → 큐 → 이 스레드에서 파싱/전송 (SSE 가 느려도 파이프 안 막힘)
+            //    30초 무응답 → HANG / 출력 종료 후 60초 내 미종료 → TIMEOUT
+            // ===========================================================
             log.info("🚀 [{}] AthenaAI Python 시작 (pattern={}, pythonPattern={}, ma={}, workers={}, topN={}, symbol={})",
                      taskId, pattern, pythonPattern, maPeriods, workers, topN,
                      (symbol == null ? "None" : symbol));
 
-            Pattern pProgress = Pattern.compile("\"progress_percent\"\\s*:\\s*(\\d+(?:\\.\\d+)?)");
-            double[] progress = {0.0};
-            List<String> logs = new ArrayList<>();
-            long[] lastLogTime = {System.currentTimeMillis()};
+            PythonProcessRunner.Outcome outcome = pythonProcessRunner.run(
+                    new PythonProcessRunner.Spec(taskId, scriptPath, argv, true, PythonEventDecoder.INSTANCE,
+                            HANG_TIMEOUT_MS, TimeUnit.SECONDS.toMillis(MAX_WAIT_SECONDS)),
+                    new PythonOutputListener() {
+                        @Override
+                        public void onProgress(double percent) {
+                            progress[0] = percent;
+                            frames.update("progress", percent);
+                        }
+
+                        @Override
+                        public void onResult(String json) {
+                            finalJson[0] = json;
+                        }
+
+                        @Override
+                        public void onLogs(List<String> lines) {
+                            taskStatusService.appendLogs(taskId, lines);
+                            frames.logs(lines);
+                        }
+                    });
+
+            // 남은 진행 프레임 즉시 전송 → 이후 종료 패킷
+            frames.finish();
 
             // ===========================================================
-            // ⏱ hangWatcher (30초 무응답 → 프로세스 강제 kill)
+            // 🔥 종료 상태 체크 (취소는 cancelTask 에서 이미 전파됨)
             // ===========================================================
-            Future<?> hangMonitor = hangWatcher.scheduleAtFixedRate(() -> {
-                long gap = System.currentTimeMillis() - lastLogTime[0];
-                if (gap > 30000 && processRef[0] != null && processRef[0].isAlive()) {
-                    log.error("⛔ [{}] 30초 이상 로그 없음 → 강제 종료", taskId);
-                    try {
-                        processRef[0].destroyForcibly();
-                        taskStatusService.fail(taskId, "Python 로그 정지 감지됨 (hang)");
-
-                        Map<String, Object> failPayload = new LinkedHashMap<>();
-                        failPayload.put("status", "FAILED");
-                        failPayload.put("progress", progress[0]);
-                        failPayload.put("logs", List.of("[ERROR] Python 프로세스 무응답(hang) 감지"));
-                        failPayload.put("globalStatus", "FAILED");
-                        failPayload.put("globalRunner", currentRunner);
-                        failPayload.put("globalProgress", (int) progress[0]);
-                        failPayload.put("taskId", currentTaskId);
-                        failPayload.put("menu", "ATHENA");
-                        broadcast(failPayload);
-
-                        // 🌐 Global 락 실패 상태 적용
-                        globalStockService.broadcast("FAILED", currentRunner, progress[0]);
-
-                    } catch (Exception ex) {
-                        log.error("hang 처리 중 예외: {}", ex.getMessage());
-                    }
+            switch (outcome.status()) {
+                case CANCELLED -> {
+                    return;
                 }
-            }, 5, 5, TimeUnit.SECONDS);
-
-            // ===========================================================
-            // 📥 PYTHON 실시간 로그 읽기
-            // ===========================================================
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(processRef[0].getInputStream(), StandardCharsets.UTF_8))) {
-
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    lastLogTime[0] = System.currentTimeMillis();
-
-                    if (line.trim().startsWith("{") && line.trim().endsWith("}")) {
-                        finalJsonBuffer.setLength(0);
-                        finalJsonBuffer.append(line.trim());
-                    }
-
-                    logs.add(line);
-                    taskStatusService.appendLog(taskId, line);
-                    log.info("[PYTHON] {}", line);
-
-                    Matcher m1 = pProgress.matcher(line);
-                    if (m1.find()) {
-                        progress[0] = safeDouble(m1.group(1));
-                    } else if (line.contains("\"mode\":\"progress\"")) {
-                        try {
-                            ObjectMapper mapper = new ObjectMapper();
-                            Map<String, Object> json = mapper.readValue(line.trim(), Map.class);
-                            Double val = (Double) json.get("progress_percent");
-                            if (val != null) progress[0] = val;
-                        } catch (Exception ignore) {}
-                    }
-
-                    Map<String, Object> payload = new LinkedHashMap<>();
-                    payload.put("status", "IN_PROGRESS");
-                    payload.put("runner", username);
-                    payload.put("progress", progress[0]);
-                    payload.put("logs", new ArrayList<>(logs));
-                    payload.put("globalStatus", "RUNNING");
-                    payload.put("globalRunner", username);
-                    payload.put("globalProgress", Math.min(100, Math.max(0, (int) progress[0])));
-                    payload.put("taskId", currentTaskId);
-                    payload.put("menu", "ATHENA");
-                    broadcast(payload);
-
-                    taskStatusService.updateProgress(taskId, progress[0], username);
-
-                    // 🌐 Global SSE 진행률 반영
-                    globalStockService.broadcast("RUNNING", username, progress[0]);
-
-                    logs.clear();
+                case HANG -> {
+                    taskStatusService.fail(taskId, "Python 로그 정지 감지됨 (hang)");
+                    broadcastFail(progress[0], "[ERROR] Python 프로세스 무응답(hang) 감지");
+                    return;
                 }
-            } finally {
-                hangMonitor.cancel(true);
-            }
-
-            boolean finished = processRef[0].waitFor(MAX_WAIT_SECONDS, TimeUnit.SECONDS);
-            if (!finished) {
-                log.error("⛔ [{}] Python 실행 시간 초과 ({}초)", taskId, MAX_WAIT_SECONDS);
-                taskStatusService.fail(taskId, "Python 실행 시간 초과 (" + MAX_WAIT_SECONDS + "초)");
-
-                Map<String, Object> failPayload = new LinkedHashMap<>();
-                failPayload.put("status", "FAILED");
-                failPayload.put("progress", progress[0]);
-                failPayload.put("logs", List.of("[ERROR] Python 실행 시간 초과"));
-                failPayload.put("globalStatus", "FAILED");
-                failPayload.put("globalRunner", currentRunner);
-                failPayload.put("globalProgress", (int) progress[0]);
-                failPayload.put("taskId", currentTaskId);
-                failPayload.put("menu", "ATHENA");
-                broadcast(failPayload);
-
-                // 🌐 Global SSE 실패 알림
-                globalStockService.broadcast("FAILED", currentRunner, progress[0]);
-
-                processRef[0].destroyForcibly();
-                return;
+                case TIMEOUT -> {
+                    log.error("⛔ [{}] Python 실행 시간 초과 ({}초)", taskId, MAX_WAIT_SECONDS);
+                    taskStatusService.fail(taskId, "Python 실행 시간 초과 (" + MAX_WAIT_SECONDS + "초)");
+                    broadcastFail(progress[0], "[ERROR] Python 실행 시간 초과");
+                    return;
+                }
+                case FAILED -> {
+                    log.error("⛔ [{}] {}", taskId, outcome.message());
+                    taskStatusService.fail(taskId, outcome.message());
+                    broadcastFail(progress[0], "[ERROR] Python 비정상 종료");
+                    return;
+                }
+                default -> { }
             }
 
-            int exit = processRef[0].exitValue();
-            if (exit != 0) {
-                log.error("⛔ [{}] Python 비정상 종료 exit={}", taskId, exit);
-                taskStatusService.fail(taskId, "Python 비정상 종료 (exit=" + exit + ")");
-
-                Map<String, Object> failPayload = new LinkedHashMap<>();
-                failPayload.put("status", "FAILED");
-                failPayload.put("progress", progress[0]);
-                failPayload.put("logs", List.of("[ERROR] Python 비정상 종료"));
-                failPayload.put("globalStatus", "FAILED");
-                failPayload.put("globalRunner", currentRunner);
-                failPayload.put("globalProgress", (int) progress[0]);
-                failPayload.put("taskId", currentTaskId);
-                failPayload.put("menu", "ATHENA");
-                broadcast(failPayload);
-
-                // 🌐 Global SSE 실패
-                globalStockService.broadcast("FAILED", currentRunner, progress[0]);
-
-                return;
-            }
-            
             // ===========================================================
             // 🔥 최종 JSON 파싱
             // ===========================================================
             Map<String, Object> resultJson = null;
             try {
-                if (finalJsonBuffer.length() > 0) {
+                if (finalJson[0] != null) {
                     ObjectMapper mapper = new ObjectMapper();
-                    resultJson = mapper.readValue(finalJsonBuffer.toString(), Map.class);
+                    resultJson = mapper.readValue(finalJson[0], Map.class);
                 }
             } catch (Exception ex) {
                 log.error("최종 JSON 파싱 실패: {}", ex.getMessage());
             }
 
-            taskStatusService.complete(taskId);
-
-            Map<String, Object> okPayload = new LinkedHashMap<>();
-            okPayload.put("status", "COMPLETED");
-            okPayload.put("progress", 100);
-            okPayload.put("globalStatus", "COMPLETED");
-            okPayload.put("globalRunner", currentRunner);
-            okPayload.put("globalProgress", 100);
-            okPayload.put("taskId", currentTaskId);
-            okPayload.put("menu", "ATHENA");
-            if (resultJson != null) okPayload.putAll(resultJson);
-            broadcast(okPayload);
-
-            // 🌐 Global SSE에도 완료 상태 전달
-            globalStockService.broadcast("COMPLETED", currentRunner, 100);
-
-            log.info("🎉 [{}] Athena AI 완료", taskId);
+            publishCompleted(taskId, resultJson);
 
         } catch (Exception e) {
 
             log.error("🔥 [{}] 예외 발생 (프로세스 시작 포함): {}", taskId, e.getMessage());
+            progressCoalescer.finish(taskId);
             taskStatusService.fail(taskId, "Java 서비스 예외: " + e.getMessage());
 
             Map<String, Object> failPayload = new LinkedHashMap<>();
@@ -548,37 +549,199 @@ public class StockBatchAthenaAiService {
         } finally {
 
             // ===========================================================
-            // 🔥 프로세스 정리 (항상 실행)
+            // 🔓 상태 정리 (항상 실행, 프로세스 정리는 PythonProcessRunner)
             // ===========================================================
-            try {
-                Process p = processRef[0];
-                if (p != null) {
-                    runningProcesses.remove(taskId);
-                    if (p.isAlive()) {
-                        log.warn("⚠ [{}] 프로세스 종료 시도 (finally)", taskId);
-                        p.destroyForcibly();
-                    }
-                }
-            } catch (Exception ex) {
-                log.warn("⚠ [{}] 프로세스 종료 중 예외: {}", taskId, ex.getMessage());
-            } finally {
+            activeLock.set(false);
 
-                activeLock.set(false);
+            String prev = currentRunner;
+            currentRunner = null;
+            currentTaskId = null;
 
-                String prev = currentRunner;
-                currentRunner = null;
-                currentTaskId = null;
+            // 🔐 전역락 해제
+            globalStockService.releaseLock(taskId);
+            log.info("🔓 [{}] 전역 락 해제 (runner={})", taskId, prev);
 
-                // 🔐 전역락 해제
-                globalStockService.releaseLock(taskId);
-                log.info("🔓 [{}] 전역 락 해제 (runner={})", taskId, prev);
+            // 🌐 전역 SSE → IDLE
+            globalStockService.broadcast("IDLE", "-", 0);
+        }
+    }
 
-                // 🌐 전역 SSE → IDLE
-                globalStockService.broadcast("IDLE", "-", 0);
-            }
+    /** IN_PROGRESS 프레임 전송 (개별 + 전역 SSE, ProgressCoalescer 주기마다 최대 1회) */
+    private void publishFrame(String taskId, String username, ProgressCoalescer.Frame frame) {
+        double progress = frame.progress();
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("status", "IN_PROGRESS");
+        payload.put("runner", username);
+        payload.put("progress", progress);
+        payload.put("logs", frame.logs());
+        payload.put("globalStatus", "RUNNING");
+        payload.put("globalRunner", username);
+        payload.put("globalProgress", Math.min(100, Math.max(0, (int) progress)));
+        payload.put("taskId", taskId);
+        payload.put("menu", "ATHENA");
+        broadcast(payload);
+
+        taskStatusService.updateProgress(taskId, progress, username);
+
+        // 🌐 Global SSE 진행률 반영
+        globalStockService.broadcast("RUNNING", username, progress);
+    }
+
+    /** FAILED 패킷 전송 (개별 + 전역 SSE) */
+    private void broadcastFail(double progress, String logLine) {
+        Map<String, Object> failPayload = new LinkedHashMap<>();
+        failPayload.put("status", "FAILED");
+        failPayload.put("progress", progress);
+        failPayload.put("logs", List.of(logLine));
+        failPayload.put("globalStatus", "FAILED");
+        failPayload.put("globalRunner", currentRunner);
+        failPayload.put("globalProgress", (int) progress);
+        failPayload.put("taskId", currentTaskId);
+        failPayload.put("menu", "ATHENA");
+        broadcast(failPayload);
+
+        // 🌐 Global SSE 실패
+        globalStockService.broadcast("FAILED", currentRunner, progress);
+    }
+
+    // ===============================================================
+    // ⚡ JVM 스크리너 실행
+    // ===============================================================
+    private boolean useJvmEngine(String engine, String pattern) {
+        if (engine == null || engine.isBlank() || "python".equalsIgnoreCase(engine)) return false;
+        if (!AthenaScreener.supports(pattern)) {
+            log.info("↪️ pattern={} 은 JVM 스크리너 미지원 → Python 경로 사용", pattern);
+            return false;
+        }
+        if (!athenaScreener.isReady()) {
+            log.warn("↪️ 컬럼 스토어 미준비 → Python 경로 사용");
+            return false;
+        }
+        return true;
+    }
+
+    private void runJvmAnalyze(String taskId, String pattern, String maPeriods,
+                               int topN, String symbol, String username, boolean force) {
+
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+        runningScans.put(taskId, cancelled);
+        AtomicInteger lastPercent = new AtomicInteger(-1);
+
+        // 🎞️ 스캔 워커는 프레임 채널에 적재만 → SSE / 작업 로그 / 전역 SSE 는 프레임 주기로 전송
+        AtomicReference<Object> sentBoard = new AtomicReference<>();
+        ProgressCoalescer.Channel frames = progressCoalescer.open(taskId,
+                frame -> publishScanFrame(taskId, username, frame, sentBoard));
+
+        log.info("🚀 [{}] AthenaAI JVM 스캔 시작 (pattern={}, ma={}, topN={}, symbol={}, parallelism={})",
+                taskId, pattern, maPeriods, topN, (symbol == null ? "None" : symbol), athenaScreener.parallelism());
+
+        try {
+            Map<String, Object> resultJson = athenaScreener.scan(pattern, maPeriods, topN, symbol, force,
+                    cancelled::get, new AthenaScreener.ProgressListener() {
+                        @Override
+                        public void onProgress(int done, int total) {
+                            double progress = Math.round(done * 10000.0 / total) / 100.0;
+                            frames.update("progress", progress);
+
+                            // 로그 줄은 1% 단위로만 (종목마다 로그 적재 방지)
+                            int percent = (int) ((long) done * 100 / total);
+                            int prev = lastPercent.get();
+                            if (percent <= prev || !lastPercent.compareAndSet(prev, percent)) return;
+                            frames.logs(List.of("[JVM] 분석 진행 " + done + "/" + total + " (" + progress + "%)"));
+                        }
+
+                        @Override
+                        public void onLeaderboard(List<ScreenCandidate> top, int done, int total) {
+                            // 🏆 중간 순위표 (스캔 도중 상위 N개 미리 표시) → 다음 프레임에 1회 전송
+                            if (cancelled.get()) return;
+                            frames.update("scanned", done);
+                            frames.update("total", total);
+                            frames.update("leaderboard", AthenaScreener.resultPayload(top, pattern, "analyze_partial"));
+                        }
+                    });
+
+            if (cancelled.get()) return;
+
+            // 남은 진행 프레임 즉시 전송 → 이후 종료 패킷
+            frames.finish();
+            publishCompleted(taskId, resultJson);
+
+        } catch (CancellationException e) {
+            log.warn("⛔ [{}] JVM 스캔 취소됨", taskId);
+        } finally {
+            runningScans.remove(taskId);
+            frames.finish();
         }
     }
 
+    /** JVM 스캔 프레임 : 진행률 패킷 + 작업 로그 적재 + (바뀐 경우) 중간 순위표 패킷 */
+    private void publishScanFrame(String taskId, String username, ProgressCoalescer.Frame frame,
+                                  AtomicReference<Object> sentBoard) {
+        if (!frame.logs().isEmpty()) taskStatusService.appendLogs(taskId, frame.logs());
+        publishFrame(taskId, username, frame);
+
+        Object board = frame.state().get("leaderboard");
+        if (!(board instanceof Map<?, ?> result) || sentBoard.getAndSet(board) == board) return;
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("status", "IN_PROGRESS");
+        payload.put("runner", username);
+        payload.put("progress", frame.progress());
+        payload.put("partial", true);
+        payload.put("scanned", frame.counter("scanned"));
+        payload.put("total", frame.counter("total"));
+        payload.put("taskId", taskId);
+        payload.put("menu", "ATHENA");
+        for (Map.Entry<?, ?> e : result.entrySet()) payload.put(String.valueOf(e.getKey()), e.getValue());
+        broadcast(payload);
+    }
+
+    /** 사전 계산/캐시 결과로 즉시 응답 가능한지 (컨트롤러 전역 락 검사 생략용) */
+    public boolean canServeFromLookup(String pattern, String maPeriods, String symbol,
+                                      boolean force, String engine) {
+        if (force || engine == null || "python".equalsIgnoreCase(engine)) return false;
+        if (!AthenaScreener.supports(pattern) || !athenaScreener.isReady()) return false;
+        return athenaScreener.lookup(pattern, maPeriods, 1, symbol) != null;
+    }
+
+    private void publishLookup(String taskId, String username, Map<String, Object> resultJson) {
+        taskStatusService.reset(taskId);
+        taskStatusService.complete(taskId);
+
+        Map<String, Object> okPayload = new LinkedHashMap<>();
+        okPayload.put("status", "COMPLETED");
+        okPayload.put("runner", username);
+        okPayload.put("progress", 100);
+        okPayload.put("cached", true);
+        okPayload.put("taskId", taskId);
+        okPayload.put("menu", "ATHENA");
+        okPayload.putAll(resultJson);
+        broadcast(okPayload);
+
+        log.info("⚡ [{}] Athena 사전 계산 결과로 즉시 완료 (filter={})", taskId, resultJson.get("filter"));
+    }
+
+    private void publishCompleted(String taskId, Map<String, Object> resultJson) {
+        taskStatusService.complete(taskId);
+
+        Map<String, Object> okPayload = new LinkedHashMap<>();
+        okPayload.put("status", "COMPLETED");
+        okPayload.put("progress", 100);
+        okPayload.put("globalStatus", "COMPLETED");
+        okPayload.put("globalRunner", currentRunner);
+        okPayload.put("globalProgress", 100);
+        okPayload.put("taskId", currentTaskId);
+        okPayload.put("menu", "ATHENA");
+        if (resultJson != null) okPayload.putAll(resultJson);
+        broadcast(okPayload);
+
+        // 🌐 Global SSE에도 완료 상태 전달
+        globalStockService.broadcast("COMPLETED", currentRunner, 100);
+
+        log.info("🎉 [{}] Athena AI 완료", taskId);
+    }
+
     // ===============================================================
     // ❌ 취소
     // ===============================================================
@@ -587,12 +750,17 @@ public class StockBatchAthenaAiService {
         if (!Objects.equals(taskId, currentTaskId)) return false;
         if (!Objects.equals(username, currentRunner)) return false;
 
-        Process p = runningProcesses.remove(taskId);
-        if (p != null && p.isAlive()) {
-            p.destroyForcibly();
+        if (pythonProcessRunner.cancel(taskId)) {
             log.warn("⛔ [{}] 강제 취소됨 by {}", taskId, username);
         }
 
+        AtomicBoolean scan = runningScans.remove(taskId);
+        if (scan != null) {
+            scan.set(true);
+            log.warn("⛔ [{}] JVM 스캔 강제 취소됨 by {}", taskId, username);
+        }
+
+        progressCoalescer.finish(taskId);
         taskStatusService.cancel(taskId);
 
         Map<String, Object> payload = new LinkedHashMap<>();
@@ -624,11 +792,6 @@ public class StockBatchAthenaAiService {
     // ===============================================================
     // 🔧 유틸
     // ===============================================================
-    private double safeDouble(String s) {
-        try { return Double.parseDouble(s.trim()); }
-        catch (Exception e) { return 0.0; }
-    }
-
     public boolean isLocked() { 
         return activeLock.get(); 
     }
@@ -7,27 +7,40 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.io.File;
+import com.afhk.app.python.ProgressCoalescer;
+import com.afhk.app.python.PythonOutputListener;
+import com.afhk.app.python.PythonEventDecoder;
+import com.afhk.app.python.PythonProcessRunner;
+import com.afhk.app.stock.DailyBarUpdater;
+import com.afhk.app.stock.OhlcvColumnStore;
+import com.afhk.app.stock.ScreeningMaterializer;
+import com.afhk.app.stock.StockDataManifest;
+
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.time.LocalDate;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * ===============================================================
  * 📊 StockBatchGProdService (v3.8 - 전역 menu + SSE 전체 반영 완전체)
  * ---------------------------------------------------------------
+ * ✅ Python 실행/출력 파싱은 PythonProcessRunner (리더 스레드 + 큐, SSE 가 느려도 파이프 안 막힘)
+ * ✅ 진행 SSE 는 ProgressCoalescer 프레임 단위 전송 (최신 상태 + 로그 묶음, 종료 패킷은 즉시)
  * ✅ Python 멈춤(출력 無 15초↑) 자동 FAIL + 즉시 kill
  * ✅ waitFor 3분 초과 시 강제 종료
  * ✅ 실패/예외/타임아웃 시 [ERROR] 로그 자동 전송 (화면 표시)
  * ✅ 전역락 즉시 해제/취소 후 즉시 재시작 가능
  * ✅ 전역 + KRX + 개별 데이터 + 로그 완전 동기화 초기화
  * ✅ 🔥 모든 SSE 패킷(taskId + menu 100% 포함)
+ * ✅ 📋 실행 전 manifest 로 갱신 대상 판정
+ *    - 전 종목 이미 최신 + KRX 목록 오늘자 → Python 미실행, 즉시 COMPLETED
+ *    - 이미 최신 종목은 --skip_codes_file 로 전달 → parquet 읽기 생략
  * ===============================================================
  */
 @Service
@@ -37,9 +50,12 @@ public class StockBatchGProdService {
 
     private final TaskStatusService taskStatusService;
     private final GlobalStockService globalStockService;
-
-    @Value("${python.executable.path:python}")
-    private String pythonExe;
+    private final OhlcvColumnStore ohlcvColumnStore;
+    private final DailyBarUpdater dailyBarUpdater;
+    private final ScreeningMaterializer screeningMaterializer;
+    private final StockDataManifest stockDataManifest;
+    private final PythonProcessRunner pythonProcessRunner;
+    private final ProgressCoalescer progressCoalescer;
 
     @Value("${python.update_stock_listing_prod.path}")
     private String scriptPath;
@@ -48,16 +64,30 @@ public class StockBatchGProdService {
     private String workingDir;
 
     private final AtomicBoolean activeLock = new AtomicBoolean(false);
-    private final Map<String, Process> runningProcesses = new ConcurrentHashMap<>();
     private final CopyOnWriteArrayList<SseEmitter> emitters = new CopyOnWriteArrayList<>();
-    private final ScheduledExecutorService hangWatcher = Executors.newSingleThreadScheduledExecutor();
+
+    // 로그 무응답 한도: 15초
+    private static final long HANG_TIMEOUT_MS = 15_000L;
 
     private volatile String currentRunner = null;
     private volatile String currentTaskId = null;
 
-    public StockBatchGProdService(TaskStatusService taskStatusService, GlobalStockService globalStockService) {
+    public StockBatchGProdService(TaskStatusService taskStatusService,
+                                  GlobalStockService globalStockService,
+                                  OhlcvColumnStore ohlcvColumnStore,
+                                  DailyBarUpdater dailyBarUpdater,
+                                  ScreeningMaterializer screeningMaterializer,
+                                  StockDataManifest stockDataManifest,
+                                  PythonProcessRunner pythonProcessRunner,
+                                  ProgressCoalescer progressCoalescer) {
         this.taskStatusService = taskStatusService;
         this.globalStockService = globalStockService;
+        this.ohlcvColumnStore = ohlcvColumnStore;
+        this.dailyBarUpdater = dailyBarUpdater;
+        this.screeningMaterializer = screeningMaterializer;
+        this.stockDataManifest = stockDataManifest;
+        this.pythonProcessRunner = pythonProcessRunner;
+        this.progressCoalescer = progressCoalescer;
     }
 
     // ===============================================================
@@ -195,188 +225,98 @@ public class StockBatchGProdService {
             }
         }, 200);
         
-        Process[] processRef = new Process[1];
+        Path skipFile = null;
 
         try {
             // ===============================================================
-            // 🔧 Python 실행 커맨드 구성
+            // 📋 manifest 로 갱신 대상 사전 판정 (force 는 전체 재다운로드)
             // ===============================================================
-            List<String> cmd = new ArrayList<>();
-            cmd.add(pythonExe);
-            cmd.add("-u");
-            cmd.add(scriptPath);
-            cmd.add("--workers");
-            cmd.add(String.valueOf(workers));
-            cmd.add("--history_years");
-            cmd.add(String.valueOf(historyYears));
-            if (force) cmd.add("--force");
-
-            ProcessBuilder pb = new ProcessBuilder(cmd);
-            pb.directory(new File(workingDir));
-            pb.redirectErrorStream(true);
-            pb.environment().put("PYTHONIOENCODING", "utf-8");
+            StockDataManifest.Staleness staleness = force ? null : checkStaleness(taskId);
 
-            // ===============================================================
-            // 🚀 Python 프로세스 시작
-            // ===============================================================
-            processRef[0] = pb.start();
-            runningProcesses.put(taskId, processRef[0]);
-            log.info("🚀 [{}] Python 프로세스 시작됨", taskId);
+            if (staleness != null && staleness.allCurrent()) {
+                completeWithoutPython(taskId, staleness);
+                return;
+            }
+            if (staleness != null && !staleness.current().isEmpty()) {
+                skipFile = Files.createTempFile("gprod-skip-", ".txt");
+                Files.write(skipFile, staleness.current(), StandardCharsets.UTF_8);
+            }
 
             // ===============================================================
-            // 🔍 패턴 정의
+            // 🔧 Python 실행 인자 구성
             // ===============================================================
-            Pattern pProgress  = Pattern.compile("\\[PROGRESS]\\s*(\\d+(?:\\.\\d+)?)");
-            Pattern pKrxTotal  = Pattern.compile("\\[KRX_TOTAL]\\s*(\\d+)");
-            Pattern pKrxSaved  = Pattern.compile("\\[KRX_SAVED]\\s*(\\d+)");
-            Pattern pDataCount = Pattern.compile("\\((\\d+)/(\\d+)\\)");
+            List<String> argv = new ArrayList<>();
+            argv.add("--workers");
+            argv.add(String.valueOf(workers));
+            argv.add("--history_years");
+            argv.add(String.valueOf(historyYears));
+            if (force) argv.add("--force");
+            if (skipFile != null) {
+                argv.add("--skip_codes_file");
+                argv.add(skipFile.toString());
+            }
 
-            int[] krxTotal = {0}, krxSaved = {0}, dataSaved = {0}, dataTotal = {0};
             double[] progress = {0.0};
-            List<String> logs = new ArrayList<>();
-            long[] lastLogTime = {System.currentTimeMillis()};
-
-            // ===============================================================
-            // 🛑 Hang 감시 (15초 무응답 → 강제 종료)
-            // ===============================================================
-            Future<?> hangMonitor = hangWatcher.scheduleAtFixedRate(() -> {
-                long gap = System.currentTimeMillis() - lastLogTime[0];
-
-                if (gap > 15000 && processRef[0] != null && processRef[0].isAlive()) {
-                    log.error("⚠️ [{}] 15초 이상 로그 없음 → 프로세스 강제 종료", taskId);
-
-                    try {
-                        processRef[0].destroyForcibly();
-                        taskStatusService.fail(taskId,
-                                "Python 로그 정지 감지됨 (hang)");
-
-                        Map<String, Object> failPayload = new LinkedHashMap<>();
-                        failPayload.put("status", "FAILED");
-                        failPayload.put("progress", progress[0]);
-                        failPayload.put("logs", List.of("[ERROR] Python 프로세스 비정상 종료 또는 중단 감지됨 (15초 무응답)"));
-                        failPayload.put("globalStatus", "FAILED");
-                        failPayload.put("globalRunner", currentRunner);
-                        failPayload.put("globalProgress", (int)Math.floor(progress[0]));
-                        failPayload.put("taskId", taskId);
-                        failPayload.put("menu", "GPROD");   // 🔥 추가
-                        broadcast(failPayload);
-
-                    } catch (Exception ex) {
-                        log.error("❌ [{}] hang 감지 처리 중 예외: {}", taskId, ex.getMessage());
-                    }
-                }
-            }, 5, 5, TimeUnit.SECONDS);
 
+            // 🎞️ IN_PROGRESS 는 프레임 단위 (줄마다 SSE 전송 X)
+            ProgressCoalescer.Channel frames =
+                    progressCoalescer.open(taskId, frame -> publishFrame(taskId, username, frame));
 
             // ===============================================================
-            // 📥 Python stdout 읽기 & 실시간 파싱
+            // 🚀 Python 실행 (PythonProcessRunner : 리더 스레드 → 큐 → 이 스레드에서 파싱/전송)
+            //    15초 무응답 → HANG / 출력 종료 후 3분 내 미종료 → TIMEOUT
             // ===============================================================
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(processRef[0].getInputStream(), StandardCharsets.UTF_8))) {
-
-                String line;
-
-                while ((line = reader.readLine()) != null) {
-                    lastLogTime[0] = System.currentTimeMillis();
-
-                    logs.add(line);
-                    taskStatusService.appendLog(taskId, line);
-                    log.info("[PYTHON] {}", line);
-
-                    Matcher m1 = pProgress.matcher(line);
-                    Matcher m2 = pKrxTotal.matcher(line);
-                    Matcher m3 = pKrxSaved.matcher(line);
-                    Matcher m4 = pDataCount.matcher(line);
-
-                    if (m1.find()) progress[0] = safeDouble(m1.group(1));
-                    if (m2.find()) krxTotal[0] = safeInt(m2.group(1));
-                    if (m3.find()) krxSaved[0] = safeInt(m3.group(1));
-                    if (m4.find()) {
-                        dataSaved[0] = safeInt(m4.group(1));
-                        dataTotal[0] = safeInt(m4.group(2));
-                    }
-
-                    // ===============================================================
-                    // 🔥 IN_PROGRESS SSE payload — menu:"GPROD"
-                    // ===============================================================
-                    Map<String, Object> payload = new LinkedHashMap<>();
-                    payload.put("status", "IN_PROGRESS");
-                    payload.put("runner", username);
-                    payload.put("progress", progress[0]);
-                    payload.put("krxTotal", krxTotal[0]);
-                    payload.put("krxSaved", krxSaved[0]);
-                    payload.put("dataTotal", dataTotal[0]);
-                    payload.put("dataSaved", dataSaved[0]);
-                    payload.put("logs", new ArrayList<>(logs));
-                    payload.put("globalStatus", "RUNNING");
-                    payload.put("globalRunner", username);
-                    payload.put("globalProgress",
-                            Math.min(100, Math.max(0,(int)Math.floor(progress[0]))));
-                    payload.put("taskId", taskId);
-                    payload.put("menu", "GPROD");        // 🔥 추가됨
-
-                    broadcast(payload);
-                    globalStockService.broadcast("RUNNING", username, progress[0]);   // 🔥 전역 진행률 반영 추가
-                    taskStatusService.updateProgress(taskId, progress[0], username);
-
-                    logs.clear();
-                }
-
-            } finally {
-                hangMonitor.cancel(true);
-            }
-
-
-            // ===============================================================
-            // ⏱ waitFor 제한 (3분)
-            // ===============================================================
-            boolean finished = processRef[0].waitFor(Duration.ofMinutes(3).toSeconds(),
-                    TimeUnit.SECONDS);
-
-            if (!finished) {
-                log.error("⏱ [{}] Python 실행 시간 초과 - 프로세스 강제 종료", taskId);
-
-                taskStatusService.fail(taskId, "Python 실행 시간 초과");
-
-                Map<String, Object> failPayload = new LinkedHashMap<>();
-                failPayload.put("status", "FAILED");
-                failPayload.put("progress", progress[0]);
-                failPayload.put("logs", List.of("[ERROR] Python 실행 시간 초과 (3분 제한 초과)"));
-                failPayload.put("globalStatus", "FAILED");
-                failPayload.put("globalRunner", currentRunner);
-                failPayload.put("globalProgress", (int)Math.floor(progress[0]));
-                failPayload.put("taskId", taskId);
-                failPayload.put("menu", "GPROD");     // 🔥 추가됨
-                broadcast(failPayload);
-
-                processRef[0].destroyForcibly();
-                return;
-            }
-
+            PythonProcessRunner.Outcome outcome = pythonProcessRunner.run(
+                    new PythonProcessRunner.Spec(taskId, scriptPath, argv, false, PythonEventDecoder.INSTANCE,
+                            HANG_TIMEOUT_MS, Duration.ofMinutes(3).toMillis()),
+                    new PythonOutputListener() {
+                        @Override
+                        public void onProgress(double percent) {
+                            progress[0] = percent;
+                            frames.update("progress", percent);
+                        }
+
+                        @Override
+                        public void onCounter(String name, long value) {
+                            frames.update(name, value);   // krxTotal / krxSaved / dataSaved / dataTotal
+                        }
+
+                        @Override
+                        public void onLogs(List<String> lines) {
+                            taskStatusService.appendLogs(taskId, lines);
+                            frames.logs(lines);
+                        }
+                    });
+
+            // 남은 진행 프레임 즉시 전송 → 이후 종료 패킷
+            frames.finish();
 
             // ===============================================================
-            // 🔥 정상/비정상 종료 코드 체크
+            // 🔥 종료 상태 체크 (취소는 cancelTask 에서 이미 전파됨)
             // ===============================================================
-            int exit = processRef[0].exitValue();
-
-            if (exit != 0) {
-                log.error("❌ [{}] Python 비정상 종료(exitCode={})", taskId, exit);
-
-                taskStatusService.fail(taskId,
-                        "Python 비정상 종료(exit=" + exit + ")");
-
-                Map<String, Object> failPayload = new LinkedHashMap<>();
-                failPayload.put("status", "FAILED");
-                failPayload.put("progress", progress[0]);
-                failPayload.put("logs",
-                        List.of("[ERROR] Python 비정상 종료 (exitCode=" + exit + ")"));
-                failPayload.put("globalStatus", "FAILED");
-                failPayload.put("globalRunner", currentRunner);
-                failPayload.put("globalProgress", (int)Math.floor(progress[0]));
-                failPayload.put("taskId", taskId);
-                failPayload.put("menu", "GPROD");   // 🔥
-                broadcast(failPayload);
-                return;
+            switch (outcome.status()) {
+                case CANCELLED -> {
+                    return;
+                }
+                case HANG -> {
+                    taskStatusService.fail(taskId, "Python 로그 정지 감지됨 (hang)");
+                    broadcastFail(taskId, progress[0],
+                            "[ERROR] Python 프로세스 비정상 종료 또는 중단 감지됨 (15초 무응답)");
+                    return;
+                }
+                case TIMEOUT -> {
+                    taskStatusService.fail(taskId, "Python 실행 시간 초과");
+                    broadcastFail(taskId, progress[0], "[ERROR] Python 실행 시간 초과 (3분 제한 초과)");
+                    return;
+                }
+                case FAILED -> {
+                    log.error("❌ [{}] Python 비정상 종료(exitCode={})", taskId, outcome.exitCode());
+                    taskStatusService.fail(taskId, "Python 비정상 종료(exit=" + outcome.exitCode() + ")");
+                    broadcastFail(taskId, progress[0],
+                            "[ERROR] Python 비정상 종료 (exitCode=" + outcome.exitCode() + ")");
+                    return;
+                }
+                default -> { }
             }
 
 
@@ -397,6 +337,16 @@ public class StockBatchGProdService {
 
             log.info("✅ [{}] Python 정상 종료 및 완료", taskId);
 
+            // 🗄️ 컬럼 스토어 갱신 (백그라운드) → 완료 후 Athena 전 필터 사전 계산
+            //    - 갱신 대상 종목만 parquet 꼬리 구간을 읽어 스토어에 append (여유 부족 / 정정 시에만 compaction)
+            //      (parquet 파일은 위 Python 이 종목별로 이미 재기록함 → 증분은 스토어 쪽만)
+            //    - force / 상장 목록 재다운로드 (신규·상폐 종목 변동 가능) → 전체 재빌드
+            Future<?> storeRefresh = staleness != null && staleness.listingFresh()
+                    ? dailyBarUpdater.updateAsync(staleness.stale())
+                    : ohlcvColumnStore.rebuildAsync();
+            screeningMaterializer.materializeAfter(storeRefresh);
+            stockDataManifest.refreshAsync();
+
             globalStockService.releaseLock(taskId);
         
         } catch (Exception e) {
@@ -405,6 +355,7 @@ public class StockBatchGProdService {
             // 💥 실행 중 예외 처리 (Java 내부 오류)
             // ===============================================================
             log.error("💥 [{}] 실행 중 예외 발생", taskId, e);
+            progressCoalescer.finish(taskId);
             taskStatusService.fail(taskId, e.getMessage());
 
             Map<String, Object> failPayload = new LinkedHashMap<>();
@@ -425,13 +376,9 @@ public class StockBatchGProdService {
             // 🧹 프로세스 정리
             // ===============================================================
             try {
-                Process p = runningProcesses.remove(taskId);
-                if (p != null && p.isAlive()) {
-                    log.warn("💀 [{}] 프로세스 여전히 실행 중 → 강제 종료 시도", taskId);
-                    p.destroyForcibly();
-                }
+                if (skipFile != null) Files.deleteIfExists(skipFile);
             } catch (Exception ex) {
-                log.warn("⚠️ [{}] 프로세스 종료 중 예외: {}", taskId, ex.getMessage());
+                log.warn("⚠️ [{}] 임시 파일 정리 중 예외: {}", taskId, ex.getMessage());
             } finally {
 
                 // ===============================================================
@@ -452,6 +399,50 @@ public class StockBatchGProdService {
     }
 
 
+    // ===============================================================
+    // 📋 manifest 판정
+    // ===============================================================
+
+    /** manifest 동기화(stat 위주) 후 갱신 대상 판정. 실패 시 null → 기존 방식으로 실행 */
+    private StockDataManifest.Staleness checkStaleness(String taskId) {
+        long started = System.currentTimeMillis();
+        try {
+            if (stockDataManifest.refresh() < 0) return null;
+            StockDataManifest.Staleness st = stockDataManifest.staleness(LocalDate.now());
+            log.info("📋 [{}] 갱신 대상 {}건 / 이미 최신 {}건 (KRX 목록 {}), {} ms", taskId,
+                    st.stale().size(), st.current().size(), st.listingFresh() ? "오늘자" : "재다운로드 필요",
+                    System.currentTimeMillis() - started);
+            return st;
+        } catch (IOException e) {
+            log.warn("⚠️ [{}] manifest 판정 실패 → 전체 점검 실행: {}", taskId, e.getMessage());
+            return null;
+        }
+    }
+
+    /** 전 종목 이미 최신 → Python 없이 완료 (데이터 변경 없으므로 재빌드도 생략) */
+    private void completeWithoutPython(String taskId, StockDataManifest.Staleness staleness) {
+        int total = staleness.current().size();
+        taskStatusService.complete(taskId);
+
+        Map<String, Object> completePayload = new LinkedHashMap<>();
+        completePayload.put("status", "COMPLETED");
+        completePayload.put("progress", 100);
+        completePayload.put("krxTotal", total);
+        completePayload.put("krxSaved", total);
+        completePayload.put("dataTotal", total);
+        completePayload.put("dataSaved", total);
+        completePayload.put("logs", List.of("[LOG] 전 종목 이미 최신 (" + total + "건, manifest 판정)"));
+        completePayload.put("globalStatus", "COMPLETED");
+        completePayload.put("globalRunner", currentRunner);
+        completePayload.put("globalProgress", 100);
+        completePayload.put("taskId", taskId);
+        completePayload.put("menu", "GPROD");
+        broadcast(completePayload);
+
+        log.info("✅ [{}] 전 종목 이미 최신 → Python 생략", taskId);
+    }
+
+
     // ===============================================================
     // ❌ 취소
     // ===============================================================
@@ -462,12 +453,11 @@ public class StockBatchGProdService {
         if (!Objects.equals(username, currentRunner)) return false;
 
         // Python 프로세스 종료
-        Process p = runningProcesses.remove(taskId);
-        if (p != null && p.isAlive()) {
-            p.destroyForcibly();
+        if (pythonProcessRunner.cancel(taskId)) {
             log.warn("🟥 [{}] 프로세스 강제 취소됨 by {}", taskId, username);
         }
 
+        progressCoalescer.finish(taskId);
         taskStatusService.cancel(taskId);
 
         Map<String, Object> payload = new LinkedHashMap<>();
@@ -493,14 +483,42 @@ public class StockBatchGProdService {
     // ===============================================================
     // 🔧 유틸
     // ===============================================================
-    private int safeInt(String s) {
-        try { return Integer.parseInt(s.trim()); }
-        catch (Exception e) { return 0; }
+    /** IN_PROGRESS 프레임 전송 — menu:"GPROD" (ProgressCoalescer 주기마다 최대 1회) */
+    private void publishFrame(String taskId, String username, ProgressCoalescer.Frame frame) {
+        double progress = frame.progress();
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("status", "IN_PROGRESS");
+        payload.put("runner", username);
+        payload.put("progress", progress);
+        payload.put("krxTotal", frame.counter("krxTotal"));
+        payload.put("krxSaved", frame.counter("krxSaved"));
+        payload.put("dataTotal", frame.counter("dataTotal"));
+        payload.put("dataSaved", frame.counter("dataSaved"));
+        payload.put("logs", frame.logs());
+        payload.put("globalStatus", "RUNNING");
+        payload.put("globalRunner", username);
+        payload.put("globalProgress", Math.min(100, Math.max(0, (int) Math.floor(progress))));
+        payload.put("taskId", taskId);
+        payload.put("menu", "GPROD");
+
+        broadcast(payload);
+        globalStockService.broadcast("RUNNING", username, progress);   // 🔥 전역 진행률 반영
+        taskStatusService.updateProgress(taskId, progress, username);
     }
 
-    private double safeDouble(String s) {
-        try { return Double.parseDouble(s.trim()); }
-        catch (Exception e) { return 0.0; }
+    /** FAILED 패킷 전송 — menu:"GPROD" */
+    private void broadcastFail(String taskId, double progress, String logLine) {
+        Map<String, Object> failPayload = new LinkedHashMap<>();
+        failPayload.put("status", "FAILED");
+        failPayload.put("progress", progress);
+        failPayload.put("logs", List.of(logLine));
+        failPayload.put("globalStatus", "FAILED");
+        failPayload.put("globalRunner", currentRunner);
+        failPayload.put("globalProgress", (int) Math.floor(progress));
+        failPayload.put("taskId", taskId);
+        failPayload.put("menu", "GPROD");
+        broadcast(failPayload);
     }
 
     // ===============================================================
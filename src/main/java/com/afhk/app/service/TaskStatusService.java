@@ -112,6 +112,19 @@ public class TaskStatusService {
         if (list.size() > MAX_LOG_LINES) list.remove(0);
     }
 
+    /** 로그 여러 줄 추가 (복사 1회, Python 출력 묶음용) */
+    public void appendLogs(String taskId, List<String> lines) {
+        if (lines.isEmpty()) return;
+        List<LogLine> list = logsMap.computeIfAbsent(taskId, k -> new CopyOnWriteArrayList<>());
+        int last = logSeqMap.merge(taskId, lines.size(), Integer::sum);
+        int seq = last - lines.size();
+        List<LogLine> add = new ArrayList<>(lines.size());
+        for (String line : lines) add.add(new LogLine(++seq, line));
+        list.addAll(add);
+        int excess = list.size() - MAX_LOG_LINES;
+        if (excess > 0) list.subList(0, excess).clear();
+    }
+
     /** 로그 조회 */
     public List<LogLine> getLogs(String taskId) {
         return logsMap.getOrDefault(taskId, List.of());
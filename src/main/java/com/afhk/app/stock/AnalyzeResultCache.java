@@ -0,0 +1,176 @@
+package com.afhk.app.stock;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * ===============================================================
+ * 🗃️ AnalyzeResultCache (v1.0 - analyze 결과 캐시, dataVersion 기준)
+ * ---------------------------------------------------------------
+ * ✅ 키 = dataVersion + filter + MA 기간 + 종목 (날짜·top_n 제외)
+ *    → top 10 다음 top 20 요청도 같은 계산 결과에서 잘라서 응답
+ * ✅ 값 = 전체 순위 목록 (1위부터, Python results 항목 형태)
+ * ✅ L1 : Caffeine (메모리) / L2 : store.path/analyze_cache/{dataVersion}/*.json
+ * ✅ 컬럼 스토어 세대 교체(GProd 갱신) 시 L1 비움 + 이전 버전 L2 디렉터리 삭제
+ * ===============================================================
+ */
+@Component
+public class AnalyzeResultCache {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyzeResultCache.class);
+
+    private static final String CACHE_DIR = "analyze_cache";
+    private static final int L1_MAX_ENTRIES = 64;
+
+    private final OhlcvColumnStore columnStore;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Cache<String, List<Map<String, Object>>> l1 = Caffeine.newBuilder()
+            .maximumSize(L1_MAX_ENTRIES)
+            .build();
+
+    @Value("${python.stock.store.path:}")
+    private String storeDir;
+
+    private volatile long dataVersion;
+
+    public AnalyzeResultCache(OhlcvColumnStore columnStore) {
+        this.columnStore = columnStore;
+    }
+
+    @PostConstruct
+    public void init() {
+        columnStore.addListener(this::onGeneration);
+        dataVersion = columnStore.dataVersion();
+        if (dataVersion != 0) prune(dataVersion);
+    }
+
+    // ===============================================================
+    // 🔍 조회 / 저장
+    // ===============================================================
+
+    /** 전체 순위 목록 (없으면 null) */
+    public List<Map<String, Object>> get(long version, String filter, List<Integer> periods, String symbol) {
+        String key = key(version, filter, periods, symbol);
+        List<Map<String, Object>> ranked = l1.getIfPresent(key);
+        if (ranked != null) return ranked;
+
+        Path file = file(version, filter, periods, symbol);
+        if (file == null || !Files.isRegularFile(file)) return null;
+        try {
+            ranked = List.copyOf(mapper.readValue(file.toFile(),
+                    new TypeReference<List<Map<String, Object>>>() {}));
+            l1.put(key, ranked);
+            return ranked;
+        } catch (IOException e) {
+            log.warn("⚠️ analyze 캐시 읽기 실패 → 재계산: {} ({})", file.getFileName(), e.getMessage());
+            return null;
+        }
+    }
+
+    public void put(long version, String filter, List<Integer> periods, String symbol,
+                    List<Map<String, Object>> ranked) {
+        // 스캔 도중 세대가 바뀌었으면 이미 지난 버전 → 저장하지 않음
+        if (version != columnStore.dataVersion()) return;
+
+        List<Map<String, Object>> value = List.copyOf(ranked);
+        l1.put(key(version, filter, periods, symbol), value);
+
+        Path file = file(version, filter, periods, symbol);
+        if (file == null) return;
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            mapper.writeValue(tmp.toFile(), value);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("⚠️ analyze 캐시 저장 실패: {} ({})", file.getFileName(), e.getMessage());
+        }
+    }
+
+    /** 순위 목록에서 top_n 만큼 잘라냄 (top_n <= 0 이면 전체) */
+    public static List<Map<String, Object>> slice(List<Map<String, Object>> ranked, int topN) {
+        if (topN <= 0 || ranked.size() <= topN) return new ArrayList<>(ranked);
+        return new ArrayList<>(ranked.subList(0, topN));
+    }
+
+    // ===============================================================
+    // ♻️ 세대 교체 → 무효화
+    // ===============================================================
+
+    private void onGeneration(OhlcvColumnStore.Snapshot snap) {
+        long version = snap.dataVersion();
+        if (version == dataVersion) return;
+        dataVersion = version;
+        l1.invalidateAll();
+        prune(version);
+        log.info("♻️ analyze 결과 캐시 무효화 (dataVersion={})", Long.toHexString(version));
+    }
+
+    /** 현재 버전 외 L2 디렉터리 삭제 */
+    private void prune(long version) {
+        Path root = root();
+        if (root == null || !Files.isDirectory(root)) return;
+        String keep = Long.toHexString(version);
+        try (Stream<Path> dirs = Files.list(root)) {
+            for (Path dir : dirs.filter(d -> !d.getFileName().toString().equals(keep)).toList()) {
+                deleteTree(dir);
+            }
+        } catch (IOException e) {
+            log.warn("⚠️ 이전 analyze 캐시 정리 실패: {}", e.getMessage());
+        }
+    }
+
+    private static void deleteTree(Path dir) throws IOException {
+        try (Stream<Path> s = Files.walk(dir)) {
+            for (Path p : s.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    // ===============================================================
+    // 🔧 키 / 경로
+    // ===============================================================
+
+    private static String key(long version, String filter, List<Integer> periods, String symbol) {
+        return Long.toHexString(version) + "|" + name(filter, periods, symbol);
+    }
+
+    /** {filter}_{기간}_{종목|all} (기간 순서 = above_ma 키 순서이므로 정렬하지 않음) */
+    private static String name(String filter, List<Integer> periods, String symbol) {
+        String p = periods.stream().distinct().map(String::valueOf).collect(Collectors.joining("-"));
+        String f = filter == null ? "ma_only" : filter.replaceAll("[^A-Za-z0-9_]", "_");
+        String s = symbol == null || symbol.isBlank() ? "all" : symbol.trim().replaceAll("[^A-Za-z0-9]", "_");
+        return f + "_" + p + "_" + s;
+    }
+
+    private Path root() {
+        if (storeDir == null || storeDir.isBlank()) return null;
+        return Paths.get(storeDir).resolve(CACHE_DIR);
+    }
+
+    private Path file(long version, String filter, List<Integer> periods, String symbol) {
+        Path root = root();
+        if (root == null) return null;
+        return root.resolve(Long.toHexString(version)).resolve(name(filter, periods, symbol) + ".json");
+    }
+}
@@ -0,0 +1,159 @@
+package com.afhk.app.stock;
+
+import com.afhk.app.stock.pattern.PatternDetector;
+import com.afhk.app.stock.pattern.PatternFrame;
+import com.afhk.app.stock.pattern.PatternMatch;
+import com.afhk.app.stock.pattern.PatternReport;
+import com.afhk.app.stock.pattern.PatternType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ===============================================================
+ * 📈 AthenaChartBuilder (v1.0 - generate_chart JVM 이식)
+ * ---------------------------------------------------------------
+ * ✅ 컬럼 스토어 스냅샷 + IndicatorEngine → ChartData (프로세스 실행 없음)
+ * ✅ df_full = dropna(feature_subset) / 차트 = 마지막 chart_period 행
+ * ✅ MA : SMA_20/50/200 은 지표값, 그 외 기간은 차트 구간 rolling(min_periods=1)
+ * ✅ 패턴 : df_full 전체 프레임으로 PatternDetector → neckline 있는 것만 pattern_points
+ * ✅ maxPoints > 0 이면 ChartDownsampler (선 = LTTB, 캔들 = 구간 집계)
+ * ✅ (종목, 종목 데이터 버전, MA, chart_period, maxPoints) 별 1회 계산 후 캐시
+ * ✅ etag : 종목 데이터 버전 + 파라미터 + 응답 형식 → 계산 없이 조건부 GET 판정
+ * ✅ 스토어 미준비 / 종목 없음 → null (호출 측에서 Python 경로로 대체)
+ * ===============================================================
+ */
+@Component
+public class AthenaChartBuilder {
+
+    private final OhlcvColumnStore columnStore;
+    private final AthenaScreener screener;
+    private final PatternDetector detector = new PatternDetector();
+    private final ThreadLocal<IndicatorEngine> engines = ThreadLocal.withInitial(IndicatorEngine::new);
+
+    private static final int CACHE_MAX_ENTRIES = 512;
+    private final Cache<String, ChartData> cache = Caffeine.newBuilder()
+            .maximumSize(CACHE_MAX_ENTRIES)
+            .build();
+
+    public AthenaChartBuilder(OhlcvColumnStore columnStore, AthenaScreener screener) {
+        this.columnStore = columnStore;
+        this.screener = screener;
+    }
+
+    public ChartData build(String symbol, String maPeriods, int chartPeriod, int maxPoints) {
+        OhlcvColumnStore.Snapshot snap = columnStore.snapshot();
+        if (snap == null || symbol == null) return null;
+        String code = symbol.trim();
+        int t = snap.indexOf(code);
+        if (t < 0) return null;
+
+        // 종목 데이터 버전이 키에 포함 → GProd 갱신 후 자동으로 새로 계산
+        String prefix = code + "|" + Long.toHexString(snap.tickerVersion(t)) + "|" + maPeriods + "|" + chartPeriod;
+        ChartData full = cache.get(prefix, k -> compute(snap, t, code, maPeriods, chartPeriod));
+        if (maxPoints <= 0) return full;
+        // 중첩 cache.get 은 Caffeine 재귀 갱신 금지 → 원본 먼저 얻은 뒤 다운샘플 조회
+        return cache.get(prefix + "|" + maxPoints, k -> ChartDownsampler.downsample(full, maxPoints));
+    }
+
+    /** 강한 ETag ("{code}-{종목버전}-{파라미터 해시}"), 스토어 미준비 / 종목 없음이면 null */
+    public String etag(String symbol, String maPeriods, int chartPeriod, int maxPoints, String variant) {
+        OhlcvColumnStore.Snapshot snap = columnStore.snapshot();
+        if (snap == null || symbol == null) return null;
+        String code = symbol.trim();
+        int t = snap.indexOf(code);
+        if (t < 0) return null;
+
+        String params = maPeriods + "|" + chartPeriod + "|" + Math.max(0, maxPoints) + "|" + variant;
+        return "\"" + code + "-" + Long.toHexString(snap.tickerVersion(t))
+                + "-" + Integer.toHexString(params.hashCode()) + "\"";
+    }
+
+    private ChartData compute(OhlcvColumnStore.Snapshot snap, int t, String code, String maPeriods, int chartPeriod) {
+        OhlcvSeries s = snap.load(t);
+        int n = s.length();
+        IndicatorBuffers ind = engines.get().compute(s.close(), n, new IndicatorBuffers(n));
+
+        // 1. df_full (dropna) 행 번호 → 마지막 chart_period 행
+        int complete = ind.completeCount();
+        if (complete == 0) throw new IllegalStateException("CHART_FAIL");
+        int size = chartPeriod > 0 ? Math.min(chartPeriod, complete) : complete;
+        int[] rows = new int[size];
+        int k = size;
+        for (int i = n - 1; i >= 0 && k > 0; i--) {
+            if (ind.isComplete(i)) rows[--k] = i;
+        }
+
+        long[] dates = new long[size];
+        double[] open = new double[size];
+        double[] high = new double[size];
+        double[] low = new double[size];
+        double[] close = new double[size];
+        long[] volume = new long[size];
+        double[] macd = new double[size];
+        double[] signal = new double[size];
+        double[] hist = new double[size];
+        for (int j = 0; j < size; j++) {
+            int i = rows[j];
+            dates[j] = s.dates()[i];
+            open[j] = s.open()[i];
+            high[j] = s.high()[i];
+            low[j] = s.low()[i];
+            close[j] = s.close()[i];
+            volume[j] = s.volume()[i];
+            macd[j] = ind.macd()[i];
+            signal[j] = ind.macdSignal()[i];
+            hist[j] = ind.macdHist()[i];
+        }
+
+        // 2. 이동평균
+        Map<String, ChartData.Line> ma = new LinkedHashMap<>();
+        for (int p : AthenaScreener.parsePeriods(maPeriods)) {
+            double[] src = switch (p) {
+                case IndicatorEngine.SMA_SHORT -> ind.sma20();
+                case IndicatorEngine.SMA_MID -> ind.sma50();
+                case IndicatorEngine.SMA_LONG -> ind.sma200();
+                default -> null;
+            };
+            double[] y = new double[size];
+            if (src != null) {
+                for (int j = 0; j < size; j++) y[j] = src[rows[j]];
+            } else {
+                rollingMean(close, size, p, y);
+            }
+            ma.put("MA" + p, new ChartData.Line(dates, y));
+        }
+
+        // 3. 패턴 neckline (df_full 기준, x = 마지막 날짜)
+        PatternReport report = detector.detect(PatternFrame.of(s, ind, Integer.MAX_VALUE));
+        List<ChartData.PatternPoint> patterns = new ArrayList<>();
+        for (PatternType type : PatternType.values()) {
+            PatternMatch m = report.get(type);
+            double neck = m.neckline();
+            if (Double.isNaN(neck) || neck == 0) continue;   // Python `if p_neck`
+            patterns.add(new ChartData.PatternPoint(type.chartName(), m.status().label(), neck));
+        }
+        String lastDate = LocalDate.ofEpochDay(s.dates()[rows[size - 1]]).toString();
+
+        return new ChartData(code, screener.stockName(code), size, dates, open, high, low, close, volume,
+                ma, new ChartData.Line(dates, macd), new ChartData.Line(dates, signal),
+                new ChartData.Line(dates, hist), lastDate, patterns);
+    }
+
+    /** Close.rolling(window=p, min_periods=1).mean() (차트 구간 기준) */
+    private static void rollingMean(double[] x, int n, int window, double[] out) {
+        RollingMean m = new RollingMean();
+        m.reset(n > 0 ? x[0] : Double.NaN);
+        for (int i = 0; i < n; i++) {
+            if (window > 0 && i >= window) m.remove(x[i - window]);
+            m.add(x[i]);
+            out[i] = window > 0 ? m.mean(1) : Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,649 @@
+package com.afhk.app.stock;
+
+import com.afhk.app.stock.pattern.PatternDetector;
+import com.afhk.app.stock.pattern.PatternFrame;
+import com.afhk.app.stock.pattern.PatternMatch;
+import com.afhk.app.stock.pattern.PatternReport;
+import com.afhk.app.stock.pattern.PatternType;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * ===============================================================
+ * 🔎 AthenaScreener (v1.0 - JVM 내 전 종목 병렬 스크리너)
+ * ---------------------------------------------------------------
+ * ✅ athena_k_market_ai_prod.py run_analysis / analyze_symbol 이식
+ *    - MA 위/아래, 골든/데드 크로스, 차트 패턴 필터 동일 조건
+ *    - 결과 JSON 형태 {"results", "mode":"analyze_result", "filter"} 동일
+ * ✅ 종목 리스트를 ForkJoinPool 샤드(SHARD_SIZE)로 분할 → 전 코어 사용
+ * ✅ 스레드별 IndicatorEngine/버퍼 재사용 (종목당 할당 최소화)
+ * ✅ 컬럼 스토어 스냅샷 1개로 스캔 → 스캔 중 재빌드돼도 일관성 유지
+ * ✅ 시장 국면 : MarketRegimeClusterer (종목별 중심 warm-start)
+ * ✅ TopNCollector(top_n) 로 상위 N개만 유지 → LEADERBOARD_EVERY 종목마다 중간 통지 + 반환 결과
+ * ✅ 전체 순위(캐시용)는 샤드별 목록에 모았다가 스캔 종료 후 1회 병합·정렬 (공유 잠금 없음)
+ * ✅ AnalyzeResultCache : 전체 순위를 dataVersion 기준으로 캐시 → top_n 은 잘라서 응답
+ * ✅ materialize : 종목당 1회 계산으로 전 필터(MATERIALIZED_FILTERS) 순위를 한 번에 적재
+ *    → GProd 갱신 직후 실행, 이후 Athena 요청은 lookup 으로 즉시 응답
+ * ✅ analyzeSymbol : 단일 종목은 풀/락 없이 호출 스레드에서 즉시 계산 (전 필터 일치 여부 포함)
+ * ===============================================================
+ */
+@Component
+public class AthenaScreener {
+
+    private static final Logger log = LoggerFactory.getLogger(AthenaScreener.class);
+
+    /** analyze_symbol : 원본 데이터 최소 행 수 */
+    public static final int MIN_RAW_BARS = 250;
+    /** df_full.iloc[-250:] */
+    public static final int ANALYZE_BARS = 250;
+    /** 최종 분석 데이터 최소 행 수 */
+    public static final int MIN_ANALYZE_BARS = 200;
+    /** ForkJoin 분할 단위 (종목 수) */
+    static final int SHARD_SIZE = 32;
+    /** 중간 순위표 통지 주기 (종목 수) */
+    public static final int LEADERBOARD_EVERY = 300;
+    /** top_n 무제한 요청의 중간 순위표 최대 크기 */
+    static final int LEADERBOARD_MAX = 100;
+
+    /** GProd 갱신 후 사전 계산하는 필터 목록 */
+    public static final List<String> MATERIALIZED_FILTERS = List.of(
+            "ma", "all_below_ma", "goldencross", "deadcross",
+            "double_bottom", "triple_bottom", "cup_and_handle", "half_cup", "long_term_down_trend",
+            "regime:0", "regime:1", "regime:2", "regime:3");
+
+    /** 패턴 분석 시에만 생기는 결과 키 (ma / all_below_ma / regime 결과에서는 제외) */
+    private static final Set<String> PATTERN_KEYS = Set.of(
+            "pattern_double_bottom_status", "db_neckline_price", "pattern_triple_bottom_status",
+            "pattern_cup_and_handle_status", "ch_neckline_price", "pattern_half_cup_status", "hc_l_score",
+            "pattern_long_term_down_trend_status", "ltd_score");
+
+    private static final Set<String> SUPPORTED = Set.of(
+            "ma", "all_below_ma", "goldencross", "deadcross",
+            "double_bottom", "triple_bottom", "cup_and_handle", "half_cup", "long_term_down_trend");
+
+    /** 진행률 콜백 (워커 스레드에서 호출됨) */
+    public interface ProgressListener {
+        void onProgress(int done, int total);
+
+        /** 중간 순위표 (LEADERBOARD_EVERY 종목마다, 1위부터) */
+        default void onLeaderboard(List<ScreenCandidate> top, int done, int total) {
+        }
+    }
+
+    private final OhlcvColumnStore columnStore;
+    private final MarketRegimeClusterer regimeClusterer;
+    private final AnalyzeResultCache resultCache;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final PatternDetector detector = new PatternDetector();
+
+    @Value("${python.stock.json.path:}")
+    private String listingPath;
+
+    private final ForkJoinPool pool = new ForkJoinPool(
+            Runtime.getRuntime().availableProcessors(),
+            p -> {
+                ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+                t.setName("Athena-Screener-" + t.getPoolIndex());
+                t.setDaemon(true);
+                return t;
+            },
+            null, false);
+
+    private final ThreadLocal<Worker> workers = ThreadLocal.withInitial(Worker::new);
+
+    /** 종목 리스트 파싱 결과 (파일 수정 시각 기준 재사용) */
+    private record Listing(long modified, List<String[]> items) {}
+    private volatile Listing listing;
+
+    public AthenaScreener(OhlcvColumnStore columnStore, MarketRegimeClusterer regimeClusterer,
+                          AnalyzeResultCache resultCache) {
+        this.columnStore = columnStore;
+        this.regimeClusterer = regimeClusterer;
+        this.resultCache = resultCache;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // ===============================================================
+    // 🔍 지원 여부
+    // ===============================================================
+
+    public boolean isReady() {
+        return columnStore.isReady();
+    }
+
+    /** JVM 스크리너로 처리 가능한 필터인지 */
+    public static boolean supports(String pattern) {
+        return pattern != null && (SUPPORTED.contains(pattern) || pattern.startsWith("regime:"));
+    }
+
+    public int parallelism() {
+        return pool.getParallelism();
+    }
+
+    // ===============================================================
+    // 🚀 스캔 (run_analysis)
+    // ===============================================================
+    public Map<String, Object> scan(String pattern, String maPeriods, int topN, String symbol, boolean force,
+                                    BooleanSupplier cancelled, ProgressListener listener) {
+        OhlcvColumnStore.Snapshot snap = columnStore.snapshot();
+        if (snap == null) throw new IllegalStateException("컬럼 스토어가 아직 준비되지 않았습니다.");
+
+        long started = System.currentTimeMillis();
+        List<Integer> periods = analyzePeriods(maPeriods);
+
+        // 1. 캐시 조회 (force 면 재계산)
+        if (!force) {
+            Map<String, Object> cached = lookup(snap, pattern, periods, topN, symbol);
+            if (cached != null) return cached;
+        }
+
+        List<String[]> items = loadListing();
+        if (symbol != null && !symbol.isBlank()) {
+            items = items.stream().filter(i -> i[0].equals(symbol.trim())).toList();
+        }
+        if (items.isEmpty()) throw new IllegalStateException("DATA_EMPTY");
+
+        Scan scan = new Scan(snap, items, new String[]{pattern}, periods, topN, cancelled, listener);
+        try {
+            pool.invoke(new Shard(scan, 0, items.size()));
+        } finally {
+            regimeClusterer.flush();
+        }
+
+        // 2. 전체 순위 캐시 저장 → top_n 만 반환 (top_n 수집기 결과, 무제한이면 전체 순위)
+        List<Map<String, Object>> ranked = toMaps(scan.ranked(0));
+        resultCache.put(snap.dataVersion(), pattern, periods, symbol, ranked);
+
+        List<Map<String, Object>> top = topN > 0 ? toMaps(scan.tops[0].snapshot()) : ranked;
+        Map<String, Object> out = payload(top, pattern, "analyze_result");
+        log.info("🔎 Athena JVM 스캔 완료: filter={}, 종목={}, 일치={}, 반환={}, {} ms",
+                pattern, items.size(), ranked.size(), ((List<?>) out.get("results")).size(),
+                System.currentTimeMillis() - started);
+        return out;
+    }
+
+    /** 사전 계산/캐시된 결과 조회 (없으면 null → 스캔 필요) */
+    public Map<String, Object> lookup(String pattern, String maPeriods, int topN, String symbol) {
+        OhlcvColumnStore.Snapshot snap = columnStore.snapshot();
+        if (snap == null) return null;
+        return lookup(snap, pattern, analyzePeriods(maPeriods), topN, symbol);
+    }
+
+    private Map<String, Object> lookup(OhlcvColumnStore.Snapshot snap, String pattern, List<Integer> periods,
+                                       int topN, String symbol) {
+        List<Map<String, Object>> ranked = resultCache.get(snap.dataVersion(), pattern, periods, symbol);
+        if (ranked == null) return null;
+
+        Map<String, Object> out = payload(AnalyzeResultCache.slice(ranked, topN), pattern, "analyze_result");
+        log.info("🗃️ Athena analyze 캐시 적중: filter={}, 전체={}, 반환={}",
+                pattern, ranked.size(), ((List<?>) out.get("results")).size());
+        return out;
+    }
+
+    // ===============================================================
+    // 🗂️ 전 필터 사전 계산 (GProd 갱신 후)
+    // ===============================================================
+    /** 종목당 지표/패턴/국면 1회 계산 → MATERIALIZED_FILTERS 전체 순위를 캐시에 적재. 반환: 필터 수 */
+    public int materialize(String maPeriods) {
+        OhlcvColumnStore.Snapshot snap = columnStore.snapshot();
+        if (snap == null) throw new IllegalStateException("컬럼 스토어가 아직 준비되지 않았습니다.");
+
+        long started = System.currentTimeMillis();
+        List<Integer> periods = analyzePeriods(maPeriods);
+        List<String[]> items = loadListing();
+        if (items.isEmpty()) throw new IllegalStateException("DATA_EMPTY");
+
+        String[] filters = MATERIALIZED_FILTERS.toArray(new String[0]);
+        Scan scan = new Scan(snap, items, filters, periods, 0, null, null);
+        try {
+            pool.invoke(new Shard(scan, 0, items.size()));
+        } finally {
+            regimeClusterer.flush();
+        }
+
+        for (int k = 0; k < filters.length; k++) {
+            resultCache.put(snap.dataVersion(), filters[k], periods, null, toMaps(scan.ranked(k)));
+        }
+        log.info("🗂️ Athena 전 필터 사전 계산 완료: 필터={}, 종목={}, ma={}, {} ms",
+                filters.length, items.size(), periods, System.currentTimeMillis() - started);
+        return filters.length;
+    }
+
+    // ===============================================================
+    // ⚡ 단일 종목 즉시 분석 (analyze --symbol 대체)
+    // ===============================================================
+    /**
+     * 호출 스레드에서 종목 1개만 계산 (ForkJoin 풀 / 리스트 스캔 / 결과 캐시 / 전역 락 없음)
+     * - results : Python analyze --symbol 과 같은 형태 (pattern 불일치 시 빈 목록)
+     * - matches : 전 필터(MATERIALIZED_FILTERS) 일치 여부 / conditions : 분석 키 전체
+     * 스토어에 종목이 없으면 null
+     */
+    public Map<String, Object> analyzeSymbol(String symbol, String pattern, String maPeriods) {
+        OhlcvColumnStore.Snapshot snap = columnStore.snapshot();
+        if (snap == null) throw new IllegalStateException("컬럼 스토어가 아직 준비되지 않았습니다.");
+        if (!supports(pattern)) throw new IllegalArgumentException("JVM 미지원 필터: " + pattern);
+
+        String code = symbol == null ? "" : symbol.trim();
+        if (snap.indexOf(code) < 0) return null;
+
+        long started = System.nanoTime();
+        List<String> filters = new ArrayList<>(MATERIALIZED_FILTERS);
+        if (!filters.contains(pattern)) filters.add(pattern);
+        int target = filters.indexOf(pattern);
+
+        List<String[]> items = List.<String[]>of(new String[]{code, stockName(code)});
+        Scan scan = new Scan(snap, items, filters.toArray(new String[0]), analyzePeriods(maPeriods),
+                0, null, null);
+        List<ScreenCandidate>[] matched = scan.newMatchLists();
+        Map<String, Object> conditions = evaluate(new Worker(), scan, 0, matched);
+
+        Map<String, Object> out = payload(toMaps(matched[target]), pattern, "analyze_result");
+        out.put("symbol", code);
+        out.put("name", items.get(0)[1]);
+        Map<String, Object> matches = new LinkedHashMap<>();
+        for (int k = 0; k < filters.size(); k++) matches.put(filters.get(k), !matched[k].isEmpty());
+        out.put("matches", conditions == null ? null : matches);
+        out.put("conditions", conditions);
+        out.put("elapsedMicros", (System.nanoTime() - started) / 1_000);
+        return out;
+    }
+
+    /** Python final_output 형태 {"results", "mode", "filter"} */
+    public static Map<String, Object> resultPayload(List<ScreenCandidate> ranked, String pattern, String mode) {
+        return payload(toMaps(ranked), pattern, mode);
+    }
+
+    private static List<Map<String, Object>> toMaps(List<ScreenCandidate> ranked) {
+        List<Map<String, Object>> results = new ArrayList<>(ranked.size());
+        for (ScreenCandidate c : ranked) results.add(c.toMap());
+        return results;
+    }
+
+    private static Map<String, Object> payload(List<Map<String, Object>> results, String pattern, String mode) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("results", results);
+        out.put("mode", mode);
+        out.put("filter", pattern == null ? "ma_only" : pattern);
+        return out;
+    }
+
+    // ===============================================================
+    // 🧵 ForkJoin 샤드
+    // ===============================================================
+
+    @SuppressWarnings("serial")   // ForkJoin 작업 분할 전용 — 직렬화하지 않음
+    private final class Shard extends RecursiveAction {
+        private final Scan scan;
+        private final int from;
+        private final int to;
+
+        Shard(Scan scan, int from, int to) {
+            this.scan = scan;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SHARD_SIZE) {
+                Worker w = workers.get();
+                List<ScreenCandidate>[] matched = scan.newMatchLists();
+                for (int i = from; i < to; i++) {
+                    if (scan.cancelled != null && scan.cancelled.getAsBoolean()) {
+                        throw new CancellationException("사용자 취소");
+                    }
+                    evaluate(w, scan, i, matched);
+                    int done = scan.done.incrementAndGet();
+                    if (scan.listener != null) {
+                        int total = scan.items.size();
+                        scan.listener.onProgress(done, total);
+                        if (done % LEADERBOARD_EVERY == 0 && done < total && scan.tops[0] != null) {
+                            scan.listener.onLeaderboard(scan.tops[0].snapshot(), done, total);
+                        }
+                    }
+                }
+                scan.collect(matched);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Shard(scan, from, mid), new Shard(scan, mid, to));
+        }
+    }
+
+    /** 스캔 1회 공유 상태 */
+    private static final class Scan {
+        final OhlcvColumnStore.Snapshot snap;
+        final DoubleBuffer high;
+        final DoubleBuffer low;
+        final DoubleBuffer close;
+        final List<String[]> items;
+        final String[] filters;
+        final List<Integer> periods;
+        final boolean analyzePatterns;
+        final BooleanSupplier cancelled;
+        final ProgressListener listener;
+        final int topN;
+        /** 필터별 상위 top_n (무제한이면 중간 통지용 LEADERBOARD_MAX, 통지도 없으면 null) */
+        final TopNCollector[] tops;
+        /** 필터별 샤드 일치 목록 묶음 (샤드 종료 시 1회 추가) */
+        private final List<List<List<ScreenCandidate>>> shards;
+        final AtomicInteger done = new AtomicInteger();
+
+        Scan(OhlcvColumnStore.Snapshot snap, List<String[]> items, String[] filters, List<Integer> periods,
+             int topN, BooleanSupplier cancelled, ProgressListener listener) {
+            this.snap = snap;
+            this.high = snap.prices(OhlcvColumnStore.Column.HIGH);
+            this.low = snap.prices(OhlcvColumnStore.Column.LOW);
+            this.close = snap.prices(OhlcvColumnStore.Column.CLOSE);
+            this.items = items;
+            this.filters = filters;
+            this.periods = periods;
+            boolean any = false;
+            for (String f : filters) any |= analyzesPatterns(f);
+            this.analyzePatterns = any;
+            this.cancelled = cancelled;
+            this.listener = listener;
+            this.topN = topN;
+            this.tops = new TopNCollector[filters.length];
+            this.shards = new ArrayList<>(filters.length);
+            for (int k = 0; k < filters.length; k++) {
+                if (topN > 0 || listener != null) tops[k] = new TopNCollector(topN > 0 ? topN : LEADERBOARD_MAX);
+                shards.add(new ArrayList<>());
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        List<ScreenCandidate>[] newMatchLists() {
+            List<ScreenCandidate>[] lists = new List[filters.length];
+            for (int k = 0; k < lists.length; k++) lists[k] = new ArrayList<>();
+            return lists;
+        }
+
+        /** 샤드 일치 목록 등록 (샤드당 1회) */
+        void collect(List<ScreenCandidate>[] matched) {
+            synchronized (shards) {
+                for (int k = 0; k < matched.length; k++) {
+                    if (!matched[k].isEmpty()) shards.get(k).add(matched[k]);
+                }
+            }
+        }
+
+        /** 필터 k 전체 순위 (스캔 종료 후 호출 : 샤드 목록 병합 → 1회 정렬) */
+        List<ScreenCandidate> ranked(int k) {
+            List<List<ScreenCandidate>> parts;
+            synchronized (shards) {
+                parts = shards.get(k);
+            }
+            int size = 0;
+            for (List<ScreenCandidate> p : parts) size += p.size();
+            List<ScreenCandidate> all = new ArrayList<>(size);
+            for (List<ScreenCandidate> p : parts) all.addAll(p);
+            all.sort(ScreenCandidate::compareRank);
+            return all;
+        }
+    }
+
+    /** 워커 스레드별 재사용 버퍼 */
+    private static final class Worker {
+        final IndicatorEngine engine = new IndicatorEngine();
+        final IndicatorBuffers buffers = new IndicatorBuffers(1024);
+        final MarketRegimeClusterer.Workspace regime = new MarketRegimeClusterer.Workspace();
+        double[] high = new double[1024];
+        double[] low = new double[1024];
+        double[] close = new double[1024];
+
+        void ensure(int n) {
+            if (close.length >= n) return;
+            int cap = Math.max(n, close.length * 2);
+            high = new double[cap];
+            low = new double[cap];
+            close = new double[cap];
+        }
+    }
+
+    // ===============================================================
+    // 📐 종목 1개 평가 (analyze_symbol + check_ma_conditions)
+    //    지표/패턴/국면은 1회만 계산 → 스캔의 각 필터에 대해 일치 여부 판정
+    // ===============================================================
+    /** 반환: 분석 결과 키 (데이터 부족/종목 없음이면 null) */
+    private Map<String, Object> evaluate(Worker w, Scan scan, int order, List<ScreenCandidate>[] matched) {
+        String code = scan.items.get(order)[0];
+        String name = scan.items.get(order)[1];
+        int t = scan.snap.indexOf(code);
+        if (t < 0) return null;
+
+        int len = scan.snap.length(t);
+        if (len < MIN_RAW_BARS) return null;
+
+        int off = scan.snap.offset(t);
+        w.ensure(len);
+        scan.high.get(off, w.high, 0, len);
+        scan.low.get(off, w.low, 0, len);
+        scan.close.get(off, w.close, 0, len);
+
+        IndicatorBuffers ind = w.engine.compute(w.close, len, w.buffers);
+        OhlcvSeries s = new OhlcvSeries(code, len, null, null, w.high, w.low, w.close, null);
+        PatternFrame f = PatternFrame.of(s, ind, ANALYZE_BARS);
+        if (f.length() < MIN_ANALYZE_BARS) return null;
+
+        Map<String, Object> r = new LinkedHashMap<>();
+        double close = f.close(-1);
+
+        // 1. 주가와 MA 비교
+        for (int p : scan.periods) {
+            double ma = sma(f, p, -1);
+            r.put("above_ma" + p, !Double.isNaN(ma) && close > ma);
+        }
+
+        // 2. 골든/데드 크로스 (50 vs 200)
+        double ma50Prev = f.sma50(-2), ma50Curr = f.sma50(-1);
+        double ma200Prev = f.sma200(-2), ma200Curr = f.sma200(-1);
+        boolean golden = ma50Prev < ma200Prev && ma50Curr > ma200Curr;
+        boolean dead = ma50Prev > ma200Prev && ma50Curr < ma200Curr;
+        r.put("goldencross_50_200_detected", golden);
+        r.put("deadcross_50_200_detected", dead);
+
+        // 3. 패턴
+        PatternReport report = null;
+        if (scan.analyzePatterns) {
+            report = detector.detect(f);
+            PatternMatch db = report.get(PatternType.DOUBLE_BOTTOM);
+            PatternMatch tb = report.get(PatternType.TRIPLE_BOTTOM);
+            PatternMatch ch = report.get(PatternType.CUP_AND_HANDLE);
+            PatternMatch hc = report.get(PatternType.HALF_CUP);
+            PatternMatch ltd = report.get(PatternType.LONG_TERM_DOWN_TREND);
+
+            r.put("pattern_double_bottom_status", db.status().label());
+            r.put("db_neckline_price", number(db.score()));
+            r.put("pattern_triple_bottom_status", tb.status().label());
+            r.put("pattern_cup_and_handle_status", ch.status().label());
+            r.put("ch_neckline_price", number(ch.score()));
+            r.put("pattern_half_cup_status", hc.status().label());
+            r.put("hc_l_score", number(hc.score()));
+            r.put("pattern_long_term_down_trend_status", ltd.status().label());
+            r.put("ltd_score", number(ltd.score()));
+        }
+
+        // 4. 시장 국면 (df_full 전체 기준, 마지막 행 라벨)
+        int regime = regimeClusterer.classify(code, ind, w.regime);
+        r.put("market_regime", regime);
+
+        Map<String, Object> plain = null;   // 패턴 키 제외본 (필요할 때만 생성)
+        for (int k = 0; k < scan.filters.length; k++) {
+            String pattern = scan.filters[k];
+            if (!matches(pattern, scan.periods, f, r, report, golden, dead, regime)) continue;
+
+            Map<String, Object> conditions = r;
+            if (report != null && !analyzesPatterns(pattern)) {
+                if (plain == null) plain = withoutPatternKeys(r);
+                conditions = plain;
+            }
+            ScreenCandidate c = new ScreenCandidate(code, name, conditions, sortScore(pattern, report, regime), order);
+            matched[k].add(c);
+            if (scan.tops[k] != null) scan.tops[k].offer(c);
+        }
+        return r;
+    }
+
+    /** 필터 일치 여부 (pattern == null 이면 전체 통과) */
+    private static boolean matches(String pattern, List<Integer> periods, PatternFrame f, Map<String, Object> r,
+                                   PatternReport report, boolean golden, boolean dead, int regime) {
+        double close = f.close(-1);
+        boolean match = true;
+        if (pattern != null) {
+            PatternType type = PatternType.fromFilterKey(pattern);
+            if ("goldencross".equals(pattern)) {
+                match = golden;
+            } else if ("deadcross".equals(pattern)) {
+                match = dead;
+            } else if (type != null) {
+                match = report != null && report.get(type).status().isMatch();
+            } else if ("ma".equals(pattern)) {
+                for (int p : periods) {
+                    if (isStandardPeriod(p) && !Boolean.TRUE.equals(r.get("above_ma" + p))) match = false;
+                }
+            } else if (pattern.startsWith("regime:")) {
+                match = regime == parseRegime(pattern);
+            } else if ("all_below_ma".equals(pattern)) {
+                for (int p : periods) {
+                    if (isStandardPeriod(p) && !(close < sma(f, p, -1))) match = false;
+                }
+            } else {
+                match = false;
+            }
+        }
+        return match;
+    }
+
+    /** 정렬 점수 (half_cup → hc_l_score, long_term_down_trend → ltd_score, 그 외 market_regime) */
+    private static double sortScore(String pattern, PatternReport report, int regime) {
+        if ("half_cup".equals(pattern)) return report.get(PatternType.HALF_CUP).score();
+        if ("long_term_down_trend".equals(pattern)) return report.get(PatternType.LONG_TERM_DOWN_TREND).score();
+        return regime;
+    }
+
+    // ===============================================================
+    // 🔧 유틸
+    // ===============================================================
+
+    /** analyze_pattern 여부 (ma / all_below_ma / regime:* 는 패턴 분석 생략) */
+    private static boolean analyzesPatterns(String pattern) {
+        return !"ma".equals(pattern) && !"all_below_ma".equals(pattern)
+                && (pattern == null || !pattern.startsWith("regime:"));
+    }
+
+    private static Map<String, Object> withoutPatternKeys(Map<String, Object> r) {
+        Map<String, Object> m = new LinkedHashMap<>(r);
+        m.keySet().removeAll(PATTERN_KEYS);
+        return m;
+    }
+
+    /** --ma_periods + 50/200 항상 추가 (run_analysis 동일) */
+    private static List<Integer> analyzePeriods(String maPeriods) {
+        List<Integer> periods = parsePeriods(maPeriods);
+        if (!periods.contains(50)) periods.add(50);
+        if (!periods.contains(200)) periods.add(200);
+        return periods;
+    }
+
+    /** "regime:2" → 2 (숫자 아니면 불일치 처리용 Integer.MIN_VALUE) */
+    private static int parseRegime(String pattern) {
+        try {
+            return Integer.parseInt(pattern.substring("regime:".length()).trim());
+        } catch (NumberFormatException e) {
+            return Integer.MIN_VALUE;
+        }
+    }
+
+    private static boolean isStandardPeriod(int p) {
+        return p == 20 || p == 50 || p == 200;
+    }
+
+    /** SMA_20 / SMA_50 / SMA_200 만 존재 (그 외 기간은 NaN) */
+    private static double sma(PatternFrame f, int period, int i) {
+        return switch (period) {
+            case 20 -> f.sma20(i);
+            case 50 -> f.sma50(i);
+            case 200 -> f.sma200(i);
+            default -> Double.NaN;
+        };
+    }
+
+    /** Python JSON 과 같은 숫자 표현 (정수값은 정수로) */
+    static Object number(double v) {
+        if (Double.isNaN(v) || Double.isInfinite(v)) return null;
+        if (v == Math.rint(v) && Math.abs(v) < 1e15) return (long) v;
+        return v;
+    }
+
+    /** "20,50,200" → [20, 50, 200] (숫자 아닌 항목 무시) */
+    static List<Integer> parsePeriods(String maPeriods) {
+        List<Integer> periods = new ArrayList<>();
+        if (maPeriods == null) return periods;
+        for (String p : maPeriods.split(",")) {
+            String s = p.trim();
+            if (!s.isEmpty() && s.chars().allMatch(Character::isDigit)) periods.add(Integer.parseInt(s));
+        }
+        return periods;
+    }
+
+    /** get_stock_name : 종목명 (리스트에 없으면 코드 그대로) */
+    public String stockName(String code) {
+        for (String[] item : loadListing()) {
+            if (item[0].equals(code)) return item[1];
+        }
+        return code;
+    }
+
+    /** stock_listing.json → [code, name] 목록 (파일 순서 유지) */
+    private List<String[]> loadListing() {
+        List<String[]> items = new ArrayList<>();
+        File file = listingPath == null || listingPath.isBlank() ? null : new File(listingPath);
+        if (file == null || !file.isFile()) {
+            log.error("⚠️ 종목 리스트 파일 없음: {}", listingPath);
+            items.add(new String[]{"005930", "삼성전자"});
+            return items;
+        }
+        // 파일이 바뀌지 않았으면 직전 파싱 결과 재사용
+        Listing cached = listing;
+        if (cached != null && cached.modified == file.lastModified()) return cached.items;
+        try {
+            List<Map<String, Object>> list = mapper.readValue(file, new TypeReference<List<Map<String, Object>>>() {});
+            for (Map<String, Object> item : list) {
+                Object code = item.get("Code") != null ? item.get("Code") : item.get("code");
+                Object name = item.get("Name") != null ? item.get("Name") : item.get("name");
+                if (code != null) items.add(new String[]{code.toString(), name == null ? null : name.toString()});
+            }
+            items = List.copyOf(items);
+            listing = new Listing(file.lastModified(), items);
+        } catch (IOException e) {
+            log.error("⚠️ 종목 리스트 파일 로드 실패: {}", e.getMessage());
+            items.add(new String[]{"005930", "삼성전자"});
+        }
+        return items;
+    }
+}
@@ -0,0 +1,320 @@
+package com.afhk.app.stock;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ===============================================================
+ * 📈 ChartData (v1.0 - generate_chart 결과, 컬럼 단위 보관)
+ * ---------------------------------------------------------------
+ * ✅ 날짜 축 1개 + 같은 길이의 숫자 배열들 (결측 = NaN)
+ * ✅ 다운샘플(ChartDownsampler) 후에는 선 시리즈마다 자체 날짜 축 (Line.dates)
+ * ✅ 응답 형식 3가지
+ *    - toLegacyMap   : Python chart_data 와 동일 ({x,o,h,l,c,v} / {x,y} 객체 배열)
+ *    - toColumnarMap : 날짜 배열 1개 + 시리즈별 숫자 배열 (결측 = null)
+ *    - toBinary      : little-endian float64/int64 + 작은 헤더 (아래 형식)
+ * ---------------------------------------------------------------
+ * 🔥 바이너리 형식 (모두 little-endian)
+ *    int32 magic "ACHT" / int16 version / int16 시리즈 수 S / int32 봉 수 N
+ *    str ticker / str name / str 마지막 날짜   (str = uint16 길이 + UTF-8)
+ *    int64[N] 날짜(epochDay) / float64[N] open, high, low, close / int64[N] volume
+ *    S 회 반복 : str 시리즈명 + int32 M + (M >= 0 이면 int64[M] 날짜) + float64[M 또는 N] 값
+ *                (M = -1 : 봉 날짜 축 공유, MA*, MACD, Signal, Histogram 순, 결측 NaN)
+ *    int32 패턴 수 P, P 회 반복 : str type + str status + float64 y
+ * ===============================================================
+ */
+public final class ChartData {
+
+    /** Accept 협상용 미디어 타입 */
+    public static final String COLUMNAR_MEDIA_TYPE = "application/vnd.athena.chart.columnar+json";
+    public static final String BINARY_MEDIA_TYPE = "application/vnd.athena.chart.binary";
+
+    public static final int BINARY_MAGIC = 0x54484341;   // "ACHT" (little-endian)
+    public static final short BINARY_VERSION = 2;
+
+    /** pattern_points 1건 (x = 마지막 날짜) */
+    public record PatternPoint(String type, String status, double y) {}
+
+    /** 선 시리즈 (dates 가 봉 날짜 배열과 같은 참조면 축 공유) */
+    public record Line(long[] dates, double[] y) {}
+
+    private final String ticker;
+    private final String name;
+    private final int length;
+    private final long[] dates;
+    private final double[] open;
+    private final double[] high;
+    private final double[] low;
+    private final double[] close;
+    private final long[] volume;
+    private final Map<String, Line> ma;
+    private final Line macd;
+    private final Line signal;
+    private final Line histogram;
+    private final String lastDate;
+    private final List<PatternPoint> patterns;
+
+    ChartData(String ticker, String name, int length, long[] dates,
+              double[] open, double[] high, double[] low, double[] close, long[] volume,
+              Map<String, Line> ma, Line macd, Line signal, Line histogram,
+              String lastDate, List<PatternPoint> patterns) {
+        this.ticker = ticker;
+        this.name = name;
+        this.length = length;
+        this.dates = dates;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+        this.ma = ma;
+        this.macd = macd;
+        this.signal = signal;
+        this.histogram = histogram;
+        this.lastDate = lastDate;
+        this.patterns = patterns;
+    }
+
+    public String getTicker() { return ticker; }
+    public String getName() { return name; }
+    public int length() { return length; }
+    public long[] dates() { return dates; }
+    public double[] open() { return open; }
+    public double[] high() { return high; }
+    public double[] low() { return low; }
+    public double[] close() { return close; }
+    public long[] volume() { return volume; }
+    public Map<String, Line> ma() { return ma; }
+    public Line macd() { return macd; }
+    public Line signal() { return signal; }
+    public Line histogram() { return histogram; }
+    public String lastDate() { return lastDate; }
+    public List<PatternPoint> patterns() { return patterns; }
+
+    // ===============================================================
+    // 🟦 기존 형식 (runChartMode 응답과 동일)
+    // ===============================================================
+    public Map<String, Object> toLegacyMap() {
+        String[] x = dateStrings(dates);
+
+        List<Map<String, Object>> ohlcv = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            Map<String, Object> bar = new LinkedHashMap<>();
+            bar.put("x", x[i]);
+            bar.put("o", open[i]);
+            bar.put("h", high[i]);
+            bar.put("l", low[i]);
+            bar.put("c", close[i]);
+            bar.put("v", (double) volume[i]);   // iterrows → float64 로 올림
+            ohlcv.add(bar);
+        }
+
+        Map<String, Object> maData = new LinkedHashMap<>();
+        for (Map.Entry<String, Line> e : ma.entrySet()) {
+            maData.put(e.getKey(), points(x, e.getValue(), true));
+        }
+
+        Map<String, Object> macdData = new LinkedHashMap<>();
+        macdData.put("MACD", points(x, macd, false));
+        macdData.put("Signal", points(x, signal, false));
+        macdData.put("Histogram", points(x, histogram, false));
+
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("mode", "chart_data");
+        out.put("ticker", ticker);
+        out.put("name", name);
+        out.put("ohlcv_data", ohlcv);
+        out.put("ma_data", maData);
+        out.put("macd_data", macdData);
+        out.put("pattern_points", patternMaps());
+        return out;
+    }
+
+    private List<Map<String, Object>> points(String[] axis, Line line, boolean skipNaN) {
+        String[] x = line.dates() == dates ? axis : dateStrings(line.dates());
+        double[] y = line.y();
+        List<Map<String, Object>> list = new ArrayList<>(y.length);
+        for (int i = 0; i < y.length; i++) {
+            if (skipNaN && Double.isNaN(y[i])) continue;
+            Map<String, Object> p = new LinkedHashMap<>();
+            p.put("x", x[i]);
+            p.put("y", y[i]);
+            list.add(p);
+        }
+        return list;
+    }
+
+    // ===============================================================
+    // 🟩 컬럼 형식
+    // ===============================================================
+    public Map<String, Object> toColumnarMap() {
+        Map<String, Object> ohlcv = new LinkedHashMap<>();
+        ohlcv.put("o", open);
+        ohlcv.put("h", high);
+        ohlcv.put("l", low);
+        ohlcv.put("c", close);
+        ohlcv.put("v", volume);
+
+        Map<String, Object> maData = new LinkedHashMap<>();
+        for (Map.Entry<String, Line> e : ma.entrySet()) {
+            maData.put(e.getKey(), column(e.getValue()));
+        }
+
+        Map<String, Object> macdData = new LinkedHashMap<>();
+        macdData.put("MACD", column(macd));
+        macdData.put("Signal", column(signal));
+        macdData.put("Histogram", column(histogram));
+
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("mode", "chart_columnar");
+        out.put("ticker", ticker);
+        out.put("name", name);
+        out.put("x", dateStrings(dates));
+        out.put("ohlcv", ohlcv);
+        out.put("ma", maData);
+        out.put("macd", macdData);
+        out.put("pattern_points", patternMaps());
+        return out;
+    }
+
+    /** 축 공유면 값 배열만, 아니면 {"x": 날짜, "y": 값} */
+    private Object column(Line line) {
+        if (line.dates() == dates) return nullable(line.y());
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("x", dateStrings(line.dates()));
+        m.put("y", nullable(line.y()));
+        return m;
+    }
+
+    /** NaN 이 있으면 null 로 바꾼 배열 (JSON 에 NaN 불가) */
+    private static Object nullable(double[] y) {
+        boolean hasNaN = false;
+        for (double v : y) {
+            if (Double.isNaN(v)) {
+                hasNaN = true;
+                break;
+            }
+        }
+        if (!hasNaN) return y;
+        Double[] boxed = new Double[y.length];
+        for (int i = 0; i < y.length; i++) boxed[i] = Double.isNaN(y[i]) ? null : y[i];
+        return boxed;
+    }
+
+    // ===============================================================
+    // 🟥 바이너리 형식
+    // ===============================================================
+    public byte[] toBinary() {
+        byte[] tickerBytes = utf8(ticker);
+        byte[] nameBytes = utf8(name);
+        byte[] lastBytes = utf8(lastDate);
+
+        List<byte[]> seriesNames = new ArrayList<>();
+        List<Line> series = new ArrayList<>();
+        for (Map.Entry<String, Line> e : ma.entrySet()) {
+            seriesNames.add(utf8(e.getKey()));
+            series.add(e.getValue());
+        }
+        seriesNames.add(utf8("MACD"));
+        series.add(macd);
+        seriesNames.add(utf8("Signal"));
+        series.add(signal);
+        seriesNames.add(utf8("Histogram"));
+        series.add(histogram);
+
+        int size = 4 + 2 + 2 + 4
+                + 2 + tickerBytes.length + 2 + nameBytes.length + 2 + lastBytes.length
+                + length * 8 * 6
+                + 4;
+        for (int s = 0; s < series.size(); s++) {
+            Line line = series.get(s);
+            size += 2 + seriesNames.get(s).length + 4
+                    + (line.dates() == dates ? length * 8 : line.y().length * 16);
+        }
+        List<byte[][]> patternBytes = new ArrayList<>(patterns.size());
+        for (PatternPoint p : patterns) {
+            byte[][] b = {utf8(p.type()), utf8(p.status())};
+            patternBytes.add(b);
+            size += 2 + b[0].length + 2 + b[1].length + 8;
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(BINARY_MAGIC).putShort(BINARY_VERSION).putShort((short) series.size()).putInt(length);
+        putString(buf, tickerBytes);
+        putString(buf, nameBytes);
+        putString(buf, lastBytes);
+
+        putLongs(buf, dates);
+        for (double[] col : new double[][]{open, high, low, close}) putDoubles(buf, col);
+        putLongs(buf, volume);
+
+        for (int s = 0; s < series.size(); s++) {
+            Line line = series.get(s);
+            putString(buf, seriesNames.get(s));
+            if (line.dates() == dates) {
+                buf.putInt(-1);
+            } else {
+                buf.putInt(line.y().length);
+                putLongs(buf, line.dates());
+            }
+            putDoubles(buf, line.y());
+        }
+
+        buf.putInt(patterns.size());
+        for (int p = 0; p < patterns.size(); p++) {
+            putString(buf, patternBytes.get(p)[0]);
+            putString(buf, patternBytes.get(p)[1]);
+            buf.putDouble(patterns.get(p).y());
+        }
+        return buf.array();
+    }
+
+    private static void putDoubles(ByteBuffer buf, double[] col) {
+        buf.asDoubleBuffer().put(col);
+        buf.position(buf.position() + col.length * 8);
+    }
+
+    private static void putLongs(ByteBuffer buf, long[] col) {
+        buf.asLongBuffer().put(col);
+        buf.position(buf.position() + col.length * 8);
+    }
+
+    private static void putString(ByteBuffer buf, byte[] b) {
+        buf.putShort((short) b.length).put(b);
+    }
+
+    private static byte[] utf8(String s) {
+        byte[] b = s == null ? new byte[0] : s.getBytes(StandardCharsets.UTF_8);
+        return b.length > 0xFFFF ? Arrays.copyOf(b, 0xFFFF) : b;
+    }
+
+    // ===============================================================
+    // 🔧 공통
+    // ===============================================================
+
+    private static String[] dateStrings(long[] days) {
+        String[] x = new String[days.length];
+        for (int i = 0; i < days.length; i++) x[i] = LocalDate.ofEpochDay(days[i]).toString();
+        return x;
+    }
+
+    private List<Map<String, Object>> patternMaps() {
+        List<Map<String, Object>> list = new ArrayList<>(patterns.size());
+        for (PatternPoint p : patterns) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("x", lastDate);
+            m.put("y", p.y());
+            m.put("type", p.type());
+            m.put("status", p.status());
+            list.add(m);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,132 @@
+package com.afhk.app.stock;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ===============================================================
+ * 📉 ChartDownsampler (차트 포인트 예산 맞추기)
+ * ---------------------------------------------------------------
+ * ✅ 선 시리즈 : LTTB (Largest-Triangle-Three-Buckets) → 모양/극값 유지
+ *    시리즈마다 선택 지점이 다르므로 Line 별 자체 날짜 축
+ * ✅ 캔들 : 구간 집계 (시가=첫 시가, 고가=max, 저가=min, 종가=마지막 종가, 거래량=합)
+ *    구간 날짜 = 구간 첫 봉 날짜
+ * ✅ budget 이하이거나 budget < 3 이면 원본 그대로
+ * ===============================================================
+ */
+final class ChartDownsampler {
+
+    private ChartDownsampler() {
+    }
+
+    static ChartData downsample(ChartData d, int budget) {
+        int n = d.length();
+        if (budget < 3 || n <= budget) return d;
+
+        // 1. 캔들 구간 집계
+        long[] dates = new long[budget];
+        double[] open = new double[budget];
+        double[] high = new double[budget];
+        double[] low = new double[budget];
+        double[] close = new double[budget];
+        long[] volume = new long[budget];
+        for (int b = 0; b < budget; b++) {
+            int from = (int) ((long) b * n / budget);
+            int to = (int) ((long) (b + 1) * n / budget);
+            double h = Double.NEGATIVE_INFINITY;
+            double l = Double.POSITIVE_INFINITY;
+            long v = 0;
+            for (int i = from; i < to; i++) {
+                h = Math.max(h, d.high()[i]);
+                l = Math.min(l, d.low()[i]);
+                v += d.volume()[i];
+            }
+            dates[b] = d.dates()[from];
+            open[b] = d.open()[from];
+            high[b] = h;
+            low[b] = l;
+            close[b] = d.close()[to - 1];
+            volume[b] = v;
+        }
+
+        // 2. 선 시리즈 LTTB
+        Map<String, ChartData.Line> ma = new LinkedHashMap<>();
+        for (Map.Entry<String, ChartData.Line> e : d.ma().entrySet()) {
+            ma.put(e.getKey(), lttb(e.getValue(), budget));
+        }
+
+        return new ChartData(d.getTicker(), d.getName(), budget, dates, open, high, low, close, volume,
+                ma, lttb(d.macd(), budget), lttb(d.signal(), budget), lttb(d.histogram(), budget),
+                d.lastDate(), d.patterns());
+    }
+
+    /** LTTB (NaN 지점은 제외 후 적용) */
+    static ChartData.Line lttb(ChartData.Line line, int threshold) {
+        long[] xs = line.dates();
+        double[] ys = line.y();
+
+        // NaN 제거 (rolling 초반 등)
+        int valid = 0;
+        for (double y : ys) if (!Double.isNaN(y)) valid++;
+        if (valid != ys.length) {
+            long[] cx = new long[valid];
+            double[] cy = new double[valid];
+            int k = 0;
+            for (int i = 0; i < ys.length; i++) {
+                if (Double.isNaN(ys[i])) continue;
+                cx[k] = xs[i];
+                cy[k++] = ys[i];
+            }
+            xs = cx;
+            ys = cy;
+        }
+
+        int n = ys.length;
+        if (threshold < 3 || n <= threshold) {
+            return xs == line.dates() ? new ChartData.Line(xs.clone(), ys) : new ChartData.Line(xs, ys);
+        }
+
+        long[] ox = new long[threshold];
+        double[] oy = new double[threshold];
+        double every = (double) (n - 2) / (threshold - 2);
+
+        int a = 0;
+        ox[0] = xs[0];
+        oy[0] = ys[0];
+        for (int b = 0; b < threshold - 2; b++) {
+            // 다음 구간 평균점
+            int avgFrom = (int) Math.floor((b + 1) * every) + 1;
+            int avgTo = Math.min((int) Math.floor((b + 2) * every) + 1, n);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = avgFrom; i < avgTo; i++) {
+                avgX += xs[i];
+                avgY += ys[i];
+            }
+            int avgLen = avgTo - avgFrom;
+            avgX /= avgLen;
+            avgY /= avgLen;
+
+            // 현재 구간에서 삼각형 넓이 최대 지점
+            int from = (int) Math.floor(b * every) + 1;
+            int to = (int) Math.floor((b + 1) * every) + 1;
+            double ax = xs[a];
+            double ay = ys[a];
+            double maxArea = -1;
+            int next = from;
+            for (int i = from; i < to; i++) {
+                double area = Math.abs((ax - avgX) * (ys[i] - ay) - (ax - xs[i]) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = i;
+                }
+            }
+            ox[b + 1] = xs[next];
+            oy[b + 1] = ys[next];
+            a = next;
+        }
+        ox[threshold - 1] = xs[n - 1];
+        oy[threshold - 1] = ys[n - 1];
+        return new ChartData.Line(ox, oy);
+    }
+}
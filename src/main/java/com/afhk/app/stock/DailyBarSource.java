@@ -0,0 +1,23 @@
+package com.afhk.app.stock;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * ===============================================================
+ * 📡 DailyBarSource (일봉 공급원)
+ * ---------------------------------------------------------------
+ * ✅ 종목 1개의 [from, to] 구간 일봉 → OhlcvSeries (날짜 오름차순)
+ * ✅ 해당 구간 데이터 없음 → 빈 시리즈 (null 금지)
+ * ✅ DailyBarUpdater 가 종목별 마지막 저장 일자(포함)부터 요청
+ * ===============================================================
+ */
+public interface DailyBarSource {
+
+    OhlcvSeries fetch(String code, LocalDate from, LocalDate to) throws IOException;
+
+    /** 원본이 가진 전체 봉 수 (모르면 -1) → 스토어 길이와 다르면 과거 이력이 바뀐 것 */
+    default long totalBars(String code) throws IOException {
+        return -1L;
+    }
+}
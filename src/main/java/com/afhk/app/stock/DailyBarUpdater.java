@@ -0,0 +1,101 @@
+package com.afhk.app.stock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+/**
+ * ===============================================================
+ * ➕ DailyBarUpdater (v1.0 - 증분 일봉 갱신)
+ * ---------------------------------------------------------------
+ * ✅ GProd 완료 후 Python 이 갱신한 종목만 마지막 저장 일자 ~ 오늘 구간을 DailyBarSource 에 요청
+ *    (기본 : ParquetDailyBarSource → 갱신된 parquet 의 꼬리 구간만 로드)
+ * ✅ 받은 봉은 OhlcvColumnStore.append → 여유 행에 추가 기록 (전체 재작성 없음)
+ *    여유 부족 / 신규 종목 / 마지막 저장 봉 정정 시에만 스토어가 compaction
+ * ✅ 원본 봉 수 ≠ 저장 봉 수 + 신규 봉 수 (과거 이력 변경) / 스토어 미빌드 → 전체 재빌드
+ * ⚠️ 범위 : 컬럼 스토어 갱신만 증분. parquet 파일 자체는 Python(fetch_and_save_data)이 종목별로 통째 재기록
+ * ===============================================================
+ */
+@Component
+public class DailyBarUpdater {
+
+    private static final Logger log = LoggerFactory.getLogger(DailyBarUpdater.class);
+
+    private final OhlcvColumnStore columnStore;
+    private final OhlcvParquetReader reader;
+
+    public DailyBarUpdater(OhlcvColumnStore columnStore, OhlcvParquetReader reader) {
+        this.columnStore = columnStore;
+        this.reader = reader;
+    }
+
+    /** GProd 완료 후 호출 — 스토어 전용 스레드에서 증분 갱신, 불가 시 전체 재빌드 */
+    public Future<?> updateAsync(Collection<String> codes) {
+        return columnStore.submit(() -> {
+            try {
+                if (update(new ParquetDailyBarSource(reader), codes, LocalDate.now()) != null) return;
+            } catch (Exception e) {
+                log.warn("⚠️ 증분 일봉 갱신 실패 → 전체 재빌드: {}", e.getMessage());
+            }
+            try {
+                columnStore.rebuild();
+            } catch (Exception e) {
+                log.error("❌ 컬럼 스토어 재빌드 실패: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * 지정 종목의 [마지막 저장 일자, today] 구간 조회 후 append.
+     * 마지막 저장 봉을 겹쳐 요청 → 값이 바뀌었으면 append 가 compaction 으로 반영.
+     * 반환: append 결과 (스토어 미빌드 / 과거 이력 변경 → null, 호출 측이 전체 재빌드)
+     */
+    public OhlcvColumnStore.AppendResult update(DailyBarSource source, Collection<String> codes,
+                                                LocalDate today) throws IOException {
+        OhlcvColumnStore.Snapshot snap = columnStore.snapshot();
+        if (snap == null) {
+            log.info("🗄️ 컬럼 스토어 미빌드 → 증분 갱신 대신 전체 재빌드");
+            return null;
+        }
+
+        long started = System.currentTimeMillis();
+        Map<String, OhlcvSeries> bars = new LinkedHashMap<>();
+        int failed = 0;
+        for (String code : codes) {
+            int t = snap.indexOf(code);
+            LocalDate from = t < 0 ? LocalDate.MIN : LocalDate.ofEpochDay(snap.lastEpochDay(t));
+            try {
+                OhlcvSeries s = source.fetch(code, from, today);
+                if (t >= 0) {
+                    int added = 0;
+                    for (int i = 0; i < s.length(); i++) {
+                        if (s.dates()[i] > snap.lastEpochDay(t)) added++;
+                    }
+                    long total = source.totalBars(code);
+                    if (total >= 0 && total != snap.length(t) + added) {
+                        log.info("🔁 [{}] 과거 이력 변경 감지 (저장 {} + 신규 {} ≠ 원본 {}) → 전체 재빌드",
+                                code, snap.length(t), added, total);
+                        return null;
+                    }
+                }
+                if (!s.isEmpty()) bars.put(code, s);
+            } catch (IOException e) {
+                failed++;
+                log.warn("⚠️ [{}] 일봉 조회 실패 → 다음 갱신 때 재시도: {}", code, e.getMessage());
+            }
+        }
+
+        OhlcvColumnStore.AppendResult result = columnStore.append(bars);
+        log.info("➕ 증분 일봉 갱신: 요청={}, 종목={}, 행={}, compaction={}, 실패={}, {} ms",
+                codes.size(), result.tickers(), result.rows(), result.compacted(), failed,
+                System.currentTimeMillis() - started);
+        return result;
+    }
+}
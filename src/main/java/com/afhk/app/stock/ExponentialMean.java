@@ -0,0 +1,107 @@
+package com.afhk.app.stock;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * ===============================================================
+ * 📉 ExponentialMean (pandas ewm(adjust=False).mean() 동일 구현)
+ * ---------------------------------------------------------------
+ * ✅ alpha → com → alpha 재계산까지 pandas 와 같은 순서로 수행
+ * ✅ (old_wt*w + new_wt*x) / (old_wt + new_wt) 정규화 그대로 유지
+ * ✅ ignore_na=False : 첫 관측값 이전 NaN 은 건너뜀
+ * ===============================================================
+ */
+final class ExponentialMean implements Cloneable {
+
+    private final double oldWtFactor;
+    private final double newWt;
+    private final int minPeriods;
+
+    private double weighted = Double.NaN;
+    private double oldWt = 1.0;
+    private long nobs;
+    private boolean started;
+
+    private ExponentialMean(double com, int minPeriods) {
+        double alpha = 1.0 / (1.0 + com);
+        this.oldWtFactor = 1.0 - alpha;
+        this.newWt = alpha;   // adjust=False
+        this.minPeriods = Math.max(minPeriods, 1);
+    }
+
+    /** ewm(span=span, min_periods=span) — ta._ema */
+    static ExponentialMean ofSpan(int span) {
+        return new ExponentialMean((span - 1) / 2.0, span);
+    }
+
+    /** ewm(alpha=alpha, min_periods=minPeriods) — ta RSI (Wilder) */
+    static ExponentialMean ofAlpha(double alpha, int minPeriods) {
+        return new ExponentialMean((1.0 - alpha) / alpha, minPeriods);
+    }
+
+    void reset() {
+        weighted = Double.NaN;
+        oldWt = 1.0;
+        nobs = 0;
+        started = false;
+    }
+
+    /** 값 1개 반영 후 현재 평균 반환 (min_periods 미달 시 NaN) */
+    double add(double cur) {
+        boolean observation = !Double.isNaN(cur);
+        if (!started) {
+            // pandas: output[0] 은 vals[0] 으로 초기화
+            started = true;
+            weighted = cur;
+            nobs = observation ? 1 : 0;
+        } else {
+            if (observation) nobs++;
+            if (!Double.isNaN(weighted)) {
+                // ignore_na=False : 중간 NaN 구간에서도 old_wt 는 계속 감쇠
+                oldWt *= oldWtFactor;
+                if (observation) {
+                    if (weighted != cur) {
+                        weighted = oldWt * weighted + newWt * cur;
+                        weighted /= (oldWt + newWt);
+                    }
+                    oldWt = 1.0;   // adjust=False
+                }
+            } else if (observation) {
+                weighted = cur;
+            }
+        }
+        return nobs >= minPeriods ? weighted : Double.NaN;
+    }
+
+    double value() {
+        return nobs >= minPeriods ? weighted : Double.NaN;
+    }
+
+    // ============================================================
+    // 💾 상태 저장/복원 (IndicatorState 영속화용)
+    // ============================================================
+
+    void write(DataOutput out) throws IOException {
+        out.writeDouble(weighted);
+        out.writeDouble(oldWt);
+        out.writeLong(nobs);
+        out.writeBoolean(started);
+    }
+
+    void read(DataInput in) throws IOException {
+        weighted = in.readDouble();
+        oldWt = in.readDouble();
+        nobs = in.readLong();
+        started = in.readBoolean();
+    }
+
+    ExponentialMean copy() {
+        try {
+            return (ExponentialMean) super.clone();   // primitive 필드만 보유
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
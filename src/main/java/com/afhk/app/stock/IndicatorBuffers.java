@@ -0,0 +1,95 @@
+package com.afhk.app.stock;
+
+/**
+ * ===============================================================
+ * 🧮 IndicatorBuffers (IndicatorEngine 출력 버퍼 - 재사용용)
+ * ---------------------------------------------------------------
+ * ✅ calculate_advanced_features 의 컬럼과 1:1 대응
+ * ✅ ensureCapacity 로 필요 시에만 확장 → 종목 루프에서 할당 없음
+ * ✅ 값이 없는 구간은 NaN (pandas 결측치와 동일)
+ * ===============================================================
+ */
+public final class IndicatorBuffers {
+
+    private int length;
+
+    private double[] rsi = new double[0];
+    private double[] macd = new double[0];
+    private double[] macdSignal = new double[0];
+    private double[] macdHist = new double[0];
+    private double[] bbWidth = new double[0];
+    private double[] sma20 = new double[0];
+    private double[] sma50 = new double[0];
+    private double[] sma200 = new double[0];
+    private double[] logReturn = new double[0];
+    private double[] trendCross = new double[0];
+
+    public IndicatorBuffers() {
+    }
+
+    public IndicatorBuffers(int capacity) {
+        ensureCapacity(capacity);
+    }
+
+    /** 용량이 부족할 때만 새 배열 할당 (기존 값은 보존하지 않음) */
+    public void ensureCapacity(int n) {
+        if (rsi.length >= n) return;
+        int cap = Math.max(n, rsi.length + (rsi.length >> 1));
+        rsi = new double[cap];
+        macd = new double[cap];
+        macdSignal = new double[cap];
+        macdHist = new double[cap];
+        bbWidth = new double[cap];
+        sma20 = new double[cap];
+        sma50 = new double[cap];
+        sma200 = new double[cap];
+        logReturn = new double[cap];
+        trendCross = new double[cap];
+    }
+
+    void setLength(int length) {
+        this.length = length;
+    }
+
+    // ============================================================
+    // Getter (배열은 capacity 크기 → 유효 구간은 [0, length))
+    // ============================================================
+
+    public int length() { return length; }
+    public double[] rsi() { return rsi; }
+    public double[] macd() { return macd; }
+    public double[] macdSignal() { return macdSignal; }
+    public double[] macdHist() { return macdHist; }
+    public double[] bbWidth() { return bbWidth; }
+    public double[] sma20() { return sma20; }
+    public double[] sma50() { return sma50; }
+    public double[] sma200() { return sma200; }
+    public double[] logReturn() { return logReturn; }
+    public double[] trendCross() { return trendCross; }
+
+    /**
+     * dropna(subset=['RSI','MACD','BB_Width','TREND_CROSS','SMA_200','Log_Return'])
+     * 에서 살아남는 행인지 여부
+     */
+    public boolean isComplete(int i) {
+        return !Double.isNaN(rsi[i]) && !Double.isNaN(macd[i]) && !Double.isNaN(bbWidth[i])
+                && !Double.isNaN(sma200[i]) && !Double.isNaN(logReturn[i]);
+    }
+
+    /** dropna 이후 첫 행 인덱스 (없으면 -1) */
+    public int firstComplete() {
+        for (int i = 0; i < length; i++) {
+            if (isComplete(i)) return i;
+        }
+        return -1;
+    }
+
+    /** dropna 이후 남는 행 수 */
+    public int completeCount() {
+        int cnt = 0;
+        for (int i = 0; i < length; i++) {
+            if (isComplete(i)) cnt++;
+        }
+        return cnt;
+    }
+}
@@ -0,0 +1,131 @@
+package com.afhk.app.stock;
+
+import java.nio.DoubleBuffer;
+
+/**
+ * ===============================================================
+ * ⚙️ IndicatorEngine (v1.0 - calculate_advanced_features Java 이식)
+ * ---------------------------------------------------------------
+ * ✅ RSI(14) / MACD(12,26,9) / BB Width(20,2) / SMA 20·50·200
+ *    / Log Return / TREND_CROSS 를 종가 1회 순회로 계산
+ * ✅ primitive 누산기 + 재사용 출력 버퍼 → 봉 단위 객체·박싱 없음
+ * ✅ pandas rolling/ewm 의 온라인 알고리즘을 그대로 재현
+ *    → ta 라이브러리 결과와 비트 단위 동일
+ *      (Log_Return 만 Math.log vs numpy log 차이로 1ulp 오차 가능)
+ * ⚠️ 인스턴스는 스레드 안전하지 않음 → 워커 스레드당 1개 사용
+ * ===============================================================
+ */
+public final class IndicatorEngine {
+
+    public static final int RSI_WINDOW = 14;
+    public static final int MACD_FAST = 12;
+    public static final int MACD_SLOW = 26;
+    public static final int MACD_SIGNAL = 9;
+    public static final int BB_WINDOW = 20;
+    public static final double BB_DEV = 2.0;
+    public static final int SMA_SHORT = 20;
+    public static final int SMA_MID = 50;
+    public static final int SMA_LONG = 200;
+
+    private final ExponentialMean rsiUp = ExponentialMean.ofAlpha(1.0 / RSI_WINDOW, RSI_WINDOW);
+    private final ExponentialMean rsiDown = ExponentialMean.ofAlpha(1.0 / RSI_WINDOW, RSI_WINDOW);
+    private final ExponentialMean emaFast = ExponentialMean.ofSpan(MACD_FAST);
+    private final ExponentialMean emaSlow = ExponentialMean.ofSpan(MACD_SLOW);
+    private final ExponentialMean emaSignal = ExponentialMean.ofSpan(MACD_SIGNAL);
+
+    private final RollingMean smaShort = new RollingMean();
+    private final RollingMean smaMid = new RollingMean();
+    private final RollingMean smaLong = new RollingMean();
+    private final RollingVariance bbVar = new RollingVariance();
+
+    // ============================================================
+    // 🚀 계산 진입점
+    // ============================================================
+
+    /** double[] 종가 배열 (OhlcvSeries.close()) 기준 계산 */
+    public IndicatorBuffers compute(double[] close, int n, IndicatorBuffers out) {
+        return compute(DoubleBuffer.wrap(close), 0, n, out);
+    }
+
+    /**
+     * 컬럼 스토어 종가 버퍼 [offset, offset+n) 구간 계산
+     * (OhlcvColumnStore.Snapshot.prices(Column.CLOSE) 를 복사 없이 사용)
+     */
+    public IndicatorBuffers compute(DoubleBuffer close, int offset, int n, IndicatorBuffers out) {
+        out.ensureCapacity(n);
+        out.setLength(n);
+        if (n == 0) return out;
+
+        double[] rsi = out.rsi();
+        double[] macd = out.macd();
+        double[] macdSignal = out.macdSignal();
+        double[] macdHist = out.macdHist();
+        double[] bbWidth = out.bbWidth();
+        double[] sma20 = out.sma20();
+        double[] sma50 = out.sma50();
+        double[] sma200 = out.sma200();
+        double[] logReturn = out.logReturn();
+        double[] trendCross = out.trendCross();
+
+        double first = close.get(offset);
+        rsiUp.reset();
+        rsiDown.reset();
+        emaFast.reset();
+        emaSlow.reset();
+        emaSignal.reset();
+        smaShort.reset(first);
+        smaMid.reset(first);
+        smaLong.reset(first);
+        bbVar.reset(first);
+
+        double prev = Double.NaN;
+        for (int i = 0; i < n; i++) {
+            double c = close.get(offset + i);
+
+            // 1. SMA / Bollinger (pandas: 윈도우 이탈값 제거 → 신규값 추가 순서)
+            if (i >= SMA_SHORT) smaShort.remove(close.get(offset + i - SMA_SHORT));
+            if (i >= SMA_MID) smaMid.remove(close.get(offset + i - SMA_MID));
+            if (i >= SMA_LONG) smaLong.remove(close.get(offset + i - SMA_LONG));
+            if (i >= BB_WINDOW) bbVar.remove(close.get(offset + i - BB_WINDOW));
+            smaShort.add(c);
+            smaMid.add(c);
+            smaLong.add(c);
+            bbVar.add(c);
+
+            double s20 = smaShort.mean(SMA_SHORT);
+            double s50 = smaMid.mean(SMA_MID);
+            double s200 = smaLong.mean(SMA_LONG);
+            sma20[i] = s20;
+            sma50[i] = s50;
+            sma200[i] = s200;
+
+            // BB_WINDOW 와 SMA_SHORT 윈도우가 같으므로 mavg 재사용
+            double mstd = bbVar.std(BB_WINDOW, 0);
+            double hband = s20 + BB_DEV * mstd;
+            double lband = s20 - BB_DEV * mstd;
+            bbWidth[i] = ((hband - lband) / s20) * 100;
+
+            // 2. RSI (diff.where(diff > 0, 0.0) → 첫 행도 0 으로 채워짐)
+            double diff = c - prev;
+            double up = diff > 0 ? diff : 0.0;
+            double down = -(diff < 0 ? diff : 0.0);
+            double emaUp = rsiUp.add(up);
+            double emaDn = rsiDown.add(down);
+            rsi[i] = emaDn == 0 ? 100 : 100 - (100 / (1 + emaUp / emaDn));
+
+            // 3. MACD
+            double m = emaFast.add(c) - emaSlow.add(c);
+            double sig = emaSignal.add(m);
+            macd[i] = m;
+            macdSignal[i] = sig;
+            macdHist[i] = m - sig;
+
+            // 4. Log Return / TREND_CROSS
+            logReturn[i] = Math.log(c / prev);
+            trendCross[i] = s50 > s200 ? 1 : 0;
+
+            prev = c;
+        }
+        return out;
+    }
+}
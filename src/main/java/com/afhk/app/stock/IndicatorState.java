@@ -0,0 +1,257 @@
+package com.afhk.app.stock;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import static com.afhk.app.stock.IndicatorEngine.*;
+
+/**
+ * ===============================================================
+ * 🔁 IndicatorState (v1.0 - 종목별 스트리밍 지표 상태)
+ * ---------------------------------------------------------------
+ * ✅ 새 일봉 1개 append → 모든 지표 O(1) 갱신
+ *    - SMA/Bollinger : 누적합·제곱편차합 + 최근 200봉 링버퍼
+ *    - MACD / RSI    : EMA·Wilder 평균 누산기
+ * ✅ IndicatorEngine 전체 계산과 같은 순서로 누산 → 마지막 봉 값 비트 단위 동일
+ * ✅ write/read 로 영속화 (IndicatorStateStore)
+ * ✅ prefixHash : 지금까지 누산한 (날짜, 종가) 전체의 롤링 해시
+ *    → 중간 이력 정정(수정주가, 과거 봉 보충) 시 불일치로 검출 → 전체 재계산
+ * ⚠️ 인스턴스 자체는 스레드 안전하지 않음 → 갱신은 copy() 후 수행
+ * ===============================================================
+ */
+public final class IndicatorState {
+
+    static final int FORMAT_VERSION = 2;
+
+    private int bars;
+    private long firstEpochDay;
+    private long lastEpochDay;
+    private double lastClose = Double.NaN;
+    private long prefixHash;
+    /** 상태가 종목 전체 구간을 덮을 때의 OhlcvColumnStore tickerVersion (IndicatorStateStore 가 기록) */
+    private long sourceVersion;
+    private double[] ring = new double[SMA_LONG];
+
+    private ExponentialMean rsiUp = ExponentialMean.ofAlpha(1.0 / RSI_WINDOW, RSI_WINDOW);
+    private ExponentialMean rsiDown = ExponentialMean.ofAlpha(1.0 / RSI_WINDOW, RSI_WINDOW);
+    private ExponentialMean emaFast = ExponentialMean.ofSpan(MACD_FAST);
+    private ExponentialMean emaSlow = ExponentialMean.ofSpan(MACD_SLOW);
+    private ExponentialMean emaSignal = ExponentialMean.ofSpan(MACD_SIGNAL);
+
+    private RollingMean smaShort = new RollingMean();
+    private RollingMean smaMid = new RollingMean();
+    private RollingMean smaLong = new RollingMean();
+    private RollingVariance bbVar = new RollingVariance();
+
+    // 마지막 봉 지표값
+    private double rsi = Double.NaN;
+    private double macd = Double.NaN;
+    private double macdSignal = Double.NaN;
+    private double macdHist = Double.NaN;
+    private double bbWidth = Double.NaN;
+    private double sma20 = Double.NaN;
+    private double sma50 = Double.NaN;
+    private double sma200 = Double.NaN;
+    private double logReturn = Double.NaN;
+    private double trendCross;
+
+    // ============================================================
+    // 🚀 갱신
+    // ============================================================
+
+    /** 일봉 1개 추가 (날짜 오름차순으로만 호출) */
+    public void append(long epochDay, double c) {
+        int i = bars;
+        if (i == 0) {
+            firstEpochDay = epochDay;
+            smaShort.reset(c);
+            smaMid.reset(c);
+            smaLong.reset(c);
+            bbVar.reset(c);
+        }
+
+        // 1. SMA / Bollinger (윈도우 이탈값은 링버퍼에서 조회 후 덮어씀)
+        if (i >= SMA_SHORT) smaShort.remove(ring[(i - SMA_SHORT) % SMA_LONG]);
+        if (i >= SMA_MID) smaMid.remove(ring[(i - SMA_MID) % SMA_LONG]);
+        if (i >= SMA_LONG) smaLong.remove(ring[(i - SMA_LONG) % SMA_LONG]);
+        if (i >= BB_WINDOW) bbVar.remove(ring[(i - BB_WINDOW) % SMA_LONG]);
+        ring[i % SMA_LONG] = c;
+        smaShort.add(c);
+        smaMid.add(c);
+        smaLong.add(c);
+        bbVar.add(c);
+
+        sma20 = smaShort.mean(SMA_SHORT);
+        sma50 = smaMid.mean(SMA_MID);
+        sma200 = smaLong.mean(SMA_LONG);
+
+        double mstd = bbVar.std(BB_WINDOW, 0);
+        double hband = sma20 + BB_DEV * mstd;
+        double lband = sma20 - BB_DEV * mstd;
+        bbWidth = ((hband - lband) / sma20) * 100;
+
+        // 2. RSI
+        double diff = c - lastClose;
+        double up = diff > 0 ? diff : 0.0;
+        double down = -(diff < 0 ? diff : 0.0);
+        double emaUp = rsiUp.add(up);
+        double emaDn = rsiDown.add(down);
+        rsi = emaDn == 0 ? 100 : 100 - (100 / (1 + emaUp / emaDn));
+
+        // 3. MACD
+        macd = emaFast.add(c) - emaSlow.add(c);
+        macdSignal = emaSignal.add(macd);
+        macdHist = macd - macdSignal;
+
+        // 4. Log Return / TREND_CROSS
+        logReturn = Math.log(c / lastClose);
+        trendCross = sma50 > sma200 ? 1 : 0;
+
+        lastClose = c;
+        lastEpochDay = epochDay;
+        prefixHash = hashStep(prefixHash, epochDay, c);
+        bars++;
+    }
+
+    /** prefixHash 1봉 누산 (IndicatorStateStore 가 저장된 이력으로 같은 값을 재계산해 비교) */
+    static long hashStep(long h, long epochDay, double c) {
+        h = (h ^ epochDay) * 0x9E3779B97F4A7C15L;
+        h = (h ^ Double.doubleToLongBits(c)) * 0xC2B2AE3D27D4EB4FL;
+        return h ^ (h >>> 29);
+    }
+
+    void sourceVersion(long version) {
+        this.sourceVersion = version;
+    }
+
+    /** 갱신용 독립 사본 (읽는 쪽은 기존 인스턴스를 계속 사용) */
+    public IndicatorState copy() {
+        IndicatorState s = new IndicatorState();
+        s.bars = bars;
+        s.firstEpochDay = firstEpochDay;
+        s.lastEpochDay = lastEpochDay;
+        s.lastClose = lastClose;
+        s.prefixHash = prefixHash;
+        s.sourceVersion = sourceVersion;
+        s.ring = ring.clone();
+        s.rsiUp = rsiUp.copy();
+        s.rsiDown = rsiDown.copy();
+        s.emaFast = emaFast.copy();
+        s.emaSlow = emaSlow.copy();
+        s.emaSignal = emaSignal.copy();
+        s.smaShort = smaShort.copy();
+        s.smaMid = smaMid.copy();
+        s.smaLong = smaLong.copy();
+        s.bbVar = bbVar.copy();
+        s.rsi = rsi;
+        s.macd = macd;
+        s.macdSignal = macdSignal;
+        s.macdHist = macdHist;
+        s.bbWidth = bbWidth;
+        s.sma20 = sma20;
+        s.sma50 = sma50;
+        s.sma200 = sma200;
+        s.logReturn = logReturn;
+        s.trendCross = trendCross;
+        return s;
+    }
+
+    // ============================================================
+    // Getter
+    // ============================================================
+
+    public int bars() { return bars; }
+    public long firstEpochDay() { return firstEpochDay; }
+    public long lastEpochDay() { return lastEpochDay; }
+    public double lastClose() { return lastClose; }
+    public long prefixHash() { return prefixHash; }
+    public long sourceVersion() { return sourceVersion; }
+
+    public double rsi() { return rsi; }
+    public double macd() { return macd; }
+    public double macdSignal() { return macdSignal; }
+    public double macdHist() { return macdHist; }
+    public double bbWidth() { return bbWidth; }
+    public double sma20() { return sma20; }
+    public double sma50() { return sma50; }
+    public double sma200() { return sma200; }
+    public double logReturn() { return logReturn; }
+    public double trendCross() { return trendCross; }
+
+    /** 마지막 봉이 dropna(feature_subset) 를 통과하는지 */
+    public boolean isComplete() {
+        return !Double.isNaN(rsi) && !Double.isNaN(macd) && !Double.isNaN(bbWidth)
+                && !Double.isNaN(sma200) && !Double.isNaN(logReturn);
+    }
+
+    // ============================================================
+    // 💾 영속화
+    // ============================================================
+
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(bars);
+        out.writeLong(firstEpochDay);
+        out.writeLong(lastEpochDay);
+        out.writeDouble(lastClose);
+        out.writeLong(prefixHash);
+        out.writeLong(sourceVersion);
+        int keep = Math.min(bars, SMA_LONG);
+        for (int k = bars - keep; k < bars; k++) out.writeDouble(ring[k % SMA_LONG]);
+
+        rsiUp.write(out);
+        rsiDown.write(out);
+        emaFast.write(out);
+        emaSlow.write(out);
+        emaSignal.write(out);
+        smaShort.write(out);
+        smaMid.write(out);
+        smaLong.write(out);
+        bbVar.write(out);
+
+        out.writeDouble(rsi);
+        out.writeDouble(macd);
+        out.writeDouble(macdSignal);
+        out.writeDouble(macdHist);
+        out.writeDouble(bbWidth);
+        out.writeDouble(sma20);
+        out.writeDouble(sma50);
+        out.writeDouble(sma200);
+        out.writeDouble(logReturn);
+        out.writeDouble(trendCross);
+    }
+
+    public static IndicatorState read(DataInput in) throws IOException {
+        IndicatorState s = new IndicatorState();
+        s.bars = in.readInt();
+        s.firstEpochDay = in.readLong();
+        s.lastEpochDay = in.readLong();
+        s.lastClose = in.readDouble();
+        s.prefixHash = in.readLong();
+        s.sourceVersion = in.readLong();
+        int keep = Math.min(s.bars, SMA_LONG);
+        for (int k = s.bars - keep; k < s.bars; k++) s.ring[k % SMA_LONG] = in.readDouble();
+
+        s.rsiUp.read(in);
+        s.rsiDown.read(in);
+        s.emaFast.read(in);
+        s.emaSlow.read(in);
+        s.emaSignal.read(in);
+        s.smaShort.read(in);
+        s.smaMid.read(in);
+        s.smaLong.read(in);
+        s.bbVar.read(in);
+
+        s.rsi = in.readDouble();
+        s.macd = in.readDouble();
+        s.macdSignal = in.readDouble();
+        s.macdHist = in.readDouble();
+        s.bbWidth = in.readDouble();
+        s.sma20 = in.readDouble();
+        s.sma50 = in.readDouble();
+        s.sma200 = in.readDouble();
+        s.logReturn = in.readDouble();
+        s.trendCross = in.readDouble();
+        return s;
+    }
+}
@@ -0,0 +1,232 @@
+package com.afhk.app.stock;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * ===============================================================
+ * 💾 IndicatorStateStore (v1.0 - 전 종목 스트리밍 지표 상태 저장소)
+ * ---------------------------------------------------------------
+ * ✅ 컬럼 스토어 세대 교체 시 종목별 IndicatorState 갱신
+ *    - 종목 tickerVersion 이 상태 기록 시점과 같으면 그대로 재사용
+ *    - 아니면 상태가 덮는 접두 구간의 (날짜, 종가) 해시를 비교 → 같으면 신규 봉만 append (O(1)/봉)
+ *    - 접두 구간 어디든 바뀌면 (수정주가, 과거 봉 보충, 재다운로드 등) 전체 재계산
+ * ✅ store.path/indicator_state.bin 에 영속화 → 재기동 후에도 증분 유지
+ * ✅ 조회는 불변 맵 스냅샷 (갱신은 copy 후 통째로 교체)
+ * ===============================================================
+ */
+@Component
+public class IndicatorStateStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IndicatorStateStore.class);
+
+    private static final int MAGIC = 0x494E4453;   // "INDS"
+    private static final String STATE_FILE = "indicator_state.bin";
+
+    private final OhlcvColumnStore columnStore;
+
+    @Value("${python.stock.store.path:}")
+    private String storeDir;
+
+    private volatile Map<String, IndicatorState> states = Collections.emptyMap();
+    private volatile long dataVersion;
+
+    public IndicatorStateStore(OhlcvColumnStore columnStore) {
+        this.columnStore = columnStore;
+    }
+
+    // ===============================================================
+    // 🚀 기동 시 저장 상태 로드 → 스토어와 버전 다르면 갱신
+    // ===============================================================
+    @PostConstruct
+    public void init() {
+        if (storeDir == null || storeDir.isBlank()) return;
+        columnStore.addListener(this::refresh);
+
+        try {
+            load();
+        } catch (Exception e) {
+            log.warn("⚠️ 지표 상태 로드 실패 → 전체 재계산 예정: {}", e.getMessage());
+            states = Collections.emptyMap();
+            dataVersion = 0;
+        }
+
+        OhlcvColumnStore.Snapshot snap = columnStore.snapshot();
+        if (snap != null && snap.dataVersion() != dataVersion) {
+            refresh(snap);
+        }
+    }
+
+    // ===============================================================
+    // 🔍 조회
+    // ===============================================================
+
+    /** 종목 마지막 봉 지표 상태 (없으면 null) — 반환 객체는 수정하지 말 것 */
+    public IndicatorState get(String code) {
+        return states.get(code);
+    }
+
+    public Map<String, IndicatorState> all() {
+        return states;
+    }
+
+    /** 상태가 반영된 컬럼 스토어 dataVersion */
+    public long dataVersion() {
+        return dataVersion;
+    }
+
+    // ===============================================================
+    // 🔁 갱신
+    // ===============================================================
+    public synchronized void refresh(OhlcvColumnStore.Snapshot snap) {
+        long started = System.currentTimeMillis();
+        Map<String, IndicatorState> prev = states;
+        Map<String, IndicatorState> next = new ConcurrentHashMap<>(snap.tickerCount() * 2);
+        AtomicInteger appended = new AtomicInteger();
+        AtomicInteger replayed = new AtomicInteger();
+
+        LongBuffer dates = snap.longs(OhlcvColumnStore.Column.DATE);
+        DoubleBuffer close = snap.prices(OhlcvColumnStore.Column.CLOSE);
+
+        IntStream.range(0, snap.tickerCount()).parallel().forEach(t -> {
+            String code = snap.code(t);
+            int off = snap.offset(t);
+            int len = snap.length(t);
+            if (len == 0) return;
+            long version = snap.tickerVersion(t);
+
+            IndicatorState old = prev.get(code);
+            IndicatorState s;
+            int from;
+            if (canAppend(old, snap, t, dates, close)) {
+                if (old.bars() == len) {
+                    if (old.sourceVersion() == version) {
+                        next.put(code, old);
+                    } else {
+                        // 지표 무관 컬럼(시가·거래량 등)만 변경
+                        s = old.copy();
+                        s.sourceVersion(version);
+                        next.put(code, s);
+                    }
+                    return;
+                }
+                s = old.copy();
+                from = old.bars();
+                appended.incrementAndGet();
+            } else {
+                s = new IndicatorState();
+                from = 0;
+                replayed.incrementAndGet();
+            }
+            for (int r = from; r < len; r++) {
+                s.append(dates.get(off + r), close.get(off + r));
+            }
+            s.sourceVersion(version);
+            next.put(code, s);
+        });
+
+        Map<String, IndicatorState> frozen = Collections.unmodifiableMap(new HashMap<>(next));
+        try {
+            save(snap.dataVersion(), frozen);
+        } catch (IOException e) {
+            log.warn("⚠️ 지표 상태 저장 실패 (메모리 상태는 유지): {}", e.getMessage());
+        }
+        states = frozen;
+        dataVersion = snap.dataVersion();
+
+        log.info("📐 지표 상태 갱신: 종목={}, 증분={}, 재계산={}, {} ms",
+                frozen.size(), appended.get(), replayed.get(), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * 기존 상태가 현재 이력의 접두 구간과 일치하는지 (일상 갱신은 O(1))
+     * - 전체 구간 + tickerVersion 동일 → 일치
+     * - 상태 마지막 봉 위치의 (날짜, 종가) 불일치 → 불일치
+     * - 상태가 직전 스냅샷 기준이고 (sourceVersion == parentVersion) 상태 구간이 stablePrefix 이내
+     *   → 스토어가 접두 구간 불변을 보장 (append / 이력 유지 compaction·재빌드) → 일치
+     * - 그 외 (기동 직후 / 정정 종목 / 세대 건너뜀) → 접두 구간 (날짜, 종가) 롤링 해시 비교
+     */
+    private static boolean canAppend(IndicatorState old, OhlcvColumnStore.Snapshot snap, int t,
+                                     LongBuffer dates, DoubleBuffer close) {
+        int off = snap.offset(t);
+        int len = snap.length(t);
+        if (old == null || old.bars() == 0 || old.bars() > len) return false;
+        if (old.bars() == len && old.sourceVersion() == snap.tickerVersion(t)) return true;
+
+        int last = off + old.bars() - 1;
+        if (dates.get(last) != old.lastEpochDay()
+                || Double.doubleToLongBits(close.get(last)) != Double.doubleToLongBits(old.lastClose())) {
+            return false;
+        }
+        if (old.sourceVersion() == snap.parentVersion(t) && old.bars() <= snap.stablePrefix(t)) return true;
+
+        long h = 0;
+        for (int r = 0; r < old.bars(); r++) {
+            h = IndicatorState.hashStep(h, dates.get(off + r), close.get(off + r));
+        }
+        return h == old.prefixHash();
+    }
+
+    // ===============================================================
+    // 💾 파일 입출력
+    // ===============================================================
+
+    private void load() throws IOException {
+        Path file = Paths.get(storeDir, STATE_FILE);
+        if (!Files.exists(file)) return;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) throw new IOException(STATE_FILE + " 매직 불일치");
+            if (in.readInt() != IndicatorState.FORMAT_VERSION) throw new IOException(STATE_FILE + " 포맷 버전 불일치");
+            long version = in.readLong();
+            int count = in.readInt();
+            Map<String, IndicatorState> loaded = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                String code = in.readUTF();
+                loaded.put(code, IndicatorState.read(in));
+            }
+            states = Collections.unmodifiableMap(loaded);
+            dataVersion = version;
+            log.info("📐 지표 상태 로드: 종목={}", count);
+        }
+    }
+
+    private void save(long version, Map<String, IndicatorState> map) throws IOException {
+        Path root = Paths.get(storeDir);
+        Files.createDirectories(root);
+        Path tmp = root.resolve(STATE_FILE + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(IndicatorState.FORMAT_VERSION);
+            out.writeLong(version);
+            out.writeInt(map.size());
+            for (Map.Entry<String, IndicatorState> e : map.entrySet()) {
+                out.writeUTF(e.getKey());
+                e.getValue().write(out);
+            }
+        }
+        Files.move(tmp, root.resolve(STATE_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
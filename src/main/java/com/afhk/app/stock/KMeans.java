@@ -0,0 +1,170 @@
+package com.afhk.app.stock;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * ===============================================================
+ * 🧩 KMeans (sklearn KMeans(init='k-means++', algorithm='lloyd') 이식)
+ * ---------------------------------------------------------------
+ * ✅ 행 우선(row-major) primitive 행렬 x[n*d] 위에서 동작 → 할당 없음
+ * ✅ greedy k-means++ (후보 2 + ln(k) 개 중 잠재값 최소 선택)
+ * ✅ Lloyd 반복 : 라벨 불변 또는 중심 이동² 합 <= tol 이면 종료
+ * ✅ 빈 군집은 자기 중심에서 가장 먼 점으로 재배치
+ * ===============================================================
+ */
+final class KMeans {
+
+    private KMeans() {
+    }
+
+    /** k-means++ 초기 중심 → centers[k*d] */
+    static void initPlusPlus(double[] x, int n, int d, int k, SplittableRandom rnd,
+                             double[] centers, double[] closest, double[] candidate) {
+        int localTrials = 2 + (int) Math.log(k);
+
+        int first = rnd.nextInt(n);
+        System.arraycopy(x, first * d, centers, 0, d);
+        double pot = 0;
+        for (int i = 0; i < n; i++) {
+            closest[i] = dist2(x, i * d, centers, 0, d);
+            pot += closest[i];
+        }
+
+        for (int c = 1; c < k; c++) {
+            int bestId = -1;
+            double bestPot = Double.POSITIVE_INFINITY;
+            for (int trial = 0; trial < localTrials; trial++) {
+                int id = sample(closest, n, rnd.nextDouble() * pot);
+                double trialPot = 0;
+                for (int i = 0; i < n; i++) {
+                    trialPot += Math.min(closest[i], dist2(x, i * d, x, id * d, d));
+                }
+                if (trialPot < bestPot) {
+                    bestPot = trialPot;
+                    bestId = id;
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                candidate[i] = Math.min(closest[i], dist2(x, i * d, x, bestId * d, d));
+            }
+            System.arraycopy(candidate, 0, closest, 0, n);
+            pot = bestPot;
+            System.arraycopy(x, bestId * d, centers, c * d, d);
+        }
+    }
+
+    /**
+     * Lloyd 반복. centers 는 초기값 입력 → 최종 중심 출력, labels 는 최종 라벨.
+     * 반환: inertia (각 점과 소속 중심 거리² 합)
+     */
+    static double lloyd(double[] x, int n, int d, int k, double[] centers, int[] labels,
+                        double[] sums, int[] counts, int maxIter, double tol) {
+        for (int i = 0; i < n; i++) labels[i] = -1;
+
+        for (int iter = 0; iter < maxIter; iter++) {
+            boolean changed = assign(x, n, d, k, centers, labels);
+            if (!changed && iter > 0) break;   // strict convergence
+
+            // 새 중심 = 소속 점 평균
+            Arrays.fill(sums, 0, k * d, 0.0);
+            Arrays.fill(counts, 0, k, 0);
+            for (int i = 0; i < n; i++) {
+                int c = labels[i];
+                counts[c]++;
+                for (int j = 0; j < d; j++) sums[c * d + j] += x[i * d + j];
+            }
+            relocateEmpty(x, n, d, k, centers, labels, sums, counts);
+
+            double shift = 0;
+            for (int c = 0; c < k; c++) {
+                for (int j = 0; j < d; j++) {
+                    double v = sums[c * d + j] / counts[c];
+                    double diff = v - centers[c * d + j];
+                    shift += diff * diff;
+                    centers[c * d + j] = v;
+                }
+            }
+            if (shift <= tol) {
+                assign(x, n, d, k, centers, labels);
+                break;
+            }
+        }
+
+        double inertia = 0;
+        for (int i = 0; i < n; i++) inertia += dist2(x, i * d, centers, labels[i] * d, d);
+        return inertia;
+    }
+
+    /** 가장 가까운 중심으로 라벨 지정. 반환: 라벨 변경 여부 */
+    private static boolean assign(double[] x, int n, int d, int k, double[] centers, int[] labels) {
+        boolean changed = false;
+        for (int i = 0; i < n; i++) {
+            int best = 0;
+            double bestDist = dist2(x, i * d, centers, 0, d);
+            for (int c = 1; c < k; c++) {
+                double dist = dist2(x, i * d, centers, c * d, d);
+                if (dist < bestDist) {
+                    bestDist = dist;
+                    best = c;
+                }
+            }
+            if (labels[i] != best) {
+                labels[i] = best;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /** 빈 군집 → 현재 소속 중심에서 가장 먼 점을 떼어 새 중심으로 사용 */
+    private static void relocateEmpty(double[] x, int n, int d, int k, double[] centers, int[] labels,
+                                      double[] sums, int[] counts) {
+        for (int c = 0; c < k; c++) {
+            if (counts[c] > 0) continue;
+            int far = -1;
+            double farDist = -1;
+            for (int i = 0; i < n; i++) {
+                if (counts[labels[i]] <= 1) continue;
+                double dist = dist2(x, i * d, centers, labels[i] * d, d);
+                if (dist > farDist) {
+                    farDist = dist;
+                    far = i;
+                }
+            }
+            if (far < 0) {
+                // 재배치할 점이 없으면 이전 중심 유지
+                System.arraycopy(centers, c * d, sums, c * d, d);
+                counts[c] = 1;
+                continue;
+            }
+            int old = labels[far];
+            for (int j = 0; j < d; j++) {
+                sums[old * d + j] -= x[far * d + j];
+                sums[c * d + j] = x[far * d + j];
+            }
+            counts[old]--;
+            counts[c] = 1;
+            labels[far] = c;
+        }
+    }
+
+    /** 누적 거리² 분포에서 target 위치 인덱스 (np.searchsorted 대응) */
+    private static int sample(double[] weights, int n, double target) {
+        double acc = 0;
+        for (int i = 0; i < n; i++) {
+            acc += weights[i];
+            if (acc >= target) return i;
+        }
+        return n - 1;
+    }
+
+    static double dist2(double[] a, int ai, double[] b, int bi, int d) {
+        double s = 0;
+        for (int j = 0; j < d; j++) {
+            double diff = a[ai + j] - b[bi + j];
+            s += diff * diff;
+        }
+        return s;
+    }
+}
@@ -0,0 +1,283 @@
+package com.afhk.app.stock;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ===============================================================
+ * 🧭 MarketRegimeClusterer (v1.0 - add_market_regime_clustering 이식)
+ * ---------------------------------------------------------------
+ * ✅ 특징 [RSI, MACD, BB_Width, TREND_CROSS, Log_Return] → StandardScaler → KMeans(k=4)
+ * ✅ 종목별 중심(centroid)을 원 단위로 캐시 → 다음 실행은 warm-start Lloyd 몇 회
+ *    (캐시 없을 때만 k-means++ n_init=10 콜드 스타트)
+ * ✅ store.path/regime_centroids.bin 에 영속화
+ * ---------------------------------------------------------------
+ * 🔥 sklearn 라벨 번호는 초기화 난수에 따라 임의 → Python 라벨과 1:1 일치하지 않음
+ *    콜드 스타트 시 중심 RSI 오름차순으로 번호 부여 (regime 0 = RSI 가장 낮은 국면)
+ *    warm-start 는 이전 번호를 그대로 유지
+ * ===============================================================
+ */
+@Component
+public class MarketRegimeClusterer {
+
+    private static final Logger log = LoggerFactory.getLogger(MarketRegimeClusterer.class);
+
+    public static final int N_CLUSTERS = 4;
+    public static final int MIN_ROWS = 200;
+    static final int FEATURES = 5;
+    static final int N_INIT = 10;
+    static final int MAX_ITER = 300;
+    static final double TOL = 1e-4;
+    static final long RANDOM_STATE = 42;
+
+    private static final int MAGIC = 0x52474D43;   // "RGMC"
+    private static final int FORMAT_VERSION = 1;
+    private static final String CENTROID_FILE = "regime_centroids.bin";
+
+    @Value("${python.stock.store.path:}")
+    private String storeDir;
+
+    /** 종목 → 중심 (원 단위, k*d row-major) */
+    private final Map<String, double[]> centroids = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+
+    // ===============================================================
+    // 🧵 워커 스레드별 작업 공간
+    // ===============================================================
+    public static final class Workspace {
+        double[] x = new double[0];
+        int[] labels = new int[0];
+        int[] bestLabels = new int[0];
+        double[] closest = new double[0];
+        double[] candidate = new double[0];
+        final double[] centers = new double[N_CLUSTERS * FEATURES];
+        final double[] bestCenters = new double[N_CLUSTERS * FEATURES];
+        final double[] sums = new double[N_CLUSTERS * FEATURES];
+        final int[] counts = new int[N_CLUSTERS];
+        final double[] mean = new double[FEATURES];
+        final double[] scale = new double[FEATURES];
+
+        void ensure(int n) {
+            if (labels.length >= n) return;
+            int cap = Math.max(n, labels.length * 2);
+            x = new double[cap * FEATURES];
+            labels = new int[cap];
+            bestLabels = new int[cap];
+            closest = new double[cap];
+            candidate = new double[cap];
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        if (storeDir == null || storeDir.isBlank()) return;
+        try {
+            load();
+        } catch (Exception e) {
+            log.warn("⚠️ 국면 중심 캐시 로드 실패 → 콜드 스타트: {}", e.getMessage());
+            centroids.clear();
+        }
+    }
+
+    // ===============================================================
+    // 🚀 국면 분류 (마지막 행 라벨 반환, 조건 미달 시 -1)
+    // ===============================================================
+    public int classify(String code, IndicatorBuffers ind, Workspace ws) {
+        int len = ind.length();
+        ws.ensure(len);
+
+        // 1. dropna(feature_subset) 행만 특징 행렬로 수집
+        double[] x = ws.x;
+        int n = 0;
+        for (int i = 0; i < len; i++) {
+            if (!ind.isComplete(i)) continue;
+            int o = n * FEATURES;
+            x[o] = ind.rsi()[i];
+            x[o + 1] = ind.macd()[i];
+            x[o + 2] = ind.bbWidth()[i];
+            x[o + 3] = ind.trendCross()[i];
+            x[o + 4] = ind.logReturn()[i];
+            n++;
+        }
+        if (n < MIN_ROWS) return -1;
+        if (!hasDistinctRows(x, n, N_CLUSTERS)) return -1;
+
+        // 2. StandardScaler (ddof=0, 분산 0 이면 scale=1)
+        double tol = standardize(x, n, ws.mean, ws.scale) * TOL;
+
+        int k = N_CLUSTERS;
+        int d = FEATURES;
+        double[] cached = centroids.get(code);
+        int[] labels;
+        double[] centers;
+
+        if (cached != null) {
+            // 3-a. warm-start : 캐시 중심을 현재 스케일로 변환 후 Lloyd
+            centers = ws.centers;
+            for (int c = 0; c < k; c++) {
+                for (int j = 0; j < d; j++) {
+                    centers[c * d + j] = (cached[c * d + j] - ws.mean[j]) / ws.scale[j];
+                }
+            }
+            KMeans.lloyd(x, n, d, k, centers, ws.labels, ws.sums, ws.counts, MAX_ITER, tol);
+            labels = ws.labels;
+        } else {
+            // 3-b. 콜드 스타트 : k-means++ × N_INIT 중 inertia 최소
+            SplittableRandom rnd = new SplittableRandom(RANDOM_STATE);
+            double best = Double.POSITIVE_INFINITY;
+            for (int run = 0; run < N_INIT; run++) {
+                KMeans.initPlusPlus(x, n, d, k, rnd, ws.centers, ws.closest, ws.candidate);
+                double inertia = KMeans.lloyd(x, n, d, k, ws.centers, ws.labels, ws.sums, ws.counts, MAX_ITER, tol);
+                if (inertia < best) {
+                    best = inertia;
+                    System.arraycopy(ws.centers, 0, ws.bestCenters, 0, k * d);
+                    System.arraycopy(ws.labels, 0, ws.bestLabels, 0, n);
+                }
+            }
+            centers = ws.bestCenters;
+            labels = ws.bestLabels;
+            canonicalize(centers, labels, n, k, d);
+        }
+
+        // 4. 원 단위로 되돌려 캐시
+        double[] store = new double[k * d];
+        for (int c = 0; c < k; c++) {
+            for (int j = 0; j < d; j++) {
+                store[c * d + j] = centers[c * d + j] * ws.scale[j] + ws.mean[j];
+            }
+        }
+        centroids.put(code, store);
+        dirty.set(true);
+
+        return labels[n - 1];
+    }
+
+    /** 캐시 변경분 디스크 저장 (스캔 종료 후 호출) */
+    public void flush() {
+        if (storeDir == null || storeDir.isBlank() || !dirty.compareAndSet(true, false)) return;
+        try {
+            save();
+        } catch (IOException e) {
+            dirty.set(true);
+            log.warn("⚠️ 국면 중심 캐시 저장 실패: {}", e.getMessage());
+        }
+    }
+
+    public int cachedCount() {
+        return centroids.size();
+    }
+
+    // ===============================================================
+    // 🔧 내부 계산
+    // ===============================================================
+
+    /** 열별 표준화 (in-place). 반환: 표준화 후 열 분산 평균 (sklearn tol 기준) */
+    private static double standardize(double[] x, int n, double[] mean, double[] scale) {
+        int d = FEATURES;
+        double varSum = 0;
+        for (int j = 0; j < d; j++) {
+            double s = 0;
+            for (int i = 0; i < n; i++) s += x[i * d + j];
+            double m = s / n;
+            double ss = 0;
+            for (int i = 0; i < n; i++) {
+                double diff = x[i * d + j] - m;
+                ss += diff * diff;
+            }
+            double std = Math.sqrt(ss / n);
+            mean[j] = m;
+            scale[j] = std == 0 ? 1.0 : std;
+            for (int i = 0; i < n; i++) x[i * d + j] = (x[i * d + j] - m) / scale[j];
+            varSum += std == 0 ? 0 : 1.0;
+        }
+        return varSum / d;
+    }
+
+    /** data.drop_duplicates().shape[0] >= need 여부 (need 개 찾으면 즉시 종료) */
+    private static boolean hasDistinctRows(double[] x, int n, int need) {
+        int d = FEATURES;
+        int[] found = new int[need];
+        int count = 0;
+        for (int i = 0; i < n && count < need; i++) {
+            boolean dup = false;
+            for (int f = 0; f < count && !dup; f++) {
+                dup = KMeans.dist2(x, i * d, x, found[f] * d, d) == 0;
+            }
+            if (!dup) found[count++] = i;
+        }
+        return count >= need;
+    }
+
+    /** 중심 RSI(표준화 값) 오름차순으로 군집 번호 재배열 */
+    private static void canonicalize(double[] centers, int[] labels, int n, int k, int d) {
+        Integer[] order = new Integer[k];
+        for (int c = 0; c < k; c++) order[c] = c;
+        Arrays.sort(order, (a, b) -> Double.compare(centers[a * d], centers[b * d]));
+
+        double[] copy = centers.clone();
+        int[] remap = new int[k];
+        for (int rank = 0; rank < k; rank++) {
+            int c = order[rank];
+            remap[c] = rank;
+            System.arraycopy(copy, c * d, centers, rank * d, d);
+        }
+        for (int i = 0; i < n; i++) labels[i] = remap[labels[i]];
+    }
+
+    // ===============================================================
+    // 💾 파일 입출력
+    // ===============================================================
+
+    private void load() throws IOException {
+        Path file = Paths.get(storeDir, CENTROID_FILE);
+        if (!Files.exists(file)) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) throw new IOException(CENTROID_FILE + " 매직 불일치");
+            if (in.readInt() != FORMAT_VERSION) throw new IOException(CENTROID_FILE + " 포맷 버전 불일치");
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String code = in.readUTF();
+                double[] c = new double[N_CLUSTERS * FEATURES];
+                for (int j = 0; j < c.length; j++) c[j] = in.readDouble();
+                centroids.put(code, c);
+            }
+            log.info("🧭 국면 중심 캐시 로드: 종목={}", count);
+        }
+    }
+
+    private synchronized void save() throws IOException {
+        Path root = Paths.get(storeDir);
+        Files.createDirectories(root);
+        Path tmp = root.resolve(CENTROID_FILE + ".tmp");
+        Map<String, double[]> snapshot = Map.copyOf(centroids);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(snapshot.size());
+            for (Map.Entry<String, double[]> e : snapshot.entrySet()) {
+                out.writeUTF(e.getKey());
+                for (double v : e.getValue()) out.writeDouble(v);
+            }
+        }
+        Files.move(tmp, root.resolve(CENTROID_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,913 @@
+package com.afhk.app.stock;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * ===============================================================
+ * 🗄️ OhlcvColumnStore (v1.0 - KRX 전 종목 memory-mapped 컬럼 스토어)
+ * ---------------------------------------------------------------
+ * ✅ 컬럼별 단일 파일 (date/open/high/low/close/volume .col, little-endian 8byte)
+ * ✅ index.bin : 종목별 (code, 행 offset, 길이, 마지막 일자, 종목 버전, 용량)
+ * ✅ FileChannel.map(READ_ONLY) 로 읽기 → 필요한 컬럼만 페이지 인, 힙 사용 없음
+ * ✅ GProd 업데이트 완료 후 python/data/stock_data 로부터 재빌드
+ *    - 읽기 실패 종목은 인덱스에서 제외 (0 채움 행을 실제 봉으로 오인하지 않도록)
+ *    - 실패 비율이 max-failure-ratio 초과 시 (Python 재기록 도중 등) 재빌드 중단 → 이전 세대 유지
+ * ✅ 증분 갱신 : append() → 종목 구간 뒤 여유 행(APPEND_SLACK)에 새 일봉만 기록
+ *    여유 부족 / 신규 종목 / 과거 일자 정정 시에만 compaction (parquet 읽기 없음)
+ * ✅ 스냅샷 계보 : 종목별 stablePrefix (직전 스냅샷과 같은 앞쪽 행 수) + parentVersion
+ *    → 지표 상태가 접두 구간을 다시 훑지 않고 증분 가능 여부 판정
+ * ---------------------------------------------------------------
+ * 🔥 세대(generation) 디렉토리 + CURRENT 포인터 방식
+ *    - Windows 는 매핑된 파일 삭제/이동 불가 → 새 세대를 만들고 포인터만 교체
+ *    - dataVersion = 데이터 지문 : 데이터가 같으면 같은 버전 → 세대 교체 생략
+ * 🔥 JDK 21 의 MemorySegment 는 preview API → MappedByteBuffer 사용
+ * ===============================================================
+ */
+@Component
+public class OhlcvColumnStore {
+
+    private static final Logger log = LoggerFactory.getLogger(OhlcvColumnStore.class);
+
+    /** 컬럼 정의 (파일명) */
+    public enum Column {
+        DATE("date.col"), OPEN("open.col"), HIGH("high.col"),
+        LOW("low.col"), CLOSE("close.col"), VOLUME("volume.col");
+
+        final String fileName;
+        Column(String fileName) { this.fileName = fileName; }
+    }
+
+    private static final int MAGIC = 0x4F484C43;           // "OHLC"
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_BYTES = 40;
+    private static final int CODE_BYTES = 16;
+    private static final int ENTRY_BYTES = CODE_BYTES + 8 + 4 + 4 + 8 + 4;
+
+    /** 종목별 append 여유 행 수 (약 3개월치 일봉) */
+    static final int APPEND_SLACK = 64;
+    private static final String INDEX_FILE = "index.bin";
+    private static final String CURRENT_FILE = "CURRENT";
+
+    private final OhlcvParquetReader reader;
+
+    @Value("${python.stock.data.path:}")
+    private String dataDir;
+
+    @Value("${python.stock.store.path:}")
+    private String storeDir;
+
+    /** 재빌드 허용 실패 비율 (푸터 + 디코딩 실패 / 전체 파일) */
+    @Value("${python.stock.store.max-failure-ratio:0.05}")
+    private double maxFailureRatio;
+
+    private volatile Snapshot current;
+
+    /** 세대 교체 후 호출되는 리스너 (재빌드 스레드에서 실행) */
+    private final List<Consumer<Snapshot>> listeners = new CopyOnWriteArrayList<>();
+
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "OhlcvStore-Rebuild");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public OhlcvColumnStore(OhlcvParquetReader reader) {
+        this.reader = reader;
+    }
+
+    // ===============================================================
+    // 🚀 기동 시 현재 세대 오픈 (없으면 백그라운드 빌드)
+    // ===============================================================
+    @PostConstruct
+    public void init() {
+        if (storeDir == null || storeDir.isBlank()) {
+            log.warn("⚠️ python.stock.store.path 미설정 → 컬럼 스토어 비활성화");
+            return;
+        }
+        try {
+            Path pointer = Paths.get(storeDir, CURRENT_FILE);
+            if (Files.exists(pointer)) {
+                String gen = Files.readString(pointer, StandardCharsets.UTF_8).trim();
+                current = open(Paths.get(storeDir, gen));
+                log.info("🗄️ 컬럼 스토어 오픈: gen={}, 종목={}, 행={}",
+                        gen, current.tickerCount(), current.totalRows());
+                return;
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ 컬럼 스토어 오픈 실패 → 재빌드 예정: {}", e.getMessage());
+        }
+        if (dataDir != null && Files.isDirectory(Paths.get(dataDir))) {
+            rebuildAsync();
+        }
+    }
+
+    // ===============================================================
+    // 🔍 조회
+    // ===============================================================
+
+    /** 현재 스냅샷 (미빌드 시 null). 스캔 1회 동안 동일 스냅샷을 유지할 것 */
+    public Snapshot snapshot() {
+        return current;
+    }
+
+    public boolean isReady() {
+        return current != null;
+    }
+
+    /** 전체 데이터 버전 (미빌드 시 0) */
+    public long dataVersion() {
+        Snapshot s = current;
+        return s == null ? 0L : s.dataVersion();
+    }
+
+    /** 새 세대가 열릴 때마다 통지 받을 리스너 등록 (지표 상태 갱신 등) */
+    public void addListener(Consumer<Snapshot> listener) {
+        listeners.add(listener);
+    }
+
+    // ===============================================================
+    // 🔨 빌드
+    // ===============================================================
+
+    /** 재빌드 전용 스레드에서 실행 (DailyBarUpdater 증분 갱신 → 재빌드와 순서 보장) */
+    Future<?> submit(Runnable task) {
+        return rebuildExecutor.submit(task);
+    }
+
+    /** 전체 재빌드 (force 갱신 / 증분 불가 시) — 전용 스레드에서 실행 */
+    public Future<?> rebuildAsync() {
+        return rebuildExecutor.submit(() -> {
+            try {
+                rebuild();
+            } catch (Exception e) {
+                log.error("❌ 컬럼 스토어 재빌드 실패: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    /** python/data/stock_data 전체를 읽어 새 세대 생성 후 교체. 반환: dataVersion */
+    public synchronized long rebuild() throws IOException {
+        long started = System.currentTimeMillis();
+        Path source = Paths.get(dataDir);
+
+        List<Path> files;
+        try (Stream<Path> s = Files.list(source)) {
+            files = s.filter(p -> p.getFileName().toString().endsWith(".parquet"))
+                    .sorted(Comparator.comparing(p -> p.getFileName().toString()))
+                    .toList();
+        }
+
+        // 1. 푸터만 읽어 행 수 → 종목별 offset 확정
+        int n = files.size();
+        long[] rows = new long[n];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            try {
+                rows[i] = reader.rowCount(files.get(i));
+            } catch (IOException e) {
+                log.warn("⚠️ [{}] parquet 푸터 읽기 실패 → 제외: {}", files.get(i).getFileName(), e.getMessage());
+                rows[i] = -1;
+            }
+        });
+
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < n; i++) if (rows[i] >= 0) valid.add(i);
+        int footerFailed = n - valid.size();
+        checkFailures(footerFailed, n, "푸터");
+
+        int count = valid.size();
+        String[] codes = new String[count];
+        int[] lengths = new int[count];
+        for (int k = 0; k < count; k++) {
+            int i = valid.get(k);
+            String name = files.get(i).getFileName().toString();
+            codes[k] = name.substring(0, name.length() - ".parquet".length());
+            lengths[k] = (int) rows[i];
+        }
+
+        // 2~5. 새 세대 기록 → 교체 → 정리 → 통지
+        return writeGeneration(codes, lengths, k -> {
+            Path file = files.get(valid.get(k));
+            try {
+                return reader.read(file);
+            } catch (IOException e) {
+                log.warn("⚠️ [{}] parquet 디코딩 실패 → 제외: {}", file.getFileName(), e.getMessage());
+                return null;
+            }
+        }, footerFailed, started, "재빌드");
+    }
+
+    /** 실패 건수 로그 + 허용 비율 초과 시 IOException (호출 측은 이전 세대 유지) */
+    private void checkFailures(int failed, int total, String stage) throws IOException {
+        if (failed == 0) return;
+        log.warn("⚠️ 컬럼 스토어 {} 단계 읽기 실패 누적 {}건 / {}건 → 해당 종목 제외", stage, failed, total);
+        if (failed > total * maxFailureRatio) {
+            throw new IOException("parquet 읽기 실패 " + failed + "/" + total + "건 (허용 비율 "
+                    + maxFailureRatio + " 초과) → 중단, 이전 세대 유지");
+        }
+    }
+
+    /** 종목 k 의 시세 공급 (null = 읽기 실패 → 인덱스에서 제외) */
+    private interface SeriesLoader {
+        OhlcvSeries load(int k);
+    }
+
+    /**
+     * 새 세대 디렉토리에 컬럼 파일 사전 할당(길이 + APPEND_SLACK) 후 병렬 기록,
+     * 데이터가 바뀌었으면 CURRENT 교체 + 이전 세대 정리 + 리스너 통지. 반환: dataVersion
+     * - lengths 는 할당용 예상 행 수 → 실제 기록한 행 수로 갱신
+     * - loader 가 null 인 종목은 인덱스에서 제외, priorFailed 와 합산한 실패 비율 초과 시 중단
+     */
+    private long writeGeneration(String[] codes, int[] lengths, SeriesLoader loader, int priorFailed,
+                                 long started, String label) throws IOException {
+        Path root = Paths.get(storeDir);
+        Files.createDirectories(root);
+
+        int count = codes.length;
+        long[] offsets = new long[count];
+        int[] capacities = new int[count];
+        long total = 0;
+        long allocated = 0;
+        for (int k = 0; k < count; k++) {
+            offsets[k] = allocated;
+            capacities[k] = lengths[k] + APPEND_SLACK;
+            allocated += capacities[k];
+            total += lengths[k];
+        }
+
+        String gen = "gen-" + started;
+        Path target = root.resolve(gen);
+        Files.createDirectories(target);
+
+        Map<Column, FileChannel> channels = new EnumMap<>(Column.class);
+        Map<Column, MappedByteBuffer> maps = new EnumMap<>(Column.class);
+        int[] lastDays = new int[count];
+        long[] versions = new long[count];
+        boolean[] loaded = new boolean[count];
+        Snapshot prior = current;
+        int[] stable = new int[count];
+        long[] parents = new long[count];
+
+        try {
+            long bytes = Math.max(8, allocated * 8);
+            for (Column c : Column.values()) {
+                FileChannel ch = FileChannel.open(target.resolve(c.fileName),
+                        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                channels.put(c, ch);
+                maps.put(c, ch.map(FileChannel.MapMode.READ_WRITE, 0, bytes));
+            }
+
+            IntStream.range(0, count).parallel().forEach(k -> {
+                OhlcvSeries s = loader.load(k);
+                if (s == null) {
+                    lengths[k] = 0;
+                    return;
+                }
+                int len = Math.min(s.length(), lengths[k]);
+                int base = (int) (offsets[k] * 8);
+                for (int r = 0; r < len; r++) {
+                    int pos = base + r * 8;
+                    putLong(maps.get(Column.DATE), pos, s.dates()[r]);
+                    putDouble(maps.get(Column.OPEN), pos, s.open()[r]);
+                    putDouble(maps.get(Column.HIGH), pos, s.high()[r]);
+                    putDouble(maps.get(Column.LOW), pos, s.low()[r]);
+                    putDouble(maps.get(Column.CLOSE), pos, s.close()[r]);
+                    putLong(maps.get(Column.VOLUME), pos, s.volume()[r]);
+                }
+                lengths[k] = len;   // 푸터 행 수가 아닌 실제 기록 행 수
+                lastDays[k] = len == 0 ? 0 : (int) s.dates()[len - 1];
+                versions[k] = seriesVersion(s, len);
+                // 직전 세대 이력이 그대로 접두 구간이면 계보 기록 (지표 상태 O(1) 증분용)
+                int pt = prior == null ? -1 : prior.indexOf(codes[k]);
+                if (pt >= 0 && prior.lengths[pt] <= len
+                        && seriesVersion(s, prior.lengths[pt]) == prior.versions[pt]) {
+                    stable[k] = prior.lengths[pt];
+                    parents[k] = prior.versions[pt];
+                }
+                loaded[k] = true;
+            });
+
+            for (MappedByteBuffer m : maps.values()) m.force();
+        } finally {
+            for (FileChannel ch : channels.values()) ch.close();
+        }
+
+        // 읽기 실패 종목 제외 (컬럼 파일의 해당 구간은 다음 재빌드까지 미사용)
+        int[] loadedIdx = IntStream.range(0, count).filter(k -> loaded[k]).toArray();
+        if (loadedIdx.length < count) {
+            try {
+                checkFailures(priorFailed + count - loadedIdx.length, priorFailed + count, label);
+            } catch (IOException e) {
+                deleteQuietly(target);
+                throw e;
+            }
+        }
+        String[] idxCodes = pick(codes, loadedIdx);
+        int[] idxLengths = pick(lengths, loadedIdx);
+        long[] idxVersions = pick(versions, loadedIdx);
+        int indexed = loadedIdx.length;
+        total = 0;
+        for (int len : idxLengths) total += len;
+
+        long dataVersion = dataVersion(idxCodes, idxLengths, idxVersions);
+
+        writeIndex(target.resolve(INDEX_FILE), dataVersion, idxCodes, pick(offsets, loadedIdx), idxLengths,
+                pick(lastDays, loadedIdx), idxVersions, pick(capacities, loadedIdx), started);
+
+        // 3. 세대 교체
+        Snapshot prev = current;
+
+        if (prev != null && prev.dataVersion() == dataVersion) {
+            deleteQuietly(target);
+            log.info("🗄️ 컬럼 스토어 변경 없음 (gen={}, {} ms)", prev.generation, System.currentTimeMillis() - started);
+            return dataVersion;
+        }
+
+        Files.writeString(root.resolve(CURRENT_FILE), gen, StandardCharsets.UTF_8);
+
+        current = open(target).withLineage(pick(stable, loadedIdx), pick(parents, loadedIdx));
+        log.info("🗄️ 컬럼 스토어 {} 완료: gen={}, 종목={}, 행={}, {} ms",
+                label, gen, indexed, total, System.currentTimeMillis() - started);
+
+        // 4. 이전 세대 정리 (직전 세대는 진행 중 스캔 보호를 위해 유지)
+        String keep = prev == null ? null : prev.generation;
+        try (Stream<Path> s = Files.list(root)) {
+            s.filter(Files::isDirectory)
+             .filter(p -> p.getFileName().toString().startsWith("gen-"))
+             .filter(p -> !p.getFileName().toString().equals(gen))
+             .filter(p -> keep == null || !p.getFileName().toString().equals(keep))
+             .forEach(OhlcvColumnStore::deleteQuietly);
+        }
+
+        // 5. 리스너 통지
+        notifyListeners(current);
+        return dataVersion;
+    }
+
+    private static String[] pick(String[] a, int[] idx) {
+        String[] out = new String[idx.length];
+        for (int i = 0; i < idx.length; i++) out[i] = a[idx[i]];
+        return out;
+    }
+
+    private static long[] pick(long[] a, int[] idx) {
+        long[] out = new long[idx.length];
+        for (int i = 0; i < idx.length; i++) out[i] = a[idx[i]];
+        return out;
+    }
+
+    private static int[] pick(int[] a, int[] idx) {
+        int[] out = new int[idx.length];
+        for (int i = 0; i < idx.length; i++) out[i] = a[idx[i]];
+        return out;
+    }
+
+    private void notifyListeners(Snapshot opened) {
+        for (Consumer<Snapshot> l : listeners) {
+            try {
+                l.accept(opened);
+            } catch (Exception e) {
+                log.error("❌ 컬럼 스토어 리스너 실패: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    // ===============================================================
+    // ➕ 증분 append (일봉 추가)
+    // ===============================================================
+
+    /** append 결과 (compacted = 여유 부족 등으로 새 세대를 기록했는지) */
+    public record AppendResult(int tickers, int rows, long bytesWritten, boolean compacted) {}
+
+    /**
+     * 종목별 새 일봉을 현재 세대의 여유 행에 기록.
+     * - 마지막 일자 이후 봉만 추가, 이미 있는 일자와 값이 같으면 무시
+     * - 신규 종목 / 여유 부족 / 기존 일자 값 정정 → compaction (스냅샷 + 새 봉으로 새 세대)
+     * 기존 스냅샷은 길이가 고정이므로 진행 중 스캔에는 새 행이 보이지 않음
+     */
+    public synchronized AppendResult append(Map<String, OhlcvSeries> bars) throws IOException {
+        long started = System.currentTimeMillis();
+        Snapshot snap = current;
+        if (snap == null) throw new IllegalStateException("컬럼 스토어 미빌드 → append 불가");
+
+        Map<String, OhlcvSeries> pending = new TreeMap<>();
+        for (Map.Entry<String, OhlcvSeries> e : bars.entrySet()) {
+            OhlcvSeries s = normalize(e.getKey(), e.getValue());
+            if (s != null) pending.put(e.getKey(), s);
+        }
+
+        // 1. 종목별 추가 구간 계획 (하나라도 제자리 기록이 불가하면 compaction)
+        List<int[]> plan = new ArrayList<>();   // {t, 첫 새 봉 인덱스}
+        List<OhlcvSeries> planned = new ArrayList<>();
+        boolean compact = false;
+        for (Map.Entry<String, OhlcvSeries> e : pending.entrySet()) {
+            OhlcvSeries s = e.getValue();
+            int t = snap.indexOf(e.getKey());
+            if (t < 0) {
+                compact = true;
+                break;
+            }
+            int first = 0;
+            while (first < s.length() && s.dates()[first] <= snap.lastEpochDay(t)) first++;
+            if (first > 0 && !matchesStored(snap, t, s, first)) {
+                compact = true;
+                break;
+            }
+            int add = s.length() - first;
+            if (add == 0) continue;
+            if (snap.length(t) + add > snap.capacity(t)) {
+                compact = true;
+                break;
+            }
+            plan.add(new int[]{t, first});
+            planned.add(s);
+        }
+        if (compact) return compact(snap, pending, started);
+        if (plan.isEmpty()) return new AppendResult(0, 0, 0, false);
+
+        // 2. 여유 행에 위치 지정 쓰기 (세대 파일은 매핑 중이어도 쓰기 가능)
+        Path dir = Paths.get(storeDir, snap.generation);
+        int count = snap.tickerCount();
+        int[] lengths = snap.lengths.clone();
+        int[] lastDays = snap.lastDays.clone();
+        long[] versions = snap.versions.clone();
+        int rows = 0;
+        long bytesWritten = 0;
+
+        Map<Column, FileChannel> channels = new EnumMap<>(Column.class);
+        try {
+            for (Column c : Column.values()) {
+                channels.put(c, FileChannel.open(dir.resolve(c.fileName), StandardOpenOption.WRITE));
+            }
+            for (int p = 0; p < plan.size(); p++) {
+                int t = plan.get(p)[0];
+                int first = plan.get(p)[1];
+                OhlcvSeries s = planned.get(p);
+                int add = s.length() - first;
+                long pos = (snap.offsets[t] + snap.lengths[t]) * 8L;
+                bytesWritten += writeLongs(channels.get(Column.DATE), pos, s.dates(), first, add);
+                bytesWritten += writeDoubles(channels.get(Column.OPEN), pos, s.open(), first, add);
+                bytesWritten += writeDoubles(channels.get(Column.HIGH), pos, s.high(), first, add);
+                bytesWritten += writeDoubles(channels.get(Column.LOW), pos, s.low(), first, add);
+                bytesWritten += writeDoubles(channels.get(Column.CLOSE), pos, s.close(), first, add);
+                bytesWritten += writeLongs(channels.get(Column.VOLUME), pos, s.volume(), first, add);
+                lengths[t] += add;
+                lastDays[t] = (int) s.dates()[s.length() - 1];
+                rows += add;
+            }
+            for (FileChannel ch : channels.values()) ch.force(false);
+        } finally {
+            for (FileChannel ch : channels.values()) ch.close();
+        }
+
+        // 3. 새 길이로 스냅샷 재구성 (컬럼 매핑 공유) → 종목 버전 / dataVersion 재계산
+        Snapshot next = new Snapshot(snap.generation, 0, snap.totalRows + rows, snap.codes, snap.byCode,
+                snap.offsets, lengths, lastDays, versions, snap.capacities, snap.columns,
+                snap.lengths, snap.versions);
+        for (int[] p : plan) {
+            int t = p[0];
+            versions[t] = seriesVersion(next.load(t), lengths[t]);
+        }
+        long dataVersion = dataVersion(snap.codes, lengths, versions);
+        next = new Snapshot(snap.generation, dataVersion, next.totalRows, snap.codes, snap.byCode,
+                snap.offsets, lengths, lastDays, versions, snap.capacities, snap.columns,
+                snap.lengths, snap.versions);
+
+        // 4. index.bin 원자적 교체 → 스냅샷 교체 → 통지
+        Path index = dir.resolve(INDEX_FILE);
+        Path tmp = dir.resolve(INDEX_FILE + ".tmp");
+        writeIndex(tmp, dataVersion, snap.codes, snap.offsets, lengths, lastDays, versions,
+                snap.capacities, started);
+        Files.move(tmp, index, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        bytesWritten += HEADER_BYTES + (long) count * ENTRY_BYTES;
+
+        current = next;
+        log.info("🗄️ 컬럼 스토어 append: 종목={}, 행={}, {} bytes, {} ms",
+                plan.size(), rows, bytesWritten, System.currentTimeMillis() - started);
+        notifyListeners(next);
+        return new AppendResult(plan.size(), rows, bytesWritten, false);
+    }
+
+    /** 스냅샷 + 새 봉 병합으로 새 세대 기록 (parquet 을 다시 읽지 않음) */
+    private AppendResult compact(Snapshot snap, Map<String, OhlcvSeries> pending, long started) throws IOException {
+        TreeSet<String> all = new TreeSet<>(snap.codes());
+        all.addAll(pending.keySet());
+        String[] codes = all.toArray(new String[0]);
+
+        int[] lengths = new int[codes.length];
+        int rows = 0;
+        for (int k = 0; k < codes.length; k++) {
+            int t = snap.indexOf(codes[k]);
+            OhlcvSeries add = pending.get(codes[k]);
+            int base = t < 0 ? 0 : snap.length(t);
+            lengths[k] = add == null ? base : mergedLength(snap, t, add);
+            rows += lengths[k] - base;
+        }
+
+        long before = snap.dataVersion();
+        long dataVersion = writeGeneration(codes, lengths, k -> {
+            int t = snap.indexOf(codes[k]);
+            OhlcvSeries base = t < 0 ? null : snap.load(t);
+            OhlcvSeries add = pending.get(codes[k]);
+            return add == null ? base : merge(codes[k], base, add);
+        }, 0, started, "compaction");
+
+        long bytes = dataVersion == before ? 0
+                : Arrays.stream(current.capacities).asLongStream().sum() * 8L * Column.values().length;
+        return new AppendResult(pending.size(), rows, bytes, dataVersion != before);
+    }
+
+    /** 날짜 오름차순 정렬 + 같은 날짜는 마지막 값 (drop_duplicates keep='last') */
+    private static OhlcvSeries normalize(String code, OhlcvSeries s) {
+        if (s == null || s.isEmpty()) return null;
+        int n = s.length();
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparingLong(i -> s.dates()[i]));   // 안정 정렬 → 같은 날짜는 입력 순
+
+        int[] keep = new int[n];
+        int m = 0;
+        for (int j = 0; j < n; j++) {
+            int i = order[j];
+            if (m > 0 && s.dates()[keep[m - 1]] == s.dates()[i]) keep[m - 1] = i;
+            else keep[m++] = i;
+        }
+        long[] dates = new long[m];
+        double[] open = new double[m];
+        double[] high = new double[m];
+        double[] low = new double[m];
+        double[] close = new double[m];
+        long[] volume = new long[m];
+        for (int j = 0; j < m; j++) {
+            int i = keep[j];
+            dates[j] = s.dates()[i];
+            open[j] = s.open()[i];
+            high[j] = s.high()[i];
+            low[j] = s.low()[i];
+            close[j] = s.close()[i];
+            volume[j] = s.volume()[i];
+        }
+        return new OhlcvSeries(code, m, dates, open, high, low, close, volume);
+    }
+
+    /** 새 봉 중 마지막 일자 이전 구간(0..first)이 저장된 값과 모두 같은지 */
+    private static boolean matchesStored(Snapshot snap, int t, OhlcvSeries s, int first) {
+        LongBuffer dates = snap.longs(Column.DATE);
+        int off = snap.offset(t);
+        int len = snap.length(t);
+        for (int i = 0; i < first; i++) {
+            int r = search(dates, off, len, s.dates()[i]);
+            if (r < 0) return false;
+            int row = off + r;
+            if (snap.prices(Column.OPEN).get(row) != s.open()[i]
+                    || snap.prices(Column.HIGH).get(row) != s.high()[i]
+                    || snap.prices(Column.LOW).get(row) != s.low()[i]
+                    || snap.prices(Column.CLOSE).get(row) != s.close()[i]
+                    || snap.longs(Column.VOLUME).get(row) != s.volume()[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** 병합 후 행 수 = 기존 행 + 기존에 없는 날짜 수 */
+    private static int mergedLength(Snapshot snap, int t, OhlcvSeries add) {
+        if (t < 0) return add.length();
+        LongBuffer dates = snap.longs(Column.DATE);
+        int len = snap.length(t);
+        for (int i = 0; i < add.length(); i++) {
+            if (search(dates, snap.offset(t), snap.length(t), add.dates()[i]) < 0) len++;
+        }
+        return len;
+    }
+
+    /** 기존 시세 + 새 봉 (같은 날짜는 새 봉 우선) */
+    private static OhlcvSeries merge(String code, OhlcvSeries base, OhlcvSeries add) {
+        int bn = base == null ? 0 : base.length();
+        int an = add.length();
+        int n = bn + an;
+        long[] dates = new long[n];
+        double[] open = new double[n];
+        double[] high = new double[n];
+        double[] low = new double[n];
+        double[] close = new double[n];
+        long[] volume = new long[n];
+        int i = 0, j = 0, m = 0;
+        while (i < bn || j < an) {
+            OhlcvSeries src;
+            int r;
+            if (j >= an || (i < bn && base.dates()[i] < add.dates()[j])) {
+                src = base;
+                r = i++;
+            } else {
+                if (i < bn && base.dates()[i] == add.dates()[j]) i++;
+                src = add;
+                r = j++;
+            }
+            dates[m] = src.dates()[r];
+            open[m] = src.open()[r];
+            high[m] = src.high()[r];
+            low[m] = src.low()[r];
+            close[m] = src.close()[r];
+            volume[m] = src.volume()[r];
+            m++;
+        }
+        return new OhlcvSeries(code, m, dates, open, high, low, close, volume);
+    }
+
+    /** 종목 구간 [off, off+len) 에서 날짜 이진 탐색 (상대 행 번호, 없으면 -1) */
+    private static int search(LongBuffer dates, int off, int len, long day) {
+        int lo = 0, hi = len - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long d = dates.get(off + mid);
+            if (d < day) lo = mid + 1;
+            else if (d > day) hi = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    private static long writeLongs(FileChannel ch, long pos, long[] src, int from, int n) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(n * 8).order(ByteOrder.LITTLE_ENDIAN);
+        buf.asLongBuffer().put(src, from, n);
+        return writeFully(ch, pos, buf);
+    }
+
+    private static long writeDoubles(FileChannel ch, long pos, double[] src, int from, int n) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(n * 8).order(ByteOrder.LITTLE_ENDIAN);
+        buf.asDoubleBuffer().put(src, from, n);
+        return writeFully(ch, pos, buf);
+    }
+
+    private static long writeFully(FileChannel ch, long pos, ByteBuffer buf) throws IOException {
+        long written = 0;
+        while (buf.hasRemaining()) written += ch.write(buf, pos + written);
+        return written;
+    }
+
+    // ===============================================================
+    // 📂 세대 오픈
+    // ===============================================================
+
+    private Snapshot open(Path dir) throws IOException {
+        // index.bin 은 힙으로 읽음 → append 시 원자적 교체 가능 (Windows 매핑 파일 교체 불가)
+        ByteBuffer idx = ByteBuffer.wrap(Files.readAllBytes(dir.resolve(INDEX_FILE))).order(ByteOrder.LITTLE_ENDIAN);
+        if (idx.getInt(0) != MAGIC) throw new IOException("index.bin 매직 불일치");
+        if (idx.getInt(4) != FORMAT_VERSION) throw new IOException("index.bin 포맷 버전 불일치");
+
+        long dataVersion = idx.getLong(8);
+        int count = idx.getInt(16);
+        long total = idx.getLong(20);
+
+        String[] codes = new String[count];
+        long[] offsets = new long[count];
+        int[] lengths = new int[count];
+        int[] lastDays = new int[count];
+        long[] versions = new long[count];
+        int[] capacities = new int[count];
+        Map<String, Integer> byCode = new HashMap<>(count * 2);
+
+        byte[] codeBuf = new byte[CODE_BYTES];
+        for (int k = 0; k < count; k++) {
+            int pos = HEADER_BYTES + k * ENTRY_BYTES;
+            idx.get(pos, codeBuf);
+            int len = 0;
+            while (len < CODE_BYTES && codeBuf[len] != 0) len++;
+            codes[k] = new String(codeBuf, 0, len, StandardCharsets.UTF_8);
+            offsets[k] = idx.getLong(pos + CODE_BYTES);
+            lengths[k] = idx.getInt(pos + CODE_BYTES + 8);
+            lastDays[k] = idx.getInt(pos + CODE_BYTES + 12);
+            versions[k] = idx.getLong(pos + CODE_BYTES + 16);
+            capacities[k] = idx.getInt(pos + CODE_BYTES + 24);
+            byCode.put(codes[k], k);
+        }
+
+        Map<Column, ByteBuffer> columns = new EnumMap<>(Column.class);
+        for (Column c : Column.values()) {
+            try (FileChannel ch = FileChannel.open(dir.resolve(c.fileName), StandardOpenOption.READ)) {
+                columns.put(c, ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()).order(ByteOrder.LITTLE_ENDIAN));
+            }
+        }
+
+        // 디스크에서 연 세대는 계보 불명 (stable = 0)
+        return new Snapshot(dir.getFileName().toString(), dataVersion, total,
+                codes, byCode, offsets, lengths, lastDays, versions, capacities, columns,
+                new int[count], new long[count]);
+    }
+
+    private void writeIndex(Path file, long dataVersion, String[] codes, long[] offsets, int[] lengths,
+                            int[] lastDays, long[] versions, int[] capacities, long builtAt) throws IOException {
+        int count = codes.length;
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_BYTES + count * ENTRY_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(dataVersion).putInt(count)
+           .putLong(Arrays.stream(lengths).asLongStream().sum()).putLong(builtAt);
+        buf.position(HEADER_BYTES);
+        for (int k = 0; k < count; k++) {
+            byte[] code = Arrays.copyOf(codes[k].getBytes(StandardCharsets.UTF_8), CODE_BYTES);
+            buf.put(code).putLong(offsets[k]).putInt(lengths[k]).putInt(lastDays[k]).putLong(versions[k])
+               .putInt(capacities[k]);
+        }
+        buf.flip();
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(true);
+        }
+    }
+
+    // ===============================================================
+    // 📸 Snapshot (읽기 전용 세대 뷰)
+    // ===============================================================
+    public static final class Snapshot {
+
+        private final String generation;
+        private final long dataVersion;
+        private final long totalRows;
+        private final String[] codes;
+        private final Map<String, Integer> byCode;
+        private final long[] offsets;
+        private final int[] lengths;
+        private final int[] lastDays;
+        private final long[] versions;
+        private final int[] capacities;
+        private final Map<Column, ByteBuffer> columns;
+        /** 직전 스냅샷과 동일함이 보장된 앞쪽 행 수 / 그때의 종목 버전 (메모리 전용, 0 = 계보 불명) */
+        private final int[] stable;
+        private final long[] parents;
+
+        Snapshot(String generation, long dataVersion, long totalRows, String[] codes,
+                 Map<String, Integer> byCode, long[] offsets, int[] lengths, int[] lastDays,
+                 long[] versions, int[] capacities, Map<Column, ByteBuffer> columns,
+                 int[] stable, long[] parents) {
+            this.generation = generation;
+            this.dataVersion = dataVersion;
+            this.totalRows = totalRows;
+            this.codes = codes;
+            this.byCode = byCode;
+            this.offsets = offsets;
+            this.lengths = lengths;
+            this.lastDays = lastDays;
+            this.versions = versions;
+            this.capacities = capacities;
+            this.columns = columns;
+            this.stable = stable;
+            this.parents = parents;
+        }
+
+        private Snapshot withLineage(int[] stable, long[] parents) {
+            return new Snapshot(generation, dataVersion, totalRows, codes, byCode, offsets, lengths,
+                    lastDays, versions, capacities, columns, stable, parents);
+        }
+
+        public long dataVersion() { return dataVersion; }
+        public long totalRows() { return totalRows; }
+        public int tickerCount() { return codes.length; }
+        public List<String> codes() { return Collections.unmodifiableList(Arrays.asList(codes)); }
+
+        /** 종목 인덱스 (없으면 -1) */
+        public int indexOf(String code) {
+            Integer k = byCode.get(code);
+            return k == null ? -1 : k;
+        }
+
+        public String code(int t) { return codes[t]; }
+        public int offset(int t) { return (int) offsets[t]; }
+        public int length(int t) { return lengths[t]; }
+        public int lastEpochDay(int t) { return lastDays[t]; }
+
+        /** 종목 구간에 기록 가능한 최대 행 수 (길이 + 남은 여유) */
+        int capacity(int t) { return capacities[t]; }
+
+        /** 종목 단위 데이터 버전 (ETag/캐시 키용) */
+        public long tickerVersion(int t) { return versions[t]; }
+
+        /**
+         * 직전 스냅샷(parentVersion 시점)과 값이 같음이 보장된 앞쪽 행 수.
+         * append → 기존 길이, compaction / 재빌드 → 이전 이력이 그대로면 이전 길이, 정정 / 신규 / 디스크 오픈 → 0
+         */
+        public int stablePrefix(int t) { return stable[t]; }
+
+        /** stablePrefix 기준이 된 직전 스냅샷의 종목 버전 */
+        public long parentVersion(int t) { return parents[t]; }
+
+        /** 가격 컬럼 전체 뷰 (OPEN/HIGH/LOW/CLOSE) — 절대 인덱스 get 만 사용할 것 */
+        public DoubleBuffer prices(Column c) {
+            if (c == Column.DATE || c == Column.VOLUME) throw new IllegalArgumentException(c + " 는 long 컬럼");
+            return columns.get(c).duplicate().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        }
+
+        /** long 컬럼 전체 뷰 (DATE/VOLUME) */
+        public LongBuffer longs(Column c) {
+            if (c != Column.DATE && c != Column.VOLUME) throw new IllegalArgumentException(c + " 는 double 컬럼");
+            return columns.get(c).duplicate().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+        }
+
+        /** 종목 1개를 힙 배열로 복사 (지표 계산 등 배열 API 용) */
+        public OhlcvSeries load(int t) {
+            int off = offset(t);
+            int len = length(t);
+            long[] dates = new long[len];
+            double[] open = new double[len];
+            double[] high = new double[len];
+            double[] low = new double[len];
+            double[] close = new double[len];
+            long[] volume = new long[len];
+            longs(Column.DATE).get(off, dates);
+            prices(Column.OPEN).get(off, open);
+            prices(Column.HIGH).get(off, high);
+            prices(Column.LOW).get(off, low);
+            prices(Column.CLOSE).get(off, close);
+            longs(Column.VOLUME).get(off, volume);
+            return new OhlcvSeries(codes[t], len, dates, open, high, low, close, volume);
+        }
+    }
+
+    // ===============================================================
+    // 🔧 유틸
+    // ===============================================================
+
+    private static void putLong(ByteBuffer buf, int pos, long v) {
+        buf.putLong(pos, Long.reverseBytes(v));
+    }
+
+    private static void putDouble(ByteBuffer buf, int pos, double v) {
+        putLong(buf, pos, Double.doubleToRawLongBits(v));
+    }
+
+    /** 전체 데이터 지문 (종목 순서 + 종목별 지문) */
+    private static long dataVersion(String[] codes, int[] lengths, long[] versions) {
+        long total = 0;
+        for (int len : lengths) total += len;
+        long h = mix(codes.length, total);
+        for (int k = 0; k < codes.length; k++) {
+            h = mix(h, codes[k].hashCode());
+            h = mix(h, versions[k]);
+        }
+        return h;
+    }
+
+    /** 종목 데이터 지문 (같은 데이터 → 같은 값) */
+    static long seriesVersion(OhlcvSeries s, int len) {
+        long h = mix(len, len == 0 ? 0 : s.dates()[len - 1]);
+        for (int r = 0; r < len; r++) {
+            h = mix(h, s.dates()[r]);
+            h = mix(h, Double.doubleToLongBits(s.close()[r]));
+            h = mix(h, Double.doubleToLongBits(s.open()[r]) ^ Double.doubleToLongBits(s.high()[r]));
+            h = mix(h, Double.doubleToLongBits(s.low()[r]) ^ s.volume()[r]);
+        }
+        return h;
+    }
+
+    static long mix(long h, long v) {
+        h ^= v;
+        h *= 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    private static void deleteQuietly(Path dir) {
+        try (Stream<Path> s = Files.walk(dir)) {
+            s.sorted(Comparator.reverseOrder()).forEach(p -> {
+                try {
+                    Files.deleteIfExists(p);
+                } catch (IOException ignore) {
+                    // Windows: 아직 매핑 중인 세대는 다음 빌드 때 정리
+                }
+            });
+        } catch (IOException ignore) {}
+    }
+}
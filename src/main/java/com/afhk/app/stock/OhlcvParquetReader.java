@@ -0,0 +1,581 @@
+package com.afhk.app.stock;
+
+import com.github.luben.zstd.Zstd;
+import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridDecoder;
+import org.apache.parquet.format.ColumnChunk;
+import org.apache.parquet.format.ColumnMetaData;
+import org.apache.parquet.format.CompressionCodec;
+import org.apache.parquet.format.DataPageHeader;
+import org.apache.parquet.format.DataPageHeaderV2;
+import org.apache.parquet.format.Encoding;
+import org.apache.parquet.format.FieldRepetitionType;
+import org.apache.parquet.format.FileMetaData;
+import org.apache.parquet.format.PageHeader;
+import org.apache.parquet.format.RowGroup;
+import org.apache.parquet.format.SchemaElement;
+import org.apache.parquet.format.Statistics;
+import org.apache.parquet.format.Type;
+import org.apache.parquet.format.Util;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.xerial.snappy.Snappy;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * ===============================================================
+ * 📦 OhlcvParquetReader (v1.0 - In-Process Parquet 리더)
+ * ---------------------------------------------------------------
+ * ✅ python/data/stock_data/{code}.parquet 를 JVM 안에서 직접 디코딩
+ * ✅ Date/Open/High/Low/Close/Volume → long[] / double[] 컬럼으로 바로 적재
+ * ✅ chart / analyze 경로에서 Python 프로세스 없이 종목 로드 (수 ms)
+ * ---------------------------------------------------------------
+ * 🔥 ParquetFileReader(parquet-hadoop)는 hadoop-mapreduce-client-core
+ *    (provided 스코프)를 런타임에 요구하므로 사용 불가
+ *    → parquet-format(Thrift 푸터/페이지 헤더) + parquet-column(RLE 디코더)
+ *      + snappy-java 만으로 페이지 단위 디코딩
+ * 🔥 지원 범위: pandas/pyarrow 가 쓰는 평면 스키마
+ *    (PLAIN / RLE_DICTIONARY, DATA_PAGE v1/v2, SNAPPY/GZIP/ZSTD/무압축)
+ * ✅ 부분 읽기 : readTail(최근 n 봉) / readSince(기준일 이후)
+ *    - 컬럼 투영 : 요청 컬럼 청크만 디코딩 (나머지 배열은 null)
+ *    - 행 그룹 pruning : 필요 구간 밖 행 그룹은 건너뜀 (readSince 는 Date 통계 min/max 사용)
+ *    - 페이지 skip : 구간 앞 데이터 페이지는 압축 해제 없이 통과
+ * ✅ maxEpochDay : Date 통계만으로 마지막 날짜 (디코딩 없음)
+ * ===============================================================
+ */
+@Component
+public class OhlcvParquetReader {
+
+    private static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+
+    private static final long NANOS_PER_DAY = 86_400_000_000_000L;
+    private static final long MICROS_PER_DAY = 86_400_000_000L;
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    /** 분석(지표/패턴)에 필요한 컬럼 */
+    public static final Set<OhlcvColumnStore.Column> ANALYZE_COLUMNS = EnumSet.of(
+            OhlcvColumnStore.Column.HIGH, OhlcvColumnStore.Column.LOW, OhlcvColumnStore.Column.CLOSE);
+
+    @Value("${python.stock.data.path:}")
+    private String dataDir;
+
+    // ===============================================================
+    // 📥 종목 로드
+    // ===============================================================
+
+    /** 종목코드로 parquet 로드 (python.stock.data.path 기준) */
+    public OhlcvSeries read(String code) throws IOException {
+        return read(code, resolve(code));
+    }
+
+    /** 파일 경로를 직접 지정하여 로드 (배치/벤치마크용) */
+    public OhlcvSeries read(Path file) throws IOException {
+        return read(codeOf(file), file);
+    }
+
+    /** 데이터 디렉토리 기준 parquet 경로 */
+    public Path resolve(String code) {
+        return Paths.get(dataDir, code + ".parquet");
+    }
+
+    public boolean exists(String code) {
+        return Files.isRegularFile(resolve(code));
+    }
+
+    /** 푸터만 읽어 행 수 반환 (컬럼 스토어 사전 할당용) */
+    public long rowCount(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            return readFooter(ch).getNum_rows();
+        }
+    }
+
+    // ===============================================================
+    // ✂️ 부분 로드 (컬럼 투영 + 행 그룹 / 페이지 pruning)
+    // ===============================================================
+
+    /** 최근 nBars 봉의 요청 컬럼만 로드 (요청하지 않은 컬럼 배열은 null) */
+    public OhlcvSeries readTail(String code, Set<OhlcvColumnStore.Column> columns, int nBars) throws IOException {
+        return readTail(code, resolve(code), columns, nBars);
+    }
+
+    public OhlcvSeries readTail(Path file, Set<OhlcvColumnStore.Column> columns, int nBars) throws IOException {
+        return readTail(codeOf(file), file, columns, nBars);
+    }
+
+    private OhlcvSeries readTail(String code, Path file, Set<OhlcvColumnStore.Column> columns,
+                                 int nBars) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            FileMetaData meta = readFooter(ch);
+            long rows = meta.getNum_rows();
+            return readRows(code, ch, meta, columns, Math.max(0, rows - Math.max(0, nBars)));
+        }
+    }
+
+    /** fromEpochDay 이후(포함) 봉의 요청 컬럼만 로드 (Date 정렬 파일 기준) */
+    public OhlcvSeries readSince(String code, Set<OhlcvColumnStore.Column> columns,
+                                 long fromEpochDay) throws IOException {
+        try (FileChannel ch = FileChannel.open(resolve(code), StandardOpenOption.READ)) {
+            FileMetaData meta = readFooter(ch);
+            return readRows(code, ch, meta, columns, firstRowSince(ch, meta, fromEpochDay));
+        }
+    }
+
+    /** Date 통계 최대값 → epoch day (통계 없는 행 그룹은 디코딩, 빈 파일은 -1) */
+    public long maxEpochDay(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            FileMetaData meta = readFooter(ch);
+            int leaf = dateLeaf(meta);
+            SchemaElement el = leafElement(meta, leaf);
+            long perDay = daysDivisor(el);
+            long max = -1;
+            for (RowGroup rg : meta.getRow_groups()) {
+                int n = (int) rg.getNum_rows();
+                if (n == 0) continue;
+                long[] range = dateStats(rg.getColumns().get(leaf));
+                if (range != null) {
+                    max = Math.max(max, Math.floorDiv(range[1], perDay));
+                    continue;
+                }
+                long[] dates = new long[n];
+                decodeChunk(ch, rg.getColumns().get(leaf), el, 0, 0, n, null, dates);
+                for (long d : dates) max = Math.max(max, Math.floorDiv(d, perDay));
+            }
+            return max;
+        }
+    }
+
+    /** Date >= fromEpochDay 인 첫 행 (통계로 앞 행 그룹을 건너뛰고, 걸친 행 그룹만 Date 디코딩) */
+    private long firstRowSince(FileChannel ch, FileMetaData meta, long fromEpochDay) throws IOException {
+        int leaf = dateLeaf(meta);
+        SchemaElement el = leafElement(meta, leaf);
+        long perDay = daysDivisor(el);
+
+        long start = 0;
+        for (RowGroup rg : meta.getRow_groups()) {
+            int n = (int) rg.getNum_rows();
+            long[] range = dateStats(rg.getColumns().get(leaf));
+            if (range != null && Math.floorDiv(range[1], perDay) < fromEpochDay) {
+                start += n;
+                continue;
+            }
+            if (range != null && Math.floorDiv(range[0], perDay) >= fromEpochDay) return start;
+
+            long[] dates = new long[n];
+            decodeChunk(ch, rg.getColumns().get(leaf), el, 0, 0, n, null, dates);
+            for (int i = 0; i < n; i++) {
+                if (Math.floorDiv(dates[i], perDay) >= fromEpochDay) return start + i;
+            }
+            start += n;
+        }
+        return start;
+    }
+
+    /** [firstRow, num_rows) 구간의 요청 컬럼 디코딩 */
+    private OhlcvSeries readRows(String code, FileChannel ch, FileMetaData meta,
+                                 Set<OhlcvColumnStore.Column> columns, long firstRow) throws IOException {
+        Map<String, Integer> columnIndex = indexColumns(meta.getSchema());
+        int rows = (int) (meta.getNum_rows() - firstRow);
+
+        long[] dates = columns.contains(OhlcvColumnStore.Column.DATE) ? new long[rows] : null;
+        double[] open = columns.contains(OhlcvColumnStore.Column.OPEN) ? new double[rows] : null;
+        double[] high = columns.contains(OhlcvColumnStore.Column.HIGH) ? new double[rows] : null;
+        double[] low = columns.contains(OhlcvColumnStore.Column.LOW) ? new double[rows] : null;
+        double[] close = columns.contains(OhlcvColumnStore.Column.CLOSE) ? new double[rows] : null;
+        long[] volume = columns.contains(OhlcvColumnStore.Column.VOLUME) ? new long[rows] : null;
+
+        long rgStart = 0;
+        int offset = 0;
+        for (RowGroup rg : meta.getRow_groups()) {
+            int total = (int) rg.getNum_rows();
+            long rgEnd = rgStart + total;
+            if (rgEnd <= firstRow) {   // 행 그룹 pruning
+                rgStart = rgEnd;
+                continue;
+            }
+            int skip = (int) Math.max(0, firstRow - rgStart);
+            int n = total - skip;
+            List<ColumnChunk> chunks = rg.getColumns();
+
+            if (dates != null) readDates(ch, meta, chunks, columnIndex, skip, offset, n, dates);
+            if (open != null) readColumn(ch, meta, chunks, columnIndex, "Open", skip, offset, n, open, null);
+            if (high != null) readColumn(ch, meta, chunks, columnIndex, "High", skip, offset, n, high, null);
+            if (low != null) readColumn(ch, meta, chunks, columnIndex, "Low", skip, offset, n, low, null);
+            if (close != null) readColumn(ch, meta, chunks, columnIndex, "Close", skip, offset, n, close, null);
+            if (volume != null) readColumn(ch, meta, chunks, columnIndex, "Volume", skip, offset, n, null, volume);
+
+            offset += n;
+            rgStart = rgEnd;
+        }
+
+        return new OhlcvSeries(code, rows, dates, open, high, low, close, volume);
+    }
+
+    private static String codeOf(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(".parquet") ? name.substring(0, name.length() - 8) : name;
+    }
+
+    private OhlcvSeries read(String code, Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+
+            FileMetaData meta = readFooter(ch);
+            Map<String, Integer> columnIndex = indexColumns(meta.getSchema());
+
+            int rows = (int) meta.getNum_rows();
+            long[] dates = new long[rows];
+            double[] open = new double[rows];
+            double[] high = new double[rows];
+            double[] low = new double[rows];
+            double[] close = new double[rows];
+            long[] volume = new long[rows];
+
+            int offset = 0;
+            for (RowGroup rg : meta.getRow_groups()) {
+                int n = (int) rg.getNum_rows();
+                List<ColumnChunk> chunks = rg.getColumns();
+
+                readDates(ch, meta, chunks, columnIndex, 0, offset, n, dates);
+                readColumn(ch, meta, chunks, columnIndex, "Open", 0, offset, n, open, null);
+                readColumn(ch, meta, chunks, columnIndex, "High", 0, offset, n, high, null);
+                readColumn(ch, meta, chunks, columnIndex, "Low", 0, offset, n, low, null);
+                readColumn(ch, meta, chunks, columnIndex, "Close", 0, offset, n, close, null);
+                readColumn(ch, meta, chunks, columnIndex, "Volume", 0, offset, n, null, volume);
+
+                offset += n;
+            }
+
+            return new OhlcvSeries(code, rows, dates, open, high, low, close, volume);
+        }
+    }
+
+    // ===============================================================
+    // 🧾 푸터 / 스키마
+    // ===============================================================
+
+    private FileMetaData readFooter(FileChannel ch) throws IOException {
+        long size = ch.size();
+        if (size < 12) throw new IOException("parquet 파일 크기 부족: " + size);
+
+        ByteBuffer tail = readFully(ch, size - 8, 8).order(ByteOrder.LITTLE_ENDIAN);
+        int footerLen = tail.getInt(0);
+        for (int i = 0; i < 4; i++) {
+            if (tail.get(4 + i) != MAGIC[i]) throw new IOException("parquet 매직 넘버 불일치");
+        }
+        if (footerLen <= 0 || footerLen > size - 12) {
+            throw new IOException("parquet 푸터 길이 오류: " + footerLen);
+        }
+
+        ByteBuffer footer = readFully(ch, size - 8 - footerLen, footerLen);
+        return Util.readFileMetaData(new ByteArrayInputStream(footer.array()));
+    }
+
+    /** 평면 스키마 기준: 컬럼명 → 리프 인덱스 */
+    private Map<String, Integer> indexColumns(List<SchemaElement> schema) {
+        Map<String, Integer> index = new HashMap<>();
+        int leaf = 0;
+        for (int i = 1; i < schema.size(); i++) {   // 0번은 root
+            SchemaElement el = schema.get(i);
+            if (el.isSetNum_children() && el.getNum_children() > 0) continue;
+            index.put(el.getName(), leaf++);
+        }
+        return index;
+    }
+
+    private int dateLeaf(FileMetaData meta) throws IOException {
+        Integer leaf = indexColumns(meta.getSchema()).get("Date");
+        if (leaf == null) throw new IOException("Date 컬럼 없음");
+        return leaf;
+    }
+
+    /** Date 컬럼 청크 통계 [min, max] (원시 단위, 통계 없으면 null) */
+    private static long[] dateStats(ColumnChunk chunk) {
+        ColumnMetaData cm = chunk.getMeta_data();
+        if (!cm.isSetStatistics()) return null;
+        Statistics st = cm.getStatistics();
+        byte[] min = st.isSetMin_value() ? st.getMin_value() : st.isSetMin() ? st.getMin() : null;
+        byte[] max = st.isSetMax_value() ? st.getMax_value() : st.isSetMax() ? st.getMax() : null;
+        if (min == null || max == null) return null;
+        return new long[]{littleEndian(min, cm.getType()), littleEndian(max, cm.getType())};
+    }
+
+    private static long littleEndian(byte[] b, Type type) {
+        ByteBuffer buf = ByteBuffer.wrap(b).order(ByteOrder.LITTLE_ENDIAN);
+        return type == Type.INT32 ? buf.getInt() : buf.getLong();
+    }
+
+    private SchemaElement leafElement(FileMetaData meta, int leaf) {
+        int seen = 0;
+        List<SchemaElement> schema = meta.getSchema();
+        for (int i = 1; i < schema.size(); i++) {
+            SchemaElement el = schema.get(i);
+            if (el.isSetNum_children() && el.getNum_children() > 0) continue;
+            if (seen++ == leaf) return el;
+        }
+        throw new IllegalStateException("스키마 리프 없음: " + leaf);
+    }
+
+    // ===============================================================
+    // 📊 컬럼 디코딩
+    // ===============================================================
+
+    /** Date 컬럼 → epoch day */
+    private void readDates(FileChannel ch, FileMetaData meta, List<ColumnChunk> chunks,
+                           Map<String, Integer> columnIndex, int skip, int offset, int n,
+                           long[] out) throws IOException {
+
+        Integer leaf = columnIndex.get("Date");
+        if (leaf == null) throw new IOException("Date 컬럼 없음");
+
+        SchemaElement el = leafElement(meta, leaf);
+        decodeChunk(ch, chunks.get(leaf), el, skip, offset, n, null, out);
+
+        long perDay = daysDivisor(el);
+        if (perDay == 1) return;
+        for (int i = offset; i < offset + n; i++) {
+            out[i] = Math.floorDiv(out[i], perDay);
+        }
+    }
+
+    /** 물리 타입/논리 타입으로부터 epoch day 변환 제수 계산 */
+    private long daysDivisor(SchemaElement el) {
+        if (el.getType() == Type.INT32) return 1;   // DATE (days)
+
+        if (el.isSetLogicalType() && el.getLogicalType().isSetTIMESTAMP()) {
+            var unit = el.getLogicalType().getTIMESTAMP().getUnit();
+            if (unit.isSetNANOS()) return NANOS_PER_DAY;
+            if (unit.isSetMICROS()) return MICROS_PER_DAY;
+            return MILLIS_PER_DAY;
+        }
+        if (el.isSetConverted_type()) {
+            switch (el.getConverted_type()) {
+                case TIMESTAMP_MICROS: return MICROS_PER_DAY;
+                case TIMESTAMP_MILLIS: return MILLIS_PER_DAY;
+                default: break;
+            }
+        }
+        return NANOS_PER_DAY;   // pandas datetime64[ns] 기본
+    }
+
+    private void readColumn(FileChannel ch, FileMetaData meta, List<ColumnChunk> chunks,
+                            Map<String, Integer> columnIndex, String name,
+                            int skip, int offset, int n, double[] dOut, long[] lOut) throws IOException {
+
+        Integer leaf = columnIndex.get(name);
+        if (leaf == null) throw new IOException(name + " 컬럼 없음");
+        decodeChunk(ch, chunks.get(leaf), leafElement(meta, leaf), skip, offset, n, dOut, lOut);
+    }
+
+    /**
+     * 컬럼 청크 1개의 [skip, skip + n) 행을 디코딩하여 dOut(double) 또는 lOut(long) 에 offset 부터 기록.
+     * skip 이전에서 끝나는 데이터 페이지는 압축 해제 없이 건너뜀. null 값은 double → NaN, long → 0
+     */
+    private void decodeChunk(FileChannel ch, ColumnChunk chunk, SchemaElement el,
+                             int skip, int offset, int n, double[] dOut, long[] lOut) throws IOException {
+
+        ColumnMetaData cm = chunk.getMeta_data();
+        Type type = cm.getType();
+        boolean optional = el.getRepetition_type() != FieldRepetitionType.REQUIRED;
+
+        long start = cm.getData_page_offset();
+        if (cm.isSetDictionary_page_offset() && cm.getDictionary_page_offset() > 0) {
+            start = Math.min(start, cm.getDictionary_page_offset());
+        }
+
+        ByteBuffer raw = readFully(ch, start, (int) cm.getTotal_compressed_size());
+        InputStream in = new ByteArrayInputStream(raw.array());
+
+        long[] dict = null;
+        int written = 0;
+        int row = 0;   // 현재 페이지 첫 행 (청크 기준)
+
+        while (written < n) {
+            PageHeader ph = Util.readPageHeader(in);
+            byte[] body = in.readNBytes(ph.getCompressed_page_size());
+            if (body.length != ph.getCompressed_page_size()) throw new EOFException("페이지 데이터 부족");
+
+            int pageValues = switch (ph.getType()) {
+                case DATA_PAGE -> ph.getData_page_header().getNum_values();
+                case DATA_PAGE_V2 -> ph.getData_page_header_v2().getNum_values();
+                default -> 0;
+            };
+            if (pageValues > 0 && row + pageValues <= skip) {   // 구간 앞 페이지 → 디코딩 생략
+                row += pageValues;
+                continue;
+            }
+            // 구간에 걸친 페이지는 임시 배열에 풀고 필요한 꼬리만 복사
+            int head = Math.max(0, skip - row);
+            double[] dPage = head > 0 && dOut != null ? new double[pageValues] : dOut;
+            long[] lPage = head > 0 && lOut != null ? new long[pageValues] : lOut;
+            int pagePos = head > 0 ? 0 : offset + written;
+
+            switch (ph.getType()) {
+                case DICTIONARY_PAGE -> {
+                    byte[] page = decompress(cm.getCodec(), body, ph.getUncompressed_page_size());
+                    int count = ph.getDictionary_page_header().getNum_values();
+                    dict = new long[count];
+                    readPlain(page, 0, type, count, dict);
+                }
+                case DATA_PAGE -> {
+                    DataPageHeader h = ph.getData_page_header();
+                    byte[] page = decompress(cm.getCodec(), body, ph.getUncompressed_page_size());
+                    int values = h.getNum_values();
+
+                    int pos = 0;
+                    boolean[] defined = null;
+                    if (optional) {
+                        int len = ByteBuffer.wrap(page, pos, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
+                        defined = readDefinitionLevels(page, pos + 4, len, values);
+                        pos += 4 + len;
+                    }
+                    decodeValues(page, pos, h.getEncoding(), type, dict, values, defined,
+                            pagePos, dPage, lPage);
+                }
+                case DATA_PAGE_V2 -> {
+                    DataPageHeaderV2 h = ph.getData_page_header_v2();
+                    int values = h.getNum_values();
+                    int repLen = h.getRepetition_levels_byte_length();
+                    int defLen = h.getDefinition_levels_byte_length();
+
+                    boolean[] defined = (optional && defLen > 0)
+                            ? readDefinitionLevels(body, repLen, defLen, values) : null;
+
+                    int levelsLen = repLen + defLen;
+                    byte[] page;
+                    int pos;
+                    if (!h.isSetIs_compressed() || h.isIs_compressed()) {
+                        byte[] compressed = new byte[body.length - levelsLen];
+                        System.arraycopy(body, levelsLen, compressed, 0, compressed.length);
+                        page = decompress(cm.getCodec(), compressed, ph.getUncompressed_page_size() - levelsLen);
+                        pos = 0;
+                    } else {
+                        page = body;
+                        pos = levelsLen;
+                    }
+                    decodeValues(page, pos, h.getEncoding(), type, dict, values, defined,
+                            pagePos, dPage, lPage);
+                }
+                default -> { /* INDEX_PAGE 등은 건너뜀 */ }
+            }
+            if (pageValues == 0) continue;
+
+            int take = Math.min(pageValues - head, n - written);
+            if (head > 0) {
+                if (dOut != null) System.arraycopy(dPage, head, dOut, offset + written, take);
+                else System.arraycopy(lPage, head, lOut, offset + written, take);
+            }
+            written += take;
+            row += pageValues;
+        }
+    }
+
+    private boolean[] readDefinitionLevels(byte[] page, int from, int len, int values) throws IOException {
+        RunLengthBitPackingHybridDecoder dec = new RunLengthBitPackingHybridDecoder(
+                1, new ByteArrayInputStream(page, from, len));
+        boolean[] defined = new boolean[values];
+        for (int i = 0; i < values; i++) defined[i] = dec.readInt() == 1;
+        return defined;
+    }
+
+    private void decodeValues(byte[] page, int pos, Encoding encoding, Type type, long[] dict,
+                              int values, boolean[] defined, int outPos,
+                              double[] dOut, long[] lOut) throws IOException {
+
+        int nonNull = values;
+        if (defined != null) {
+            nonNull = 0;
+            for (boolean d : defined) if (d) nonNull++;
+        }
+
+        long[] bits = new long[nonNull];
+        switch (encoding) {
+            case PLAIN -> readPlain(page, pos, type, nonNull, bits);
+            case RLE_DICTIONARY, PLAIN_DICTIONARY -> {
+                if (dict == null) throw new IOException("딕셔너리 페이지 없음");
+                int bitWidth = page[pos] & 0xFF;
+                RunLengthBitPackingHybridDecoder dec = new RunLengthBitPackingHybridDecoder(
+                        bitWidth, new ByteArrayInputStream(page, pos + 1, page.length - pos - 1));
+                for (int i = 0; i < nonNull; i++) bits[i] = dict[dec.readInt()];
+            }
+            default -> throw new IOException("지원하지 않는 인코딩: " + encoding);
+        }
+
+        boolean floating = type == Type.DOUBLE || type == Type.FLOAT;
+        int k = 0;
+        for (int i = 0; i < values; i++) {
+            boolean present = defined == null || defined[i];
+            long v = present ? bits[k++] : 0L;
+            if (dOut != null) {
+                dOut[outPos + i] = !present ? Double.NaN
+                        : floating ? Double.longBitsToDouble(v) : (double) v;
+            } else {
+                lOut[outPos + i] = !present ? 0L
+                        : floating ? (long) Double.longBitsToDouble(v) : v;
+            }
+        }
+    }
+
+    /** PLAIN 인코딩 → long 비트 (DOUBLE/FLOAT 는 double 비트로 정규화) */
+    private void readPlain(byte[] page, int pos, Type type, int count, long[] out) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(page, pos, page.length - pos).order(ByteOrder.LITTLE_ENDIAN);
+        switch (type) {
+            case INT64 -> { for (int i = 0; i < count; i++) out[i] = buf.getLong(); }
+            case INT32 -> { for (int i = 0; i < count; i++) out[i] = buf.getInt(); }
+            case DOUBLE -> { for (int i = 0; i < count; i++) out[i] = buf.getLong(); }
+            case FLOAT -> {
+                for (int i = 0; i < count; i++) out[i] = Double.doubleToRawLongBits(buf.getFloat());
+            }
+            default -> throw new IOException("지원하지 않는 물리 타입: " + type);
+        }
+    }
+
+    // ===============================================================
+    // 🔧 유틸
+    // ===============================================================
+
+    private byte[] decompress(CompressionCodec codec, byte[] body, int uncompressedSize) throws IOException {
+        switch (codec) {
+            case UNCOMPRESSED:
+                return body;
+            case SNAPPY: {
+                byte[] out = new byte[uncompressedSize];
+                Snappy.uncompress(body, 0, body.length, out, 0);
+                return out;
+            }
+            case ZSTD:
+                return Zstd.decompress(body, uncompressedSize);
+            case GZIP:
+                try (GZIPInputStream gz = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                    return gz.readNBytes(uncompressedSize);
+                }
+            default:
+                throw new IOException("지원하지 않는 압축 코덱: " + codec);
+        }
+    }
+
+    private ByteBuffer readFully(FileChannel ch, long position, int len) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(len);
+        while (buf.hasRemaining()) {
+            int r = ch.read(buf, position + buf.position());
+            if (r < 0) throw new EOFException("parquet 파일 끝 도달 (pos=" + position + ")");
+        }
+        buf.flip();
+        return buf;
+    }
+}
@@ -0,0 +1,59 @@
+package com.afhk.app.stock;
+
+import java.time.LocalDate;
+
+/**
+ * ===============================================================
+ * 📈 OhlcvSeries (v1.0 - 원시 배열 기반 시세 컬럼)
+ * ---------------------------------------------------------------
+ * ✅ 종목 1개의 일봉 시세를 컬럼 단위 primitive 배열로 보관
+ * ✅ dates  : epoch day (1970-01-01 기준 일수)
+ * ✅ open/high/low/close : double (pandas float 연산과 동일 정밀도)
+ * ✅ volume : long
+ * ✅ 배열은 날짜 오름차순 (parquet 저장 순서 그대로)
+ * ===============================================================
+ */
+public final class OhlcvSeries {
+
+    private final String code;
+    private final int length;
+    private final long[] dates;
+    private final double[] open;
+    private final double[] high;
+    private final double[] low;
+    private final double[] close;
+    private final long[] volume;
+
+    public OhlcvSeries(String code, int length, long[] dates,
+                       double[] open, double[] high, double[] low, double[] close,
+                       long[] volume) {
+        this.code = code;
+        this.length = length;
+        this.dates = dates;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+    }
+
+    // ============================================================
+    // Getter
+    // ============================================================
+
+    public String getCode() { return code; }
+    public int length() { return length; }
+    public long[] dates() { return dates; }
+    public double[] open() { return open; }
+    public double[] high() { return high; }
+    public double[] low() { return low; }
+    public double[] close() { return close; }
+    public long[] volume() { return volume; }
+
+    public boolean isEmpty() { return length == 0; }
+
+    /** 마지막 봉 날짜 (데이터 없으면 null) */
+    public LocalDate lastDate() {
+        return (length == 0 || dates == null) ? null : LocalDate.ofEpochDay(dates[length - 1]);
+    }
+}
@@ -0,0 +1,46 @@
+package com.afhk.app.stock;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * ===============================================================
+ * 📁 ParquetDailyBarSource (parquet 기반 일봉 공급원)
+ * ---------------------------------------------------------------
+ * ✅ GProd Python 이 갱신한 {code}.parquet 에서 [from, to] 구간만 로드
+ *    - OhlcvParquetReader.readSince → 앞 행 그룹은 Date 통계로 건너뜀 (전체 디코딩 없음)
+ * ✅ totalBars : 푸터 행 수 → DailyBarUpdater 가 스토어 길이와 대조 (과거 이력 변경 검출)
+ * ✅ 파일 없음 → 빈 시리즈
+ * ===============================================================
+ */
+public class ParquetDailyBarSource implements DailyBarSource {
+
+    private static final Set<OhlcvColumnStore.Column> ALL_COLUMNS = EnumSet.allOf(OhlcvColumnStore.Column.class);
+
+    private final OhlcvParquetReader reader;
+
+    public ParquetDailyBarSource(OhlcvParquetReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public OhlcvSeries fetch(String code, LocalDate from, LocalDate to) throws IOException {
+        if (!reader.exists(code)) {
+            return new OhlcvSeries(code, 0, new long[0], new double[0], new double[0],
+                    new double[0], new double[0], new long[0]);
+        }
+        OhlcvSeries s = reader.readSince(code, ALL_COLUMNS, from.toEpochDay());
+        long last = to.toEpochDay();
+        int n = s.length();
+        while (n > 0 && s.dates()[n - 1] > last) n--;
+        if (n == s.length()) return s;
+        return new OhlcvSeries(code, n, s.dates(), s.open(), s.high(), s.low(), s.close(), s.volume());
+    }
+
+    @Override
+    public long totalBars(String code) throws IOException {
+        return reader.exists(code) ? reader.rowCount(reader.resolve(code)) : -1L;
+    }
+}
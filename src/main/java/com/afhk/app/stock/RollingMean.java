@@ -0,0 +1,112 @@
+package com.afhk.app.stock;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * ===============================================================
+ * ➗ RollingMean (pandas roll_mean 동일 구현)
+ * ---------------------------------------------------------------
+ * ✅ Kahan 보정 합 (추가/제거 보정값 분리)
+ * ✅ 동일값 연속 / 부호 카운트 보정 (GH#42064)
+ * ✅ add/remove 순서를 pandas 와 맞추면 결과가 비트 단위로 동일
+ * ===============================================================
+ */
+final class RollingMean implements Cloneable {
+
+    private long nobs;
+    private long negCt;
+    private double sum;
+    private double compAdd;
+    private double compRemove;
+    private long sameCount;
+    private double prevValue;
+
+    void reset(double first) {
+        nobs = 0;
+        negCt = 0;
+        sum = 0;
+        compAdd = 0;
+        compRemove = 0;
+        sameCount = 0;
+        prevValue = first;
+    }
+
+    void add(double val) {
+        if (Double.isNaN(val)) return;
+        nobs++;
+        double y = val - compAdd;
+        double t = sum + y;
+        compAdd = t - sum - y;
+        sum = t;
+        if (signBit(val)) negCt++;
+        if (val == prevValue) {
+            sameCount++;
+        } else {
+            sameCount = 1;
+        }
+        prevValue = val;
+    }
+
+    void remove(double val) {
+        if (Double.isNaN(val)) return;
+        nobs--;
+        double y = -val - compRemove;
+        double t = sum + y;
+        compRemove = t - sum - y;
+        sum = t;
+        if (signBit(val)) negCt--;
+    }
+
+    double mean(int minPeriods) {
+        if (nobs >= minPeriods && nobs > 0) {
+            double result = sum / (double) nobs;
+            if (sameCount >= nobs) {
+                result = prevValue;
+            } else if (negCt == 0 && result < 0) {
+                result = 0;
+            } else if (negCt == nobs && result > 0) {
+                result = 0;
+            }
+            return result;
+        }
+        return Double.NaN;
+    }
+
+    static boolean signBit(double v) {
+        return (Double.doubleToRawLongBits(v) & Long.MIN_VALUE) != 0;
+    }
+
+    // ============================================================
+    // 💾 상태 저장/복원 (IndicatorState 영속화용)
+    // ============================================================
+
+    void write(DataOutput out) throws IOException {
+        out.writeLong(nobs);
+        out.writeLong(negCt);
+        out.writeDouble(sum);
+        out.writeDouble(compAdd);
+        out.writeDouble(compRemove);
+        out.writeLong(sameCount);
+        out.writeDouble(prevValue);
+    }
+
+    void read(DataInput in) throws IOException {
+        nobs = in.readLong();
+        negCt = in.readLong();
+        sum = in.readDouble();
+        compAdd = in.readDouble();
+        compRemove = in.readDouble();
+        sameCount = in.readLong();
+        prevValue = in.readDouble();
+    }
+
+    RollingMean copy() {
+        try {
+            return (RollingMean) super.clone();   // primitive 필드만 보유
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.afhk.app.stock;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * ===============================================================
+ * 📐 RollingVariance (pandas roll_var 동일 구현)
+ * ---------------------------------------------------------------
+ * ✅ Welford 온라인 분산 + Kahan 보정 (추가/제거 보정값 분리)
+ * ✅ 동일값 연속 시 0 반환 (GH#42064)
+ * ✅ ddof 지정 (BollingerBands 는 ddof=0)
+ * ===============================================================
+ */
+final class RollingVariance implements Cloneable {
+
+    private double nobs;
+    private double mean;
+    private double ssqdm;
+    private double compAdd;
+    private double compRemove;
+    private long sameCount;
+    private double prevValue;
+
+    void reset(double first) {
+        nobs = 0;
+        mean = 0;
+        ssqdm = 0;
+        compAdd = 0;
+        compRemove = 0;
+        sameCount = 0;
+        prevValue = first;
+    }
+
+    void add(double val) {
+        if (Double.isNaN(val)) return;
+        nobs = nobs + 1;
+        if (val == prevValue) {
+            sameCount++;
+        } else {
+            sameCount = 1;
+        }
+        prevValue = val;
+
+        double prevMean = mean - compAdd;
+        double y = val - compAdd;
+        double t = y - mean;
+        compAdd = t + mean - y;
+        if (nobs != 0) {
+            mean = mean + t / nobs;
+        } else {
+            mean = 0;
+        }
+        ssqdm = ssqdm + (val - prevMean) * (val - mean);
+    }
+
+    void remove(double val) {
+        if (Double.isNaN(val)) return;
+        nobs = nobs - 1;
+        if (nobs != 0) {
+            double prevMean = mean - compRemove;
+            double y = val - compRemove;
+            double t = y - mean;
+            compRemove = t + mean - y;
+            mean = mean - t / nobs;
+            ssqdm = ssqdm - (val - prevMean) * (val - mean);
+        } else {
+            mean = 0;
+            ssqdm = 0;
+        }
+    }
+
+    double variance(int minPeriods, int ddof) {
+        int minp = Math.max(minPeriods, 1);
+        if (nobs >= minp && nobs > ddof) {
+            if (nobs == 1 || sameCount >= nobs) return 0;
+            return ssqdm / (nobs - (double) ddof);
+        }
+        return Double.NaN;
+    }
+
+    /** pandas zsqrt: 음수 분산은 0 */
+    double std(int minPeriods, int ddof) {
+        double v = variance(minPeriods, ddof);
+        if (Double.isNaN(v)) return v;
+        return v < 0 ? 0 : Math.sqrt(v);
+    }
+
+    // ============================================================
+    // 💾 상태 저장/복원 (IndicatorState 영속화용)
+    // ============================================================
+
+    void write(DataOutput out) throws IOException {
+        out.writeDouble(nobs);
+        out.writeDouble(mean);
+        out.writeDouble(ssqdm);
+        out.writeDouble(compAdd);
+        out.writeDouble(compRemove);
+        out.writeLong(sameCount);
+        out.writeDouble(prevValue);
+    }
+
+    void read(DataInput in) throws IOException {
+        nobs = in.readDouble();
+        mean = in.readDouble();
+        ssqdm = in.readDouble();
+        compAdd = in.readDouble();
+        compRemove = in.readDouble();
+        sameCount = in.readLong();
+        prevValue = in.readDouble();
+    }
+
+    RollingVariance copy() {
+        try {
+            return (RollingVariance) super.clone();   // primitive 필드만 보유
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
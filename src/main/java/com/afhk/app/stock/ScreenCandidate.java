@@ -0,0 +1,51 @@
+package com.afhk.app.stock;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ===============================================================
+ * 🏷️ ScreenCandidate (analyze_symbol 결과 1건)
+ * ---------------------------------------------------------------
+ * ✅ ticker / name / technical_conditions + 정렬 점수
+ * ✅ order : 종목 리스트 순서 → 동점 시 결정적 정렬 보장
+ * ===============================================================
+ */
+public final class ScreenCandidate {
+
+    private final String ticker;
+    private final String name;
+    private final Map<String, Object> conditions;
+    private final double sortScore;
+    private final int order;
+
+    public ScreenCandidate(String ticker, String name, Map<String, Object> conditions,
+                           double sortScore, int order) {
+        this.ticker = ticker;
+        this.name = name;
+        this.conditions = conditions;
+        this.sortScore = sortScore;
+        this.order = order;
+    }
+
+    public String getTicker() { return ticker; }
+    public String getName() { return name; }
+    public Map<String, Object> getConditions() { return conditions; }
+    public double getSortScore() { return sortScore; }
+    public int getOrder() { return order; }
+
+    /** Python 결과 JSON 과 동일한 형태 (sort_score 제외) */
+    public Map<String, Object> toMap() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("ticker", ticker);
+        m.put("name", name);
+        m.put("technical_conditions", conditions);
+        return m;
+    }
+
+    /** sort_score 내림차순 → 리스트 순서 오름차순 */
+    public static int compareRank(ScreenCandidate a, ScreenCandidate b) {
+        int c = Double.compare(b.sortScore, a.sortScore);
+        return c != 0 ? c : Integer.compare(a.order, b.order);
+    }
+}
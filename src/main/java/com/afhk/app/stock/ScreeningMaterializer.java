@@ -0,0 +1,82 @@
+package com.afhk.app.stock;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * ===============================================================
+ * 🗂️ ScreeningMaterializer (v1.0 - GProd 갱신 후 전 필터 사전 계산)
+ * ---------------------------------------------------------------
+ * ✅ GProd 정상 완료 → 컬럼 스토어 재빌드 완료 대기 → AthenaScreener.materialize
+ * ✅ 결과는 AnalyzeResultCache (L1 + 디스크 L2) 에 필터별 전체 순위로 저장
+ *    → 이후 Athena 요청은 전역 락 없이 lookup 으로 응답
+ * ✅ 같은 dataVersion 으로 이미 전부 적재돼 있으면 생략
+ * ===============================================================
+ */
+@Component
+public class ScreeningMaterializer {
+
+    private static final Logger log = LoggerFactory.getLogger(ScreeningMaterializer.class);
+
+    /** Athena 화면 기본 MA 기간 (StockBatchAthenaAiController 기본값) */
+    public static final String DEFAULT_MA_PERIODS = "20,50,200";
+
+    private final AthenaScreener screener;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "Athena-Materialize");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ScreeningMaterializer(AthenaScreener screener) {
+        this.screener = screener;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** 컬럼 스토어 재빌드(Future) 완료 후 사전 계산 실행 */
+    public Future<?> materializeAfter(Future<?> rebuild) {
+        return executor.submit(() -> {
+            try {
+                if (rebuild != null) rebuild.get();
+                run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                log.warn("⚠️ 컬럼 스토어 재빌드 실패 → 사전 계산 생략: {}", e.getMessage());
+            } catch (Exception e) {
+                log.error("❌ Athena 사전 계산 실패: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    private void run() {
+        if (!screener.isReady()) {
+            log.warn("⚠️ 컬럼 스토어 미준비 → 사전 계산 생략");
+            return;
+        }
+        if (isMaterialized()) {
+            log.info("🗂️ 데이터 변경 없음 → Athena 사전 계산 생략");
+            return;
+        }
+        screener.materialize(DEFAULT_MA_PERIODS);
+    }
+
+    private boolean isMaterialized() {
+        for (String filter : AthenaScreener.MATERIALIZED_FILTERS) {
+            if (screener.lookup(filter, DEFAULT_MA_PERIODS, 1, null) == null) return false;
+        }
+        return true;
+    }
+}
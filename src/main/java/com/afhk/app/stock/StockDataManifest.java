@@ -0,0 +1,307 @@
+package com.afhk.app.stock;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * ===============================================================
+ * 📋 StockDataManifest (v1.0 - 종목별 parquet 요약, 최신 여부 즉시 판정)
+ * ---------------------------------------------------------------
+ * ✅ python/data/stock_data/manifest.bin : 종목별 (마지막 일자, 행 수, 크기, 수정 시각, CRC32C)
+ * ✅ 고정 폭 little-endian 레코드 (코드 오름차순) → mmap 1회로 전체 판독 가능
+ *    Java 는 Files.readAllBytes 1회 (Windows 는 매핑 중 파일 교체 불가)
+ * ✅ refresh : 크기·수정 시각이 같은 파일은 재사용, 바뀐 파일만 푸터(행 수 + Date 통계) 판독 + 체크섬
+ * ✅ staleness : stock_listing.json 기준 갱신 필요 종목 / 이미 최신 종목 분리
+ *    (Python 판정과 동일 : Date.max() >= 오늘 이면 이미 최신)
+ * ===============================================================
+ */
+@Component
+public class StockDataManifest {
+
+    private static final Logger log = LoggerFactory.getLogger(StockDataManifest.class);
+
+    private static final int MAGIC = 0x4E414D53;           // "SMAN"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 24;
+    private static final int CODE_BYTES = 16;
+    private static final int ENTRY_BYTES = CODE_BYTES + 4 + 4 + 8 + 8 + 8;
+    static final String MANIFEST_FILE = "manifest.bin";
+
+    /** 종목 1건 요약 (lastEpochDay = Date.max(), 비어 있으면 -1) */
+    public record Entry(String code, int lastEpochDay, int rows, long size, long modified, long checksum) {
+        public LocalDate lastDate() {
+            return lastEpochDay < 0 ? null : LocalDate.ofEpochDay(lastEpochDay);
+        }
+    }
+
+    /** 갱신 판정 결과 (listingFresh = KRX 목록 캐시가 오늘자 → Python 이 재다운로드하지 않음) */
+    public record Staleness(List<String> stale, List<String> current, boolean listingFresh) {
+        public boolean allCurrent() {
+            return listingFresh && stale.isEmpty();
+        }
+    }
+
+    private final OhlcvParquetReader reader;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Value("${python.stock.data.path:}")
+    private String dataDir;
+
+    @Value("${python.stock.json.path:}")
+    private String listingPath;
+
+    private volatile Map<String, Entry> entries = Collections.emptyMap();
+
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "Stock-Manifest");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public StockDataManifest(OhlcvParquetReader reader) {
+        this.reader = reader;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    @PostConstruct
+    public void init() {
+        if (dataDir == null || dataDir.isBlank()) return;
+        Path file = Paths.get(dataDir, MANIFEST_FILE);
+        if (!Files.isRegularFile(file)) return;
+        try {
+            entries = read(file);
+            log.info("📋 데이터 manifest 로드: 종목={}", entries.size());
+        } catch (IOException e) {
+            log.warn("⚠️ 데이터 manifest 로드 실패 → 다음 refresh 때 재작성: {}", e.getMessage());
+        }
+    }
+
+    // ===============================================================
+    // 🔍 조회
+    // ===============================================================
+
+    public Entry get(String code) {
+        return entries.get(code);
+    }
+
+    public Map<String, Entry> entries() {
+        return entries;
+    }
+
+    /**
+     * stock_listing.json 종목을 갱신 필요 / 이미 최신으로 분리 (refresh 후 호출할 것)
+     * 목록 파일이 없거나 읽을 수 없거나 비어 있으면 IOException → 호출 측은 전체 실행
+     * (빈 목록을 "갱신 대상 없음" 으로 오판해 일일 갱신을 건너뛰지 않도록)
+     */
+    public Staleness staleness(LocalDate today) throws IOException {
+        List<String> stale = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        Map<String, Entry> snap = entries;
+        int todayDay = (int) today.toEpochDay();
+        for (String code : listingCodes()) {
+            Entry e = snap.get(code);
+            if (e != null && e.lastEpochDay() >= todayDay) current.add(code);
+            else stale.add(code);
+        }
+        return new Staleness(stale, current, isListingFresh(today));
+    }
+
+    /** Python load_krx_listing 과 같은 기준 (파일 수정일 == 오늘) */
+    private boolean isListingFresh(LocalDate today) {
+        File file = listingPath == null || listingPath.isBlank() ? null : new File(listingPath);
+        if (file == null || !file.isFile()) return false;
+        LocalDate modified = Instant.ofEpochMilli(file.lastModified()).atZone(ZoneId.systemDefault()).toLocalDate();
+        return !modified.isBefore(today);
+    }
+
+    private List<String> listingCodes() throws IOException {
+        File file = listingPath == null || listingPath.isBlank() ? null : new File(listingPath);
+        if (file == null || !file.isFile()) throw new IOException("종목 리스트 없음: " + listingPath);
+        List<String> codes;
+        try {
+            List<Map<String, Object>> list = mapper.readValue(file, new TypeReference<List<Map<String, Object>>>() {});
+            codes = new ArrayList<>(list.size());
+            for (Map<String, Object> item : list) {
+                Object code = item.get("Code") != null ? item.get("Code") : item.get("code");
+                if (code != null) codes.add(code.toString());
+            }
+        } catch (IOException e) {
+            log.warn("⚠️ 종목 리스트 로드 실패 → 갱신 대상 판정 불가: {}", e.getMessage());
+            throw e;
+        }
+        if (codes.isEmpty()) {
+            log.warn("⚠️ 종목 리스트 비어 있음 → 갱신 대상 판정 불가: {}", listingPath);
+            throw new IOException("종목 리스트 비어 있음: " + listingPath);
+        }
+        return codes;
+    }
+
+    // ===============================================================
+    // 🔄 갱신 (바뀐 parquet 만 디코딩)
+    // ===============================================================
+
+    /** GProd 완료 후 호출 — 전용 스레드에서 갱신 (다음 실행 시 판정은 stat 만으로 끝남) */
+    public Future<?> refreshAsync() {
+        return refreshExecutor.submit(() -> {
+            try {
+                refresh();
+            } catch (Exception e) {
+                log.error("❌ 데이터 manifest 갱신 실패: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    /** stock_data 디렉토리와 동기화. 반환: 새로 읽은 파일 수 (-1 = 비활성) */
+    public synchronized int refresh() throws IOException {
+        if (dataDir == null || dataDir.isBlank() || !Files.isDirectory(Paths.get(dataDir))) return -1;
+        long started = System.currentTimeMillis();
+        Path dir = Paths.get(dataDir);
+
+        List<Path> files;
+        try (Stream<Path> s = Files.list(dir)) {
+            files = s.filter(p -> p.getFileName().toString().endsWith(".parquet")).toList();
+        }
+
+        Map<String, Entry> prev = entries;
+        Map<String, Entry> next = new ConcurrentHashMap<>(files.size() * 2);
+        AtomicInteger scanned = new AtomicInteger();
+        files.parallelStream().forEach(file -> {
+            String name = file.getFileName().toString();
+            String code = name.substring(0, name.length() - ".parquet".length());
+            try {
+                BasicFileAttributes attr = Files.readAttributes(file, BasicFileAttributes.class);
+                long size = attr.size();
+                long modified = attr.lastModifiedTime().toMillis();
+                Entry old = prev.get(code);
+                if (old != null && old.size() == size && old.modified() == modified) {
+                    next.put(code, old);
+                    return;
+                }
+                next.put(code, scan(code, file, size, modified));
+                scanned.incrementAndGet();
+            } catch (IOException e) {
+                // 쓰는 중이거나 깨진 파일 → 목록에서 제외 (갱신 대상으로 판정됨)
+                log.warn("⚠️ [{}] manifest 갱신 실패 → 제외: {}", code, e.getMessage());
+            }
+        });
+
+        boolean changed = scanned.get() > 0 || next.size() != prev.size();
+        Map<String, Entry> sorted = Collections.unmodifiableMap(new TreeMap<>(next));
+        entries = sorted;
+        if (changed || !Files.exists(dir.resolve(MANIFEST_FILE))) {
+            write(dir.resolve(MANIFEST_FILE), sorted);
+        }
+        log.info("📋 데이터 manifest 갱신: 종목={}, 재판독={}, {} ms",
+                sorted.size(), scanned.get(), System.currentTimeMillis() - started);
+        return scanned.get();
+    }
+
+    private Entry scan(String code, Path file, long size, long modified) throws IOException {
+        // 푸터만 사용 : 행 수 + Date 통계 최대값 (통계 없는 행 그룹만 Date 디코딩)
+        int rows = (int) reader.rowCount(file);
+        long max = rows == 0 ? -1 : reader.maxEpochDay(file);
+        return new Entry(code, (int) max, rows, size, modified, checksum(file));
+    }
+
+    private static long checksum(Path file) throws IOException {
+        CRC32C crc = new CRC32C();
+        ByteBuffer buf = ByteBuffer.allocateDirect(64 * 1024);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (ch.read(buf) > 0) {
+                buf.flip();
+                crc.update(buf);
+                buf.clear();
+            }
+        }
+        return crc.getValue();
+    }
+
+    // ===============================================================
+    // 💾 파일 형식
+    //    header : int32 magic / int32 version / int32 count / int32 예약 / int64 builtAt
+    //    entry  : byte[16] code / int32 lastEpochDay / int32 rows / int64 size
+    //             / int64 modified(ms) / int64 crc32c
+    // ===============================================================
+
+    private static Map<String, Entry> read(Path file) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        if (buf.getInt(0) != MAGIC) throw new IOException(MANIFEST_FILE + " 매직 불일치");
+        if (buf.getInt(4) != FORMAT_VERSION) throw new IOException(MANIFEST_FILE + " 포맷 버전 불일치");
+        int count = buf.getInt(8);
+        if (buf.capacity() < HEADER_BYTES + (long) count * ENTRY_BYTES) throw new IOException(MANIFEST_FILE + " 길이 부족");
+
+        Map<String, Entry> map = new TreeMap<>();
+        byte[] codeBuf = new byte[CODE_BYTES];
+        for (int k = 0; k < count; k++) {
+            int pos = HEADER_BYTES + k * ENTRY_BYTES;
+            buf.get(pos, codeBuf);
+            int len = 0;
+            while (len < CODE_BYTES && codeBuf[len] != 0) len++;
+            String code = new String(codeBuf, 0, len, StandardCharsets.UTF_8);
+            map.put(code, new Entry(code,
+                    buf.getInt(pos + CODE_BYTES),
+                    buf.getInt(pos + CODE_BYTES + 4),
+                    buf.getLong(pos + CODE_BYTES + 8),
+                    buf.getLong(pos + CODE_BYTES + 16),
+                    buf.getLong(pos + CODE_BYTES + 24)));
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    private static void write(Path file, Map<String, Entry> map) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_BYTES + map.size() * ENTRY_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(map.size()).putInt(0).putLong(System.currentTimeMillis());
+        for (Entry e : map.values()) {
+            buf.put(Arrays.copyOf(e.code().getBytes(StandardCharsets.UTF_8), CODE_BYTES))
+               .putInt(e.lastEpochDay()).putInt(e.rows()).putLong(e.size())
+               .putLong(e.modified()).putLong(e.checksum());
+        }
+        buf.flip();
+        Path tmp = file.resolveSibling(MANIFEST_FILE + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,61 @@
+package com.afhk.app.stock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * ===============================================================
+ * 🏆 TopNCollector (상위 N개 유지 min-heap)
+ * ---------------------------------------------------------------
+ * ✅ heap head = 현재 N위 (가장 약한 후보) → 새 후보는 head 와만 비교
+ * ✅ 메모리 O(N) : 전체 일치 목록을 모았다가 정렬하지 않음 (limit > 0 일 때)
+ * ✅ 여러 ForkJoin 워커에서 동시 offer 가능 (synchronized)
+ * ✅ limit <= 0 이면 무제한 (Python top_n=0 과 동일)
+ * ===============================================================
+ */
+public final class TopNCollector {
+
+    private final int limit;
+    private final PriorityQueue<ScreenCandidate> heap;
+    private int offered;
+
+    public TopNCollector(int limit) {
+        this.limit = limit;
+        this.heap = new PriorityQueue<>(limit > 0 ? limit + 1 : 64,
+                (a, b) -> ScreenCandidate.compareRank(b, a));
+    }
+
+    /** 후보 추가 (순위 밖이면 버림) */
+    public synchronized void offer(ScreenCandidate c) {
+        offered++;
+        if (limit <= 0 || heap.size() < limit) {
+            heap.add(c);
+            return;
+        }
+        if (ScreenCandidate.compareRank(c, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(c);
+        }
+    }
+
+    /** 현재 순위표 (1위부터) */
+    public List<ScreenCandidate> snapshot() {
+        return snapshot(limit);
+    }
+
+    /** 현재 순위표 상위 max 개 (max <= 0 이면 전체). 잠금 구간은 heap 복사만, 정렬은 잠금 밖 */
+    public List<ScreenCandidate> snapshot(int max) {
+        List<ScreenCandidate> list;
+        synchronized (this) {
+            list = new ArrayList<>(heap);
+        }
+        list.sort(ScreenCandidate::compareRank);
+        return max > 0 && list.size() > max ? new ArrayList<>(list.subList(0, max)) : list;
+    }
+
+    /** 지금까지 필터를 통과한 전체 후보 수 */
+    public synchronized int matchedCount() {
+        return offered;
+    }
+}
@@ -0,0 +1,378 @@
+package com.afhk.app.stock.backtest;
+
+import com.afhk.app.stock.AthenaScreener;
+import com.afhk.app.stock.IndicatorBuffers;
+import com.afhk.app.stock.IndicatorEngine;
+import com.afhk.app.stock.OhlcvColumnStore;
+import com.afhk.app.stock.pattern.PatternDetector;
+import com.afhk.app.stock.pattern.PatternFrame;
+import com.afhk.app.stock.pattern.PatternReport;
+import com.afhk.app.stock.pattern.PatternType;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ===============================================================
+ * 🧪 AthenaBacktester (v1.0 - Athena 필터 과거 성과 재현)
+ * ---------------------------------------------------------------
+ * ✅ 컬럼 스토어 전 종목 전체 이력에서 매 거래일을 "그날까지의 데이터로 analyze" 한 것처럼 재현
+ *    - 지표는 종목당 1회 계산 (전부 과거 값만 쓰는 인과 지표 → 그날 기준 계산과 동일)
+ *    - 그날 기준 PatternFrame (최근 ANALYZE_BARS 행) 을 복사 없이 구성 → AthenaScreener 와 같은 조건
+ * ✅ 신호 = 필터가 꺼져 있다가 켜진 날 (연속 일치 구간은 진입 1회)
+ *    → 그날 종가 진입, 보유 기간별 수익률 / 적중률(수익 > 0) / 보유 중 최대 낙폭
+ * ✅ 기준선 = 같은 기간 모든 평가일 진입 (필터의 초과 수익 비교용)
+ * ✅ 종목 단위 ForkJoin 샤드, 잎마다 primitive 누적기(BacktestStats) → 합산
+ * ⚠️ regime:* 필터는 종목별 warm-start 상태를 쓰는 마지막 봉 분류라 재현 대상에서 제외
+ * ===============================================================
+ */
+@Component
+public class AthenaBacktester {
+
+    private static final Logger log = LoggerFactory.getLogger(AthenaBacktester.class);
+
+    /** ForkJoin 분할 단위 (종목 수) */
+    static final int SHARD_SIZE = 16;
+    /** 보유 기간 최대값 (거래일) */
+    public static final int MAX_HORIZON = 250;
+
+    public static final List<String> FILTERS = List.of(
+            "ma", "all_below_ma", "goldencross", "deadcross",
+            "double_bottom", "triple_bottom", "cup_and_handle", "half_cup", "long_term_down_trend");
+
+    public static final int[] DEFAULT_HORIZONS = {5, 20, 60};
+
+    private final OhlcvColumnStore columnStore;
+    private final PatternDetector detector = new PatternDetector();
+
+    private final ForkJoinPool pool = new ForkJoinPool(
+            Runtime.getRuntime().availableProcessors(),
+            p -> {
+                ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+                t.setName("Athena-Backtest-" + t.getPoolIndex());
+                t.setDaemon(true);
+                return t;
+            },
+            null, false);
+
+    private final ThreadLocal<Worker> workers = ThreadLocal.withInitial(Worker::new);
+
+    /** 직전 결과 (같은 데이터 버전·조건이면 재사용) */
+    private record Cached(long dataVersion, List<String> filters, int years, int[] horizons,
+                          Map<String, Object> result) {}
+    private volatile Cached last;
+
+    public AthenaBacktester(OhlcvColumnStore columnStore) {
+        this.columnStore = columnStore;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public boolean isReady() {
+        return columnStore.isReady();
+    }
+
+    // ===============================================================
+    // 🚀 실행
+    // ===============================================================
+    /**
+     * @param filters  null/빈 목록이면 FILTERS 전체
+     * @param years    최근 몇 년의 신호를 평가할지 (0 이하 = 전체 이력)
+     * @param horizons 보유 기간 (거래일, 1 ~ MAX_HORIZON)
+     */
+    public Map<String, Object> run(List<String> filters, int years, int[] horizons) {
+        List<String> names = filters == null || filters.isEmpty() ? FILTERS : List.copyOf(filters);
+        for (String f : names) {
+            if (!FILTERS.contains(f)) throw new IllegalArgumentException("백테스트 미지원 필터: " + f);
+        }
+        int[] days = horizons == null || horizons.length == 0 ? DEFAULT_HORIZONS : horizons.clone();
+        Arrays.sort(days);
+        days = Arrays.stream(days).distinct().toArray();
+        if (days[0] < 1 || days[days.length - 1] > MAX_HORIZON) {
+            throw new IllegalArgumentException("보유 기간은 1 ~ " + MAX_HORIZON + " 거래일");
+        }
+
+        OhlcvColumnStore.Snapshot snap = columnStore.snapshot();
+        if (snap == null) throw new IllegalStateException("컬럼 스토어가 아직 준비되지 않았습니다.");
+
+        Cached cached = last;
+        if (cached != null && cached.dataVersion == snap.dataVersion() && cached.filters.equals(names)
+                && cached.years == years && Arrays.equals(cached.horizons, days)) {
+            return cached.result;
+        }
+
+        long started = System.currentTimeMillis();
+        Run run = new Run(snap, names, days, startDay(snap, years));
+        BacktestStats stats = pool.invoke(new Shard(run, 0, snap.tickerCount()));
+        long elapsed = System.currentTimeMillis() - started;
+
+        Map<String, Object> out = payload(run, stats, years, elapsed);
+        last = new Cached(snap.dataVersion(), names, years, days, out);
+        log.info("🧪 Athena 백테스트 완료: 필터={}, 종목={}, 평가일={}, {} ms",
+                names, run.tested.get(), stats.events[run.baseline], elapsed);
+        return out;
+    }
+
+    /** 평가 시작 epoch day (스토어 전체 최신 봉 기준 years 년 전) */
+    private static long startDay(OhlcvColumnStore.Snapshot snap, int years) {
+        if (years <= 0) return Long.MIN_VALUE;
+        int latest = Integer.MIN_VALUE;
+        for (int t = 0; t < snap.tickerCount(); t++) latest = Math.max(latest, snap.lastEpochDay(t));
+        return LocalDate.ofEpochDay(latest).minusYears(years).toEpochDay();
+    }
+
+    private static Map<String, Object> payload(Run run, BacktestStats stats, int years, long elapsed) {
+        List<Map<String, Object>> signals = new ArrayList<>();
+        for (int k = 0; k < run.filters.length; k++) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("filter", run.filters[k]);
+            m.put("signals", stats.events[k]);
+            List<Map<String, Object>> horizons = stats.summary(k, run.horizons);
+            for (int h = 0; h < horizons.size(); h++) {
+                horizons.get(h).put("excessReturn", stats.excess(k, run.baseline, h));
+            }
+            m.put("horizons", horizons);
+            signals.add(m);
+        }
+        Map<String, Object> baseline = new LinkedHashMap<>();
+        baseline.put("days", stats.events[run.baseline]);
+        baseline.put("horizons", stats.summary(run.baseline, run.horizons));
+
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("years", years);
+        out.put("from", run.startDay == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(run.startDay).toString());
+        out.put("tickers", run.tested.get());
+        out.put("skipped", run.skipped.get());
+        out.put("signals", signals);
+        out.put("baseline", baseline);
+        out.put("elapsedMs", elapsed);
+        return out;
+    }
+
+    // ===============================================================
+    // 🧵 ForkJoin 샤드
+    // ===============================================================
+
+    @SuppressWarnings("serial")   // 풀 안에서만 쓰는 종목 구간 작업, 직렬화 경로 없음
+    private final class Shard extends RecursiveTask<BacktestStats> {
+        private final Run run;
+        private final int from;
+        private final int to;
+
+        Shard(Run run, int from, int to) {
+            this.run = run;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected BacktestStats compute() {
+            if (to - from <= SHARD_SIZE) {
+                Worker w = workers.get();
+                BacktestStats stats = new BacktestStats(run.filters.length + 1, run.horizons.length);
+                for (int t = from; t < to; t++) replay(w, run, t, stats);
+                return stats;
+            }
+            int mid = (from + to) >>> 1;
+            Shard right = new Shard(run, mid, to);
+            right.fork();
+            BacktestStats left = new Shard(run, from, mid).compute();
+            return left.merge(right.join());
+        }
+    }
+
+    /** 백테스트 1회 공유 상태 */
+    private static final class Run {
+        final OhlcvColumnStore.Snapshot snap;
+        final LongBuffer dates;
+        final DoubleBuffer high;
+        final DoubleBuffer low;
+        final DoubleBuffer close;
+        final String[] filters;
+        /** 필터별 패턴 (패턴 필터가 아니면 null) */
+        final PatternType[] patterns;
+        final boolean analyzePatterns;
+        final int[] horizons;
+        final int baseline;
+        final long startDay;
+        final AtomicInteger tested = new AtomicInteger();
+        final AtomicInteger skipped = new AtomicInteger();
+
+        Run(OhlcvColumnStore.Snapshot snap, List<String> filters, int[] horizons, long startDay) {
+            this.snap = snap;
+            this.dates = snap.longs(OhlcvColumnStore.Column.DATE);
+            this.high = snap.prices(OhlcvColumnStore.Column.HIGH);
+            this.low = snap.prices(OhlcvColumnStore.Column.LOW);
+            this.close = snap.prices(OhlcvColumnStore.Column.CLOSE);
+            this.filters = filters.toArray(new String[0]);
+            this.patterns = new PatternType[this.filters.length];
+            boolean any = false;
+            for (int k = 0; k < this.filters.length; k++) {
+                patterns[k] = PatternType.fromFilterKey(this.filters[k]);
+                any |= patterns[k] != null;
+            }
+            this.analyzePatterns = any;
+            this.horizons = horizons;
+            this.baseline = this.filters.length;
+            this.startDay = startDay;
+        }
+    }
+
+    /** 워커 스레드별 재사용 버퍼 */
+    private static final class Worker {
+        final IndicatorEngine engine = new IndicatorEngine();
+        final IndicatorBuffers buffers = new IndicatorBuffers(1024);
+        long[] dates = new long[1024];
+        double[] high = new double[1024];
+        double[] low = new double[1024];
+        double[] close = new double[1024];
+        double[] ret = new double[0];
+        double[] drawdown = new double[0];
+
+        void ensure(int n, int horizons) {
+            if (ret.length != horizons) {
+                ret = new double[horizons];
+                drawdown = new double[horizons];
+            }
+            if (close.length >= n) return;
+            int cap = Math.max(n, close.length * 2);
+            dates = new long[cap];
+            high = new double[cap];
+            low = new double[cap];
+            close = new double[cap];
+        }
+    }
+
+    // ===============================================================
+    // 📐 종목 1개 재현
+    // ===============================================================
+    private void replay(Worker w, Run run, int t, BacktestStats stats) {
+        int len = run.snap.length(t);
+        if (len < AthenaScreener.MIN_RAW_BARS) return;
+
+        int off = run.snap.offset(t);
+        w.ensure(len, run.horizons.length);
+        run.dates.get(off, w.dates, 0, len);
+        run.high.get(off, w.high, 0, len);
+        run.low.get(off, w.low, 0, len);
+        run.close.get(off, w.close, 0, len);
+
+        IndicatorBuffers ind = w.engine.compute(w.close, len, w.buffers);
+        int first = ind.firstComplete();
+        if (first < 0) return;
+        if (ind.completeCount() != len - first) {
+            // 중간 결측 → 날짜별 dropna 프레임이 달라져 복사 없는 재현 불가
+            run.skipped.incrementAndGet();
+            return;
+        }
+
+        // analyze_symbol 조건 : 원본 MIN_RAW_BARS 행, dropna 후 MIN_ANALYZE_BARS 행
+        int eligible = Math.max(AthenaScreener.MIN_RAW_BARS - 1, first + AthenaScreener.MIN_ANALYZE_BARS - 1);
+        int start = Math.max(eligible, lowerBound(w.dates, len, run.startDay));
+        if (start >= len) return;
+        run.tested.incrementAndGet();
+
+        double[] sma20 = ind.sma20(), sma50 = ind.sma50(), sma200 = ind.sma200();
+        // 시작 전날 상태부터 알아야 "켜진 날" 판정 가능
+        long prev = start > eligible ? signals(run, w, sma20, sma50, sma200, first, start - 1) : 0L;
+        for (int d = start; d < len; d++) {
+            long mask = signals(run, w, sma20, sma50, sma200, first, d);
+            long onset = mask & ~prev;
+            prev = mask;
+
+            if (!outcomes(w, len, d, run.horizons)) continue;
+            stats.record(run.baseline, w.ret, w.drawdown);
+            while (onset != 0) {
+                int k = Long.numberOfTrailingZeros(onset);
+                stats.record(k, w.ret, w.drawdown);
+                onset &= onset - 1;
+            }
+        }
+    }
+
+    /** d 일 기준 필터 일치 비트마스크 (bit k = filters[k]) */
+    private long signals(Run run, Worker w, double[] sma20, double[] sma50, double[] sma200, int first, int d) {
+        int from = Math.max(first, d + 1 - AthenaScreener.ANALYZE_BARS);
+        PatternReport report = null;
+        if (run.analyzePatterns) {
+            report = detector.detect(new PatternFrame(w.high, w.low, w.close, sma20, sma50, sma200, from, d + 1));
+        }
+
+        double close = w.close[d];
+        boolean cross = d - 1 >= from;
+        long mask = 0;
+        for (int k = 0; k < run.filters.length; k++) {
+            boolean match;
+            if (run.patterns[k] != null) {
+                match = report.get(run.patterns[k]).status().isMatch();
+            } else {
+                match = switch (run.filters[k]) {
+                    case "ma" -> close > sma20[d] && close > sma50[d] && close > sma200[d];
+                    case "all_below_ma" -> close < sma20[d] && close < sma50[d] && close < sma200[d];
+                    case "goldencross" -> cross && sma50[d - 1] < sma200[d - 1] && sma50[d] > sma200[d];
+                    case "deadcross" -> cross && sma50[d - 1] > sma200[d - 1] && sma50[d] < sma200[d];
+                    default -> false;
+                };
+            }
+            if (match) mask |= 1L << k;
+        }
+        return mask;
+    }
+
+    /**
+     * d 일 종가 진입 → 보유 기간별 수익률 / 최대 낙폭 (w.ret / w.drawdown, 기간 부족 시 NaN)
+     * 낙폭 = 보유 중 (직전까지 최고 종가 대비 당일 저가) 최저값. 진입가가 유효하지 않으면 false
+     */
+    private static boolean outcomes(Worker w, int len, int d, int[] horizons) {
+        double entry = w.close[d];
+        if (!(entry > 0)) return false;
+
+        double peak = entry;
+        double dd = 0;
+        int h = 0;
+        int last = Math.min(len - 1, d + horizons[horizons.length - 1]);
+        for (int j = d + 1; j <= last; j++) {
+            double low = w.low[j];
+            // 거래정지 봉 (저가 0) 은 낙폭 계산 제외
+            if (low > 0 && low / peak - 1 < dd) dd = low / peak - 1;
+            if (w.close[j] > peak) peak = w.close[j];
+            if (j - d == horizons[h]) {
+                w.ret[h] = w.close[j] / entry - 1;
+                w.drawdown[h] = dd;
+                h++;
+            }
+        }
+        for (; h < horizons.length; h++) {
+            w.ret[h] = Double.NaN;
+            w.drawdown[h] = Double.NaN;
+        }
+        return true;
+    }
+
+    /** dates[0, len) 에서 day 이상인 첫 인덱스 */
+    private static int lowerBound(long[] dates, int len, long day) {
+        int lo = 0, hi = len;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (dates[mid] < day) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+}
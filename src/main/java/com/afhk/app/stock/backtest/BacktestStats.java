@@ -0,0 +1,122 @@
+package com.afhk.app.stock.backtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 신호 × 보유 기간별 성과 누적기 (행 = 신호, 마지막 행 = 기준선 / 열 = 보유 기간)
+ * - 모든 값은 [row * horizons + h] 평탄 primitive 배열
+ * - ForkJoin 잎 샤드마다 1개 → merge 로 합산 (잠금 없음)
+ */
+final class BacktestStats {
+
+    final int rows;
+    final int horizons;
+
+    /** 신호 발생 횟수 (보유 기간과 무관, 신호 행만) */
+    final long[] events;
+    final long[] count;
+    final long[] hits;
+    final double[] sum;
+    final double[] sumSq;
+    final double[] worst;
+    final double[] best;
+    final double[] drawdownSum;
+    final double[] drawdownMax;
+
+    BacktestStats(int rows, int horizons) {
+        this.rows = rows;
+        this.horizons = horizons;
+        int cells = rows * horizons;
+        events = new long[rows];
+        count = new long[cells];
+        hits = new long[cells];
+        sum = new double[cells];
+        sumSq = new double[cells];
+        worst = new double[cells];
+        best = new double[cells];
+        drawdownSum = new double[cells];
+        drawdownMax = new double[cells];
+        Arrays.fill(worst, Double.POSITIVE_INFINITY);
+        Arrays.fill(best, Double.NEGATIVE_INFINITY);
+    }
+
+    /** row 의 진입 1건 기록 (ret / drawdown : 보유 기간별 값, NaN = 기간 부족) */
+    void record(int row, double[] ret, double[] drawdown) {
+        events[row]++;
+        int base = row * horizons;
+        for (int h = 0; h < horizons; h++) {
+            double r = ret[h];
+            if (Double.isNaN(r)) continue;
+            int c = base + h;
+            count[c]++;
+            if (r > 0) hits[c]++;
+            sum[c] += r;
+            sumSq[c] += r * r;
+            if (r < worst[c]) worst[c] = r;
+            if (r > best[c]) best[c] = r;
+            double dd = drawdown[h];
+            drawdownSum[c] += dd;
+            if (dd < drawdownMax[c]) drawdownMax[c] = dd;
+        }
+    }
+
+    BacktestStats merge(BacktestStats o) {
+        for (int r = 0; r < rows; r++) events[r] += o.events[r];
+        for (int c = 0; c < count.length; c++) {
+            count[c] += o.count[c];
+            hits[c] += o.hits[c];
+            sum[c] += o.sum[c];
+            sumSq[c] += o.sumSq[c];
+            worst[c] = Math.min(worst[c], o.worst[c]);
+            best[c] = Math.max(best[c], o.best[c]);
+            drawdownSum[c] += o.drawdownSum[c];
+            drawdownMax[c] = Math.min(drawdownMax[c], o.drawdownMax[c]);
+        }
+        return this;
+    }
+
+    /** 응답용 보유 기간별 요약 (수익률·낙폭은 % 단위) */
+    List<Map<String, Object>> summary(int row, int[] days) {
+        List<Map<String, Object>> out = new ArrayList<>(horizons);
+        for (int h = 0; h < horizons; h++) {
+            int c = row * horizons + h;
+            long n = count[c];
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("days", days[h]);
+            m.put("count", n);
+            if (n > 0) {
+                double mean = sum[c] / n;
+                double var = n > 1 ? Math.max(0, (sumSq[c] - n * mean * mean) / (n - 1)) : 0;
+                m.put("meanReturn", pct(mean));
+                m.put("stdReturn", pct(Math.sqrt(var)));
+                m.put("hitRate", round((double) hits[c] / n));
+                m.put("worstReturn", pct(worst[c]));
+                m.put("bestReturn", pct(best[c]));
+                m.put("avgDrawdown", pct(drawdownSum[c] / n));
+                m.put("maxDrawdown", pct(drawdownMax[c]));
+            }
+            out.add(m);
+        }
+        return out;
+    }
+
+    /** 같은 보유 기간의 기준선 대비 평균 초과 수익률 (%p) */
+    Double excess(int row, int baseline, int h) {
+        long n = count[row * horizons + h];
+        long b = count[baseline * horizons + h];
+        if (n == 0 || b == 0) return null;
+        return pct(sum[row * horizons + h] / n - sum[baseline * horizons + h] / b);
+    }
+
+    private static double pct(double v) {
+        return round(v * 100);
+    }
+
+    private static double round(double v) {
+        return Math.round(v * 10_000) / 10_000.0;
+    }
+}
@@ -0,0 +1,209 @@
+package com.afhk.app.stock.market;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * ===============================================================
+ * 🧮 CorrelationMatrix (종목 간 rolling 수익률 상관 - off-heap)
+ * ---------------------------------------------------------------
+ * ✅ returns : N × W 일간 수익률 (종목 행 우선, 열은 링 버퍼 → head 가 가장 오래된 날)
+ * ✅ cross   : N × N 교차곱 합 S[i][j] = Σ r_i r_j (대칭, 양쪽 모두 기록)
+ *    sums    : 종목별 Σ r_i
+ *    → corr(i, j) = (S_ij - s_i s_j / W) / sqrt((S_ii - s_i² / W)(S_jj - s_j² / W))
+ * ✅ 전체 계산 : BLOCK × BLOCK 타일 단위 S = R·Rᵀ (상삼각 블록만 계산 후 대칭 복사)
+ *    - 타일 행을 힙 float[] 로 복사 (B 는 전치) → 안쪽 루프가 연속 메모리 axpy (자동 벡터화)
+ * ✅ 증분 : 새 거래일 1개마다 S += x xᵀ - y yᵀ (x = 새 수익률, y = 창에서 빠지는 수익률)
+ * ✅ 행렬/수익률은 allocateDirect (float) → 힙/GC 밖, 스냅샷 교체 시 통째로 버림
+ * ===============================================================
+ */
+final class CorrelationMatrix {
+
+    /** 타일 크기 (종목 수) : A/B 타일 각 BLOCK × W float + C 타일 BLOCK² float */
+    static final int BLOCK = 64;
+
+    private final String[] codes;
+    private final Map<String, Integer> byCode;
+    private final int window;
+    /** 창을 이루는 거래일 (epoch day, window + 1 개 : 첫 날은 수익률 기준가) */
+    private long[] calendar;
+
+    private final FloatBuffer returns;
+    private final FloatBuffer cross;
+    private final double[] sums;
+    private int head;
+    /** 마지막 전체 계산 이후 증분 반영한 거래일 수 */
+    private int increments;
+
+    private CorrelationMatrix(String[] codes, int window, long[] calendar) {
+        this.codes = codes;
+        this.window = window;
+        this.calendar = calendar;
+        this.byCode = new HashMap<>(codes.length * 2);
+        for (int i = 0; i < codes.length; i++) byCode.put(codes[i], i);
+        int n = codes.length;
+        this.returns = ByteBuffer.allocateDirect(n * window * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer();
+        this.cross = ByteBuffer.allocateDirect(n * n * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer();
+        this.sums = new double[n];
+    }
+
+    /**
+     * 전체 계산
+     * @param rows 종목별 수익률 (각 길이 window, 오래된 날부터)
+     */
+    static CorrelationMatrix compute(List<String> codes, List<float[]> rows, int window, long[] calendar,
+                                     ForkJoinPool pool) {
+        CorrelationMatrix m = new CorrelationMatrix(codes.toArray(new String[0]), window, calendar);
+        int n = m.codes.length;
+        for (int i = 0; i < n; i++) {
+            float[] r = rows.get(i);
+            m.returns.put(i * window, r, 0, window);
+            double s = 0;
+            for (float v : r) s += v;
+            m.sums[i] = s;
+        }
+
+        int blocks = (n + BLOCK - 1) / BLOCK;
+        int pairs = blocks * (blocks + 1) / 2;
+        ThreadLocal<Tiles> tiles = ThreadLocal.withInitial(() -> new Tiles(window));
+        pool.submit(() -> IntStream.range(0, pairs).parallel().forEach(p -> {
+            // p → (bi, bj), bi <= bj (상삼각 블록 순서)
+            int bi = 0, rest = p;
+            while (rest >= blocks - bi) {
+                rest -= blocks - bi;
+                bi++;
+            }
+            m.multiplyBlock(tiles.get(), bi, bi + rest);
+        })).join();
+        return m;
+    }
+
+    /** 타일 작업 공간 (스레드별) */
+    private static final class Tiles {
+        final float[] a;
+        final float[] bt;
+        final float[] c = new float[BLOCK * BLOCK];
+
+        Tiles(int window) {
+            a = new float[BLOCK * window];
+            bt = new float[window * BLOCK];
+        }
+    }
+
+    /** S[bi 블록][bj 블록] = A · Bᵀ → cross 에 (대칭 포함) 기록 */
+    private void multiplyBlock(Tiles t, int bi, int bj) {
+        int n = codes.length;
+        int i0 = bi * BLOCK, ni = Math.min(BLOCK, n - i0);
+        int j0 = bj * BLOCK, nj = Math.min(BLOCK, n - j0);
+        int w = window;
+
+        returns.get(i0 * w, t.a, 0, ni * w);
+        // B 전치 : bt[k * BLOCK + j] = R[j0 + j][k]
+        for (int j = 0; j < nj; j++) {
+            int base = (j0 + j) * w;
+            for (int k = 0; k < w; k++) t.bt[k * BLOCK + j] = returns.get(base + k);
+        }
+
+        float[] a = t.a, bt = t.bt, c = t.c;
+        Arrays.fill(c, 0f);
+        for (int i = 0; i < ni; i++) {
+            int ci = i * BLOCK;
+            int ai = i * w;
+            for (int k = 0; k < w; k++) {
+                float av = a[ai + k];
+                int bk = k * BLOCK;
+                for (int j = 0; j < nj; j++) c[ci + j] += av * bt[bk + j];
+            }
+        }
+
+        for (int i = 0; i < ni; i++) {
+            cross.put((i0 + i) * n + j0, c, i * BLOCK, nj);
+            if (bi != bj) {
+                for (int j = 0; j < nj; j++) cross.put((j0 + j) * n + i0 + i, c[i * BLOCK + j]);
+            }
+        }
+    }
+
+    /**
+     * 거래일 1개 증분 : 가장 오래된 수익률 열을 x 로 교체하고 S 를 rank-2 갱신
+     * @param x    새 거래일 종목별 수익률 (codes 순서)
+     * @param day  새 거래일 (epoch day)
+     */
+    void advance(float[] x, long day, ForkJoinPool pool) {
+        int n = codes.length;
+        int w = window;
+        float[] y = new float[n];
+        for (int i = 0; i < n; i++) {
+            int slot = i * w + head;
+            y[i] = returns.get(slot);
+            returns.put(slot, x[i]);
+            sums[i] += x[i] - y[i];
+        }
+        head = (head + 1) % w;
+
+        pool.submit(() -> IntStream.range(0, n).parallel().forEach(i -> {
+            float xi = x[i], yi = y[i];
+            int row = i * n;
+            for (int j = 0; j < n; j++) {
+                cross.put(row + j, cross.get(row + j) + xi * x[j] - yi * y[j]);
+            }
+        })).join();
+
+        long[] next = Arrays.copyOfRange(calendar, 1, calendar.length + 1);
+        next[next.length - 1] = day;
+        calendar = next;
+        increments++;
+    }
+
+    // ===============================================================
+    // 🔍 조회
+    // ===============================================================
+
+    int size() { return codes.length; }
+    int window() { return window; }
+    String code(int i) { return codes[i]; }
+    long[] calendar() { return calendar; }
+    int increments() { return increments; }
+
+    /** 종목 인덱스 (상관 계산 대상이 아니면 -1) */
+    int indexOf(String code) {
+        Integer i = byCode.get(code);
+        return i == null ? -1 : i;
+    }
+
+    /** 같은 종목 구성인지 (증분 가능 여부 판단) */
+    boolean sameCodes(List<String> other) {
+        if (other.size() != codes.length) return false;
+        for (int i = 0; i < codes.length; i++) {
+            if (!codes[i].equals(other.get(i))) return false;
+        }
+        return true;
+    }
+
+    /** 피어슨 상관 (분산 0 이면 NaN) */
+    double correlation(int i, int j) {
+        int n = codes.length;
+        double w = window;
+        double cov = cross.get(i * n + j) - sums[i] * sums[j] / w;
+        double vi = cross.get(i * n + i) - sums[i] * sums[i] / w;
+        double vj = cross.get(j * n + j) - sums[j] * sums[j] / w;
+        if (!(vi > 0) || !(vj > 0)) return Double.NaN;
+        double r = cov / Math.sqrt(vi * vj);
+        return Math.max(-1, Math.min(1, r));
+    }
+
+    /** i 행 전체 상관 (i 자신은 NaN) */
+    double[] row(int i) {
+        int n = codes.length;
+        double[] out = new double[n];
+        for (int j = 0; j < n; j++) out[j] = j == i ? Double.NaN : correlation(i, j);
+        return out;
+    }
+}
@@ -0,0 +1,523 @@
+package com.afhk.app.stock.market;
+
+import com.afhk.app.stock.OhlcvColumnStore;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * ===============================================================
+ * 🌐 MarketAnalytics (v1.0 - 전 종목 횡단면 분석)
+ * ---------------------------------------------------------------
+ * ✅ 종목 간 rolling 수익률 상관 (CorrelationMatrix, off-heap float)
+ *    - 공통 거래일 달력 최근 window + 1 일을 모두 가진 종목만 대상 (정지/신규 상장 제외)
+ *    - 새 스냅샷이 기존 달력을 k 일 민 것이고 종목 구성이 같으면 거래일별 rank-2 증분
+ *      그 외(종목 변동, window 변경, 증분 누적 window 일) → 전체 블록 행렬곱 재계산
+ * ✅ 시장(KOSPI/KOSDAQ...) · 업종(Sector) 집계 : stock_listing.json Marcap 가중
+ *    - 1일 / 20일 시가총액 가중 수익률, 동일 가중 1일 수익률, 상승/하락 종목 수
+ *    - breadth : SMA50 / SMA200 위 종목 비율 (컬럼 스토어 종가로 직접 계산)
+ * ✅ 컬럼 스토어 세대 교체/append 시 "Market-Analytics" 스레드에서 자동 갱신
+ * ===============================================================
+ */
+@Component
+public class MarketAnalytics {
+
+    private static final Logger log = LoggerFactory.getLogger(MarketAnalytics.class);
+
+    public static final int MIN_WINDOW = 20;
+    public static final int MAX_WINDOW = 500;
+    /** 달력에 포함할 거래일 : 최다 종목 수 대비 이 비율 이상이 거래한 날 */
+    private static final double CALENDAR_QUORUM = 0.5;
+    private static final String UNCLASSIFIED = "미분류";
+
+    private final OhlcvColumnStore columnStore;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Value("${python.stock.json.path:}")
+    private String listingPath;
+
+    @Value("${python.stock.correlation.window:120}")
+    private int defaultWindow;
+
+    private final ForkJoinPool pool = new ForkJoinPool(
+            Runtime.getRuntime().availableProcessors(),
+            p -> {
+                ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+                t.setName("Market-Corr-" + t.getPoolIndex());
+                t.setDaemon(true);
+                return t;
+            },
+            null, false);
+
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "Market-Analytics");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** 증분 갱신(advance) 중 조회 차단 */
+    private final ReentrantReadWriteLock matrixLock = new ReentrantReadWriteLock();
+
+    private volatile CorrelationMatrix matrix;
+    private volatile Map<String, Object> aggregates;
+    private volatile long dataVersion;
+
+    /** 종목 리스트 파싱 결과 (파일 수정 시각 기준 재사용) */
+    private record ListingItem(String code, String name, String market, String sector, double marcap) {}
+    private record Listing(long modified, List<ListingItem> items) {}
+    private volatile Listing listing;
+
+    public MarketAnalytics(OhlcvColumnStore columnStore) {
+        this.columnStore = columnStore;
+    }
+
+    @PostConstruct
+    public void init() {
+        columnStore.addListener(snap -> refreshExecutor.submit(() -> refreshQuietly(snap, 0)));
+        OhlcvColumnStore.Snapshot snap = columnStore.snapshot();
+        if (snap != null) refreshExecutor.submit(() -> refreshQuietly(snap, 0));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    public boolean isReady() {
+        return aggregates != null;
+    }
+
+    // ===============================================================
+    // 🔁 갱신
+    // ===============================================================
+
+    private void refreshQuietly(OhlcvColumnStore.Snapshot snap, int window) {
+        try {
+            refresh(snap, window);
+        } catch (Exception e) {
+            log.error("❌ 시장 분석 갱신 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    /** 현재 스냅샷으로 즉시 갱신 (window 지정 시 해당 window 로 전체 재계산, 0 이하 = 현재 window 증분). 반환: 요약 */
+    public Map<String, Object> refresh(int window) {
+        OhlcvColumnStore.Snapshot snap = columnStore.snapshot();
+        if (snap == null) throw new IllegalStateException("컬럼 스토어가 아직 준비되지 않았습니다.");
+        if (window > 0 && (window < MIN_WINDOW || window > MAX_WINDOW)) {
+            throw new IllegalArgumentException("window 는 " + MIN_WINDOW + " ~ " + MAX_WINDOW + " 거래일");
+        }
+        return refresh(snap, window);
+    }
+
+    private synchronized Map<String, Object> refresh(OhlcvColumnStore.Snapshot snap, int requestedWindow) {
+        long started = System.currentTimeMillis();
+        CorrelationMatrix current = matrix;
+        int window = requestedWindow > 0 ? requestedWindow
+                : current != null ? current.window() : Math.max(MIN_WINDOW, Math.min(MAX_WINDOW, defaultWindow));
+
+        LongBuffer dates = snap.longs(OhlcvColumnStore.Column.DATE);
+        DoubleBuffer close = snap.prices(OhlcvColumnStore.Column.CLOSE);
+
+        // 1. 상관 행렬 (증분 가능하면 증분)
+        long[] calendar = calendar(snap, dates, window + 1);
+        String mode = "skipped";
+        if (calendar.length == window + 1) {
+            List<String> codes = new ArrayList<>();
+            List<Integer> ends = new ArrayList<>();   // 종목별 달력 마지막 날 행 (절대 인덱스)
+            for (int t = 0; t < snap.tickerCount(); t++) {
+                int end = alignedEnd(snap, dates, t, calendar);
+                if (end >= 0) {
+                    codes.add(snap.code(t));
+                    ends.add(end);
+                }
+            }
+
+            // 명시 요청(window 지정)은 항상 전체 재계산
+            int shift = requestedWindow > 0 || current == null || current.window() != window || !current.sameCodes(codes)
+                    || current.increments() >= window ? -1 : shift(current.calendar(), calendar);
+            if (shift == 0) {
+                mode = "unchanged";
+            } else if (shift > 0) {
+                matrixLock.writeLock().lock();
+                try {
+                    for (int d = window + 1 - shift; d <= window; d++) {
+                        float[] x = new float[ends.size()];
+                        for (int i = 0; i < x.length; i++) x[i] = dayReturn(close, ends.get(i) + d - window);
+                        current.advance(x, calendar[d], pool);
+                    }
+                } finally {
+                    matrixLock.writeLock().unlock();
+                }
+                mode = "incremental+" + shift;
+            } else {
+                List<float[]> rows = new ArrayList<>(ends.size());
+                for (int end : ends) {
+                    float[] r = new float[window];
+                    for (int k = 0; k < window; k++) r[k] = dayReturn(close, end + k + 1 - window);
+                    rows.add(r);
+                }
+                matrix = CorrelationMatrix.compute(codes, rows, window, calendar, pool);
+                mode = "full";
+            }
+        }
+
+        // 2. 시장 / 업종 집계 (기준일 = 달력 마지막 거래일, 일부 종목만 있는 날짜는 무시)
+        aggregates = aggregate(snap, dates, close,
+                calendar.length == 0 ? Long.MIN_VALUE : calendar[calendar.length - 1]);
+        dataVersion = snap.dataVersion();
+
+        CorrelationMatrix m = matrix;
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("dataVersion", dataVersion);
+        out.put("correlation", mode);
+        out.put("window", m == null ? null : m.window());
+        out.put("tickers", m == null ? 0 : m.size());
+        out.put("asOf", m == null ? null : LocalDate.ofEpochDay(m.calendar()[window]).toString());
+        out.put("elapsedMs", System.currentTimeMillis() - started);
+        log.info("🌐 시장 분석 갱신: 상관={}, window={}, 종목={}, {} ms",
+                mode, window, out.get("tickers"), out.get("elapsedMs"));
+        return out;
+    }
+
+    /**
+     * 공통 거래일 달력 : 종목별 최근 size 일 날짜를 모아 정족수(CALENDAR_QUORUM) 이상 거래한 날만 → 마지막 size 개
+     * (일부 종목의 이상 날짜가 전체 달력을 깨지 않도록)
+     */
+    private static long[] calendar(OhlcvColumnStore.Snapshot snap, LongBuffer dates, int size) {
+        int total = 0;
+        for (int t = 0; t < snap.tickerCount(); t++) total += Math.min(size, snap.length(t));
+        long[] all = new long[total];
+        int k = 0;
+        for (int t = 0; t < snap.tickerCount(); t++) {
+            int len = snap.length(t), n = Math.min(size, len);
+            dates.get(snap.offset(t) + len - n, all, k, n);
+            k += n;
+        }
+        Arrays.sort(all);
+
+        long[] days = new long[all.length];
+        int[] counts = new int[all.length];
+        int distinct = 0, max = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (distinct == 0 || days[distinct - 1] != all[i]) days[distinct++] = all[i];
+            max = Math.max(max, ++counts[distinct - 1]);
+        }
+        long[] kept = new long[distinct];
+        int m = 0;
+        for (int i = 0; i < distinct; i++) {
+            if (counts[i] >= max * CALENDAR_QUORUM) kept[m++] = days[i];
+        }
+        return Arrays.copyOfRange(kept, Math.max(0, m - size), m);
+    }
+
+    /**
+     * 종목 이력에서 달력 구간이 빠짐없이 이어지는지 → 달력 마지막 날 행 (절대 인덱스, 아니면 -1)
+     * (달력 이후 봉이 더 있는 종목도 해당 구간으로 정렬해 포함)
+     */
+    private static int alignedEnd(OhlcvColumnStore.Snapshot snap, LongBuffer dates, int t, long[] calendar) {
+        int end = lastAtOrBefore(dates, snap.offset(t), snap.length(t), calendar[calendar.length - 1]);
+        int start = end - calendar.length + 1;
+        if (end < 0 || start < snap.offset(t)) return -1;
+        for (int i = 0; i < calendar.length; i++) {
+            if (dates.get(start + i) != calendar[i]) return -1;
+        }
+        return end;
+    }
+
+    /** 종목 구간 [off, off + len) 에서 날짜가 day 이하인 마지막 행 (절대 인덱스, 없으면 -1) */
+    private static int lastAtOrBefore(LongBuffer dates, int off, int len, long day) {
+        int lo = off, hi = off + len;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (dates.get(mid) <= day) lo = mid + 1; else hi = mid;
+        }
+        return lo - 1 >= off ? lo - 1 : -1;
+    }
+
+    /** 이전 달력을 몇 일 민 것인지 (0 = 동일, -1 = 이어지지 않음) */
+    private static int shift(long[] prev, long[] next) {
+        int n = prev.length;
+        for (int k = 0; k < n; k++) {
+            boolean match = true;
+            for (int i = 0; i + k < n && match; i++) match = prev[i + k] == next[i];
+            if (match) return k;
+        }
+        return -1;
+    }
+
+    /** row 행 일간 수익률 (기준가가 0 이하/NaN 이면 0) */
+    private static float dayReturn(DoubleBuffer close, int row) {
+        double prev = close.get(row - 1), cur = close.get(row);
+        double r = cur / prev - 1;
+        return prev > 0 && Double.isFinite(r) ? (float) r : 0f;
+    }
+
+    // ===============================================================
+    // 📊 시장 / 업종 집계
+    // ===============================================================
+
+    /** 집계 누적기 (그룹 1개) */
+    private static final class Group {
+        int count, priced, advancers, decliners, sma50Known, aboveSma50, sma200Known, aboveSma200;
+        double marcap, weight1d, weighted1d, sum1d, weight20d, weighted20d;
+
+        void add(double cap, double r1, double r20, int above50, int above200) {
+            count++;
+            if (cap > 0) marcap += cap;
+            if (!Double.isNaN(r1)) {
+                priced++;
+                sum1d += r1;
+                if (r1 > 0) advancers++;
+                else if (r1 < 0) decliners++;
+                if (cap > 0) {
+                    weight1d += cap;
+                    weighted1d += cap * r1;
+                }
+            }
+            if (!Double.isNaN(r20) && cap > 0) {
+                weight20d += cap;
+                weighted20d += cap * r20;
+            }
+            if (above50 >= 0) {
+                sma50Known++;
+                aboveSma50 += above50;
+            }
+            if (above200 >= 0) {
+                sma200Known++;
+                aboveSma200 += above200;
+            }
+        }
+
+        Map<String, Object> toMap(String name) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("name", name);
+            m.put("count", count);
+            m.put("marcap", marcap);
+            m.put("capWeightedReturn1d", weight1d > 0 ? pct(weighted1d / weight1d) : null);
+            m.put("equalWeightedReturn1d", priced > 0 ? pct(sum1d / priced) : null);
+            m.put("capWeightedReturn20d", weight20d > 0 ? pct(weighted20d / weight20d) : null);
+            m.put("advancers", advancers);
+            m.put("decliners", decliners);
+            m.put("pctAboveSma50", sma50Known > 0 ? pct((double) aboveSma50 / sma50Known) : null);
+            m.put("pctAboveSma200", sma200Known > 0 ? pct((double) aboveSma200 / sma200Known) : null);
+            return m;
+        }
+    }
+
+    private Map<String, Object> aggregate(OhlcvColumnStore.Snapshot snap, LongBuffer dates, DoubleBuffer close,
+                                          long asOf) {
+        Group all = new Group();
+        Map<String, Group> markets = new TreeMap<>();
+        Map<String, Group> sectors = new TreeMap<>();
+        for (ListingItem item : loadListing()) {
+            int t = snap.indexOf(item.code());
+            if (t < 0 || snap.length(t) < 2) continue;
+            int off = snap.offset(t);
+
+            // 기준일 이하 마지막 봉 기준 (기준일에 거래하지 않은 종목은 수익률 제외, breadth 만)
+            int row = asOf == Long.MIN_VALUE ? off + snap.length(t) - 1 : lastAtOrBefore(dates, off, snap.length(t), asOf);
+            if (row <= off) continue;
+            int len = row - off + 1;
+            boolean traded = asOf == Long.MIN_VALUE || dates.get(row) == asOf;
+            double c = close.get(row);
+            double r1 = traded ? c / close.get(row - 1) - 1 : Double.NaN;
+            double r20 = traded && len > 20 ? c / close.get(row - 20) - 1 : Double.NaN;
+            if (!Double.isFinite(r1)) r1 = Double.NaN;
+            if (!Double.isFinite(r20)) r20 = Double.NaN;
+            int above50 = above(close, off, len, 50, c);
+            int above200 = above(close, off, len, 200, c);
+
+            all.add(item.marcap(), r1, r20, above50, above200);
+            markets.computeIfAbsent(item.market(), k -> new Group()).add(item.marcap(), r1, r20, above50, above200);
+            sectors.computeIfAbsent(item.sector(), k -> new Group()).add(item.marcap(), r1, r20, above50, above200);
+        }
+
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("asOf", asOf == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(asOf).toString());
+        out.put("all", all.toMap("ALL"));
+        out.put("markets", markets.entrySet().stream().map(e -> e.getValue().toMap(e.getKey())).toList());
+        out.put("sectors", sectors.entrySet().stream().map(e -> e.getValue().toMap(e.getKey())).toList());
+        return Collections.unmodifiableMap(out);
+    }
+
+    /** 종가 > SMA(period) 이면 1, 아니면 0, 봉 부족이면 -1 */
+    private static int above(DoubleBuffer close, int off, int len, int period, double c) {
+        if (len < period) return -1;
+        double sum = 0;
+        for (int i = off + len - period; i < off + len; i++) sum += close.get(i);
+        return c > sum / period ? 1 : 0;
+    }
+
+    // ===============================================================
+    // 🔍 조회
+    // ===============================================================
+
+    /** 시장 / 업종 집계 (아직 계산 전이면 null) */
+    public Map<String, Object> aggregates() {
+        return aggregates;
+    }
+
+    /** symbol 과 상관 높은/낮은 종목 top 개씩 (상관 대상이 아니면 null) */
+    public Map<String, Object> peers(String symbol, int top) {
+        matrixLock.readLock().lock();
+        try {
+            CorrelationMatrix m = matrix;
+            int i = m == null ? -1 : m.indexOf(symbol);
+            if (i < 0) return null;
+
+            double[] row = m.row(i);
+            Integer[] order = new Integer[row.length];
+            for (int j = 0; j < order.length; j++) order[j] = j;
+            Arrays.sort(order, (a, b) -> Double.compare(sortKey(row[b]), sortKey(row[a])));
+
+            int k = Math.max(1, Math.min(top, row.length));
+            Map<String, String> names = names();
+            List<Map<String, Object>> highest = new ArrayList<>();
+            List<Map<String, Object>> lowest = new ArrayList<>();
+            for (int r = 0; r < order.length && highest.size() < k; r++) {
+                if (!Double.isNaN(row[order[r]])) highest.add(peer(m, names, order[r], row[order[r]]));
+            }
+            for (int r = order.length - 1; r >= 0 && lowest.size() < k; r--) {
+                if (!Double.isNaN(row[order[r]])) lowest.add(peer(m, names, order[r], row[order[r]]));
+            }
+
+            Map<String, Object> out = new LinkedHashMap<>();
+            out.put("symbol", symbol);
+            out.put("window", m.window());
+            out.put("asOf", LocalDate.ofEpochDay(m.calendar()[m.window()]).toString());
+            out.put("highest", highest);
+            out.put("lowest", lowest);
+            return out;
+        } finally {
+            matrixLock.readLock().unlock();
+        }
+    }
+
+    /** 지정 종목들의 상관 부분 행렬 (대상이 아닌 종목은 missing 으로 분리, 행렬 미계산이면 null) */
+    public Map<String, Object> matrix(List<String> symbols) {
+        matrixLock.readLock().lock();
+        try {
+            CorrelationMatrix m = matrix;
+            if (m == null) return null;
+
+            List<String> found = new ArrayList<>();
+            List<String> missing = new ArrayList<>();
+            List<Integer> idx = new ArrayList<>();
+            for (String s : symbols) {
+                int i = m.indexOf(s);
+                if (i < 0) missing.add(s);
+                else {
+                    found.add(s);
+                    idx.add(i);
+                }
+            }
+            List<List<Double>> values = new ArrayList<>();
+            for (int a : idx) {
+                List<Double> row = new ArrayList<>(idx.size());
+                for (int b : idx) row.add(a == b ? 1.0 : round(m.correlation(a, b)));
+                values.add(row);
+            }
+
+            Map<String, Object> out = new LinkedHashMap<>();
+            out.put("window", m.window());
+            out.put("asOf", LocalDate.ofEpochDay(m.calendar()[m.window()]).toString());
+            out.put("symbols", found);
+            out.put("missing", missing);
+            out.put("matrix", values);
+            return out;
+        } finally {
+            matrixLock.readLock().unlock();
+        }
+    }
+
+    public long dataVersion() {
+        return dataVersion;
+    }
+
+    private static Map<String, Object> peer(CorrelationMatrix m, Map<String, String> names, int j, double r) {
+        Map<String, Object> p = new LinkedHashMap<>();
+        p.put("ticker", m.code(j));
+        p.put("name", names.getOrDefault(m.code(j), m.code(j)));
+        p.put("correlation", round(r));
+        return p;
+    }
+
+    private static double sortKey(double r) {
+        return Double.isNaN(r) ? Double.NEGATIVE_INFINITY : r;
+    }
+
+    private static Double round(double v) {
+        return Double.isNaN(v) ? null : Math.round(v * 10_000) / 10_000.0;
+    }
+
+    private static double pct(double v) {
+        return Math.round(v * 100 * 10_000) / 10_000.0;
+    }
+
+    // ===============================================================
+    // 📋 종목 리스트
+    // ===============================================================
+
+    private Map<String, String> names() {
+        Map<String, String> names = new HashMap<>();
+        for (ListingItem item : loadListing()) names.put(item.code(), item.name());
+        return names;
+    }
+
+    /** stock_listing.json → 코드/이름/시장/업종/시가총액 (파일 수정 시각 기준 재사용) */
+    private List<ListingItem> loadListing() {
+        File file = listingPath == null || listingPath.isBlank() ? null : new File(listingPath);
+        if (file == null || !file.isFile()) return List.of();
+        Listing cached = listing;
+        if (cached != null && cached.modified == file.lastModified()) return cached.items;
+        try {
+            List<Map<String, Object>> list = mapper.readValue(file, new TypeReference<List<Map<String, Object>>>() {});
+            List<ListingItem> items = new ArrayList<>(list.size());
+            for (Map<String, Object> m : list) {
+                Object code = m.get("Code") != null ? m.get("Code") : m.get("code");
+                if (code == null) continue;
+                items.add(new ListingItem(code.toString(), text(m.get("Name")), group(m.get("Market")),
+                        group(m.get("Sector")), m.get("Marcap") instanceof Number n ? n.doubleValue() : 0));
+            }
+            items = List.copyOf(items);
+            listing = new Listing(file.lastModified(), items);
+            return items;
+        } catch (IOException e) {
+            log.error("⚠️ 종목 리스트 파일 로드 실패: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    private static String text(Object v) {
+        return v == null ? null : v.toString();
+    }
+
+    private static String group(Object v) {
+        return v == null || v.toString().isBlank() ? UNCLASSIFIED : v.toString();
+    }
+}
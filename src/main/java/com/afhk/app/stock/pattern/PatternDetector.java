@@ -0,0 +1,233 @@
+package com.afhk.app.stock.pattern;
+
+/**
+ * ===============================================================
+ * 🔍 PatternDetector (v1.0 - athena_k_market_ai_prod.py 패턴 로직 이식)
+ * ---------------------------------------------------------------
+ * ✅ find_double_bottom / find_triple_bottom / find_cup_and_handle
+ *    / find_half_cup_waist / find_long_term_down_trend 와 동일 조건·상수
+ * ✅ 봉우리/골짜기 : PeakFinder (find_peaks prominence=std*0.005, width=3)
+ * ✅ 상태값 'Breakout' / 'Potential' / 'Downward' / 'None' 동일
+ * ✅ 상태 없음(stateless) → 여러 스레드에서 공유 가능
+ * ---------------------------------------------------------------
+ * 🔥 입력 프레임 = Python df
+ *    - analyze : dropna 후 최근 250행 / chart : dropna 후 전체
+ *    - 모든 패턴은 프레임 250행 미만이면 'None'
+ * ===============================================================
+ */
+public final class PatternDetector {
+
+    public static final int LOOKBACK = 250;
+    public static final double PROMINENCE_RATIO = 0.005;
+    public static final double PEAK_WIDTH = 3;
+
+    // ============================================================
+    // 🚀 전체 패턴 감지 (check_ma_conditions 의 패턴 분석 단계)
+    // ============================================================
+
+    public PatternReport detect(PatternFrame f) {
+        PatternMatch[] out = new PatternMatch[PatternType.values().length];
+        if (f.length() < LOOKBACK) {
+            for (PatternType t : PatternType.values()) out[t.ordinal()] = PatternMatch.none(t);
+            return new PatternReport(out);
+        }
+
+        int from = f.to - LOOKBACK;
+        double std = PeakFinder.sampleStd(f.close, from, f.to);
+        double prominence = std * PROMINENCE_RATIO;
+        int[] peaks = PeakFinder.peaks(f.close, from, f.to, prominence, PEAK_WIDTH);
+        int[] troughs = PeakFinder.troughs(f.close, from, f.to, prominence, PEAK_WIDTH);
+
+        out[PatternType.DOUBLE_BOTTOM.ordinal()] = doubleBottom(f, troughs);
+        out[PatternType.TRIPLE_BOTTOM.ordinal()] = tripleBottom(f, troughs);
+        out[PatternType.CUP_AND_HANDLE.ordinal()] = cupAndHandle(f, peaks, troughs);
+        out[PatternType.HALF_CUP.ordinal()] = halfCupWaist(f);
+        out[PatternType.LONG_TERM_DOWN_TREND.ordinal()] = longTermDownTrend(f);
+        return new PatternReport(out);
+    }
+
+    // ============================================================
+    // 1. MA 장기 하락 추세
+    // ============================================================
+    PatternMatch longTermDownTrend(PatternFrame f) {
+        PatternType type = PatternType.LONG_TERM_DOWN_TREND;
+        if (f.length() < LOOKBACK) return PatternMatch.none(type);
+
+        double close = f.close(-1);
+        double sma20 = f.sma20(-1);
+        double sma50 = f.sma50(-1);
+        double sma200 = f.sma200(-1);
+
+        // 200일선 우하향 (iloc[-20] 과 비교)
+        boolean ma200Down = sma200 < f.sma200(-20);
+        // 완전 역배열 (현재가 < 20 < 50 < 200)
+        boolean perfectReverse = close < sma20 && sma20 < sma50 && sma50 < sma200;
+        // 200일선 이격도
+        double dropDist = (sma200 - close) / sma200;
+
+        if (ma200Down && perfectReverse && dropDist > 0.20) {
+            return new PatternMatch(type, true, sma200, PatternStatus.DOWNWARD, dropDist * 100);
+        }
+        return PatternMatch.none(type);
+    }
+
+    // ============================================================
+    // 2. 이중 바닥 (최근 1년 최저가 5% 이내, 바닥 간 오차 2% 이내)
+    // ============================================================
+    PatternMatch doubleBottom(PatternFrame f, int[] troughs) {
+        PatternType type = PatternType.DOUBLE_BOTTOM;
+        if (f.length() < LOOKBACK) return PatternMatch.none(type);
+
+        double absoluteLow = min(f.low, f.to - LOOKBACK, f.to);
+
+        int[] recent = recentTroughs(troughs, f.to - 150, 2);
+        if (recent == null) return PatternMatch.none(type);
+
+        int idx1 = recent[0];
+        int idx2 = recent[1];
+        double p1 = f.close[idx1];
+        double p2 = f.close[idx2];
+
+        if (!(p1 <= absoluteLow * 1.05 && p2 <= absoluteLow * 1.05)) return PatternMatch.none(type);
+        if (Math.abs(p1 - p2) / Math.min(p1, p2) > 0.02) return PatternMatch.none(type);
+
+        double interimHigh = max(f.close, idx1, idx2);
+        double current = f.close(-1);
+
+        // 넥라인 근처에서 이제 막 고개 드는 종목만
+        if (interimHigh * 0.85 <= current && current <= interimHigh * 1.10) {
+            return new PatternMatch(type, true, interimHigh, PatternStatus.POTENTIAL, interimHigh);
+        }
+        return PatternMatch.none(type);
+    }
+
+    // ============================================================
+    // 3. 삼중 바닥 (세 바닥 모두 최저가 7% 이내, 수평 오차 3% 이내)
+    // ============================================================
+    PatternMatch tripleBottom(PatternFrame f, int[] troughs) {
+        PatternType type = PatternType.TRIPLE_BOTTOM;
+        if (f.length() < LOOKBACK) return PatternMatch.none(type);
+
+        double absoluteLow = min(f.low, f.to - LOOKBACK, f.to);
+
+        int[] recent = recentTroughs(troughs, f.to - 200, 3);
+        if (recent == null) return PatternMatch.none(type);
+
+        int idx1 = recent[0];
+        int idx3 = recent[2];
+        double hi = Double.NEGATIVE_INFINITY;
+        double lo = Double.POSITIVE_INFINITY;
+        for (int idx : recent) {
+            double p = f.close[idx];
+            if (!(p <= absoluteLow * 1.07)) return PatternMatch.none(type);
+            hi = Math.max(hi, p);
+            lo = Math.min(lo, p);
+        }
+        if ((hi - lo) / lo > 0.03) return PatternMatch.none(type);
+
+        double neckline = max(f.close, idx1, idx3);
+        double current = f.close(-1);
+
+        if (neckline * 0.8 <= current && current <= neckline * 1.15) {
+            return new PatternMatch(type, true, neckline, PatternStatus.POTENTIAL, neckline);
+        }
+        return PatternMatch.none(type);
+    }
+
+    // ============================================================
+    // 4. 컵 앤 핸들 (깊이 30%↑, 회복률 25~55%, 20일선 위 안착)
+    // ============================================================
+    PatternMatch cupAndHandle(PatternFrame f, int[] peaks, int[] troughs) {
+        PatternType type = PatternType.CUP_AND_HANDLE;
+        if (f.length() < LOOKBACK) return PatternMatch.none(type);
+
+        double peakPrice = max(f.high, f.to - LOOKBACK, f.to);
+        double troughPrice = min(f.low, f.to - LOOKBACK, f.to);
+        double current = f.close(-1);
+
+        double cupDepthPct = (peakPrice - troughPrice) / peakPrice;
+        if (cupDepthPct < 0.30) return PatternMatch.none(type);
+
+        double recoveryRate = (current - troughPrice) / (peakPrice - troughPrice);
+        boolean earlyCup = 0.25 <= recoveryRate && recoveryRate <= 0.55;
+
+        if (earlyCup && current > f.sma20(-1)) {
+            // 랭킹 점수: 컵이 깊고 회복이 적절할수록 높음 (Python 결과 키: ch_neckline_price)
+            double score = (cupDepthPct * 100) + (recoveryRate * 50);
+            return new PatternMatch(type, true, peakPrice, PatternStatus.POTENTIAL, score);
+        }
+        return PatternMatch.none(type);
+    }
+
+    // ============================================================
+    // 5. 하프컵 허리 (L자형 바닥 탈출)
+    // ============================================================
+    PatternMatch halfCupWaist(PatternFrame f) {
+        PatternType type = PatternType.HALF_CUP;
+        if (f.length() < LOOKBACK) return PatternMatch.none(type);
+
+        double peakPrice = max(f.high, f.to - LOOKBACK, f.to);
+        double troughPrice = min(f.low, f.to - LOOKBACK, f.to);
+        double current = f.close(-1);
+
+        double totalDrop = peakPrice - troughPrice;
+        if (totalDrop <= 0) return PatternMatch.none(type);
+
+        double totalDropPct = totalDrop / peakPrice;
+        double recoveryRate = (current - troughPrice) / totalDrop;
+
+        boolean waistZone = 0.10 <= recoveryRate && recoveryRate <= 0.35;
+        boolean notCompleteCup = current < peakPrice * 0.70;
+
+        if (waistZone && notCompleteCup) {
+            // 최근 40일 중 바닥권(최저가 +15%) 체류 일수
+            double bottomThreshold = troughPrice * 1.15;
+            int daysAtBottom = 0;
+            for (int i = f.to - 40; i < f.to; i++) {
+                if (f.close[i] <= bottomThreshold) daysAtBottom++;
+            }
+            double lScore = (totalDropPct * 100) + (daysAtBottom * 2);
+
+            if (current > f.sma20(-1) * 0.98) {
+                return new PatternMatch(type, true, peakPrice, PatternStatus.POTENTIAL, lScore);
+            }
+        }
+        return PatternMatch.none(type);
+    }
+
+    // ============================================================
+    // 🔧 유틸
+    // ============================================================
+
+    /** threshold 이후 골짜기 중 마지막 count 개 (부족하면 null) */
+    private static int[] recentTroughs(int[] troughs, int threshold, int count) {
+        int n = 0;
+        for (int t : troughs) if (t >= threshold) n++;
+        if (n < count) return null;
+        int[] out = new int[count];
+        System.arraycopy(troughs, troughs.length - count, out, 0, count);
+        return out;
+    }
+
+    /** pandas .max() : [from, to) 구간, NaN 무시 */
+    private static double max(double[] x, int from, int to) {
+        double m = Double.NaN;
+        for (int i = from; i < to; i++) {
+            double v = x[i];
+            if (Double.isNaN(v)) continue;
+            if (Double.isNaN(m) || v > m) m = v;
+        }
+        return m;
+    }
+
+    /** pandas .min() : [from, to) 구간, NaN 무시 */
+    private static double min(double[] x, int from, int to) {
+        double m = Double.NaN;
+        for (int i = from; i < to; i++) {
+            double v = x[i];
+            if (Double.isNaN(v)) continue;
+            if (Double.isNaN(m) || v < m) m = v;
+        }
+        return m;
+    }
+}
@@ -0,0 +1,92 @@
+package com.afhk.app.stock.pattern;
+
+import com.afhk.app.stock.IndicatorBuffers;
+import com.afhk.app.stock.OhlcvSeries;
+
+/**
+ * ===============================================================
+ * 🖼️ PatternFrame (패턴 감지 대상 구간 뷰)
+ * ---------------------------------------------------------------
+ * ✅ Python 의 df (dropna 된 특징 DataFrame) 에 해당
+ *    - analyze 모드 : df_full.iloc[-250:]  → of(series, ind, 250)
+ *    - chart 모드   : df_full 전체          → of(series, ind, Integer.MAX_VALUE)
+ * ✅ 결측 행이 앞쪽에만 있으면(일반적인 경우) 원본 배열을 복사 없이 참조
+ *    중간 결측이 있으면 dropna 결과로 압축 복사
+ * ===============================================================
+ */
+public final class PatternFrame {
+
+    final double[] high;
+    final double[] low;
+    final double[] close;
+    final double[] sma20;
+    final double[] sma50;
+    final double[] sma200;
+    final int from;
+    final int to;
+
+    public PatternFrame(double[] high, double[] low, double[] close,
+                        double[] sma20, double[] sma50, double[] sma200, int from, int to) {
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.sma20 = sma20;
+        this.sma50 = sma50;
+        this.sma200 = sma200;
+        this.from = from;
+        this.to = to;
+    }
+
+    /** dropna(feature_subset) 후 마지막 maxBars 행 */
+    public static PatternFrame of(OhlcvSeries s, IndicatorBuffers ind, int maxBars) {
+        int n = Math.min(s.length(), ind.length());
+        int first = ind.firstComplete();
+        if (first < 0) {
+            return new PatternFrame(s.high(), s.low(), s.close(), ind.sma20(), ind.sma50(), ind.sma200(), n, n);
+        }
+
+        int complete = ind.completeCount();
+        if (complete == n - first) {
+            int from = Math.max(first, n - maxBars);
+            return new PatternFrame(s.high(), s.low(), s.close(), ind.sma20(), ind.sma50(), ind.sma200(), from, n);
+        }
+
+        // 중간 결측 → 살아남는 행만 압축 (뒤에서부터 maxBars 개)
+        int size = Math.min(complete, maxBars);
+        double[] high = new double[size];
+        double[] low = new double[size];
+        double[] close = new double[size];
+        double[] sma20 = new double[size];
+        double[] sma50 = new double[size];
+        double[] sma200 = new double[size];
+        int k = size;
+        for (int i = n - 1; i >= 0 && k > 0; i--) {
+            if (!ind.isComplete(i)) continue;
+            k--;
+            high[k] = s.high()[i];
+            low[k] = s.low()[i];
+            close[k] = s.close()[i];
+            sma20[k] = ind.sma20()[i];
+            sma50[k] = ind.sma50()[i];
+            sma200[k] = ind.sma200()[i];
+        }
+        return new PatternFrame(high, low, close, sma20, sma50, sma200, 0, size);
+    }
+
+    public int length() {
+        return to - from;
+    }
+
+    /** 프레임 기준 i 번째 종가 (음수면 뒤에서부터, iloc 과 동일) */
+    public double close(int i) {
+        return close[index(i)];
+    }
+
+    public double sma20(int i) { return sma20[index(i)]; }
+    public double sma50(int i) { return sma50[index(i)]; }
+    public double sma200(int i) { return sma200[index(i)]; }
+
+    private int index(int i) {
+        return i < 0 ? to + i : from + i;
+    }
+}
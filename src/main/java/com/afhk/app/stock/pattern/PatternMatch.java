@@ -0,0 +1,42 @@
+package com.afhk.app.stock.pattern;
+
+/**
+ * ===============================================================
+ * 🎯 PatternMatch (패턴 1개 감지 결과)
+ * ---------------------------------------------------------------
+ * ✅ Python find_* 함수 반환값 (found, neckline, status, score) 과 동일 구성
+ *    - neckline : chart 모드 pattern_points.y (미감지 시 NaN)
+ *    - score    : analyze 모드 정렬/결과 값 (미감지 시 0)
+ * ===============================================================
+ */
+public final class PatternMatch {
+
+    private final PatternType type;
+    private final boolean found;
+    private final double neckline;
+    private final PatternStatus status;
+    private final double score;
+
+    PatternMatch(PatternType type, boolean found, double neckline, PatternStatus status, double score) {
+        this.type = type;
+        this.found = found;
+        this.neckline = neckline;
+        this.status = status;
+        this.score = score;
+    }
+
+    static PatternMatch none(PatternType type) {
+        return new PatternMatch(type, false, Double.NaN, PatternStatus.NONE, 0);
+    }
+
+    public PatternType type() { return type; }
+    public boolean found() { return found; }
+    public double neckline() { return neckline; }
+    public PatternStatus status() { return status; }
+    public double score() { return score; }
+
+    @Override
+    public String toString() {
+        return type + "[" + status.label() + ", neckline=" + neckline + ", score=" + score + "]";
+    }
+}
@@ -0,0 +1,24 @@
+package com.afhk.app.stock.pattern;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 종목 1개에 대한 전체 패턴 감지 결과 (PatternType 순서)
+ */
+public final class PatternReport {
+
+    private final PatternMatch[] matches;
+
+    PatternReport(PatternMatch[] matches) {
+        this.matches = matches;
+    }
+
+    public PatternMatch get(PatternType type) {
+        return matches[type.ordinal()];
+    }
+
+    public List<PatternMatch> all() {
+        return Arrays.asList(matches);
+    }
+}
@@ -0,0 +1,26 @@
+package com.afhk.app.stock.pattern;
+
+/**
+ * 패턴 감지 상태 (Python 결과 문자열과 동일한 label 사용)
+ */
+public enum PatternStatus {
+    BREAKOUT("Breakout"),
+    POTENTIAL("Potential"),
+    DOWNWARD("Downward"),
+    NONE("None");
+
+    private final String label;
+
+    PatternStatus(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    /** 필터 일치 여부 (Python: status in ['Breakout', 'Potential', 'Downward']) */
+    public boolean isMatch() {
+        return this != NONE;
+    }
+}
@@ -0,0 +1,34 @@
+package com.afhk.app.stock.pattern;
+
+/**
+ * 차트 패턴 종류
+ * - filterKey : --pattern_type 값 / pattern_{filterKey}_status 결과 키
+ * - chartName : chart 모드 pattern_points.type 값
+ */
+public enum PatternType {
+    DOUBLE_BOTTOM("double_bottom", "DoubleBottom"),
+    TRIPLE_BOTTOM("triple_bottom", "TripleBottom"),
+    CUP_AND_HANDLE("cup_and_handle", "CupAndHandle"),
+    HALF_CUP("half_cup", "HalfCup"),
+    LONG_TERM_DOWN_TREND("long_term_down_trend", "LongTermDown");
+
+    private final String filterKey;
+    private final String chartName;
+
+    PatternType(String filterKey, String chartName) {
+        this.filterKey = filterKey;
+        this.chartName = chartName;
+    }
+
+    public String filterKey() { return filterKey; }
+    public String chartName() { return chartName; }
+
+    /** pattern_type 필터 문자열 → 패턴 (해당 없으면 null) */
+    public static PatternType fromFilterKey(String key) {
+        if (key == null) return null;
+        for (PatternType t : values()) {
+            if (t.filterKey.equals(key)) return t;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,164 @@
+package com.afhk.app.stock.pattern;
+
+import java.util.Arrays;
+
+/**
+ * ===============================================================
+ * ⛰️ PeakFinder (scipy.signal.find_peaks 이식 - prominence / width 조건)
+ * ---------------------------------------------------------------
+ * ✅ _local_maxima_1d : 평탄한 봉우리는 중앙 인덱스 사용
+ * ✅ _peak_prominences : 좌/우 base 탐색 (wlen 없음)
+ * ✅ _peak_widths      : rel_height=0.5 선형 보간 폭
+ * ✅ 필터 순서도 scipy 와 동일 (prominence → width)
+ * ✅ trough 는 부호 반전(-x) 으로 같은 로직 재사용 (배열 복사 없음)
+ * ===============================================================
+ */
+public final class PeakFinder {
+
+    private static final double REL_HEIGHT = 0.5;
+    private static final int PW_BLOCKSIZE = 128;
+
+    private PeakFinder() {
+    }
+
+    /** find_peaks(x[from:to], prominence=minProminence, width=minWidth) → 절대 인덱스 */
+    public static int[] peaks(double[] x, int from, int to, double minProminence, double minWidth) {
+        return find(x, from, to, 1.0, minProminence, minWidth);
+    }
+
+    /** find_peaks(-x[from:to], ...) → 절대 인덱스 */
+    public static int[] troughs(double[] x, int from, int to, double minProminence, double minWidth) {
+        return find(x, from, to, -1.0, minProminence, minWidth);
+    }
+
+    private static int[] find(double[] x, int from, int to, double sign, double minProminence, double minWidth) {
+        int n = to - from;
+        if (n < 3) return new int[0];
+
+        int[] found = new int[n / 2 + 1];
+        int m = 0;
+
+        // 1. 국소 최대 (_local_maxima_1d)
+        int i = 1;
+        int iMax = n - 1;
+        while (i < iMax) {
+            double xi = sign * x[from + i];
+            if (sign * x[from + i - 1] < xi) {
+                int ahead = i + 1;
+                while (ahead < iMax && sign * x[from + ahead] == xi) ahead++;
+                if (sign * x[from + ahead] < xi) {
+                    int peak = (i + ahead - 1) / 2;
+                    if (accept(x, from, n, sign, peak, minProminence, minWidth)) {
+                        found[m++] = from + peak;
+                    }
+                    i = ahead;
+                }
+            }
+            i++;
+        }
+        return Arrays.copyOf(found, m);
+    }
+
+    /** prominence / width 조건 검사 (peak 는 구간 상대 인덱스) */
+    private static boolean accept(double[] x, int from, int n, double sign, int peak,
+                                  double minProminence, double minWidth) {
+        double xp = sign * x[from + peak];
+
+        // 2. prominence (_peak_prominences)
+        int leftBase = peak;
+        double leftMin = xp;
+        for (int i = peak; i >= 0 && sign * x[from + i] <= xp; i--) {
+            double v = sign * x[from + i];
+            if (v < leftMin) {
+                leftMin = v;
+                leftBase = i;
+            }
+        }
+        int rightBase = peak;
+        double rightMin = xp;
+        for (int i = peak; i <= n - 1 && sign * x[from + i] <= xp; i++) {
+            double v = sign * x[from + i];
+            if (v < rightMin) {
+                rightMin = v;
+                rightBase = i;
+            }
+        }
+        double prominence = xp - Math.max(leftMin, rightMin);
+        if (!(minProminence <= prominence)) return false;
+
+        // 3. width (_peak_widths, rel_height=0.5)
+        double height = xp - prominence * REL_HEIGHT;
+
+        int i = peak;
+        while (leftBase < i && height < sign * x[from + i]) i--;
+        double leftIp = i;
+        double xi = sign * x[from + i];
+        if (xi < height) leftIp += (height - xi) / (sign * x[from + i + 1] - xi);
+
+        i = peak;
+        while (i < rightBase && height < sign * x[from + i]) i++;
+        double rightIp = i;
+        xi = sign * x[from + i];
+        if (xi < height) rightIp -= (height - xi) / (sign * x[from + i - 1] - xi);
+
+        return minWidth <= rightIp - leftIp;
+    }
+
+    // ============================================================
+    // 📏 pandas Series.std() (ddof=1) — numpy pairwise 합산 순서 그대로
+    // ============================================================
+
+    public static double sampleStd(double[] x, int from, int to) {
+        int n = to - from;
+        if (n < 2) return Double.NaN;
+        double avg = pairwiseSum(x, from, n, 0.0, false) / n;
+        double ssq = pairwiseSum(x, from, n, avg, true);
+        return Math.sqrt(ssq / (n - 1));
+    }
+
+    /**
+     * numpy DOUBLE_pairwise_sum. squared 이면 (center - x)^2 를 합산
+     * (nanvar 의 sqr = (avg - values) ** 2 단계)
+     */
+    private static double pairwiseSum(double[] x, int from, int n, double center, boolean squared) {
+        if (n < 8) {
+            double res = 0.0;
+            for (int i = 0; i < n; i++) res += term(x[from + i], center, squared);
+            return res;
+        } else if (n <= PW_BLOCKSIZE) {
+            double r0 = term(x[from], center, squared);
+            double r1 = term(x[from + 1], center, squared);
+            double r2 = term(x[from + 2], center, squared);
+            double r3 = term(x[from + 3], center, squared);
+            double r4 = term(x[from + 4], center, squared);
+            double r5 = term(x[from + 5], center, squared);
+            double r6 = term(x[from + 6], center, squared);
+            double r7 = term(x[from + 7], center, squared);
+            int i;
+            for (i = 8; i < n - (n % 8); i += 8) {
+                r0 += term(x[from + i], center, squared);
+                r1 += term(x[from + i + 1], center, squared);
+                r2 += term(x[from + i + 2], center, squared);
+                r3 += term(x[from + i + 3], center, squared);
+                r4 += term(x[from + i + 4], center, squared);
+                r5 += term(x[from + i + 5], center, squared);
+                r6 += term(x[from + i + 6], center, squared);
+                r7 += term(x[from + i + 7], center, squared);
+            }
+            double res = ((r0 + r1) + (r2 + r3)) + ((r4 + r5) + (r6 + r7));
+            for (; i < n; i++) res += term(x[from + i], center, squared);
+            return res;
+        } else {
+            int n2 = n / 2;
+            n2 -= n2 % 8;
+            return pairwiseSum(x, from, n2, center, squared)
+                    + pairwiseSum(x, from + n2, n - n2, center, squared);
+        }
+    }
+
+    private static double term(double v, double center, boolean squared) {
+        if (!squared) return v;
+        double d = center - v;
+        return d * d;
+    }
+}
@@ -0,0 +1,330 @@
+package com.afhk.app.stock.screen;
+
+import com.afhk.app.stock.AthenaScreener;
+import com.afhk.app.stock.IndicatorBuffers;
+import com.afhk.app.stock.IndicatorEngine;
+import com.afhk.app.stock.IndicatorState;
+import com.afhk.app.stock.IndicatorStateStore;
+import com.afhk.app.stock.OhlcvColumnStore;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * ===============================================================
+ * 🔎 ScreenEngine (v1.0 - 스크리닝 식 전 종목 병렬 평가)
+ * ---------------------------------------------------------------
+ * ✅ 1. 참조 컬럼만 종목 수 길이 double[] 로 적재 (병렬)
+ *       - 지표 : IndicatorStateStore 마지막 봉 값 (스토어와 봉이 다르면 IndicatorEngine 재계산)
+ *       - 가격 / 기간 함수 : 컬럼 스토어 스냅샷에서 최근 n 봉 직접 집계
+ * ✅ 2. ScreenQuery.bind → 항별 primitive 람다
+ * ✅ 3. CHUNK 종목 단위 병렬 평가 : 선택 벡터를 항 순서대로 좁혀가며 항별 통과 수 / 소요 ns 누적
+ * ✅ 4. 청크 결과는 큐로 → 호출 스레드가 도착 순서대로 sink 에 전달 (스트리밍)
+ * ✅ 같은 식은 파싱 결과 재사용 (Caffeine)
+ * ===============================================================
+ */
+@Component
+public class ScreenEngine {
+
+    private static final int CHUNK = 64;
+    private static final int QUERY_CACHE_MAX = 256;
+
+    /** 매칭 1건 전달 (호출 스레드에서만 호출됨) */
+    @FunctionalInterface
+    public interface Sink {
+        void accept(Map<String, Object> match) throws IOException;
+    }
+
+    private final OhlcvColumnStore columnStore;
+    private final IndicatorStateStore stateStore;
+    private final AthenaScreener screener;
+
+    private final Cache<String, ScreenQuery> queries = Caffeine.newBuilder()
+            .maximumSize(QUERY_CACHE_MAX)
+            .build();
+
+    private final ThreadLocal<IndicatorEngine> engines = ThreadLocal.withInitial(IndicatorEngine::new);
+
+    private final ForkJoinPool pool = new ForkJoinPool(
+            Runtime.getRuntime().availableProcessors(),
+            p -> {
+                ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+                t.setName("Stock-Screen-" + t.getPoolIndex());
+                t.setDaemon(true);
+                return t;
+            },
+            null, false);
+
+    public ScreenEngine(OhlcvColumnStore columnStore, IndicatorStateStore stateStore, AthenaScreener screener) {
+        this.columnStore = columnStore;
+        this.stateStore = stateStore;
+        this.screener = screener;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /** 식 파싱 (캐시) — 오류 시 ScreenQueryException */
+    public ScreenQuery compile(String source) {
+        String key = source == null ? "" : source.strip();
+        ScreenQuery q = queries.getIfPresent(key);
+        if (q == null) {
+            q = ScreenQuery.parse(key);
+            queries.put(key, q);
+        }
+        return q;
+    }
+
+    public boolean isReady() {
+        return columnStore.isReady();
+    }
+
+    // ===============================================================
+    // 🚀 실행
+    // ===============================================================
+
+    /** 전 종목 평가 → 매칭마다 sink, 반환 = 요약 (limit <= 0 이면 전체) */
+    public Map<String, Object> run(ScreenQuery query, int limit, Sink sink) throws IOException, InterruptedException {
+        OhlcvColumnStore.Snapshot snap = columnStore.snapshot();
+        if (snap == null) throw new IllegalStateException("컬럼 스토어 미준비");
+        long started = System.nanoTime();
+        int n = snap.tickerCount();
+
+        // 1. 참조 컬럼 적재
+        List<ScreenFeature> features = query.features();
+        double[][] values = new double[features.size()][n];
+        pool.submit(() -> IntStream.range(0, n).parallel().forEach(t -> load(snap, t, features, values))).join();
+        Map<ScreenFeature, double[]> columns = new HashMap<>();
+        for (int f = 0; f < features.size(); f++) columns.put(features.get(f), values[f]);
+        long loadNanos = System.nanoTime() - started;
+
+        // 2. 항별 람다
+        List<ScreenQuery.Cond> conds = query.bind(columns::get);
+        int termCount = conds.size();
+        LongAdder[] termIn = new LongAdder[termCount];
+        LongAdder[] termOut = new LongAdder[termCount];
+        LongAdder[] termNanos = new LongAdder[termCount];
+        for (int k = 0; k < termCount; k++) {
+            termIn[k] = new LongAdder();
+            termOut[k] = new LongAdder();
+            termNanos[k] = new LongAdder();
+        }
+
+        // 3. 청크 병렬 평가 → 큐
+        int chunks = (n + CHUNK - 1) / CHUNK;
+        int[] end = new int[0];
+        BlockingQueue<int[]> queue = new LinkedBlockingQueue<>();
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        long evalStarted = System.nanoTime();
+        pool.submit(() -> {
+            try {
+                IntStream.range(0, chunks).parallel().forEach(c -> {
+                    if (stop.get()) return;
+                    int from = c * CHUNK;
+                    int to = Math.min(n, from + CHUNK);
+                    int[] sel = new int[to - from];
+                    int size = 0;
+                    for (int t = from; t < to; t++) sel[size++] = t;
+                    for (int k = 0; k < termCount && size > 0; k++) {
+                        ScreenQuery.Cond cond = conds.get(k);
+                        long t0 = System.nanoTime();
+                        int kept = 0;
+                        for (int i = 0; i < size; i++) {
+                            int t = sel[i];
+                            if (cond.test(t)) sel[kept++] = t;
+                        }
+                        termNanos[k].add(System.nanoTime() - t0);
+                        termIn[k].add(size);
+                        termOut[k].add(kept);
+                        size = kept;
+                    }
+                    if (size > 0) queue.add(Arrays.copyOf(sel, size));
+                });
+            } catch (Throwable e) {
+                failure.set(e);
+            } finally {
+                queue.add(end);
+            }
+        });
+
+        // 4. 도착 순서대로 전달
+        int matched = 0;
+        try {
+            while (true) {
+                int[] batch = queue.take();
+                if (batch == end) break;
+                for (int t : batch) {
+                    if (limit > 0 && matched >= limit) {
+                        stop.set(true);
+                        break;
+                    }
+                    sink.accept(match(snap, t, features, values));
+                    matched++;
+                }
+            }
+        } finally {
+            stop.set(true);
+        }
+        if (failure.get() != null) throw new IllegalStateException("스크리닝 평가 실패: " + failure.get().getMessage(), failure.get());
+
+        List<Map<String, Object>> terms = new ArrayList<>(termCount);
+        for (int k = 0; k < termCount; k++) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("term", query.terms().get(k).text());
+            m.put("in", termIn[k].sum());
+            m.put("out", termOut[k].sum());
+            m.put("nanos", termNanos[k].sum());
+            terms.add(m);
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("type", "summary");
+        summary.put("query", query.source());
+        summary.put("scanned", n);
+        summary.put("matched", matched);
+        summary.put("truncated", limit > 0 && matched >= limit);
+        summary.put("loadNanos", loadNanos);
+        summary.put("evalNanos", System.nanoTime() - evalStarted);
+        summary.put("terms", terms);
+        summary.put("elapsedMs", (System.nanoTime() - started) / 1_000_000.0);
+        return summary;
+    }
+
+    private Map<String, Object> match(OhlcvColumnStore.Snapshot snap, int t, List<ScreenFeature> features,
+                                      double[][] values) {
+        String code = snap.code(t);
+        Map<String, Object> v = new LinkedHashMap<>();
+        for (int f = 0; f < features.size(); f++) {
+            double x = values[f][t];
+            v.put(features.get(f).label(), Double.isNaN(x) ? null : x);
+        }
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("type", "match");
+        m.put("ticker", code);
+        m.put("name", screener.stockName(code));
+        m.put("values", v);
+        return m;
+    }
+
+    // ===============================================================
+    // 📥 컬럼 적재 (종목 1개, 참조 특성 전부)
+    // ===============================================================
+
+    private void load(OhlcvColumnStore.Snapshot snap, int t, List<ScreenFeature> features, double[][] out) {
+        int off = snap.offset(t);
+        int len = snap.length(t);
+        IndicatorState state = null;
+        IndicatorBuffers ind = null;
+        boolean stateChecked = false;
+
+        for (int f = 0; f < features.size(); f++) {
+            ScreenFeature feature = features.get(f);
+            double v = Double.NaN;
+            if (len >= feature.requiredBars()) {
+                int last = off + len - 1;
+                switch (feature.kind()) {
+                    case CLOSE -> v = snap.prices(OhlcvColumnStore.Column.CLOSE).get(last);
+                    case OPEN -> v = snap.prices(OhlcvColumnStore.Column.OPEN).get(last);
+                    case HIGH -> v = snap.prices(OhlcvColumnStore.Column.HIGH).get(last);
+                    case LOW -> v = snap.prices(OhlcvColumnStore.Column.LOW).get(last);
+                    case VOLUME -> v = snap.longs(OhlcvColumnStore.Column.VOLUME).get(last);
+                    case SMA -> v = mean(snap.prices(OhlcvColumnStore.Column.CLOSE), last, feature.window());
+                    case AVG_VOLUME -> v = mean(snap.longs(OhlcvColumnStore.Column.VOLUME), last, feature.window());
+                    case RETURN -> {
+                        DoubleBuffer close = snap.prices(OhlcvColumnStore.Column.CLOSE);
+                        v = (close.get(last) / close.get(last - feature.window()) - 1) * 100;
+                    }
+                    case HIGHEST -> v = extreme(snap.prices(OhlcvColumnStore.Column.HIGH), last, feature.window(), true);
+                    case LOWEST -> v = extreme(snap.prices(OhlcvColumnStore.Column.LOW), last, feature.window(), false);
+                    default -> {
+                        // 지표 : 상태 저장소 값이 현재 스냅샷과 같은 봉이면 그대로, 아니면 재계산
+                        if (!stateChecked) {
+                            stateChecked = true;
+                            IndicatorState s = stateStore.get(snap.code(t));
+                            if (s != null && s.bars() == len && s.lastEpochDay() == snap.lastEpochDay(t)) {
+                                state = s;
+                            } else {
+                                ind = engines.get().compute(snap.prices(OhlcvColumnStore.Column.CLOSE), off, len,
+                                        new IndicatorBuffers(len));
+                            }
+                        }
+                        v = state != null ? indicator(state, feature.kind()) : indicator(ind, len - 1, feature.kind());
+                    }
+                }
+            }
+            out[f][t] = v;
+        }
+    }
+
+    private static double indicator(IndicatorState s, ScreenFeature.Kind kind) {
+        return switch (kind) {
+            case RSI -> s.rsi();
+            case MACD -> s.macd();
+            case SIGNAL -> s.macdSignal();
+            case HIST -> s.macdHist();
+            case BB_WIDTH -> s.bbWidth();
+            case SMA20 -> s.sma20();
+            case SMA50 -> s.sma50();
+            case SMA200 -> s.sma200();
+            case LOG_RETURN -> s.logReturn();
+            case TREND -> s.trendCross();
+            default -> Double.NaN;
+        };
+    }
+
+    private static double indicator(IndicatorBuffers b, int i, ScreenFeature.Kind kind) {
+        return switch (kind) {
+            case RSI -> b.rsi()[i];
+            case MACD -> b.macd()[i];
+            case SIGNAL -> b.macdSignal()[i];
+            case HIST -> b.macdHist()[i];
+            case BB_WIDTH -> b.bbWidth()[i];
+            case SMA20 -> b.sma20()[i];
+            case SMA50 -> b.sma50()[i];
+            case SMA200 -> b.sma200()[i];
+            case LOG_RETURN -> b.logReturn()[i];
+            case TREND -> b.trendCross()[i];
+            default -> Double.NaN;
+        };
+    }
+
+    private static double mean(DoubleBuffer col, int last, int window) {
+        double sum = 0;
+        for (int i = last - window + 1; i <= last; i++) sum += col.get(i);
+        return sum / window;
+    }
+
+    private static double mean(LongBuffer col, int last, int window) {
+        double sum = 0;
+        for (int i = last - window + 1; i <= last; i++) sum += col.get(i);
+        return sum / window;
+    }
+
+    private static double extreme(DoubleBuffer col, int last, int window, boolean max) {
+        double v = col.get(last);
+        for (int i = last - window + 1; i < last; i++) v = max ? Math.max(v, col.get(i)) : Math.min(v, col.get(i));
+        return v;
+    }
+}
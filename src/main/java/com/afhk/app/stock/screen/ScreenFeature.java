@@ -0,0 +1,64 @@
+package com.afhk.app.stock.screen;
+
+import java.util.Locale;
+
+/**
+ * 스크리닝 식에서 참조하는 종목별 값 (마지막 봉 기준 횡단면 컬럼 1개)
+ * - 인자 없음 : close, open, high, low, volume, rsi, macd, signal, hist, bbwidth,
+ *               sma20, sma50, sma200, logret, trend (IndicatorState 마지막 봉 값)
+ * - 인자 있음 : sma(n), avgvol(n), ret(n), highest(n), lowest(n) (최근 n 봉, 오늘 포함)
+ * - 이름은 대소문자·'_' 무시 (SMA_200 = sma200, RSI = rsi)
+ */
+public record ScreenFeature(Kind kind, int window) {
+
+    public enum Kind {
+        CLOSE("close", false), OPEN("open", false), HIGH("high", false), LOW("low", false),
+        VOLUME("volume", false),
+        RSI("rsi", false), MACD("macd", false), SIGNAL("signal", false), HIST("hist", false),
+        BB_WIDTH("bbwidth", false), SMA20("sma20", false), SMA50("sma50", false), SMA200("sma200", false),
+        LOG_RETURN("logret", false), TREND("trend", false),
+        SMA("sma", true), AVG_VOLUME("avgvol", true), RETURN("ret", true),
+        HIGHEST("highest", true), LOWEST("lowest", true);
+
+        final String key;
+        final boolean windowed;
+
+        Kind(String key, boolean windowed) {
+            this.key = key;
+            this.windowed = windowed;
+        }
+
+        /** 정규화된 이름 → 종류 (없으면 null) */
+        static Kind of(String normalized) {
+            String key = switch (normalized) {
+                case "vol" -> "volume";
+                case "macdsignal" -> "signal";
+                case "macdhist", "histogram" -> "hist";
+                case "bbw" -> "bbwidth";
+                case "volma", "volavg", "avgvolume" -> "avgvol";
+                case "return" -> "ret";
+                case "max" -> "highest";
+                case "min" -> "lowest";
+                default -> normalized;
+            };
+            for (Kind k : values()) {
+                if (k.key.equals(key)) return k;
+            }
+            return null;
+        }
+    }
+
+    static String normalize(String name) {
+        return name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    /** 응답 values 키 (sma(5) / rsi) */
+    public String label() {
+        return kind.windowed ? kind.key + "(" + window + ")" : kind.key;
+    }
+
+    /** 값 계산에 필요한 최소 봉 수 */
+    int requiredBars() {
+        return kind == Kind.RETURN ? window + 1 : Math.max(1, window);
+    }
+}
@@ -0,0 +1,460 @@
+package com.afhk.app.stock.screen;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * ===============================================================
+ * 🔎 ScreenQuery (v1.0 - 횡단면 스크리닝 식)
+ * ---------------------------------------------------------------
+ * ✅ 문법 (대소문자 무시)
+ *    expr := or ;  or := and ('or' and)* ;  and := not ('and' not)*
+ *    not  := 'not' not | cmp ;  cmp := sum (('<'|'<='|'>'|'>='|'=='|'='|'!=') sum)?
+ *    sum  := prod (('+'|'-') prod)* ;  prod := unary (('*'|'×'|'/') unary)*
+ *    unary := '-' unary | 숫자 | 숫자'%' | 이름 | 이름 '(' 정수 ')' | '(' expr ')'
+ *    예) close < SMA_200 and RSI < 30 and volume > 2 × avgvol(20)
+ * ✅ parse 1회 → AST, 실행마다 bind 로 컬럼 배열에 묶인 primitive 람다 생성
+ *    - 컬럼 vs 상수 / 컬럼 vs 컬럼 / 컬럼 vs 상수×컬럼 비교는 전용 람다로 특수화
+ *    - 상수끼리 연산은 미리 접어둠
+ * ✅ 최상위 and 항 = Term (항별 통과 수 / 소요 시간 측정 단위)
+ * ✅ NaN 비교는 pandas 와 같이 거짓 (!= 만 참)
+ * ===============================================================
+ */
+public final class ScreenQuery {
+
+    /** 숫자 식 (종목 인덱스 → 값) */
+    @FunctionalInterface
+    public interface NumExpr {
+        double at(int t);
+    }
+
+    /** 조건 (종목 인덱스 → 통과 여부) */
+    @FunctionalInterface
+    public interface Cond {
+        boolean test(int t);
+    }
+
+    /** 최상위 and 항 (text = 원문 구간) */
+    public record Term(String text, Node node) {}
+
+    // ===============================================================
+    // 🌳 AST
+    // ===============================================================
+    sealed interface Node permits Const, Ref, Neg, Arith, Compare, And, Or, Not {}
+
+    record Const(double value) implements Node {}
+    record Ref(ScreenFeature feature) implements Node {}
+    record Neg(Node operand) implements Node {}
+    record Arith(char op, Node left, Node right) implements Node {}
+    record Compare(String op, Node left, Node right) implements Node {}
+    record And(List<Node> parts) implements Node {}
+    record Or(List<Node> parts) implements Node {}
+    record Not(Node operand) implements Node {}
+
+    private final String source;
+    private final List<Term> terms;
+    private final List<ScreenFeature> features;
+
+    private ScreenQuery(String source, List<Term> terms, List<ScreenFeature> features) {
+        this.source = source;
+        this.terms = terms;
+        this.features = features;
+    }
+
+    public String source() { return source; }
+    public List<Term> terms() { return terms; }
+
+    /** 참조 컬럼 (중복 제거, 등장 순) */
+    public List<ScreenFeature> features() { return features; }
+
+    /** 식 파싱 (오류 시 ScreenQueryException) */
+    public static ScreenQuery parse(String source) {
+        if (source == null || source.isBlank()) throw new ScreenQueryException("빈 식", 0);
+        Parser p = new Parser(source);
+        List<Term> terms = p.parseTerms();
+        Set<ScreenFeature> features = new LinkedHashSet<>();
+        for (Term t : terms) collect(t.node(), features);
+        return new ScreenQuery(source, List.copyOf(terms), List.copyOf(features));
+    }
+
+    private static void collect(Node n, Set<ScreenFeature> out) {
+        switch (n) {
+            case Ref r -> out.add(r.feature());
+            case Neg g -> collect(g.operand(), out);
+            case Not g -> collect(g.operand(), out);
+            case Arith a -> { collect(a.left(), out); collect(a.right(), out); }
+            case Compare c -> { collect(c.left(), out); collect(c.right(), out); }
+            case And a -> a.parts().forEach(x -> collect(x, out));
+            case Or o -> o.parts().forEach(x -> collect(x, out));
+            case Const c -> { }
+        }
+    }
+
+    // ===============================================================
+    // ⚙️ bind : AST → 컬럼 배열에 묶인 람다
+    // ===============================================================
+
+    /** 항별 조건 (columns = 특성 → 종목 인덱스별 값 배열) */
+    public List<Cond> bind(Function<ScreenFeature, double[]> columns) {
+        List<Cond> out = new ArrayList<>(terms.size());
+        for (Term t : terms) out.add(cond(t.node(), columns));
+        return out;
+    }
+
+    private static Cond cond(Node n, Function<ScreenFeature, double[]> cols) {
+        return switch (n) {
+            case Compare c -> compare(c, cols);
+            case Not g -> {
+                Cond x = cond(g.operand(), cols);
+                yield t -> !x.test(t);
+            }
+            case And a -> {
+                Cond[] xs = a.parts().stream().map(p -> cond(p, cols)).toArray(Cond[]::new);
+                yield t -> {
+                    for (Cond x : xs) if (!x.test(t)) return false;
+                    return true;
+                };
+            }
+            case Or o -> {
+                Cond[] xs = o.parts().stream().map(p -> cond(p, cols)).toArray(Cond[]::new);
+                yield t -> {
+                    for (Cond x : xs) if (x.test(t)) return true;
+                    return false;
+                };
+            }
+            // 숫자 단독 : 0 / NaN 이 아니면 참 (trend 등 0/1 컬럼)
+            default -> {
+                NumExpr x = num(n, cols);
+                yield t -> {
+                    double v = x.at(t);
+                    return v != 0 && !Double.isNaN(v);
+                };
+            }
+        };
+    }
+
+    private static Cond compare(Compare c, Function<ScreenFeature, double[]> cols) {
+        Node l = c.left();
+        Node r = c.right();
+
+        // 컬럼 vs 상수
+        if (l instanceof Ref ref && r instanceof Const k) return colConst(c.op(), cols.apply(ref.feature()), k.value());
+        if (l instanceof Const k && r instanceof Ref ref) return colConst(flip(c.op()), cols.apply(ref.feature()), k.value());
+        // 컬럼 vs 컬럼
+        if (l instanceof Ref a && r instanceof Ref b) return colCol(c.op(), cols.apply(a.feature()), cols.apply(b.feature()));
+        // 컬럼 vs 상수 × 컬럼 (volume > 2 × avgvol(20))
+        if (l instanceof Ref a && r instanceof Arith m && m.op() == '*'
+                && m.left() instanceof Const k && m.right() instanceof Ref b) {
+            return colScaled(c.op(), cols.apply(a.feature()), k.value(), cols.apply(b.feature()));
+        }
+
+        NumExpr x = num(l, cols);
+        NumExpr y = num(r, cols);
+        return switch (c.op()) {
+            case "<" -> t -> x.at(t) < y.at(t);
+            case "<=" -> t -> x.at(t) <= y.at(t);
+            case ">" -> t -> x.at(t) > y.at(t);
+            case ">=" -> t -> x.at(t) >= y.at(t);
+            case "==" -> t -> x.at(t) == y.at(t);
+            default -> t -> x.at(t) != y.at(t);
+        };
+    }
+
+    private static Cond colConst(String op, double[] col, double v) {
+        return switch (op) {
+            case "<" -> t -> col[t] < v;
+            case "<=" -> t -> col[t] <= v;
+            case ">" -> t -> col[t] > v;
+            case ">=" -> t -> col[t] >= v;
+            case "==" -> t -> col[t] == v;
+            default -> t -> col[t] != v;
+        };
+    }
+
+    private static Cond colCol(String op, double[] a, double[] b) {
+        return switch (op) {
+            case "<" -> t -> a[t] < b[t];
+            case "<=" -> t -> a[t] <= b[t];
+            case ">" -> t -> a[t] > b[t];
+            case ">=" -> t -> a[t] >= b[t];
+            case "==" -> t -> a[t] == b[t];
+            default -> t -> a[t] != b[t];
+        };
+    }
+
+    private static Cond colScaled(String op, double[] a, double k, double[] b) {
+        return switch (op) {
+            case "<" -> t -> a[t] < k * b[t];
+            case "<=" -> t -> a[t] <= k * b[t];
+            case ">" -> t -> a[t] > k * b[t];
+            case ">=" -> t -> a[t] >= k * b[t];
+            case "==" -> t -> a[t] == k * b[t];
+            default -> t -> a[t] != k * b[t];
+        };
+    }
+
+    private static String flip(String op) {
+        return switch (op) {
+            case "<" -> ">";
+            case "<=" -> ">=";
+            case ">" -> "<";
+            case ">=" -> "<=";
+            default -> op;
+        };
+    }
+
+    private static NumExpr num(Node n, Function<ScreenFeature, double[]> cols) {
+        return switch (n) {
+            case Const k -> {
+                double v = k.value();
+                yield t -> v;
+            }
+            case Ref ref -> {
+                double[] col = cols.apply(ref.feature());
+                yield t -> col[t];
+            }
+            case Neg g -> {
+                NumExpr x = num(g.operand(), cols);
+                yield t -> -x.at(t);
+            }
+            case Arith a -> {
+                NumExpr x = num(a.left(), cols);
+                NumExpr y = num(a.right(), cols);
+                yield switch (a.op()) {
+                    case '+' -> t -> x.at(t) + y.at(t);
+                    case '-' -> t -> x.at(t) - y.at(t);
+                    case '*' -> t -> x.at(t) * y.at(t);
+                    default -> t -> x.at(t) / y.at(t);
+                };
+            }
+            // 조건을 숫자로 쓰면 1 / 0
+            default -> {
+                Cond c = cond(n, cols);
+                yield t -> c.test(t) ? 1.0 : 0.0;
+            }
+        };
+    }
+
+    // ===============================================================
+    // 📜 파서 (재귀 하강)
+    // ===============================================================
+    private static final class Parser {
+
+        private final String src;
+        private int pos;
+
+        Parser(String src) {
+            this.src = src;
+        }
+
+        /** 최상위 and 항 목록 (or 가 최상위면 전체가 1개 항) */
+        List<Term> parseTerms() {
+            List<Term> terms = new ArrayList<>();
+            skipSpace();
+            int start = pos;
+            List<int[]> spans = new ArrayList<>();
+            List<Node> parts = new ArrayList<>();
+            parts.add(parseNot());
+            spans.add(new int[]{start, pos});
+            while (true) {
+                skipSpace();
+                if (!keyword("and") && !symbol("&&")) break;
+                skipSpace();
+                int s = pos;
+                parts.add(parseNot());
+                spans.add(new int[]{s, pos});
+            }
+
+            skipSpace();
+            if (keyword("or") || symbol("||")) {
+                // 최상위 or → 처음부터 전체를 단일 항으로
+                pos = 0;
+                Node all = parseOr();
+                expectEnd();
+                terms.add(new Term(src.strip(), all));
+                return terms;
+            }
+            expectEnd();
+            for (int i = 0; i < parts.size(); i++) {
+                terms.add(new Term(src.substring(spans.get(i)[0], spans.get(i)[1]).strip(), parts.get(i)));
+            }
+            return terms;
+        }
+
+        private void expectEnd() {
+            skipSpace();
+            if (pos < src.length()) throw new ScreenQueryException("해석할 수 없는 입력 '" + src.charAt(pos) + "'", pos);
+        }
+
+        private Node parseOr() {
+            List<Node> parts = new ArrayList<>();
+            parts.add(parseAnd());
+            while (true) {
+                skipSpace();
+                if (!keyword("or") && !symbol("||")) break;
+                parts.add(parseAnd());
+            }
+            return parts.size() == 1 ? parts.get(0) : new Or(List.copyOf(parts));
+        }
+
+        private Node parseAnd() {
+            List<Node> parts = new ArrayList<>();
+            parts.add(parseNot());
+            while (true) {
+                skipSpace();
+                if (!keyword("and") && !symbol("&&")) break;
+                parts.add(parseNot());
+            }
+            return parts.size() == 1 ? parts.get(0) : new And(List.copyOf(parts));
+        }
+
+        private Node parseNot() {
+            skipSpace();
+            if (keyword("not") || (peek() == '!' && peekAt(1) != '=' && symbol("!"))) {
+                return new Not(parseNot());
+            }
+            return parseCompare();
+        }
+
+        private Node parseCompare() {
+            Node left = parseSum();
+            skipSpace();
+            String op = null;
+            for (String o : new String[]{"<=", ">=", "==", "!=", "<", ">", "="}) {
+                if (symbol(o)) {
+                    op = o.equals("=") ? "==" : o;
+                    break;
+                }
+            }
+            if (op == null) return left;
+            return new Compare(op, left, parseSum());
+        }
+
+        private Node parseSum() {
+            Node left = parseProduct();
+            while (true) {
+                skipSpace();
+                char c = peek();
+                if (c != '+' && c != '-') return left;
+                pos++;
+                left = fold(new Arith(c, left, parseProduct()));
+            }
+        }
+
+        private Node parseProduct() {
+            Node left = parseUnary();
+            while (true) {
+                skipSpace();
+                char c = peek();
+                if (c != '*' && c != '/' && c != '×') return left;
+                pos++;
+                left = fold(new Arith(c == '/' ? '/' : '*', left, parseUnary()));
+            }
+        }
+
+        private Node parseUnary() {
+            skipSpace();
+            int start = pos;
+            char c = peek();
+            if (c == '-') {
+                pos++;
+                Node x = parseUnary();
+                return x instanceof Const k ? new Const(-k.value()) : new Neg(x);
+            }
+            if (c == '(') {
+                pos++;
+                Node x = parseOr();
+                skipSpace();
+                if (!symbol(")")) throw new ScreenQueryException("')' 누락", pos);
+                return x;
+            }
+            if (Character.isDigit(c) || c == '.') {
+                while (pos < src.length() && (Character.isDigit(src.charAt(pos)) || src.charAt(pos) == '.')) pos++;
+                double v;
+                try {
+                    v = Double.parseDouble(src.substring(start, pos));
+                } catch (NumberFormatException e) {
+                    throw new ScreenQueryException("숫자 형식 오류", start);
+                }
+                if (peek() == '%') {
+                    pos++;
+                    v /= 100;
+                }
+                return new Const(v);
+            }
+            if (Character.isLetter(c) || c == '_') {
+                while (pos < src.length() && (Character.isLetterOrDigit(src.charAt(pos)) || src.charAt(pos) == '_')) pos++;
+                String name = src.substring(start, pos);
+                ScreenFeature.Kind kind = ScreenFeature.Kind.of(ScreenFeature.normalize(name));
+                if (kind == null) throw new ScreenQueryException("알 수 없는 이름 '" + name + "'", start);
+
+                skipSpace();
+                if (peek() == '(') {
+                    if (!kind.windowed) throw new ScreenQueryException("'" + name + "' 는 인자를 받지 않음", pos);
+                    pos++;
+                    skipSpace();
+                    int ns = pos;
+                    while (pos < src.length() && Character.isDigit(src.charAt(pos))) pos++;
+                    if (ns == pos) throw new ScreenQueryException("기간(정수) 필요", pos);
+                    int window = Integer.parseInt(src.substring(ns, pos));
+                    if (window <= 0 || window > 5000) throw new ScreenQueryException("기간 범위 오류 (1~5000)", ns);
+                    skipSpace();
+                    if (!symbol(")")) throw new ScreenQueryException("')' 누락", pos);
+                    return new Ref(new ScreenFeature(kind, window));
+                }
+                if (kind.windowed) throw new ScreenQueryException("'" + name + "(n)' 형태로 기간 필요", pos);
+                return new Ref(new ScreenFeature(kind, 0));
+            }
+            if (pos >= src.length()) throw new ScreenQueryException("식이 끝남", pos);
+            throw new ScreenQueryException("해석할 수 없는 입력 '" + c + "'", pos);
+        }
+
+        /** 상수끼리 연산은 미리 계산 */
+        private static Node fold(Arith a) {
+            if (a.left() instanceof Const x && a.right() instanceof Const y) {
+                return new Const(switch (a.op()) {
+                    case '+' -> x.value() + y.value();
+                    case '-' -> x.value() - y.value();
+                    case '*' -> x.value() * y.value();
+                    default -> x.value() / y.value();
+                });
+            }
+            // 컬럼 × 상수 → 상수 × 컬럼 (비교 특수화 형태로 통일)
+            if (a.op() == '*' && a.right() instanceof Const && !(a.left() instanceof Const)) {
+                return new Arith('*', a.right(), a.left());
+            }
+            return a;
+        }
+
+        private boolean keyword(String kw) {
+            int end = pos + kw.length();
+            if (end > src.length()) return false;
+            if (!src.substring(pos, end).toLowerCase(Locale.ROOT).equals(kw)) return false;
+            if (end < src.length() && (Character.isLetterOrDigit(src.charAt(end)) || src.charAt(end) == '_')) return false;
+            pos = end;
+            return true;
+        }
+
+        private boolean symbol(String s) {
+            if (!src.startsWith(s, pos)) return false;
+            pos += s.length();
+            return true;
+        }
+
+        private char peek() {
+            return pos < src.length() ? src.charAt(pos) : '\0';
+        }
+
+        private char peekAt(int ahead) {
+            return pos + ahead < src.length() ? src.charAt(pos + ahead) : '\0';
+        }
+
+        private void skipSpace() {
+            while (pos < src.length() && Character.isWhitespace(src.charAt(pos))) pos++;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.afhk.app.stock.screen;
+
+/**
+ * 스크리닝 식 파싱 오류 (position = 원문 기준 0부터 시작하는 문자 위치)
+ */
+public class ScreenQueryException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int position;
+
+    public ScreenQueryException(String message, int position) {
+        super(message + " (위치 " + position + ")");
+        this.position = position;
+    }
+
+    public int getPosition() { return position; }
+}
@@ -0,0 +1,115 @@
+package com.afhk.app;
+
+import com.afhk.app.stock.OhlcvParquetReader;
+import com.afhk.app.stock.OhlcvSeries;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * OhlcvParquetReader vs Python `--mode chart` 프로세스 경로 비교 벤치마크
+ *
+ * 실행 예)
+ *   java -cp ... com.afhk.app.OhlcvParquetReaderBenchmark \
+ *        python/data/stock_data  [python 실행파일]  [athena_k_market_ai_prod.py 경로]
+ *
+ * - python 인자가 없으면 Java 리더만 측정
+ */
+public class OhlcvParquetReaderBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        Path dataDir = Paths.get(args.length > 0 ? args[0] : "python/data/stock_data");
+        String pythonExe = args.length > 1 ? args[1] : null;
+        String scriptPath = args.length > 2 ? args[2] : null;
+
+        List<Path> files;
+        try (Stream<Path> s = Files.list(dataDir)) {
+            files = s.filter(p -> p.toString().endsWith(".parquet")).sorted().toList();
+        }
+        if (files.isEmpty()) {
+            System.out.println("parquet 파일 없음: " + dataDir.toAbsolutePath());
+            return;
+        }
+
+        OhlcvParquetReader reader = new OhlcvParquetReader();
+
+        // 1. 워밍업 (JIT)
+        for (int i = 0; i < 3; i++) {
+            for (Path f : files) reader.read(f);
+        }
+
+        // 2. 전체 유니버스 로드
+        long rows = 0;
+        long t0 = System.nanoTime();
+        for (Path f : files) rows += reader.read(f).length();
+        long t1 = System.nanoTime();
+
+        System.out.println("====================================================");
+        System.out.printf("Java 리더: %d개 종목 / %d행 → %.1f ms (종목당 %.3f ms)%n",
+                files.size(), rows, (t1 - t0) / 1e6, (t1 - t0) / 1e6 / files.size());
+
+        // 2-1. 분석용 부분 로드 (HIGH/LOW/CLOSE 최근 450봉 = 250 + SMA200 워밍업)
+        for (int i = 0; i < 3; i++) {
+            for (Path f : files) reader.readTail(f, OhlcvParquetReader.ANALYZE_COLUMNS, 450);
+        }
+        long tailRows = 0;
+        t0 = System.nanoTime();
+        for (Path f : files) tailRows += reader.readTail(f, OhlcvParquetReader.ANALYZE_COLUMNS, 450).length();
+        t1 = System.nanoTime();
+        System.out.printf("Java 리더 readTail(HLC, 450): %d행 → %.1f ms (종목당 %.3f ms)%n",
+                tailRows, (t1 - t0) / 1e6, (t1 - t0) / 1e6 / files.size());
+
+        // 3. 단일 종목 반복 로드 (chart 요청 1회에 해당)
+        Path sample = files.stream()
+                .filter(p -> p.getFileName().toString().equals("005930.parquet"))
+                .findFirst().orElse(files.get(0));
+        int reps = 200;
+        OhlcvSeries last = null;
+        t0 = System.nanoTime();
+        for (int i = 0; i < reps; i++) last = reader.read(sample);
+        t1 = System.nanoTime();
+        System.out.printf("Java 리더: %s 단일 로드 평균 %.3f ms (%d행, 마지막 %s, 종가 %.0f)%n",
+                last.getCode(), (t1 - t0) / 1e6 / reps, last.length(), last.lastDate(),
+                last.close()[last.length() - 1]);
+
+        // 4. Python chart 프로세스 경로
+        if (pythonExe == null || scriptPath == null) {
+            System.out.println("Python 경로 미지정 → 프로세스 비교 생략");
+            System.out.println("====================================================");
+            return;
+        }
+
+        String code = last.getCode();
+        int pyReps = 5;
+        long total = 0;
+        for (int i = 0; i < pyReps; i++) {
+            ProcessBuilder pb = new ProcessBuilder(pythonExe, "-u", scriptPath,
+                    "--mode", "chart", "--symbol", code,
+                    "--ma_periods", "20,50,200", "--chart_period", "250");
+            pb.directory(new File(scriptPath).getParentFile());
+            pb.redirectErrorStream(true);
+            pb.environment().put("PYTHONIOENCODING", "utf-8");
+
+            long s = System.nanoTime();
+            Process p = pb.start();
+            try (InputStream in = p.getInputStream()) {
+                in.transferTo(OutputStreamHolder.NULL);
+            }
+            p.waitFor();
+            total += System.nanoTime() - s;
+        }
+        double pyMs = total / 1e6 / pyReps;
+        System.out.printf("Python chart 프로세스: 평균 %.1f ms%n", pyMs);
+        System.out.printf("속도 비율: 약 %.0f배%n", pyMs / ((t1 - t0) / 1e6 / reps));
+        System.out.println("====================================================");
+    }
+
+    private static final class OutputStreamHolder {
+        static final java.io.OutputStream NULL = java.io.OutputStream.nullOutputStream();
+    }
+}
@@ -0,0 +1,111 @@
+package com.afhk.app;
+
+import com.afhk.app.stock.IndicatorBuffers;
+import com.afhk.app.stock.IndicatorEngine;
+import com.afhk.app.stock.OhlcvParquetReader;
+import com.afhk.app.stock.OhlcvSeries;
+import com.afhk.app.stock.pattern.PatternDetector;
+import com.afhk.app.stock.pattern.PatternFrame;
+import com.afhk.app.stock.pattern.PatternReport;
+import com.afhk.app.stock.pattern.PatternType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * python/cache 의 analyze 결과와 Java PatternDetector 결과 비교
+ *
+ * 실행 예)
+ *   java -cp ... com.afhk.app.PatternDetectorVerifier python/cache python/data/stock_data
+ *
+ * - 캐시 파일명 날짜(yyyyMMdd) 이하의 봉만 사용해 당시 데이터를 재현
+ * - 캐시에 있는 technical_conditions 키 중 패턴 관련 키만 비교
+ * - 'Breakout' 등 현재 스크립트가 더 이상 내지 않는 값은 이전 버전 캐시이므로 불일치로 표시됨
+ */
+public class PatternDetectorVerifier {
+
+    private static final Map<String, PatternType> STATUS_KEYS = Map.of(
+            "pattern_double_bottom_status", PatternType.DOUBLE_BOTTOM,
+            "pattern_triple_bottom_status", PatternType.TRIPLE_BOTTOM,
+            "pattern_cup_and_handle_status", PatternType.CUP_AND_HANDLE,
+            "pattern_half_cup_status", PatternType.HALF_CUP,
+            "pattern_long_term_down_trend_status", PatternType.LONG_TERM_DOWN_TREND);
+
+    private static final Map<String, PatternType> SCORE_KEYS = Map.of(
+            "db_neckline_price", PatternType.DOUBLE_BOTTOM,
+            "ch_neckline_price", PatternType.CUP_AND_HANDLE,
+            "hc_l_score", PatternType.HALF_CUP,
+            "ltd_score", PatternType.LONG_TERM_DOWN_TREND);
+
+    public static void main(String[] args) throws Exception {
+        Path cacheDir = Paths.get(args.length > 0 ? args[0] : "python/cache");
+        Path dataDir = Paths.get(args.length > 1 ? args[1] : "python/data/stock_data");
+
+        ObjectMapper om = new ObjectMapper();
+        OhlcvParquetReader reader = new OhlcvParquetReader();
+        IndicatorEngine engine = new IndicatorEngine();
+        IndicatorBuffers buffers = new IndicatorBuffers();
+        PatternDetector detector = new PatternDetector();
+
+        List<Path> files;
+        try (Stream<Path> s = Files.list(cacheDir)) {
+            files = s.filter(p -> p.getFileName().toString().contains("_pattern_")).sorted().toList();
+        }
+
+        int checked = 0;
+        int mismatched = 0;
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long cutoff = LocalDate.parse(name.substring(0, 8), DateTimeFormatter.BASIC_ISO_DATE).toEpochDay();
+
+            for (JsonNode r : om.readTree(file.toFile()).path("results")) {
+                String code = r.path("ticker").asText();
+                Path parquet = dataDir.resolve(code + ".parquet");
+                if (!Files.exists(parquet)) continue;
+
+                OhlcvSeries full = reader.read(parquet);
+                int n = 0;
+                while (n < full.length() && full.dates()[n] <= cutoff) n++;
+                OhlcvSeries s = new OhlcvSeries(code, n, full.dates(), full.open(), full.high(),
+                        full.low(), full.close(), full.volume());
+
+                engine.compute(s.close(), n, buffers);
+                PatternReport report = detector.detect(PatternFrame.of(s, buffers, PatternDetector.LOOKBACK));
+
+                JsonNode tc = r.path("technical_conditions");
+                for (Map.Entry<String, JsonNode> e : tc.properties()) {
+                    String key = e.getKey();
+                    String expected;
+                    String actual;
+                    if (STATUS_KEYS.containsKey(key)) {
+                        expected = e.getValue().asText();
+                        actual = report.get(STATUS_KEYS.get(key)).status().label();
+                    } else if (SCORE_KEYS.containsKey(key)) {
+                        double exp = e.getValue().asDouble();
+                        double act = report.get(SCORE_KEYS.get(key)).score();
+                        expected = String.valueOf(exp);
+                        actual = String.valueOf(act);
+                    } else {
+                        continue;
+                    }
+                    checked++;
+                    if (!expected.equals(actual)) {
+                        mismatched++;
+                        System.out.printf("❌ %s %s %s: python=%s java=%s%n", name, code, key, expected, actual);
+                    }
+                }
+            }
+        }
+        System.out.println("====================================================");
+        System.out.printf("비교 %d건 / 불일치 %d건%n", checked, mismatched);
+        System.out.println("====================================================");
+    }
+}
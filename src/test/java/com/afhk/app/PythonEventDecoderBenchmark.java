@@ -0,0 +1,144 @@
+package com.afhk.app;
+
+import com.afhk.app.python.PythonEventDecoder;
+import com.afhk.app.python.PythonOutputListener;
+import com.afhk.app.python.PythonOutputParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Python 출력 파싱 비용 비교 벤치마크 (줄당 ns)
+ * - 기존 : 정규식 4개 (GProd) / 정규식 + 줄마다 ObjectMapper Map 변환 (Athena)
+ * - 신규 : PythonEventDecoder (스트리밍 JsonParser 1회 스캔)
+ *
+ * 실행 예)
+ *   java -cp ... com.afhk.app.PythonEventDecoderBenchmark  [athena 실행 로그 파일]
+ *
+ * - 로그 파일이 없으면 Athena 실행 로그 형태의 10,000줄을 생성해서 측정
+ */
+public class PythonEventDecoderBenchmark {
+
+    private static final int LINES = 10_000;
+    private static final int ROUNDS = 50;
+
+    private static final Pattern GPROD_PROGRESS = Pattern.compile("\\[PROGRESS]\\s*(\\d+(?:\\.\\d+)?)");
+    private static final Pattern GPROD_KRX_TOTAL = Pattern.compile("\\[KRX_TOTAL]\\s*(\\d+)");
+    private static final Pattern GPROD_KRX_SAVED = Pattern.compile("\\[KRX_SAVED]\\s*(\\d+)");
+    private static final Pattern GPROD_DATA_COUNT = Pattern.compile("\\((\\d+)/(\\d+)\\)");
+    private static final Pattern ATHENA_PROGRESS = Pattern.compile("\"progress_percent\"\\s*:\\s*(\\d+(?:\\.\\d+)?)");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** 기존 GProd 경로 : 줄마다 정규식 4개 */
+    private static final PythonOutputParser LEGACY_GPROD = (line, l) -> {
+        Matcher m1 = GPROD_PROGRESS.matcher(line);
+        Matcher m2 = GPROD_KRX_TOTAL.matcher(line);
+        Matcher m3 = GPROD_KRX_SAVED.matcher(line);
+        Matcher m4 = GPROD_DATA_COUNT.matcher(line);
+        if (m1.find()) l.onProgress(Double.parseDouble(m1.group(1)));
+        if (m2.find()) l.onCounter("krxTotal", Long.parseLong(m2.group(1)));
+        if (m3.find()) l.onCounter("krxSaved", Long.parseLong(m3.group(1)));
+        if (m4.find()) {
+            l.onCounter("dataSaved", Long.parseLong(m4.group(1)));
+            l.onCounter("dataTotal", Long.parseLong(m4.group(2)));
+        }
+    };
+
+    /** 기존 Athena 경로 : JSON 줄마다 Map 변환 후 mode 확인, 실패 시 정규식 */
+    @SuppressWarnings("unchecked")
+    private static final PythonOutputParser LEGACY_ATHENA = (line, l) -> {
+        String trimmed = line.trim();
+        if (trimmed.startsWith("{") && trimmed.endsWith("}")) {
+            try {
+                Map<String, Object> m = MAPPER.readValue(trimmed, Map.class);
+                if ("progress".equals(m.get("mode")) && m.get("progress_percent") instanceof Number n) {
+                    l.onProgress(n.doubleValue());
+                } else {
+                    l.onResult(trimmed);
+                }
+                return;
+            } catch (Exception ignore) {
+            }
+        }
+        Matcher m = ATHENA_PROGRESS.matcher(line);
+        if (m.find()) l.onProgress(Double.parseDouble(m.group(1)));
+    };
+
+    public static void main(String[] args) throws Exception {
+        List<String> lines = args.length > 0
+                ? Files.readAllLines(Paths.get(args[0]), StandardCharsets.UTF_8)
+                : synthesize();
+
+        Counting legacyA = new Counting(), decoded = new Counting();
+        // 1. 결과 일치 확인 (Athena 이벤트 기준)
+        for (String line : lines) {
+            LEGACY_ATHENA.parse(line, legacyA);
+            PythonEventDecoder.INSTANCE.parse(line, decoded);
+        }
+        System.out.println("====================================================");
+        System.out.printf("입력 %d줄 / 기존 progress %d result %d / 신규 progress %d result %d%n",
+                lines.size(), legacyA.progress, legacyA.results, decoded.progress, decoded.results);
+
+        // 2. 측정 (라운드마다 워밍업 포함, 마지막 절반 평균)
+        measure("기존 GProd (정규식 4개)", LEGACY_GPROD, lines);
+        measure("기존 Athena (ObjectMapper Map)", LEGACY_ATHENA, lines);
+        measure("PythonEventDecoder", PythonEventDecoder.INSTANCE, lines);
+        System.out.println("====================================================");
+    }
+
+    private static void measure(String name, PythonOutputParser parser, List<String> lines) {
+        Counting sink = new Counting();
+        long best = Long.MAX_VALUE, sum = 0;
+        for (int r = 0; r < ROUNDS; r++) {
+            long t0 = System.nanoTime();
+            for (String line : lines) parser.parse(line, sink);
+            long dt = System.nanoTime() - t0;
+            if (r >= ROUNDS / 2) {
+                sum += dt;
+                best = Math.min(best, dt);
+            }
+        }
+        double avg = (double) sum / (ROUNDS - ROUNDS / 2) / lines.size();
+        System.out.printf("%-32s 평균 %7.1f ns/줄, 최소 %7.1f ns/줄 (이벤트 %d)%n",
+                name, avg, (double) best / lines.size(), sink.progress + sink.results + sink.counters);
+    }
+
+    /** athena_k_market_ai_prod.py 실행 로그 형태 (로그 : progress JSON ≒ 3 : 1, 마지막 결과 JSON) */
+    private static List<String> synthesize() {
+        List<String> out = new ArrayList<>(LINES);
+        int items = LINES / 4;
+        for (int i = 1; out.size() < LINES - 1; i++) {
+            String code = String.format("%06d", 100000 + i);
+            out.add("2026-10-16 09:12:03,481 - INFO - [" + code + "] 데이터 로드 완료 (rows=1250)");
+            out.add("2026-10-16 09:12:03,502 - INFO - [" + code + "] 패턴 분석 시작 : SMA200 / RSI14 / MACD");
+            out.add("2026-10-16 09:12:03,519 - INFO - [" + code + "] signal=HOLD score=0." + (i % 97));
+            double pct = Math.round(i * 10000.0 / items) / 100.0;
+            out.add("{\"mode\": \"progress\", \"progress_percent\": " + pct + "}");
+        }
+        while (out.size() > LINES - 1) out.remove(out.size() - 1);
+        out.add("{\"mode\": \"analyze\", \"count\": " + items + ", \"results\": [{\"code\": \"005930\", "
+                + "\"signal\": \"BUY\", \"score\": 0.82}, {\"code\": \"000660\", \"signal\": \"HOLD\", \"score\": 0.41}]}");
+        return out;
+    }
+
+    private static final class Counting implements PythonOutputListener {
+        long progress, counters, results;
+
+        @Override
+        public void onProgress(double percent) { progress++; }
+
+        @Override
+        public void onCounter(String name, long value) { counters++; }
+
+        @Override
+        public void onResult(String json) { results++; }
+    }
+}